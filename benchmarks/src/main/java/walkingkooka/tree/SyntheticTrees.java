@@ -0,0 +1,175 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.naming.Names;
+import walkingkooka.naming.StringName;
+import walkingkooka.tree.expression.Expression;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+import walkingkooka.tree.expression.ExpressionReference;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterName;
+
+import java.util.List;
+
+/**
+ * Factory methods that build synthetic trees of a given width and depth for benchmarks.
+ */
+public final class SyntheticTrees {
+
+    /**
+     * The attribute present on every {@link TestNode} created by {@link #testNode(int, int)}, holding the position of the
+     * node amongst its siblings.
+     */
+    public final static StringName ATTRIBUTE = Names.string("position");
+
+    /**
+     * Creates a tree of {@link TestNode}, where every parent has width children, and the tree has depth levels
+     * below the root. Node names are <code>level</code> followed by the depth, eg all children of the root are named
+     * <code>level1</code>.
+     */
+    public static TestNode testNode(final int width,
+                                    final int depth) {
+        TestNode.disableUniqueNameChecks();
+        return testNode(width, depth, 0, 0);
+    }
+
+    private static TestNode testNode(final int width,
+                                     final int depth,
+                                     final int level,
+                                     final int position) {
+        final TestNode[] children = new TestNode[level < depth ? width : 0];
+        for (int i = 0; i < children.length; i++) {
+            children[i] = testNode(width, depth, level + 1, i);
+        }
+
+        return TestNode.with(levelName(level), children)
+                .setAttributes(
+                        Maps.of(ATTRIBUTE, position)
+                );
+    }
+
+    /**
+     * The name of all {@link TestNode} at the given level.
+     */
+    public static String levelName(final int level) {
+        return "level" + level;
+    }
+
+    /**
+     * Creates a balanced {@link Expression} where each level alternates between add and multiply, and leaves alternate
+     * between a number and a {@link ExpressionReference} created by {@link #reference(int)}.
+     */
+    public static Expression expression(final int width,
+                                        final int depth,
+                                        final ExpressionNumberKind kind) {
+        return expression(width, depth, 0, 0, kind);
+    }
+
+    private static Expression expression(final int width,
+                                         final int depth,
+                                         final int level,
+                                         final int position,
+                                         final ExpressionNumberKind kind) {
+        final Expression expression;
+
+        if (level == depth) {
+            expression = (position & 1) == 0 ?
+                    Expression.value(kind.create(position + 1)) :
+                    Expression.reference(reference(position));
+        } else {
+            Expression result = null;
+            for (int i = 0; i < width; i++) {
+                final Expression child = expression(width, depth, level + 1, i, kind);
+                result = null == result ?
+                        child :
+                        (level & 1) == 0 ?
+                                Expression.add(result, child) :
+                                Expression.multiply(result, child);
+            }
+            expression = result;
+        }
+
+        return expression;
+    }
+
+    /**
+     * Returns width leaf {@link Expression} alternating between numbers and references.
+     */
+    public static List<Expression> parameters(final int width,
+                                              final ExpressionNumberKind kind) {
+        final List<Expression> parameters = Lists.array();
+        for (int i = 0; i < width; i++) {
+            parameters.add(
+                    expression(1, 0, 0, i, kind)
+            );
+        }
+        return parameters;
+    }
+
+    /**
+     * Returns a {@link ExpressionReference} which holds the given value.
+     */
+    public static SyntheticReference reference(final int value) {
+        return new SyntheticReference(value);
+    }
+
+    /**
+     * A {@link ExpressionReference} that resolves to the number it holds.
+     */
+    public static final class SyntheticReference implements ExpressionReference {
+
+        SyntheticReference(final int value) {
+            this.value = value;
+        }
+
+        public int value() {
+            return this.value;
+        }
+
+        private final int value;
+
+        @Override
+        public boolean testParameterName(final ExpressionFunctionParameterName parameterName) {
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.value;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return this == other || other instanceof SyntheticReference && this.value == ((SyntheticReference) other).value;
+        }
+
+        @Override
+        public String toString() {
+            return "$" + this.value;
+        }
+    }
+
+    /**
+     * Stop creation
+     */
+    private SyntheticTrees() {
+        throw new UnsupportedOperationException();
+    }
+}
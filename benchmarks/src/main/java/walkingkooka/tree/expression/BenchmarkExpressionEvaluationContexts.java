@@ -0,0 +1,153 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.convert.ConverterContexts;
+import walkingkooka.convert.Converters;
+import walkingkooka.datetime.DateTimeContexts;
+import walkingkooka.math.DecimalNumberContexts;
+import walkingkooka.text.CaseSensitivity;
+import walkingkooka.tree.SyntheticTrees;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterCardinality;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterKind;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterName;
+import walkingkooka.tree.expression.function.UnknownExpressionFunctionException;
+
+import java.math.MathContext;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Shared {@link ExpressionEvaluationContext} and functions used by the expression benchmarks.
+ */
+public final class BenchmarkExpressionEvaluationContexts {
+
+    /**
+     * The name of the only function, which sums all its parameters.
+     */
+    public final static FunctionExpressionName SUM = FunctionExpressionName.with("sum");
+
+    /**
+     * Functions that may be given to {@link Expression#compile(Function)}.
+     */
+    public static Function<FunctionExpressionName, Optional<ExpressionFunction<?, ExpressionEvaluationContext>>> functions(final ExpressionNumberKind kind) {
+        final ExpressionFunction<?, ExpressionEvaluationContext> sum = sum(kind);
+        return (n) -> Optional.ofNullable(
+                SUM.equals(n) ?
+                        sum :
+                        null
+        );
+    }
+
+    /**
+     * Creates a {@link ExpressionEvaluationContext} that knows {@link #SUM} and resolves {@link SyntheticTrees.SyntheticReference}.
+     */
+    public static ExpressionEvaluationContext context(final ExpressionNumberKind kind) {
+        final Function<FunctionExpressionName, Optional<ExpressionFunction<?, ExpressionEvaluationContext>>> functions = functions(kind);
+
+        return ExpressionEvaluationContexts.basic(
+                kind,
+                (n) -> functions.apply(n)
+                        .orElseThrow(() -> new UnknownExpressionFunctionException(n)),
+                (e) -> {
+                    throw e;
+                },
+                (r) -> Optional.of(
+                        Optional.of(
+                                kind.create(((SyntheticTrees.SyntheticReference) r).value())
+                        )
+                ),
+                ExpressionEvaluationContexts.referenceNotFound(),
+                CaseSensitivity.INSENSITIVE,
+                ConverterContexts.basic(
+                        Converters.simple(),
+                        DateTimeContexts.fake(),
+                        DecimalNumberContexts.american(MathContext.DECIMAL64)
+                )
+        );
+    }
+
+    /**
+     * Creates a function which sums all its parameters, after they have been evaluated and references resolved.
+     */
+    public static ExpressionFunction<ExpressionNumber, ExpressionEvaluationContext> sum(final ExpressionNumberKind kind) {
+        return new Sum(kind);
+    }
+
+    private static final class Sum implements ExpressionFunction<ExpressionNumber, ExpressionEvaluationContext> {
+
+        private final static List<ExpressionFunctionParameter<?>> PARAMETERS = Lists.of(
+                ExpressionFunctionParameterName.with("numbers")
+                        .required(ExpressionNumber.class)
+                        .setCardinality(ExpressionFunctionParameterCardinality.VARIABLE)
+                        .setKinds(ExpressionFunctionParameterKind.CONVERT_EVALUATE_RESOLVE_REFERENCES)
+        );
+
+        Sum(final ExpressionNumberKind kind) {
+            this.kind = kind;
+        }
+
+        @Override
+        public ExpressionNumber apply(final List<Object> parameters,
+                                      final ExpressionEvaluationContext context) {
+            ExpressionNumber sum = this.kind.zero();
+            for (final Object parameter : parameters) {
+                sum = sum.add((ExpressionNumber) parameter, context);
+            }
+            return sum;
+        }
+
+        private final ExpressionNumberKind kind;
+
+        @Override
+        public Optional<FunctionExpressionName> name() {
+            return Optional.of(SUM);
+        }
+
+        @Override
+        public List<ExpressionFunctionParameter<?>> parameters(final int count) {
+            return PARAMETERS;
+        }
+
+        @Override
+        public Class<ExpressionNumber> returnType() {
+            return ExpressionNumber.class;
+        }
+
+        @Override
+        public boolean isPure(final ExpressionPurityContext context) {
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return SUM.toString();
+        }
+    }
+
+    /**
+     * Stop creation
+     */
+    private BenchmarkExpressionEvaluationContexts() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.tree.expression;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.tree.SyntheticTrees;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares evaluating formulas with heavy duplication, interpreted, compiled with {@link Expression#compile(java.util.function.Function)}
+ * and compiled sharing common sub-expressions with {@link Expression#compile(java.util.function.Function, ExpressionPurityContext)}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CommonSubexpressionBenchmark {
+
+    private final static ExpressionNumberKind KIND = ExpressionNumberKind.DOUBLE;
+
+    /**
+     * The number of times the same sub-expression appears.
+     */
+    @Param({"2", "8", "32"})
+    public int duplicates;
+
+    private ExpressionEvaluationContext context;
+
+    private Expression expression;
+
+    private CompiledExpression compiled;
+
+    private CompiledExpression compiledCommonSubexpressions;
+
+    @Setup
+    public void setup() {
+        this.context = BenchmarkExpressionEvaluationContexts.context(KIND);
+
+        // sum($1, $2) * $3 + sum($1, $2) * $3 ...
+        Expression expression = null;
+        for (int i = 0; i < this.duplicates; i++) {
+            final Expression duplicate = Expression.multiply(
+                    Expression.call(
+                            Expression.namedFunction(BenchmarkExpressionEvaluationContexts.SUM),
+                            Lists.of(
+                                    Expression.reference(SyntheticTrees.reference(1)),
+                                    Expression.reference(SyntheticTrees.reference(2))
+                            )
+                    ),
+                    Expression.reference(SyntheticTrees.reference(3))
+            );
+
+            expression = null == expression ?
+                    duplicate :
+                    Expression.add(
+                            expression,
+                            duplicate
+                    );
+        }
+
+        this.expression = expression;
+        this.compiled = expression.compile(BenchmarkExpressionEvaluationContexts.functions(KIND));
+        this.compiledCommonSubexpressions = expression.compile(
+                BenchmarkExpressionEvaluationContexts.functions(KIND),
+                this.context
+        );
+    }
+
+    @Benchmark
+    public ExpressionNumber interpreted() {
+        return this.expression.toExpressionNumber(this.context);
+    }
+
+    @Benchmark
+    public ExpressionNumber compiled() {
+        return this.compiled.toExpressionNumber(this.context);
+    }
+
+    @Benchmark
+    public ExpressionNumber compiledCommonSubexpressions() {
+        return this.compiledCommonSubexpressions.toExpressionNumber(this.context);
+    }
+}
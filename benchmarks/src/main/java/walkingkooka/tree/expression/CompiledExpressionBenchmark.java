@@ -0,0 +1,121 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.tree.SyntheticTrees;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares evaluating an {@link Expression} against evaluating the {@link CompiledExpression} returned by
+ * {@link Expression#compile(java.util.function.Function)}, for representative {@link AddExpression},
+ * {@link CallExpression} and {@link LambdaFunctionExpression} trees.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompiledExpressionBenchmark {
+
+    private final static ExpressionNumberKind KIND = ExpressionNumberKind.DOUBLE;
+
+    /**
+     * The number of terms in each benchmarked expression.
+     */
+    @Param({"4", "16", "64"})
+    public int terms;
+
+    private ExpressionEvaluationContext context;
+
+    private Expression add;
+    private CompiledExpression addCompiled;
+
+    private Expression call;
+    private CompiledExpression callCompiled;
+
+    private Expression lambda;
+    private CompiledExpression lambdaCompiled;
+
+    @Setup
+    public void setup() {
+        this.context = BenchmarkExpressionEvaluationContexts.context(KIND);
+
+        // 1 + $1 + 3 + $3 ...
+        final Expression add = SyntheticTrees.expression(this.terms, 1, KIND);
+        this.add = add;
+        this.addCompiled = add.compile((n) -> Optional.empty());
+
+        // sum(1, $1, 3, $3 ...)
+        this.call = Expression.call(
+                Expression.namedFunction(BenchmarkExpressionEvaluationContexts.SUM),
+                SyntheticTrees.parameters(this.terms, KIND)
+        );
+        this.callCompiled = this.call.compile(BenchmarkExpressionEvaluationContexts.functions(KIND));
+
+        this.lambda = Expression.lambdaFunction(
+                Lists.empty(),
+                add
+        );
+        this.lambdaCompiled = this.lambda.compile((n) -> Optional.empty());
+    }
+
+    @Benchmark
+    public ExpressionNumber addInterpreted() {
+        return this.add.toExpressionNumber(this.context);
+    }
+
+    @Benchmark
+    public ExpressionNumber addCompiled() {
+        return this.addCompiled.toExpressionNumber(this.context);
+    }
+
+    @Benchmark
+    public Object callInterpreted() {
+        return this.call.toValue(this.context);
+    }
+
+    @Benchmark
+    public Object callCompiled() {
+        return this.callCompiled.toValue(this.context);
+    }
+
+    @Benchmark
+    public ExpressionNumber lambdaInterpreted() {
+        return this.lambda.toExpressionNumber(this.context);
+    }
+
+    @Benchmark
+    public ExpressionNumber lambdaCompiled() {
+        return this.lambdaCompiled.toExpressionNumber(this.context);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import walkingkooka.Cast;
+import walkingkooka.tree.SyntheticTrees;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Baseline benchmarks for interpreted {@link Expression} evaluation, covering
+ * <ul>
+ * <li>{@link BinaryArithmeticExpression} evaluation over a balanced tree of add and multiply</li>
+ * <li>{@link Expression#toDouble(ExpressionEvaluationContext)} of the same tree, which avoids allocating for {@link ExpressionNumberKind#DOUBLE}</li>
+ * <li>{@link ExpressionEvaluationContext#prepareParameters(ExpressionFunction, List)} for a function with many parameters</li>
+ * <li>a complete {@link CallExpression}</li>
+ * </ul>
+ * Run with <code>-prof gc</code> to report allocation rates, the {@link Mode#SampleTime} results include p0.99.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ExpressionEvaluationBenchmark {
+
+    @Param({"DOUBLE", "BIG_DECIMAL"})
+    public ExpressionNumberKind kind;
+
+    @Param({"2", "8"})
+    public int width;
+
+    @Param({"2", "4"})
+    public int depth;
+
+    private ExpressionEvaluationContext context;
+
+    private Expression arithmetic;
+
+    private ExpressionFunction<ExpressionNumber, ExpressionEvaluationContext> function;
+
+    private List<Object> parameters;
+
+    private Expression call;
+
+    @Setup
+    public void setup() {
+        final ExpressionNumberKind kind = this.kind;
+
+        this.context = BenchmarkExpressionEvaluationContexts.context(kind);
+        this.arithmetic = SyntheticTrees.expression(this.width, this.depth, kind);
+        this.function = BenchmarkExpressionEvaluationContexts.sum(kind);
+
+        final List<Expression> parameters = SyntheticTrees.parameters(this.width, kind);
+        this.parameters = Cast.to(parameters);
+        this.call = Expression.call(
+                Expression.namedFunction(BenchmarkExpressionEvaluationContexts.SUM),
+                parameters
+        );
+    }
+
+    @Benchmark
+    public ExpressionNumber arithmetic() {
+        return this.arithmetic.toExpressionNumber(this.context);
+    }
+
+    @Benchmark
+    public double arithmeticToDouble() {
+        return this.arithmetic.toDouble(this.context);
+    }
+
+    @Benchmark
+    public ExpressionNumber prepareParameters() {
+        final ExpressionEvaluationContext context = this.context;
+        return this.function.apply(
+                context.prepareParameters(this.function, this.parameters),
+                context
+        );
+    }
+
+    @Benchmark
+    public Object call() {
+        return this.call.toValue(this.context);
+    }
+}
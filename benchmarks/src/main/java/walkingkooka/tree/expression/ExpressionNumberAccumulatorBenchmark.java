@@ -0,0 +1,114 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares summing many {@link ExpressionNumber} one {@link ExpressionNumber#add(ExpressionNumber, ExpressionNumberContext)}
+ * at a time against a {@link ExpressionNumberAccumulator} and the {@link ExpressionNumberKind} bulk methods. Run with
+ * {@code -prof gc} to compare allocations per op.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ExpressionNumberAccumulatorBenchmark {
+
+    /**
+     * The number of values summed.
+     */
+    @Param({"1000", "100000"})
+    public int count;
+
+    @Param({"DOUBLE", "BIG_DECIMAL"})
+    public ExpressionNumberKind kind;
+
+    private ExpressionEvaluationContext context;
+
+    private ExpressionNumber[] values;
+
+    private List<ExpressionNumber> list;
+
+    private ExpressionNumberAccumulator accumulator;
+
+    @Setup
+    public void setup() {
+        this.context = BenchmarkExpressionEvaluationContexts.context(this.kind);
+
+        final int count = this.count;
+        final ExpressionNumber[] values = new ExpressionNumber[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = this.kind.create(i * 0.25);
+        }
+        this.values = values;
+        this.list = Arrays.asList(values);
+        this.accumulator = ExpressionNumberAccumulator.sum(this.kind, this.context);
+    }
+
+    @Benchmark
+    public ExpressionNumber add() {
+        final ExpressionEvaluationContext context = this.context;
+
+        ExpressionNumber sum = this.kind.zero();
+        for (final ExpressionNumber value : this.values) {
+            sum = sum.add(value, context);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public ExpressionNumber accumulator() {
+        final ExpressionNumberAccumulator accumulator = this.accumulator.reset();
+        for (final ExpressionNumber value : this.values) {
+            accumulator.accumulate(value);
+        }
+        return accumulator.value();
+    }
+
+    @Benchmark
+    public ExpressionNumber sum() {
+        return this.kind.sum(this.list, this.context);
+    }
+
+    @Benchmark
+    public ExpressionNumber sumCompensated() {
+        return this.kind.sumCompensated(this.list, this.context);
+    }
+
+    @Benchmark
+    public ExpressionNumber average() {
+        return this.kind.average(this.list, this.context);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import walkingkooka.collect.list.Lists;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how {@link ListExpression} evaluation scales with {@link ExpressionEvaluationContexts#parallel} as the
+ * {@link #parallelism} grows from a single core. Each element is a pure call that sums {@link #width} numbers, and the
+ * helpers run on a {@link ForkJoinPool} sized to the parallelism.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParallelListBenchmark {
+
+    private final static ExpressionNumberKind KIND = ExpressionNumberKind.BIG_DECIMAL;
+
+    private final static int THRESHOLD = 16;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    /**
+     * The number of elements in the list.
+     */
+    @Param({"64", "4096"})
+    public int size;
+
+    /**
+     * The number of parameters summed by each element.
+     */
+    @Param({"16"})
+    public int width;
+
+    private ForkJoinPool pool;
+
+    private ExpressionEvaluationContext context;
+
+    private Expression expression;
+
+    private CompiledExpression compiled;
+
+    @Setup
+    public void setup() {
+        final int parallelism = this.parallelism;
+
+        this.pool = new ForkJoinPool(Math.max(1, parallelism - 1));
+        this.context = ExpressionEvaluationContexts.parallel(
+                BenchmarkExpressionEvaluationContexts.context(KIND),
+                this.pool,
+                parallelism,
+                THRESHOLD,
+                (c) -> c // the basic context is stateless
+        );
+
+        final List<Expression> elements = Lists.array();
+        for (int i = 0; i < this.size; i++) {
+            final List<Expression> parameters = Lists.array();
+            for (int j = 0; j < this.width; j++) {
+                parameters.add(
+                        Expression.value(
+                                KIND.create(i + j)
+                        )
+                );
+            }
+            elements.add(
+                    Expression.call(
+                            Expression.namedFunction(BenchmarkExpressionEvaluationContexts.SUM),
+                            parameters
+                    )
+            );
+        }
+
+        this.expression = Expression.list(elements);
+        this.compiled = this.expression.compile(BenchmarkExpressionEvaluationContexts.functions(KIND));
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.pool.shutdownNow();
+    }
+
+    @Benchmark
+    public Object interpreted() {
+        return this.expression.toValue(this.context);
+    }
+
+    @Benchmark
+    public Object compiled() {
+        return this.compiled.toValue(this.context);
+    }
+}
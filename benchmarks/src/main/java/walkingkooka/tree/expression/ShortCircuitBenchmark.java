@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import walkingkooka.tree.SyntheticTrees;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares evaluating a predicate whose left already decides the result, with and without
+ * {@link ExpressionEvaluationContexts#shortCircuit(ExpressionEvaluationContext)}. The right is an expensive call whose
+ * cost grows with {@link #width}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ShortCircuitBenchmark {
+
+    private final static ExpressionNumberKind KIND = ExpressionNumberKind.DOUBLE;
+
+    /**
+     * The number of parameters given to the sum function on the right.
+     */
+    @Param({"2", "8", "32"})
+    public int width;
+
+    private ExpressionEvaluationContext context;
+
+    private ExpressionEvaluationContext shortCircuit;
+
+    private Expression expression;
+
+    private CompiledExpression compiled;
+
+    @Setup
+    public void setup() {
+        this.context = BenchmarkExpressionEvaluationContexts.context(KIND);
+        this.shortCircuit = ExpressionEvaluationContexts.shortCircuit(this.context);
+
+        // $1 > $2 & sum(...) > $3
+        this.expression = Expression.and(
+                Expression.greaterThan(
+                        Expression.reference(SyntheticTrees.reference(1)),
+                        Expression.reference(SyntheticTrees.reference(2))
+                ),
+                Expression.greaterThan(
+                        Expression.call(
+                                Expression.namedFunction(BenchmarkExpressionEvaluationContexts.SUM),
+                                SyntheticTrees.parameters(this.width, KIND)
+                        ),
+                        Expression.reference(SyntheticTrees.reference(3))
+                )
+        );
+        this.compiled = this.expression.compile(BenchmarkExpressionEvaluationContexts.functions(KIND));
+    }
+
+    @Benchmark
+    public boolean interpreted() {
+        return this.expression.toBoolean(this.context);
+    }
+
+    @Benchmark
+    public boolean interpretedShortCircuit() {
+        return this.expression.toBoolean(this.shortCircuit);
+    }
+
+    @Benchmark
+    public boolean compiled() {
+        return this.compiled.toBoolean(this.context);
+    }
+
+    @Benchmark
+    public boolean compiledShortCircuit() {
+        return this.compiled.toBoolean(this.shortCircuit);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.pointer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import walkingkooka.naming.Names;
+import walkingkooka.naming.StringName;
+import walkingkooka.tree.SyntheticTrees;
+import walkingkooka.tree.TestNode;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link NodePointer#traverse(walkingkooka.tree.Node)} to the last leaf of a synthetic {@link TestNode} tree,
+ * using both indexed and named pointers.
+ * Run with <code>-prof gc</code> to report allocation rates, the {@link Mode#SampleTime} results include p0.99.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NodePointerBenchmark {
+
+    @Param({"4", "32"})
+    public int width;
+
+    @Param({"3", "6"})
+    public int depth;
+
+    private TestNode root;
+
+    private NodePointer<TestNode, StringName> indexed;
+
+    private NodePointer<TestNode, StringName> named;
+
+    @Setup
+    public void setup() {
+        this.root = SyntheticTrees.testNode(this.width, this.depth);
+
+        NodePointer<TestNode, StringName> indexed = NodePointer.any(TestNode.class);
+        NodePointer<TestNode, StringName> named = NodePointer.any(TestNode.class);
+
+        for (int i = 1; i <= this.depth; i++) {
+            indexed = indexed.indexed(this.width - 1);
+            named = named.named(Names.string(SyntheticTrees.levelName(i)));
+        }
+
+        this.indexed = indexed;
+        this.named = named;
+    }
+
+    @Benchmark
+    public Optional<TestNode> traverseIndexed() {
+        return this.indexed.traverse(this.root);
+    }
+
+    @Benchmark
+    public Optional<TestNode> traverseNamed() {
+        return this.named.traverse(this.root);
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.select;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import walkingkooka.naming.Names;
+import walkingkooka.naming.StringName;
+import walkingkooka.predicate.Predicates;
+import walkingkooka.tree.SyntheticTrees;
+import walkingkooka.tree.TestNode;
+import walkingkooka.tree.expression.ExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionEvaluationContexts;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks {@link NodeSelector#apply(walkingkooka.tree.Node, NodeSelectorContext)} and
+ * {@link NodeSelector#stream(walkingkooka.tree.Node, Function, Class)} over a synthetic {@link TestNode} tree.
+ * Run with <code>-prof gc</code> to report allocation rates, the {@link Mode#SampleTime} results include p0.99.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NodeSelectorBenchmark {
+
+    @Param({"4", "32"})
+    public int width;
+
+    @Param({"3"})
+    public int depth;
+
+    private TestNode root;
+
+    /**
+     * <code>//levelN</code> where N is the deepest level.
+     */
+    private NodeSelector<TestNode, StringName, StringName, Object> descendantNamed;
+
+    /**
+     * <code>/level1/level2/...</code> to the deepest level.
+     */
+    private NodeSelector<TestNode, StringName, StringName, Object> childrenNamed;
+
+    /**
+     * <code>//*[@position="1"]</code>
+     */
+    private NodeSelector<TestNode, StringName, StringName, Object> descendantAttribute;
+
+    private Function<NodeSelectorContext<TestNode, StringName, StringName, Object>, ExpressionEvaluationContext> expressionEvaluationContext;
+
+    @Setup
+    public void setup() {
+        this.root = SyntheticTrees.testNode(this.width, this.depth);
+
+        final NodeSelector<TestNode, StringName, StringName, Object> absolute = TestNode.absoluteNodeSelector();
+        final StringName deepest = Names.string(SyntheticTrees.levelName(this.depth));
+
+        this.descendantNamed = absolute.descendant()
+                .named(deepest);
+
+        NodeSelector<TestNode, StringName, StringName, Object> childrenNamed = absolute;
+        for (int i = 1; i <= this.depth; i++) {
+            childrenNamed = childrenNamed.children()
+                    .named(Names.string(SyntheticTrees.levelName(i)));
+        }
+        this.childrenNamed = childrenNamed;
+
+        this.descendantAttribute = absolute.descendant()
+                .attributeValueEquals(SyntheticTrees.ATTRIBUTE, 1);
+
+        this.expressionEvaluationContext = (c) -> ExpressionEvaluationContexts.fake();
+    }
+
+    @Benchmark
+    public TestNode applyDescendantNamed(final Blackhole blackhole) {
+        return this.apply(this.descendantNamed, blackhole);
+    }
+
+    @Benchmark
+    public TestNode applyChildrenNamed(final Blackhole blackhole) {
+        return this.apply(this.childrenNamed, blackhole);
+    }
+
+    @Benchmark
+    public TestNode applyDescendantAttribute(final Blackhole blackhole) {
+        return this.apply(this.descendantAttribute, blackhole);
+    }
+
+    private TestNode apply(final NodeSelector<TestNode, StringName, StringName, Object> selector,
+                           final Blackhole blackhole) {
+        return selector.apply(
+                this.root,
+                NodeSelectorContexts.basic(
+                        () -> false,
+                        Predicates.always(),
+                        (n) -> {
+                            blackhole.consume(n);
+                            return n;
+                        },
+                        this.expressionEvaluationContext,
+                        TestNode.class
+                )
+        );
+    }
+
+    @Benchmark
+    public long streamDescendantNamedCount() {
+        return this.stream(this.descendantNamed)
+                .count();
+    }
+
+    @Benchmark
+    public Object streamDescendantNamedFindFirst() {
+        return this.stream(this.descendantNamed)
+                .findFirst();
+    }
+
+    @Benchmark
+    public long streamDescendantAttributeCount() {
+        return this.stream(this.descendantAttribute)
+                .count();
+    }
+
+    private Stream<TestNode> stream(final NodeSelector<TestNode, StringName, StringName, Object> selector) {
+        return selector.stream(
+                this.root,
+                this.expressionEvaluationContext,
+                TestNode.class
+        );
+    }
+}
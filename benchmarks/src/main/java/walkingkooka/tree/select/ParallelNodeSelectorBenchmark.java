@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.select;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import walkingkooka.naming.StringName;
+import walkingkooka.tree.SyntheticTrees;
+import walkingkooka.tree.TestNode;
+import walkingkooka.tree.expression.ExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionEvaluationContexts;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Measures how {@link NodeSelector#parallelFind(walkingkooka.tree.Node, Function, Class, java.util.concurrent.Executor, int, int)}
+ * scales as the {@link #parallelism} grows from a single core, selecting <code>//*[@position="1"]</code> over a
+ * synthetic {@link TestNode} tree. The helpers run on a {@link ForkJoinPool} sized to the parallelism.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParallelNodeSelectorBenchmark {
+
+    private final static int THRESHOLD = 16;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    @Param({"32"})
+    public int width;
+
+    @Param({"4"})
+    public int depth;
+
+    private ForkJoinPool pool;
+
+    private TestNode root;
+
+    private NodeSelector<TestNode, StringName, StringName, Object> selector;
+
+    private Function<NodeSelectorContext<TestNode, StringName, StringName, Object>, ExpressionEvaluationContext> expressionEvaluationContext;
+
+    @Setup
+    public void setup() {
+        this.pool = new ForkJoinPool(Math.max(1, this.parallelism - 1));
+        this.root = SyntheticTrees.testNode(this.width, this.depth);
+        this.selector = TestNode.absoluteNodeSelector()
+                .descendant()
+                .attributeValueEquals(SyntheticTrees.ATTRIBUTE, 1);
+        this.expressionEvaluationContext = (c) -> ExpressionEvaluationContexts.fake();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.pool.shutdownNow();
+    }
+
+    @Benchmark
+    public List<TestNode> parallelFind() {
+        return this.selector.parallelFind(
+                this.root,
+                this.expressionEvaluationContext,
+                TestNode.class,
+                this.pool,
+                this.parallelism,
+                THRESHOLD
+        );
+    }
+}
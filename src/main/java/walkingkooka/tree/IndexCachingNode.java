@@ -0,0 +1,97 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree;
+
+import walkingkooka.naming.Name;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A base class for {@link Node} implementations that do not record their own index, which instead caches the index
+ * the first time it is required. When the index is computed every sibling that is also a {@link IndexCachingNode}
+ * has its index cached at the same time, so walking all the children of a parent using {@link #nextSibling()} or
+ * {@link #previousSibling()} is linear rather than quadratic in the number of children.
+ * <br>
+ * Sub classes must be immutable, in particular the parent of a node must never change after it is created.
+ */
+public abstract class IndexCachingNode<N extends IndexCachingNode<N, NAME, ANAME, AVALUE>,
+        NAME extends Name,
+        ANAME extends Name,
+        AVALUE> implements Node<N, NAME, ANAME, AVALUE> {
+
+    /**
+     * Marker indicating the index has not yet been computed.
+     */
+    private final static int UNKNOWN_INDEX = NO_INDEX - 1;
+
+    /**
+     * Protected ctor for sub classes.
+     */
+    protected IndexCachingNode() {
+        super();
+    }
+
+    /**
+     * Returns the cached index, computing it if necessary.
+     */
+    @Override
+    public final int index() {
+        int index = this.index;
+        if (UNKNOWN_INDEX == index) {
+            index = this.computeIndex();
+        }
+        return index;
+    }
+
+    private int computeIndex() {
+        int index = NO_INDEX;
+
+        final Optional<N> parent = this.parent();
+        if (parent.isPresent()) {
+            final List<N> children = parent.get().children();
+
+            int i = 0;
+            for (final N child : children) {
+                final IndexCachingNode<?, ?, ?, ?> sibling = child;
+                if (UNKNOWN_INDEX == sibling.index) {
+                    sibling.index = i;
+                }
+                if (this == sibling) {
+                    index = i;
+                }
+                i++;
+            }
+
+            if (NO_INDEX == index) {
+                index = children.indexOf(this);
+                if (NO_INDEX == index) {
+                    throw new NodeException("Child not present in children of parent=" + this);
+                }
+            }
+        }
+
+        this.index = index;
+        return index;
+    }
+
+    /**
+     * The cached index, which is initially {@link #UNKNOWN_INDEX}.
+     */
+    private int index = UNKNOWN_INDEX;
+}
@@ -35,15 +35,32 @@ public interface Traversable<T extends Traversable<T>> {
 
     /**
      * If not the root returns the index of this {@link Traversable}, or {@link #NO_INDEX} for root.
+     * Children are first scanned by identity, which is cheaper than a structural {@link Object#equals(Object)} and
+     * also correct when siblings are equal, falling back to {@link List#indexOf(Object)}.
+     * <br>
+     * Implementations that do not record their index should consider extending {@link IndexCachingNode}.
      */
     default int index() {
         int index = NO_INDEX;
 
         final Optional<T> parent = this.parent();
         if (parent.isPresent()) {
-            index = parent.get().children().indexOf(this);
+            final List<T> children = parent.get().children();
+
+            int i = 0;
+            for (final T child : children) {
+                if (this == child) {
+                    index = i;
+                    break;
+                }
+                i++;
+            }
+
             if (NO_INDEX == index) {
-                throw new NodeException("Child not present in children of parent=" + this);
+                index = children.indexOf(this);
+                if (NO_INDEX == index) {
+                    throw new NodeException("Child not present in children of parent=" + this);
+                }
             }
         }
 
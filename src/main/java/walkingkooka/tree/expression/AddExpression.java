@@ -89,6 +89,12 @@ public final class AddExpression extends BinaryArithmeticExpression {
         return left.add(right, context);
     }
 
+    @Override
+    double applyDouble(final double left,
+                       final double right) {
+        return left + right;
+    }
+
     // Object .........................................................................................................
 
     @Override
@@ -26,6 +26,7 @@ abstract class BinaryArithmeticExpression extends BinaryExpression {
                                final Expression left,
                                final Expression right) {
         super(index, left, right);
+        this.expressionNumberLeft = left.isExpressionNumberResult();
     }
 
     // evaluation .....................................................................................................
@@ -35,14 +36,68 @@ abstract class BinaryArithmeticExpression extends BinaryExpression {
         return this.toExpressionNumber(context);
     }
 
+    /**
+     * When the {@link ExpressionNumberKind} is {@link ExpressionNumberKind#DOUBLE} and the left can never be text,
+     * both sides are evaluated as doubles and given to {@link #applyDouble(double, double)} without creating any
+     * intermediate {@link ExpressionNumber}.
+     */
+    @Override
+    public final double toDouble(final ExpressionEvaluationContext context) {
+        return this.isDouble(context) ?
+                this.applyDouble(
+                        this.left().toDouble(context),
+                        this.right().toDouble(context)
+                ) :
+                super.toDouble(context);
+    }
+
+    @Override
+    public final long toLong(final ExpressionEvaluationContext context) {
+        return this.isDouble(context) ?
+                (long) this.toDouble(context) :
+                super.toLong(context);
+    }
+
+    /**
+     * Returns true if {@link #applyDouble(double, double)} may be used.
+     */
+    final boolean isDouble(final ExpressionEvaluationContext context) {
+        return this.expressionNumberLeft &&
+                ExpressionNumberKind.DOUBLE == context.expressionNumberKind();
+    }
+
+    /**
+     * Only a text left produces text, so a left that is always a {@link ExpressionNumber} means the result is too.
+     */
+    @Override
+    final boolean isExpressionNumberResult() {
+        return this.expressionNumberLeft;
+    }
+
+    /**
+     * Cached result of the left {@link Expression#isExpressionNumberResult()}.
+     */
+    private final boolean expressionNumberLeft;
+
+    // Compile..........................................................................................................
+
+    @Override
+    final CompiledExpression compile0(final ExpressionCompiler compiler) {
+        return CompiledExpressionBinaryArithmetic.with(
+                this,
+                compiler.compile(this.left()),
+                compiler.compile(this.right())
+        );
+    }
+
     /**
      * Includes dispatch logic with a special case if the left parameter is text, otherwise both values
      * are converted to {@link ExpressionNumber} and given to {@link #applyExpressionNumber(ExpressionNumber, ExpressionNumber, ExpressionEvaluationContext)}.
      */
     @Override //
-    final Expression apply(final Object left,
-                           final Object right,
-                           final ExpressionEvaluationContext context) {
+    final Object apply(final Object left,
+                       final Object right,
+                       final ExpressionEvaluationContext context) {
         final Object result;
 
         if (context.isText(left)) {
@@ -59,7 +114,7 @@ abstract class BinaryArithmeticExpression extends BinaryExpression {
             );
         }
 
-        return Expression.value(result);
+        return result;
     }
 
     /**
@@ -76,4 +131,10 @@ abstract class BinaryArithmeticExpression extends BinaryExpression {
     abstract ExpressionNumber applyExpressionNumber(final ExpressionNumber left,
                                                     final ExpressionNumber right,
                                                     final ExpressionEvaluationContext context);
+
+    /**
+     * Performs the actual binary operation using two double values, matching {@link ExpressionNumberDouble}.
+     */
+    abstract double applyDouble(final double left,
+                                final double right);
 }
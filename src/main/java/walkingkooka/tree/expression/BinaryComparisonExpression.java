@@ -17,7 +17,6 @@
 
 package walkingkooka.tree.expression;
 
-import walkingkooka.Cast;
 import walkingkooka.compare.ComparisonRelation;
 
 /**
@@ -36,58 +35,63 @@ abstract class BinaryComparisonExpression extends BinaryExpression {
         return this.toBoolean(context);
     }
 
-    @Override //
-    final Expression apply(final Object left,
-                           final Object right,
-                           final ExpressionEvaluationContext context) {
-        final ComparisonRelation compare = this.comparisonRelation();
-
-        final Object result;
-        if (context.isText(left)) {
-            result = this.applyText(
-                    compare,
-                    context.convertOrFail(left, String.class),
-                    context.convertOrFail(right, String.class),
-                    context
-            );
-        } else {
-            if (!(left instanceof Comparable)) {
-                throw new IllegalArgumentException(left + " is not comparable");
-            }
+    /**
+     * Tests both values directly, avoiding boxing the result and converting it back to a boolean.
+     */
+    @Override
+    public final boolean toBoolean(final ExpressionEvaluationContext context) {
+        return this.test(
+                this.left().toValue(context),
+                this.right().toValue(context),
+                context
+        );
+    }
 
-            final Class<Comparable<?>> leftClass = Cast.to(left.getClass());
-            result = this.applyNonText(
-                    compare,
-                    Cast.to(left),
-                    Cast.to(context.convertOrFail(right, leftClass))
-            );
-        }
+    @Override
+    final boolean isBooleanResult() {
+        return true;
+    }
 
-        return Expression.value(result);
+    @Override //
+    final Object apply(final Object left,
+                       final Object right,
+                       final ExpressionEvaluationContext context) {
+        return this.test(left, right, context);
     }
 
     /**
-     * The {@link String#compareTo(String)} honours {@link ExpressionEvaluationContext#caseSensitivity()}
+     * Compares the left and right honouring text and {@link ExpressionEvaluationContext#caseSensitivity()}, using
+     * the {@link BinaryComparisonExpressionComparator} remembered by the inline cache for the value types.
      */
-    final boolean applyText(final ComparisonRelation compare,
-                            final String left,
-                            final String right,
-                            final ExpressionEvaluationContext context) {
-        return compare.test(
-                context.caseSensitivity()
-                        .comparator()
-                        .compare(left, right)
+    final boolean test(final Object left,
+                       final Object right,
+                       final ExpressionEvaluationContext context) {
+        final BinaryComparisonExpressionComparator comparator = this.inlineCache.comparator(
+                left,
+                right,
+                this
         );
+
+        return this.comparisonRelation()
+                .test(
+                        comparator.compare(left, right, context)
+                );
     }
 
     /**
-     * Handles all other non {@link String#compareTo(String)}. This assumes the two values are compare compatible.
+     * Replaced after the first evaluation and again if another pair of value types is seen. This is not part of
+     * equality and is never copied when a new {@link BinaryComparisonExpression} is created.
      */
-    private <CC extends Comparable<CC>> boolean applyNonText(final ComparisonRelation compare,
-                                                             final CC left,
-                                                             final CC right) {
-        return compare.test(
-                left.compareTo(right)
+    BinaryComparisonExpressionInlineCache inlineCache = BinaryComparisonExpressionInlineCache.EMPTY;
+
+    // Compile..........................................................................................................
+
+    @Override
+    final CompiledExpression compile0(final ExpressionCompiler compiler) {
+        return CompiledExpressionBinaryComparison.with(
+                this,
+                compiler.compile(this.left()),
+                compiler.compile(this.right())
         );
     }
 
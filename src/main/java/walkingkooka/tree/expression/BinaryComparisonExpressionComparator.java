@@ -0,0 +1,155 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import walkingkooka.Cast;
+
+import java.time.LocalDate;
+
+/**
+ * The comparisons performed by a {@link BinaryComparisonExpression}, selected by the types of both values. All except
+ * {@link #GENERAL} skip the {@link ExpressionEvaluationContext#convertOrFail(Object, Class)} of the right, because
+ * both values are already the same type.
+ */
+enum BinaryComparisonExpressionComparator {
+
+    /**
+     * Two {@link ExpressionNumber} of the same {@link ExpressionNumberKind}.
+     */
+    EXPRESSION_NUMBER {
+        @Override
+        int compare(final Object left,
+                    final Object right,
+                    final ExpressionEvaluationContext context) {
+            return ((ExpressionNumber) left).compareTo((ExpressionNumber) right);
+        }
+    },
+
+    /**
+     * Two {@link String} honouring {@link ExpressionEvaluationContext#caseSensitivity()}.
+     */
+    STRING {
+        @Override
+        int compare(final Object left,
+                    final Object right,
+                    final ExpressionEvaluationContext context) {
+            return context.isText(left) ?
+                    compareText((String) left, (String) right, context) :
+                    ((String) left).compareTo((String) right);
+        }
+    },
+
+    LOCAL_DATE {
+        @Override
+        int compare(final Object left,
+                    final Object right,
+                    final ExpressionEvaluationContext context) {
+            return ((LocalDate) left).compareTo((LocalDate) right);
+        }
+    },
+
+    BOOLEAN {
+        @Override
+        int compare(final Object left,
+                    final Object right,
+                    final ExpressionEvaluationContext context) {
+            return ((Boolean) left).compareTo((Boolean) right);
+        }
+    },
+
+    /**
+     * Handles all other values, converting text to {@link String} or the right to the type of the left.
+     */
+    GENERAL {
+        @Override
+        int compare(final Object left,
+                    final Object right,
+                    final ExpressionEvaluationContext context) {
+            final int result;
+
+            if (context.isText(left)) {
+                result = compareText(
+                        context.convertOrFail(left, String.class),
+                        context.convertOrFail(right, String.class),
+                        context
+                );
+            } else {
+                if (!(left instanceof Comparable)) {
+                    throw new IllegalArgumentException(left + " is not comparable");
+                }
+
+                final Class<Comparable<?>> leftClass = Cast.to(left.getClass());
+                result = compareComparable(
+                        Cast.to(left),
+                        Cast.to(context.convertOrFail(right, leftClass))
+                );
+            }
+
+            return result;
+        }
+    };
+
+    /**
+     * Compares the two values returning the ternary result.
+     */
+    abstract int compare(final Object left,
+                         final Object right,
+                         final ExpressionEvaluationContext context);
+
+    /**
+     * Selects the {@link BinaryComparisonExpressionComparator} for the given values, which may be null.
+     */
+    static BinaryComparisonExpressionComparator select(final Object left,
+                                                       final Object right) {
+        final BinaryComparisonExpressionComparator comparator;
+
+        if (left instanceof ExpressionNumber && right instanceof ExpressionNumber) {
+            comparator = ((ExpressionNumber) left).kind() == ((ExpressionNumber) right).kind() ?
+                    EXPRESSION_NUMBER :
+                    GENERAL;
+        } else if (left instanceof String && right instanceof String) {
+            comparator = STRING;
+        } else if (left instanceof LocalDate && right instanceof LocalDate) {
+            comparator = LOCAL_DATE;
+        } else if (left instanceof Boolean && right instanceof Boolean) {
+            comparator = BOOLEAN;
+        } else {
+            comparator = GENERAL;
+        }
+
+        return comparator;
+    }
+
+    /**
+     * The {@link String#compareTo(String)} honours {@link ExpressionEvaluationContext#caseSensitivity()}
+     */
+    private static int compareText(final String left,
+                                   final String right,
+                                   final ExpressionEvaluationContext context) {
+        return context.caseSensitivity()
+                .comparator()
+                .compare(left, right);
+    }
+
+    /**
+     * Handles all other non {@link String#compareTo(String)}. This assumes the two values are compare compatible.
+     */
+    private static <CC extends Comparable<CC>> int compareComparable(final CC left,
+                                                                     final CC right) {
+        return left.compareTo(right);
+    }
+}
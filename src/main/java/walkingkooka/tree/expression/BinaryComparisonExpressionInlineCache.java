@@ -0,0 +1,109 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+/**
+ * An immutable inline cache held by each {@link BinaryComparisonExpression}, remembering the
+ * {@link BinaryComparisonExpressionComparator} for the last pair of value classes. Once a second pair is seen the
+ * node is treated as polymorphic and always selects without caching, avoiding churn.
+ * <br>
+ * Because all fields are final a racy update of the field holding the cache is safe, at worst a thread repeats
+ * the selection.
+ */
+final class BinaryComparisonExpressionInlineCache {
+
+    /**
+     * The initial cache of every {@link BinaryComparisonExpression}.
+     */
+    final static BinaryComparisonExpressionInlineCache EMPTY = new BinaryComparisonExpressionInlineCache(
+            null,
+            null,
+            null
+    );
+
+    /**
+     * The cache once more than one pair of value classes has been seen.
+     */
+    final static BinaryComparisonExpressionInlineCache POLYMORPHIC = new BinaryComparisonExpressionInlineCache(
+            null,
+            null,
+            null
+    );
+
+    private BinaryComparisonExpressionInlineCache(final Class<?> left,
+                                                  final Class<?> right,
+                                                  final BinaryComparisonExpressionComparator comparator) {
+        this.left = left;
+        this.right = right;
+        this.comparator = comparator;
+    }
+
+    /**
+     * Returns the {@link BinaryComparisonExpressionComparator} for the given values, updating the cache of the
+     * given {@link BinaryComparisonExpression} after a miss.
+     */
+    BinaryComparisonExpressionComparator comparator(final Object left,
+                                                    final Object right,
+                                                    final BinaryComparisonExpression expression) {
+        final BinaryComparisonExpressionComparator comparator;
+
+        if (null == left || null == right) {
+            comparator = BinaryComparisonExpressionComparator.GENERAL;
+        } else {
+            final Class<?> leftClass = left.getClass();
+            final Class<?> rightClass = right.getClass();
+
+            if (leftClass == this.left && rightClass == this.right) {
+                comparator = this.comparator;
+            } else {
+                comparator = BinaryComparisonExpressionComparator.select(
+                        left,
+                        right
+                );
+
+                if (EMPTY == this) {
+                    expression.inlineCache = new BinaryComparisonExpressionInlineCache(
+                            leftClass,
+                            rightClass,
+                            comparator
+                    );
+                } else {
+                    expression.inlineCache = POLYMORPHIC;
+                }
+            }
+        }
+
+        return comparator;
+    }
+
+    private final Class<?> left;
+
+    private final Class<?> right;
+
+    private final BinaryComparisonExpressionComparator comparator;
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return EMPTY == this ?
+                "empty" :
+                POLYMORPHIC == this ?
+                        "polymorphic" :
+                        this.left.getSimpleName() + " " + this.right.getSimpleName() + " " + this.comparator;
+    }
+}
@@ -86,24 +86,30 @@ abstract class BinaryExpression extends ParentFixedExpression {
     }
 
     @Override
-    public final boolean toBoolean(final ExpressionEvaluationContext context) {
-        return this.apply(context)
-                .toBoolean(context);
+    public boolean toBoolean(final ExpressionEvaluationContext context) {
+        return context.convertOrFail(
+                this.apply(context),
+                Boolean.class
+        );
     }
 
     @Override
     public final ExpressionNumber toExpressionNumber(final ExpressionEvaluationContext context) {
-        return this.apply(context)
-                .toExpressionNumber(context);
+        return context.convertOrFail(
+                this.apply(context),
+                ExpressionNumber.class
+        );
     }
 
     @Override
     public final String toString(final ExpressionEvaluationContext context) {
-        return this.apply(context)
-                .toString(context);
+        return context.convertOrFail(
+                this.apply(context),
+                String.class
+        );
     }
 
-    final Expression apply(final ExpressionEvaluationContext context) {
+    Object apply(final ExpressionEvaluationContext context) {
         return this.apply(
                 this.left().toValue(context),
                 this.right().toValue(context),
@@ -112,11 +118,12 @@ abstract class BinaryExpression extends ParentFixedExpression {
     }
 
     /**
-     * Sub classes must take the left and right values and create a result.
+     * Sub classes must take the left and right values and create a result. The result is returned as is without
+     * wrapping it in a {@link ValueExpression}, leaving any conversion to the caller.
      */
-    abstract Expression apply(final Object left,
-                              final Object right,
-                              final ExpressionEvaluationContext context);
+    abstract Object apply(final Object left,
+                          final Object right,
+                          final ExpressionEvaluationContext context);
 
     // printTree.......................................................................................................
 
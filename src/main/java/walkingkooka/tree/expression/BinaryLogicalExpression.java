@@ -25,24 +25,115 @@ package walkingkooka.tree.expression;
  * <br>
  * When the left is not boolean it will attempt to convert both the left and right to {@link ExpressionNumber} and invoke
  * {@link #applyExpressionNumber(ExpressionNumber, ExpressionNumber)}.
+ * <br>
+ * If {@link ExpressionEvaluationContext#isShortCircuit()} is true and the boolean left already decides the result,
+ * the right is not evaluated and the left is returned.
  */
 abstract class BinaryLogicalExpression extends BinaryExpression {
 
     BinaryLogicalExpression(final int index, final Expression left, final Expression right) {
         super(index, left, right);
+        this.booleanLeft = left.isBooleanResult();
+        this.booleanRight = right.isBooleanResult();
     }
 
     // evaluation .....................................................................................................
 
     @Override
     public final Object toValue(final ExpressionEvaluationContext context) {
-        return this.apply(context)
-                .toValue(context);
+        return this.apply(context);
+    }
+
+    /**
+     * When the left always evaluates to a {@link Boolean} the logical operation is performed on primitive booleans,
+     * otherwise the result of {@link #apply(ExpressionEvaluationContext)} is converted.
+     */
+    @Override
+    public final boolean toBoolean(final ExpressionEvaluationContext context) {
+        final boolean result;
+
+        if (this.booleanLeft) {
+            final boolean left = this.left().toBoolean(context);
+
+            if (this.isShortCircuitBoolean(left) && context.isShortCircuit()) {
+                result = left;
+            } else {
+                final Expression right = this.right();
+
+                result = this.applyBoolean(
+                        left,
+                        this.booleanRight ?
+                                right.toBoolean(context) :
+                                context.convertOrFail(right.toValue(context), Boolean.class)
+                );
+            }
+        } else {
+            result = super.toBoolean(context);
+        }
+
+        return result;
+    }
+
+    @Override
+    final boolean isBooleanResult() {
+        return this.booleanLeft;
+    }
+
+    @Override
+    final boolean isExpressionNumberResult() {
+        return this.left().isExpressionNumberResult();
+    }
+
+    /**
+     * Cached {@link Expression#isBooleanResult()} of the left and right.
+     */
+    final boolean booleanLeft;
+
+    final boolean booleanRight;
+
+    // Compile..........................................................................................................
+
+    @Override
+    final CompiledExpression compile0(final ExpressionCompiler compiler) {
+        return CompiledExpressionBinaryLogical.with(
+                this,
+                compiler.compile(this.left()),
+                compiler.compile(this.right())
+        );
     }
 
-    @Override final Expression apply(final Object left,
-                                     final Object right,
-                                     final ExpressionEvaluationContext context) {
+    @Override
+    final Object apply(final ExpressionEvaluationContext context) {
+        final Object left = this.left().toValue(context);
+
+        return this.isShortCircuit(left, context) ?
+                left :
+                this.apply(
+                        left,
+                        this.right().toValue(context),
+                        context
+                );
+    }
+
+    /**
+     * Returns true if the right should not be evaluated because the left already decides the result.
+     */
+    final boolean isShortCircuit(final Object left,
+                                 final ExpressionEvaluationContext context) {
+        return left instanceof Boolean &&
+                this.isShortCircuitBoolean((Boolean) left) &&
+                context.isShortCircuit();
+    }
+
+    /**
+     * Sub classes should return true if the given left value decides the result regardless of the right.
+     */
+    abstract boolean isShortCircuitBoolean(final boolean left);
+
+    @Override
+    final Object apply(final Object left,
+                       final Object right,
+                       final ExpressionEvaluationContext context) {
         final Object result;
         if (left instanceof Boolean) {
             result = this.applyBoolean(
@@ -56,7 +147,7 @@ abstract class BinaryLogicalExpression extends BinaryExpression {
             );
         }
 
-        return Expression.value(result);
+        return result;
     }
 
     /**
@@ -0,0 +1,343 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import walkingkooka.Cast;
+import walkingkooka.Either;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Wraps another {@link ExpressionNumberConverterContext} delegating all methods, while remembering
+ * <ul>
+ * <li>pairs of value class and target class where the wrapped context returned the value unchanged, later
+ * conversions of the same pair skip the wrapped converter chain entirely</li>
+ * <li>optionally successful conversion results for immutable values such as {@link String} or {@link ExpressionNumber},
+ * so repeated parsing of the same text is avoided</li>
+ * </ul>
+ * The first assumes a converter that returns a value unchanged does so for all values of that class, which is true for
+ * simple converters and {@link ExpressionNumber} conversions, where the {@link ExpressionNumberKind} follows the class.
+ * <br>
+ * Both caches may be shared by many threads and stop growing once they hold the maximum number of entries. Failed
+ * conversions and null values are never cached.
+ */
+public final class CachingExpressionNumberConverterContext implements ExpressionNumberConverterContext {
+
+    /**
+     * Factory that creates a new {@link CachingExpressionNumberConverterContext}.
+     */
+    static CachingExpressionNumberConverterContext with(final ExpressionNumberConverterContext context,
+                                                        final int maxSize,
+                                                        final boolean cacheResults) {
+        Objects.requireNonNull(context, "context");
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Invalid maxSize " + maxSize + " <= 0");
+        }
+
+        return new CachingExpressionNumberConverterContext(
+                context,
+                maxSize,
+                cacheResults
+        );
+    }
+
+    /**
+     * Private ctor use factory.
+     */
+    private CachingExpressionNumberConverterContext(final ExpressionNumberConverterContext context,
+                                                    final int maxSize,
+                                                    final boolean cacheResults) {
+        this.context = context;
+        this.maxSize = maxSize;
+        this.cacheResults = cacheResults;
+    }
+
+    /**
+     * The number of {@link #convert(Object, Class)} answered from either cache.
+     */
+    public long hits() {
+        return this.hits.get();
+    }
+
+    private final AtomicLong hits = new AtomicLong();
+
+    /**
+     * The number of {@link #convert(Object, Class)} given to the wrapped context.
+     */
+    public long misses() {
+        return this.misses.get();
+    }
+
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * The fraction of {@link #convert(Object, Class)} answered from either cache, or zero if none have happened.
+     */
+    public double hitRate() {
+        final long hits = this.hits();
+        final long total = hits + this.misses();
+        return 0 == total ?
+                0 :
+                (double) hits / total;
+    }
+
+    /**
+     * Forgets all cached pairs and results. The hit and miss counts are not reset.
+     */
+    public void clear() {
+        this.identities.clear();
+        this.results.clear();
+    }
+
+    // Convert..........................................................................................................
+
+    @Override
+    public boolean canConvert(final Object value,
+                              final Class<?> target) {
+        return (null != value && this.identities.containsKey(CachingExpressionNumberConverterContextKey.pair(value.getClass(), target))) ||
+                this.context.canConvert(value, target);
+    }
+
+    @Override
+    public <T> Either<T, String> convert(final Object value,
+                                         final Class<T> target) {
+        final Either<T, String> result;
+
+        if (null == value) {
+            result = this.context.convert(value, target);
+        } else {
+            final CachingExpressionNumberConverterContextKey pair = CachingExpressionNumberConverterContextKey.pair(
+                    value.getClass(),
+                    target
+            );
+
+            if (this.identities.containsKey(pair)) {
+                this.hits.incrementAndGet();
+                result = Cast.to(
+                        Either.left(value)
+                );
+            } else {
+                final CachingExpressionNumberConverterContextKey key = this.cacheResults && isImmutable(value) ?
+                        CachingExpressionNumberConverterContextKey.value(value, target) :
+                        null;
+                final Either<?, String> cached = null != key ?
+                        this.results.get(key) :
+                        null;
+
+                if (null != cached) {
+                    this.hits.incrementAndGet();
+                    result = Cast.to(cached);
+                } else {
+                    this.misses.incrementAndGet();
+                    result = this.context.convert(value, target);
+
+                    if (result.isLeft()) {
+                        if (value == result.leftValue()) {
+                            this.put(this.identities, pair, Boolean.TRUE);
+                        } else {
+                            if (null != key) {
+                                this.put(this.results, key, result);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private <V> void put(final Map<CachingExpressionNumberConverterContextKey, V> cache,
+                         final CachingExpressionNumberConverterContextKey key,
+                         final V value) {
+        if (cache.size() < this.maxSize) {
+            cache.put(key, value);
+        }
+    }
+
+    /**
+     * Only values that can never change are safe to use as keys and return cached results for.
+     */
+    private static boolean isImmutable(final Object value) {
+        return value instanceof String ||
+                value instanceof ExpressionNumber ||
+                value instanceof Boolean ||
+                value instanceof Character ||
+                value instanceof Byte ||
+                value instanceof Short ||
+                value instanceof Integer ||
+                value instanceof Long ||
+                value instanceof Float ||
+                value instanceof Double ||
+                value instanceof BigInteger ||
+                value instanceof BigDecimal ||
+                value instanceof LocalDate ||
+                value instanceof LocalDateTime ||
+                value instanceof LocalTime;
+    }
+
+    /**
+     * Pairs of value class and target class that convert to the same value.
+     */
+    private final Map<CachingExpressionNumberConverterContextKey, Boolean> identities = new ConcurrentHashMap<>();
+
+    /**
+     * Successful conversion results for immutable values.
+     */
+    private final Map<CachingExpressionNumberConverterContextKey, Either<?, String>> results = new ConcurrentHashMap<>();
+
+    private final int maxSize;
+
+    private final boolean cacheResults;
+
+    // ExpressionNumberConverterContext.................................................................................
+
+    @Override
+    public List<String> ampms() {
+        return this.context.ampms();
+    }
+
+    @Override
+    public String ampm(final int hourOfDay) {
+        return this.context.ampm(hourOfDay);
+    }
+
+    @Override
+    public int defaultYear() {
+        return this.context.defaultYear();
+    }
+
+    @Override
+    public List<String> monthNames() {
+        return this.context.monthNames();
+    }
+
+    @Override
+    public String monthName(final int month) {
+        return this.context.monthName(month);
+    }
+
+    @Override
+    public List<String> monthNameAbbreviations() {
+        return this.context.monthNameAbbreviations();
+    }
+
+    @Override
+    public String monthNameAbbreviation(final int month) {
+        return this.context.monthNameAbbreviation(month);
+    }
+
+    @Override
+    public LocalDateTime now() {
+        return this.context.now();
+    }
+
+    @Override
+    public int twoDigitYear() {
+        return this.context.twoDigitYear();
+    }
+
+    @Override
+    public List<String> weekDayNames() {
+        return this.context.weekDayNames();
+    }
+
+    @Override
+    public String weekDayName(final int day) {
+        return this.context.weekDayName(day);
+    }
+
+    @Override
+    public List<String> weekDayNameAbbreviations() {
+        return this.context.weekDayNameAbbreviations();
+    }
+
+    @Override
+    public String weekDayNameAbbreviation(final int day) {
+        return this.context.weekDayNameAbbreviation(day);
+    }
+
+    @Override
+    public Locale locale() {
+        return this.context.locale();
+    }
+
+    @Override
+    public String currencySymbol() {
+        return this.context.currencySymbol();
+    }
+
+    @Override
+    public char decimalSeparator() {
+        return this.context.decimalSeparator();
+    }
+
+    @Override
+    public String exponentSymbol() {
+        return this.context.exponentSymbol();
+    }
+
+    @Override
+    public char groupingSeparator() {
+        return this.context.groupingSeparator();
+    }
+
+    @Override
+    public char percentageSymbol() {
+        return this.context.percentageSymbol();
+    }
+
+    @Override
+    public char negativeSign() {
+        return this.context.negativeSign();
+    }
+
+    @Override
+    public char positiveSign() {
+        return this.context.positiveSign();
+    }
+
+    @Override
+    public MathContext mathContext() {
+        return this.context.mathContext();
+    }
+
+    @Override
+    public ExpressionNumberKind expressionNumberKind() {
+        return this.context.expressionNumberKind();
+    }
+
+    private final ExpressionNumberConverterContext context;
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return this.context.toString();
+    }
+}
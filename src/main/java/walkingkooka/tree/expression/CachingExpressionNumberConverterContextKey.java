@@ -0,0 +1,96 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import java.util.Objects;
+
+/**
+ * The key used by {@link CachingExpressionNumberConverterContext}, either a pair of classes or a value and target.
+ */
+final class CachingExpressionNumberConverterContextKey {
+
+    /**
+     * A key for the pair of value class and target class.
+     */
+    static CachingExpressionNumberConverterContextKey pair(final Class<?> type,
+                                                           final Class<?> target) {
+        return new CachingExpressionNumberConverterContextKey(
+                type,
+                null,
+                target
+        );
+    }
+
+    /**
+     * A key for a value and target. The value class is included so equal values of different classes, such as two
+     * {@link ExpressionNumber} with a different {@link ExpressionNumberKind} are not confused.
+     * {@link ExpressionNumber#equals(Object)} ignores the scale, so its {@link java.math.BigDecimal} or {@link Double} value
+     * is used instead, which keeps <code>1.0</code> and <code>1.00</code> apart.
+     */
+    static CachingExpressionNumberConverterContextKey value(final Object value,
+                                                            final Class<?> target) {
+        return new CachingExpressionNumberConverterContextKey(
+                value.getClass(),
+                value instanceof ExpressionNumber ?
+                        ((ExpressionNumber) value).value() :
+                        value,
+                target
+        );
+    }
+
+    private CachingExpressionNumberConverterContextKey(final Class<?> type,
+                                                       final Object value,
+                                                       final Class<?> target) {
+        this.type = type;
+        this.value = value;
+        this.target = target;
+    }
+
+    private final Class<?> type;
+
+    private final Object value;
+
+    private final Class<?> target;
+
+    // Object...........................................................................................................
+
+    @Override
+    public int hashCode() {
+        return (this.type.hashCode() * 31 + Objects.hashCode(this.value)) * 31 + this.target.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return this == other ||
+                other instanceof CachingExpressionNumberConverterContextKey &&
+                        this.equals0((CachingExpressionNumberConverterContextKey) other);
+    }
+
+    private boolean equals0(final CachingExpressionNumberConverterContextKey other) {
+        return this.type == other.type &&
+                this.target == other.target &&
+                Objects.equals(this.value, other.value);
+    }
+
+    @Override
+    public String toString() {
+        return (null != this.value ? this.value + " " : "") +
+                this.type.getSimpleName() +
+                " to " +
+                this.target.getSimpleName();
+    }
+}
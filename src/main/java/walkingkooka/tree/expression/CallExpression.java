@@ -51,6 +51,7 @@ public final class CallExpression extends VariableExpression {
                            final List<Expression> parameters) {
         super(index, parameters);
         this.callable = callable;
+        this.structuralHash = 31 * this.structuralHash + callable.structuralHash;
     }
 
     @Override
@@ -168,6 +169,16 @@ public final class CallExpression extends VariableExpression {
         );
     }
 
+    // Compile..........................................................................................................
+
+    @Override
+    CompiledExpression compile0(final ExpressionCompiler compiler) {
+        return CompiledExpressionCall.with(
+                this,
+                compiler
+        );
+    }
+
     // printTree.......................................................................................................
 
     // Call
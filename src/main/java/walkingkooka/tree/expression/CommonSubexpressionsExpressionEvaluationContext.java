@@ -0,0 +1,279 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+import walkingkooka.Cast;
+import walkingkooka.Either;
+import walkingkooka.text.CaseSensitivity;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
+
+import java.math.MathContext;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Wraps another {@link ExpressionEvaluationContext} delegating all methods, and holds the values of common
+ * sub-expressions for a single evaluation of a {@link CompiledExpression}. A new instance is created for each
+ * evaluation by {@link CompiledExpressionCommonSubexpressions}.
+ */
+final class CommonSubexpressionsExpressionEvaluationContext implements ExpressionEvaluationContext {
+
+    /**
+     * Factory that creates a new {@link CommonSubexpressionsExpressionEvaluationContext} with the given number of slots.
+     */
+    static CommonSubexpressionsExpressionEvaluationContext with(final ExpressionEvaluationContext context,
+                                                                final int count) {
+        Objects.requireNonNull(context, "context");
+
+        return new CommonSubexpressionsExpressionEvaluationContext(context, count);
+    }
+
+    /**
+     * Private ctor use factory.
+     */
+    private CommonSubexpressionsExpressionEvaluationContext(final ExpressionEvaluationContext context,
+                                                            final int count) {
+        this.context = context;
+        this.values = new Object[count];
+        Arrays.fill(this.values, MISSING);
+    }
+
+    /**
+     * Returns the value in the given slot, computing it using the {@link CompiledExpression} the first time.
+     */
+    Object value(final int slot,
+                 final CompiledExpression compiled) {
+        final Object[] values = this.values;
+
+        Object value = values[slot];
+        if (MISSING == value) {
+            value = compiled.toValue(this);
+            values[slot] = value;
+        }
+        return value;
+    }
+
+    /**
+     * Marks a slot whose value has not been computed, as null is a valid value.
+     */
+    private final static Object MISSING = new Object();
+
+    private final Object[] values;
+
+    @Override
+    public boolean isPure(final FunctionExpressionName name) {
+        return this.context.isPure(name);
+    }
+
+    @Override
+    public ExpressionEvaluationContext context(final Function<ExpressionReference, Optional<Optional<Object>>> resolver) {
+        return this.context.context(resolver);
+    }
+
+    @Override
+    public ExpressionFunction<?, ExpressionEvaluationContext> function(final FunctionExpressionName name) {
+        return this.context.function(name);
+    }
+
+    @Override
+    public <T> T prepareParameter(final ExpressionFunctionParameter<T> parameter,
+                                  final Object value) {
+        return this.context.prepareParameter(parameter, value);
+    }
+
+    @Override
+    public Object evaluate(final Expression expression) {
+        return this.context.evaluate(expression);
+    }
+
+    /**
+     * Parameters are prepared and the function executed with this context, so common sub-expressions within the
+     * parameters are also shared.
+     */
+    @Override
+    public Object evaluateFunction(final ExpressionFunction<?, ? extends ExpressionEvaluationContext> function,
+                                   final List<Object> parameters) {
+        Object result;
+
+        try {
+            result = function.apply(
+                    this.prepareParameters(function, parameters),
+                    Cast.to(this)
+            );
+        } catch (final RuntimeException exception) {
+            result = this.handleException(exception);
+        }
+
+        return result;
+    }
+
+    @Override
+    public Object handleException(final RuntimeException exception) {
+        return this.context.handleException(exception);
+    }
+
+    @Override
+    public Optional<Optional<Object>> reference(final ExpressionReference reference) {
+        return this.context.reference(reference);
+    }
+
+    // DateTimeContext..................................................................................................
+
+    @Override
+    public List<String> ampms() {
+        return this.context.ampms();
+    }
+
+    @Override
+    public int defaultYear() {
+        return this.context.defaultYear();
+    }
+
+    @Override
+    public List<String> monthNames() {
+        return this.context.monthNames();
+    }
+
+    @Override
+    public List<String> monthNameAbbreviations() {
+        return this.context.monthNameAbbreviations();
+    }
+
+    @Override
+    public LocalDateTime now() {
+        return this.context.now();
+    }
+
+    @Override
+    public int twoToFourDigitYear(final int year) {
+        return this.context.twoToFourDigitYear(year);
+    }
+
+    @Override
+    public int twoDigitYear() {
+        return this.context.twoDigitYear();
+    }
+
+    @Override
+    public List<String> weekDayNames() {
+        return this.context.weekDayNames();
+    }
+
+    @Override
+    public List<String> weekDayNameAbbreviations() {
+        return this.context.weekDayNameAbbreviations();
+    }
+
+    // DecimalNumberContext.............................................................................................
+
+    @Override
+    public String currencySymbol() {
+        return this.context.currencySymbol();
+    }
+
+    @Override
+    public char decimalSeparator() {
+        return this.context.decimalSeparator();
+    }
+
+    @Override
+    public String exponentSymbol() {
+        return this.context.exponentSymbol();
+    }
+
+    @Override
+    public ExpressionNumberKind expressionNumberKind() {
+        return this.context.expressionNumberKind();
+    }
+
+    @Override
+    public char groupingSeparator() {
+        return this.context.groupingSeparator();
+    }
+
+    @Override
+    public char percentageSymbol() {
+        return this.context.percentageSymbol();
+    }
+
+    @Override
+    public char negativeSign() {
+        return this.context.negativeSign();
+    }
+
+    @Override
+    public char positiveSign() {
+        return this.context.positiveSign();
+    }
+
+    @Override
+    public Locale locale() {
+        return this.context.locale();
+    }
+
+    @Override
+    public MathContext mathContext() {
+        return this.context.mathContext();
+    }
+
+    // CanConvert................................................................................................
+
+    @Override
+    public boolean canConvert(final Object from,
+                              final Class<?> type) {
+        return this.context.canConvert(from, type);
+    }
+
+    @Override
+    public <T> Either<T, String> convert(final Object from,
+                                         final Class<T> type) {
+        return this.context.convert(from, type);
+    }
+
+    // Strings..........................................................................................................
+
+    @Override
+    public CaseSensitivity caseSensitivity() {
+        return this.context.caseSensitivity();
+    }
+
+    @Override
+    public boolean isShortCircuit() {
+        return this.context.isShortCircuit();
+    }
+
+    @Override
+    public boolean isText(final Object value) {
+        return this.context.isText(value);
+    }
+
+    private final ExpressionEvaluationContext context;
+
+    // toString.........................................................................................................
+
+    @Override
+    public String toString() {
+        return this.context.toString();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+import walkingkooka.tree.expression.function.ExpressionFunction;
+
+import java.util.Optional;
+
+/**
+ * A {@link Expression} that has been compiled by {@link Expression#compile(java.util.function.Function)} into a tree of
+ * pre-bound evaluators. Compiling happens once, after which the {@link CompiledExpression} may be evaluated any number of
+ * times with different {@link ExpressionEvaluationContext contexts}, without creating intermediate {@link ValueExpression}
+ * and without looking up any {@link NamedFunctionExpression} that was resolved during compilation.
+ * <br>
+ * Results are always identical to those returned by the equivalent <code>toXXX</code> method on the original {@link Expression}.
+ */
+public abstract class CompiledExpression {
+
+    /**
+     * Package private ctor to limit sub classing.
+     */
+    CompiledExpression(final Expression expression) {
+        super();
+        this.expression = expression;
+    }
+
+    /**
+     * The original {@link Expression} that was compiled.
+     */
+    public final Expression expression() {
+        return this.expression;
+    }
+
+    final Expression expression;
+
+    // Eval................................................................................................................
+
+    /**
+     * Returns the {@link ExpressionFunction} if one was resolved during compilation. Only {@link CompiledExpressionNamedFunction}
+     * will return a function.
+     */
+    Optional<ExpressionFunction<?, ExpressionEvaluationContext>> boundFunction() {
+        return Optional.empty();
+    }
+
+    /**
+     * Prepares this {@link CompiledExpression} as a {@link ExpressionFunction} ready to be executed.
+     */
+    ExpressionFunction<?, ExpressionEvaluationContext> function(final ExpressionEvaluationContext context) {
+        return this.expression.function(context);
+    }
+
+    /**
+     * Evaluates this node as a boolean
+     */
+    public abstract boolean toBoolean(final ExpressionEvaluationContext context);
+
+    /**
+     * Evaluates this node as a {@link ExpressionNumber}
+     */
+    public abstract ExpressionNumber toExpressionNumber(final ExpressionEvaluationContext context);
+
+    /**
+     * Evaluates this node as a {@link String}
+     */
+    public abstract String toString(final ExpressionEvaluationContext context);
+
+    /**
+     * Evaluates this node returning its {@link ExpressionReference} or value. For all sub classes except {@link CompiledExpressionReference}
+     * will be identical to {@link #toValue(ExpressionEvaluationContext)}.
+     */
+    public Object toReferenceOrValue(final ExpressionEvaluationContext context) {
+        return this.toValue(context);
+    }
+
+    /**
+     * Evaluates this node returning its value.
+     */
+    public abstract Object toValue(final ExpressionEvaluationContext context);
+
+    /**
+     * Evaluates this node as a double.
+     */
+    public double toDouble(final ExpressionEvaluationContext context) {
+        return this.toExpressionNumber(context).doubleValue();
+    }
+
+    /**
+     * Evaluates this node as a long.
+     */
+    public long toLong(final ExpressionEvaluationContext context) {
+        return this.toExpressionNumber(context).longValue();
+    }
+
+    // Object...........................................................................................................
+
+    @Override
+    public final String toString() {
+        return this.expression.toString();
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+/**
+ * Base {@link CompiledExpression} for all {@link BinaryExpression}, which evaluates the compiled left and right and then
+ * calls {@link BinaryExpression#apply(Object, Object, ExpressionEvaluationContext)} directly, skipping any intermediate
+ * {@link ValueExpression}.
+ */
+abstract class CompiledExpressionBinary extends CompiledExpression {
+
+    CompiledExpressionBinary(final BinaryExpression expression,
+                             final CompiledExpression left,
+                             final CompiledExpression right) {
+        super(expression);
+        this.binary = expression;
+        this.left = left;
+        this.right = right;
+    }
+
+    @Override
+    public boolean toBoolean(final ExpressionEvaluationContext context) {
+        return context.convertOrFail(
+                this.apply(context),
+                Boolean.class
+        );
+    }
+
+    @Override
+    public final ExpressionNumber toExpressionNumber(final ExpressionEvaluationContext context) {
+        return context.convertOrFail(
+                this.apply(context),
+                ExpressionNumber.class
+        );
+    }
+
+    @Override
+    public final String toString(final ExpressionEvaluationContext context) {
+        return context.convertOrFail(
+                this.apply(context),
+                String.class
+        );
+    }
+
+    Object apply(final ExpressionEvaluationContext context) {
+        return this.binary.apply(
+                this.left.toValue(context),
+                this.right.toValue(context),
+                context
+        );
+    }
+
+    private final BinaryExpression binary;
+
+    final CompiledExpression left;
+
+    final CompiledExpression right;
+}
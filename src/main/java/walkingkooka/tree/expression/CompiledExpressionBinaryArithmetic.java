@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+/**
+ * The {@link CompiledExpression} for any {@link BinaryArithmeticExpression}.
+ */
+final class CompiledExpressionBinaryArithmetic extends CompiledExpressionBinary {
+
+    static CompiledExpressionBinaryArithmetic with(final BinaryArithmeticExpression expression,
+                                                   final CompiledExpression left,
+                                                   final CompiledExpression right) {
+        return new CompiledExpressionBinaryArithmetic(expression, left, right);
+    }
+
+    private CompiledExpressionBinaryArithmetic(final BinaryArithmeticExpression expression,
+                                               final CompiledExpression left,
+                                               final CompiledExpression right) {
+        super(expression, left, right);
+        this.arithmetic = expression;
+    }
+
+    @Override
+    public Number toValue(final ExpressionEvaluationContext context) {
+        return this.toExpressionNumber(context);
+    }
+
+    @Override
+    public double toDouble(final ExpressionEvaluationContext context) {
+        final BinaryArithmeticExpression arithmetic = this.arithmetic;
+
+        return arithmetic.isDouble(context) ?
+                arithmetic.applyDouble(
+                        this.left.toDouble(context),
+                        this.right.toDouble(context)
+                ) :
+                super.toDouble(context);
+    }
+
+    @Override
+    public long toLong(final ExpressionEvaluationContext context) {
+        return this.arithmetic.isDouble(context) ?
+                (long) this.toDouble(context) :
+                super.toLong(context);
+    }
+
+    private final BinaryArithmeticExpression arithmetic;
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+/**
+ * The {@link CompiledExpression} for any {@link BinaryComparisonExpression}.
+ */
+final class CompiledExpressionBinaryComparison extends CompiledExpressionBinary {
+
+    static CompiledExpressionBinaryComparison with(final BinaryComparisonExpression expression,
+                                                   final CompiledExpression left,
+                                                   final CompiledExpression right) {
+        return new CompiledExpressionBinaryComparison(expression, left, right);
+    }
+
+    private CompiledExpressionBinaryComparison(final BinaryComparisonExpression expression,
+                                               final CompiledExpression left,
+                                               final CompiledExpression right) {
+        super(expression, left, right);
+        this.comparison = expression;
+    }
+
+    @Override
+    public boolean toBoolean(final ExpressionEvaluationContext context) {
+        return this.comparison.test(
+                this.left.toValue(context),
+                this.right.toValue(context),
+                context
+        );
+    }
+
+    @Override
+    public Boolean toValue(final ExpressionEvaluationContext context) {
+        return this.toBoolean(context);
+    }
+
+    private final BinaryComparisonExpression comparison;
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+/**
+ * The {@link CompiledExpression} for any {@link BinaryLogicalExpression}.
+ */
+final class CompiledExpressionBinaryLogical extends CompiledExpressionBinary {
+
+    static CompiledExpressionBinaryLogical with(final BinaryLogicalExpression expression,
+                                                final CompiledExpression left,
+                                                final CompiledExpression right) {
+        return new CompiledExpressionBinaryLogical(expression, left, right);
+    }
+
+    private CompiledExpressionBinaryLogical(final BinaryLogicalExpression expression,
+                                            final CompiledExpression left,
+                                            final CompiledExpression right) {
+        super(expression, left, right);
+        this.logical = expression;
+    }
+
+    @Override
+    public boolean toBoolean(final ExpressionEvaluationContext context) {
+        final BinaryLogicalExpression logical = this.logical;
+        final boolean result;
+
+        if (logical.booleanLeft) {
+            final boolean left = this.left.toBoolean(context);
+
+            if (logical.isShortCircuitBoolean(left) && context.isShortCircuit()) {
+                result = left;
+            } else {
+                final CompiledExpression right = this.right;
+
+                result = logical.applyBoolean(
+                        left,
+                        logical.booleanRight ?
+                                right.toBoolean(context) :
+                                context.convertOrFail(right.toValue(context), Boolean.class)
+                );
+            }
+        } else {
+            result = super.toBoolean(context);
+        }
+
+        return result;
+    }
+
+    @Override
+    public Object toValue(final ExpressionEvaluationContext context) {
+        return this.apply(context);
+    }
+
+    @Override
+    Object apply(final ExpressionEvaluationContext context) {
+        final Object left = this.left.toValue(context);
+
+        return this.logical.isShortCircuit(left, context) ?
+                left :
+                this.logical.apply(
+                        left,
+                        this.right.toValue(context),
+                        context
+                );
+    }
+
+    private final BinaryLogicalExpression logical;
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+import walkingkooka.Cast;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterCardinality;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterKind;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The {@link CompiledExpression} for a {@link CallExpression}.
+ * <br>
+ * If the callable resolved its {@link ExpressionFunction} during compilation, any parameter that will be
+ * {@link ExpressionFunctionParameterKind#EVALUATE evaluated} is passed as a {@link CompiledExpression}, which is
+ * understood by {@link ExpressionEvaluationContext#prepareParameters(ExpressionFunction, List)}. All other parameters
+ * are passed as the original {@link Expression} so functions that receive unevaluated parameters see no difference.
+ */
+final class CompiledExpressionCall extends CompiledExpression {
+
+    static CompiledExpressionCall with(final CallExpression expression,
+                                       final ExpressionCompiler compiler) {
+        final CompiledExpression callable = compiler.compile(expression.callable());
+        final List<Expression> parameters = expression.value();
+        final Optional<ExpressionFunction<?, ExpressionEvaluationContext>> function = callable.boundFunction();
+
+        return new CompiledExpressionCall(
+                expression,
+                callable,
+                function.isPresent() ?
+                        compileParameters(
+                                function.get()
+                                        .parameters(parameters.size()),
+                                parameters,
+                                compiler
+                        ) :
+                        parameters
+        );
+    }
+
+    private static List<Object> compileParameters(final List<ExpressionFunctionParameter<?>> functionParameters,
+                                                  final List<Expression> parameters,
+                                                  final ExpressionCompiler compiler) {
+        final List<Object> compiled = Lists.array();
+        final int count = functionParameters.size();
+
+        int i = 0;
+        for (final Expression parameter : parameters) {
+            ExpressionFunctionParameter<?> functionParameter = null;
+
+            if (i < count) {
+                functionParameter = functionParameters.get(i);
+            } else {
+                if (count > 0) {
+                    final ExpressionFunctionParameter<?> last = functionParameters.get(count - 1);
+                    if (last.cardinality() == ExpressionFunctionParameterCardinality.VARIABLE) {
+                        functionParameter = last;
+                    }
+                }
+            }
+
+            compiled.add(
+                    null != functionParameter && functionParameter.isKind(ExpressionFunctionParameterKind.EVALUATE) ?
+                            compiler.compile(parameter) :
+                            parameter
+            );
+            i++;
+        }
+
+        return Lists.readOnly(compiled);
+    }
+
+    private CompiledExpressionCall(final CallExpression expression,
+                                   final CompiledExpression callable,
+                                   final List<?> parameters) {
+        super(expression);
+        this.callable = callable;
+        this.parameters = parameters;
+    }
+
+    @Override
+    public boolean toBoolean(final ExpressionEvaluationContext context) {
+        return this.executeFunctionAndConvert(
+                context,
+                Boolean.class
+        );
+    }
+
+    @Override
+    public ExpressionNumber toExpressionNumber(final ExpressionEvaluationContext context) {
+        return this.executeFunctionAndConvert(
+                context,
+                ExpressionNumber.class
+        );
+    }
+
+    @Override
+    public String toString(final ExpressionEvaluationContext context) {
+        return this.executeFunctionAndConvert(
+                context,
+                String.class
+        );
+    }
+
+    @Override
+    public Object toValue(final ExpressionEvaluationContext context) {
+        return context.evaluateFunction(
+                this.callable.function(context),
+                Cast.to(this.parameters)
+        );
+    }
+
+    private <T> T executeFunctionAndConvert(final ExpressionEvaluationContext context,
+                                            final Class<T> target) {
+        return context.convertOrFail(
+                this.toValue(context),
+                target
+        );
+    }
+
+    private final CompiledExpression callable;
+
+    /**
+     * A mixture of {@link CompiledExpression} and {@link Expression}.
+     */
+    private final List<?> parameters;
+}
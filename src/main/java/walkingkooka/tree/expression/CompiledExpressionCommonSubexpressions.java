@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.tree.expression;
+
+/**
+ * The root of a {@link CompiledExpression} holding one or more {@link CompiledExpressionShared}. Each evaluation
+ * wraps the given {@link ExpressionEvaluationContext} in a new {@link CommonSubexpressionsExpressionEvaluationContext},
+ * so shared values never leak between evaluations or threads.
+ */
+final class CompiledExpressionCommonSubexpressions extends CompiledExpression {
+
+    static CompiledExpressionCommonSubexpressions with(final CompiledExpression compiled,
+                                                       final int count) {
+        return new CompiledExpressionCommonSubexpressions(compiled, count);
+    }
+
+    private CompiledExpressionCommonSubexpressions(final CompiledExpression compiled,
+                                                   final int count) {
+        super(compiled.expression);
+        this.compiled = compiled;
+        this.count = count;
+    }
+
+    @Override
+    public boolean toBoolean(final ExpressionEvaluationContext context) {
+        return this.compiled.toBoolean(
+                this.context(context)
+        );
+    }
+
+    @Override
+    public ExpressionNumber toExpressionNumber(final ExpressionEvaluationContext context) {
+        return this.compiled.toExpressionNumber(
+                this.context(context)
+        );
+    }
+
+    @Override
+    public String toString(final ExpressionEvaluationContext context) {
+        return this.compiled.toString(
+                this.context(context)
+        );
+    }
+
+    @Override
+    public Object toReferenceOrValue(final ExpressionEvaluationContext context) {
+        return this.compiled.toReferenceOrValue(
+                this.context(context)
+        );
+    }
+
+    @Override
+    public Object toValue(final ExpressionEvaluationContext context) {
+        return this.compiled.toValue(
+                this.context(context)
+        );
+    }
+
+    @Override
+    public double toDouble(final ExpressionEvaluationContext context) {
+        return this.compiled.toDouble(
+                this.context(context)
+        );
+    }
+
+    @Override
+    public long toLong(final ExpressionEvaluationContext context) {
+        return this.compiled.toLong(
+                this.context(context)
+        );
+    }
+
+    private ExpressionEvaluationContext context(final ExpressionEvaluationContext context) {
+        return CommonSubexpressionsExpressionEvaluationContext.with(
+                context,
+                this.count
+        );
+    }
+
+    private final CompiledExpression compiled;
+
+    /**
+     * The number of common sub-expression slots.
+     */
+    private final int count;
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+/**
+ * The {@link CompiledExpression} for a {@link LambdaFunctionExpression}. The {@link walkingkooka.tree.expression.function.ExpressionFunction}
+ * continues to use the original body so lambda scoping behaves exactly as before, while the <code>toXXX</code> methods
+ * evaluate the compiled body. {@link #toValue(ExpressionEvaluationContext)} handles failures like
+ * {@link ExpressionEvaluationContext#evaluate(Expression)}.
+ */
+final class CompiledExpressionLambdaFunction extends CompiledExpression {
+
+    static CompiledExpressionLambdaFunction with(final LambdaFunctionExpression expression,
+                                                 final CompiledExpression value) {
+        return new CompiledExpressionLambdaFunction(expression, value);
+    }
+
+    private CompiledExpressionLambdaFunction(final LambdaFunctionExpression expression,
+                                             final CompiledExpression value) {
+        super(expression);
+        this.value = value;
+    }
+
+    @Override
+    public boolean toBoolean(final ExpressionEvaluationContext context) {
+        return this.value.toBoolean(context);
+    }
+
+    @Override
+    public ExpressionNumber toExpressionNumber(final ExpressionEvaluationContext context) {
+        return this.value.toExpressionNumber(context);
+    }
+
+    @Override
+    public String toString(final ExpressionEvaluationContext context) {
+        return this.value.toString(context);
+    }
+
+    @Override
+    public Object toValue(final ExpressionEvaluationContext context) {
+        Object result;
+
+        try {
+            result = this.value.toValue(context);
+        } catch (final RuntimeException exception) {
+            result = context.handleException(exception);
+        }
+
+        return result;
+    }
+
+    private final CompiledExpression value;
+}
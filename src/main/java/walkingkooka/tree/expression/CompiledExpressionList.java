@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+import walkingkooka.collect.list.Lists;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The {@link CompiledExpression} for a {@link ListExpression}.
+ */
+final class CompiledExpressionList extends CompiledExpression {
+
+    static CompiledExpressionList with(final ListExpression expression,
+                                       final List<CompiledExpression> values) {
+        return new CompiledExpressionList(expression, values);
+    }
+
+    private CompiledExpressionList(final ListExpression expression,
+                                   final List<CompiledExpression> values) {
+        super(expression);
+        this.values = values.toArray(new CompiledExpression[values.size()]);
+    }
+
+    @Override
+    public boolean toBoolean(final ExpressionEvaluationContext context) {
+        return this.convertValues(context, Boolean.class);
+    }
+
+    @Override
+    public ExpressionNumber toExpressionNumber(final ExpressionEvaluationContext context) {
+        return this.convertValues(context, ExpressionNumber.class);
+    }
+
+    @Override
+    public String toString(final ExpressionEvaluationContext context) {
+        return this.convertValues(context, String.class);
+    }
+
+    @Override
+    public Object toValue(final ExpressionEvaluationContext context) {
+        return this.convertValues(context);
+    }
+
+    private <T> T convertValues(final ExpressionEvaluationContext context,
+                                final Class<T> target) {
+        return context.convertOrFail(this.convertValues(context), target);
+    }
+
+    private List<Object> convertValues(final ExpressionEvaluationContext context) {
+        if (context instanceof ParallelExpressionEvaluationContext) {
+            return ((ParallelExpressionEvaluationContext) context).evaluateAll(
+                    this.expression,
+                    Arrays.asList(this.values),
+                    CompiledExpression::toValue
+            );
+        }
+
+        final List<Object> values = Lists.array();
+
+        for (final CompiledExpression value : this.values) {
+            values.add(
+                    value.toValue(context)
+            );
+        }
+
+        return values;
+    }
+
+    private final CompiledExpression[] values;
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+import walkingkooka.tree.expression.function.ExpressionFunction;
+
+import java.util.Optional;
+
+/**
+ * The {@link CompiledExpression} for a {@link NamedFunctionExpression}. If the function was found during compilation
+ * it is used for all evaluations, otherwise {@link ExpressionEvaluationContext#function(FunctionExpressionName)} is
+ * asked each time.
+ */
+final class CompiledExpressionNamedFunction extends CompiledExpression {
+
+    static CompiledExpressionNamedFunction with(final NamedFunctionExpression expression,
+                                                final Optional<ExpressionFunction<?, ExpressionEvaluationContext>> function) {
+        return new CompiledExpressionNamedFunction(expression, function);
+    }
+
+    private CompiledExpressionNamedFunction(final NamedFunctionExpression expression,
+                                            final Optional<ExpressionFunction<?, ExpressionEvaluationContext>> function) {
+        super(expression);
+        this.name = expression.value();
+        this.function = function;
+    }
+
+    @Override
+    Optional<ExpressionFunction<?, ExpressionEvaluationContext>> boundFunction() {
+        return this.function;
+    }
+
+    @Override
+    ExpressionFunction<?, ExpressionEvaluationContext> function(final ExpressionEvaluationContext context) {
+        final Optional<ExpressionFunction<?, ExpressionEvaluationContext>> function = this.function;
+        return function.isPresent() ?
+                function.get() :
+                context.function(this.name);
+    }
+
+    private final Optional<ExpressionFunction<?, ExpressionEvaluationContext>> function;
+
+    @Override
+    public boolean toBoolean(final ExpressionEvaluationContext context) {
+        return context.convertOrFail(this.name, Boolean.class);
+    }
+
+    @Override
+    public ExpressionNumber toExpressionNumber(final ExpressionEvaluationContext context) {
+        return context.convertOrFail(this.name, ExpressionNumber.class);
+    }
+
+    @Override
+    public String toString(final ExpressionEvaluationContext context) {
+        return context.convertOrFail(this.name, String.class);
+    }
+
+    @Override
+    public Object toValue(final ExpressionEvaluationContext context) {
+        return this.name;
+    }
+
+    private final FunctionExpressionName name;
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+/**
+ * The {@link CompiledExpression} for a {@link NotExpression}.
+ */
+final class CompiledExpressionNot extends CompiledExpression {
+
+    static CompiledExpressionNot with(final NotExpression expression,
+                                      final CompiledExpression value) {
+        return new CompiledExpressionNot(expression, value);
+    }
+
+    private CompiledExpressionNot(final NotExpression expression,
+                                  final CompiledExpression value) {
+        super(expression);
+        this.value = value;
+    }
+
+    @Override
+    public boolean toBoolean(final ExpressionEvaluationContext context) {
+        return context.convertOrFail(this.toExpressionNumber(context), Boolean.class);
+    }
+
+    @Override
+    public ExpressionNumber toExpressionNumber(final ExpressionEvaluationContext context) {
+        return this.value.toExpressionNumber(context).not();
+    }
+
+    @Override
+    public String toString(final ExpressionEvaluationContext context) {
+        return context.convertOrFail(this.toExpressionNumber(context), String.class);
+    }
+
+    @Override
+    public Number toValue(final ExpressionEvaluationContext context) {
+        return this.toExpressionNumber(context);
+    }
+
+    @Override
+    public double toDouble(final ExpressionEvaluationContext context) {
+        return ExpressionNumberKind.DOUBLE == context.expressionNumberKind() ?
+                ~(long) this.value.toDouble(context) :
+                super.toDouble(context);
+    }
+
+    @Override
+    public long toLong(final ExpressionEvaluationContext context) {
+        return ExpressionNumberKind.DOUBLE == context.expressionNumberKind() ?
+                (long) this.toDouble(context) :
+                super.toLong(context);
+    }
+
+    private final CompiledExpression value;
+}
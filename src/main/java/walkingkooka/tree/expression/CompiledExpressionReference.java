@@ -0,0 +1,71 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+import java.util.Objects;
+
+/**
+ * The {@link CompiledExpression} for a {@link ReferenceExpression}.
+ */
+final class CompiledExpressionReference extends CompiledExpression {
+
+    static CompiledExpressionReference with(final ReferenceExpression expression) {
+        return new CompiledExpressionReference(expression);
+    }
+
+    private CompiledExpressionReference(final ReferenceExpression expression) {
+        super(expression);
+        this.reference = expression.value();
+    }
+
+    @Override
+    public boolean toBoolean(final ExpressionEvaluationContext context) {
+        return this.toValueAndConvert(context, Boolean.class);
+    }
+
+    @Override
+    public ExpressionNumber toExpressionNumber(final ExpressionEvaluationContext context) {
+        return this.toValueAndConvert(context, ExpressionNumber.class);
+    }
+
+    @Override
+    public String toString(final ExpressionEvaluationContext context) {
+        return this.toValueAndConvert(context, String.class);
+    }
+
+    @Override
+    public Object toReferenceOrValue(final ExpressionEvaluationContext context) {
+        Objects.requireNonNull(context, "context");
+        return this.reference;
+    }
+
+    @Override
+    public Object toValue(final ExpressionEvaluationContext context) {
+        return context.referenceOrFail(this.reference);
+    }
+
+    private <T> T toValueAndConvert(final ExpressionEvaluationContext context,
+                                    final Class<T> type) {
+        return context.convertOrFail(
+                context.referenceOrFail(this.reference),
+                type
+        );
+    }
+
+    private final ExpressionReference reference;
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.tree.expression;
+
+import walkingkooka.tree.expression.function.ExpressionFunction;
+
+import java.util.Optional;
+
+/**
+ * Wraps a {@link CompiledExpression} for a common sub-expression, whose value is computed once for each evaluation
+ * and kept in a slot of the {@link CommonSubexpressionsExpressionEvaluationContext}. When evaluated with any other
+ * {@link ExpressionEvaluationContext} the value is always computed.
+ */
+final class CompiledExpressionShared extends CompiledExpression {
+
+    static CompiledExpressionShared with(final CompiledExpression compiled,
+                                         final int slot) {
+        return new CompiledExpressionShared(compiled, slot);
+    }
+
+    private CompiledExpressionShared(final CompiledExpression compiled,
+                                     final int slot) {
+        super(compiled.expression);
+        this.compiled = compiled;
+        this.slot = slot;
+
+        final boolean list = compiled instanceof CompiledExpressionList;
+        final boolean arithmetic = compiled instanceof CompiledExpressionBinaryArithmetic;
+
+        this.convertValue = false == (list || arithmetic);
+        this.convertValueExpressionNumber = false == list;
+    }
+
+    @Override
+    Optional<ExpressionFunction<?, ExpressionEvaluationContext>> boundFunction() {
+        return this.compiled.boundFunction();
+    }
+
+    @Override
+    ExpressionFunction<?, ExpressionEvaluationContext> function(final ExpressionEvaluationContext context) {
+        return this.compiled.function(context);
+    }
+
+    @Override
+    public boolean toBoolean(final ExpressionEvaluationContext context) {
+        return this.convertValue ?
+                context.convertOrFail(this.toValue(context), Boolean.class) :
+                this.compiled.toBoolean(context);
+    }
+
+    @Override
+    public ExpressionNumber toExpressionNumber(final ExpressionEvaluationContext context) {
+        return this.convertValueExpressionNumber ?
+                context.convertOrFail(this.toValue(context), ExpressionNumber.class) :
+                this.compiled.toExpressionNumber(context);
+    }
+
+    @Override
+    public String toString(final ExpressionEvaluationContext context) {
+        return this.convertValue ?
+                context.convertOrFail(this.toValue(context), String.class) :
+                this.compiled.toString(context);
+    }
+
+    @Override
+    public Object toReferenceOrValue(final ExpressionEvaluationContext context) {
+        return this.compiled.toReferenceOrValue(context);
+    }
+
+    @Override
+    public Object toValue(final ExpressionEvaluationContext context) {
+        return context instanceof CommonSubexpressionsExpressionEvaluationContext ?
+                ((CommonSubexpressionsExpressionEvaluationContext) context).value(
+                        this.slot,
+                        this.compiled
+                ) :
+                this.compiled.toValue(context);
+    }
+
+    private final CompiledExpression compiled;
+
+    private final int slot;
+
+    /**
+     * When true toBoolean, toExpressionNumber and toString are equivalent to converting the shared value. This is
+     * not true for arithmetic, where the value is always a number, and for lists which convert each element.
+     */
+    private final boolean convertValue;
+
+    /**
+     * When true toExpressionNumber is equivalent to converting the shared value.
+     */
+    private final boolean convertValueExpressionNumber;
+}
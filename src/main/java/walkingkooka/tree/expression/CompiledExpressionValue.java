@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+/**
+ * The {@link CompiledExpression} for a {@link ValueExpression}.
+ */
+final class CompiledExpressionValue extends CompiledExpression {
+
+    static CompiledExpressionValue with(final ValueExpression<?> expression) {
+        return new CompiledExpressionValue(expression);
+    }
+
+    private CompiledExpressionValue(final ValueExpression<?> expression) {
+        super(expression);
+        this.value = expression.value();
+    }
+
+    @Override
+    public boolean toBoolean(final ExpressionEvaluationContext context) {
+        final Object value = this.value;
+        return value instanceof Boolean ?
+                (Boolean) value :
+                context.convertOrFail(value, Boolean.class);
+    }
+
+    @Override
+    public ExpressionNumber toExpressionNumber(final ExpressionEvaluationContext context) {
+        return context.convertOrFail(this.value, ExpressionNumber.class);
+    }
+
+    @Override
+    public String toString(final ExpressionEvaluationContext context) {
+        return context.convertOrFail(this.value, String.class);
+    }
+
+    @Override
+    public Object toValue(final ExpressionEvaluationContext context) {
+        return this.value;
+    }
+
+    @Override
+    public double toDouble(final ExpressionEvaluationContext context) {
+        final Object value = this.value;
+        return value instanceof ExpressionNumber ?
+                ((ExpressionNumber) value).setKind(context.expressionNumberKind())
+                        .doubleValue() :
+                super.toDouble(context);
+    }
+
+    @Override
+    public long toLong(final ExpressionEvaluationContext context) {
+        final Object value = this.value;
+        return value instanceof ExpressionNumber ?
+                ((ExpressionNumber) value).setKind(context.expressionNumberKind())
+                        .longValue() :
+                super.toLong(context);
+    }
+
+    private final Object value;
+}
@@ -262,6 +262,11 @@ final class CycleDetectingExpressionEvaluationContext implements ExpressionEvalu
         return this.context.caseSensitivity();
     }
 
+    @Override
+    public boolean isShortCircuit() {
+        return this.context.isShortCircuit();
+    }
+
     @Override
     public boolean isText(final Object value) {
         return this.context.isText(value);
@@ -83,6 +83,19 @@ public final class DivideExpression extends BinaryArithmeticExpression {
         return left.divide(right, context);
     }
 
+    @Override
+    double applyDouble(final double left,
+                       final double right) {
+        final double result = left / right;
+        if (Double.isNaN(result) || Double.isInfinite(result)) {
+            throw new ExpressionEvaluationException(
+                    "Division by zero",
+                    new ArithmeticException("Division by zero")
+            );
+        }
+        return result;
+    }
+
     // Object .........................................................................................................
 
     @Override
@@ -31,7 +31,9 @@ import walkingkooka.tree.select.parser.NodeSelectorExpressionParserToken;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 /**
@@ -521,6 +523,82 @@ public abstract class Expression implements Node<Expression, FunctionExpressionN
      */
     public abstract Object toValue(final ExpressionEvaluationContext context);
 
+    /**
+     * Evaluates this node as a double. Numeric sub classes override this to avoid creating intermediate
+     * {@link ExpressionNumber} when the {@link ExpressionNumberKind} is {@link ExpressionNumberKind#DOUBLE}.
+     */
+    public double toDouble(final ExpressionEvaluationContext context) {
+        return this.toExpressionNumber(context).doubleValue();
+    }
+
+    /**
+     * Evaluates this node as a long.
+     */
+    public long toLong(final ExpressionEvaluationContext context) {
+        return this.toExpressionNumber(context).longValue();
+    }
+
+    /**
+     * Returns true if this node always evaluates to a {@link ExpressionNumber}, and never text or other values
+     * that require conversion.
+     */
+    boolean isExpressionNumberResult() {
+        return false;
+    }
+
+    /**
+     * Returns true if this node always evaluates to a {@link Boolean}.
+     */
+    boolean isBooleanResult() {
+        return false;
+    }
+
+    // Compile..........................................................................................................
+
+    /**
+     * Compiles this {@link Expression} into a {@link CompiledExpression} which may be evaluated many times without
+     * repeating the work of walking this {@link Expression}. Any {@link NamedFunctionExpression} is resolved once using
+     * the given functions, names that are not found will be resolved by {@link ExpressionEvaluationContext#function(FunctionExpressionName)}
+     * during evaluation.
+     */
+    public final CompiledExpression compile(final Function<FunctionExpressionName, Optional<ExpressionFunction<?, ExpressionEvaluationContext>>> functions) {
+        Objects.requireNonNull(functions, "functions");
+
+        return ExpressionCompiler.with(
+                functions,
+                ExpressionCommonSubexpressions.NONE
+        ).compile(this);
+    }
+
+    /**
+     * Compiles this {@link Expression} like {@link #compile(Function)}, but structurally equal sub-expressions that
+     * appear more than once are computed only once for each evaluation. The {@link ExpressionPurityContext} is used
+     * to make sure calls to impure functions are never shared.
+     */
+    public final CompiledExpression compile(final Function<FunctionExpressionName, Optional<ExpressionFunction<?, ExpressionEvaluationContext>>> functions,
+                                            final ExpressionPurityContext context) {
+        Objects.requireNonNull(functions, "functions");
+        Objects.requireNonNull(context, "context");
+
+        final ExpressionCommonSubexpressions commonSubexpressions = ExpressionCommonSubexpressions.with(
+                this,
+                context
+        );
+        final CompiledExpression compiled = ExpressionCompiler.with(
+                functions,
+                commonSubexpressions
+        ).compile(this);
+
+        return 0 == commonSubexpressions.count() ?
+                compiled :
+                CompiledExpressionCommonSubexpressions.with(
+                        compiled,
+                        commonSubexpressions.count()
+                );
+    }
+
+    abstract CompiledExpression compile0(final ExpressionCompiler compiler);
+
     // TreePrintable...................................................................................................
 
     @Override
@@ -535,8 +613,23 @@ public abstract class Expression implements Node<Expression, FunctionExpressionN
 
     // Object .......................................................................................................
 
+    /**
+     * Returns a hash of this expression and all its descendants ignoring any parent. The hash is computed once
+     * when the expression is created, making it a cheap key for callers building expression caches.
+     */
+    public final int structuralHash() {
+        return this.structuralHash;
+    }
+
+    /**
+     * Sub classes must set this in their constructor.
+     */
+    int structuralHash;
+
     @Override
-    public abstract int hashCode();
+    public final int hashCode() {
+        return this.structuralHash;
+    }
 
     @Override
     @SuppressWarnings("EqualsWhichDoesntCheckParameterClass")
@@ -549,7 +642,8 @@ public abstract class Expression implements Node<Expression, FunctionExpressionN
     abstract boolean canBeEqual(final Object other);
 
     private boolean equals0(final Expression other) {
-        return this.equalsAncestors(other) &&
+        return this.structuralHash == other.structuralHash &&
+                this.equalsAncestors(other) &&
                 this.equalsDescendants0(other);
     }
 
@@ -576,8 +670,10 @@ public abstract class Expression implements Node<Expression, FunctionExpressionN
     }
 
     final boolean equalsDescendants(final Expression other) {
-        return this.equalsIgnoringParentAndChildren(other) &&
-                this.equalsDescendants0(other);
+        return this == other ||
+                this.structuralHash == other.structuralHash &&
+                        this.equalsIgnoringParentAndChildren(other) &&
+                        this.equalsDescendants0(other);
     }
 
     abstract boolean equalsDescendants0(final Expression other);
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.tree.expression;
+
+import walkingkooka.collect.list.Lists;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds structurally equal sub-expressions that appear more than once within a single {@link Expression} and can be
+ * safely computed once per evaluation, assigning each a slot. A sub-expression may be shared when
+ * <ul>
+ * <li>it is not a {@link ValueExpression} or {@link NamedFunctionExpression}, which are already cheap</li>
+ * <li>every {@link CallExpression} within it calls a {@link NamedFunctionExpression} that is pure</li>
+ * <li>it is not within a {@link LambdaFunctionExpression}, where references are parameters that change between calls</li>
+ * </ul>
+ * {@link ReferenceExpression} may be shared, as a reference has the same value for the duration of an evaluation.
+ */
+final class ExpressionCommonSubexpressions {
+
+    /**
+     * Returned by {@link #slot(Expression)} when an {@link Expression} is not shared.
+     */
+    final static int NO_SLOT = -1;
+
+    /**
+     * An instance that shares nothing.
+     */
+    final static ExpressionCommonSubexpressions NONE = new ExpressionCommonSubexpressions(
+            new IdentityHashMap<>(),
+            0
+    );
+
+    static ExpressionCommonSubexpressions with(final Expression expression,
+                                               final ExpressionPurityContext context) {
+        final Map<Expression, List<Expression>> occurrences = new HashMap<>();
+        collect(
+                expression,
+                context,
+                occurrences
+        );
+
+        final Map<Expression, Integer> slots = new IdentityHashMap<>();
+        int count = 0;
+
+        for (final List<Expression> equal : occurrences.values()) {
+            if (equal.size() > 1) {
+                for (final Expression shared : equal) {
+                    slots.put(shared, count);
+                }
+                count++;
+            }
+        }
+
+        return 0 == count ?
+                NONE :
+                new ExpressionCommonSubexpressions(slots, count);
+    }
+
+    /**
+     * Records every sharable {@link Expression} grouped by its parent-less equivalent, returning true if the
+     * given {@link Expression} and all its descendants may be shared.
+     */
+    private static boolean collect(final Expression expression,
+                                   final ExpressionPurityContext context,
+                                   final Map<Expression, List<Expression>> occurrences) {
+        boolean sharable = false;
+
+        if (false == expression instanceof LambdaFunctionExpression) {
+            sharable = expression instanceof CallExpression ?
+                    isPure((CallExpression) expression, context) :
+                    true;
+
+            for (final Expression child : expression.children()) {
+                sharable &= collect(
+                        child,
+                        context,
+                        occurrences
+                );
+            }
+
+            if (sharable && false == expression instanceof ValueExpression && false == expression instanceof NamedFunctionExpression) {
+                occurrences.computeIfAbsent(
+                        expression.removeParent0(),
+                        (k) -> Lists.array()
+                ).add(expression);
+            }
+        }
+
+        return sharable;
+    }
+
+    /**
+     * Only calls to a pure named function may be shared, unknown functions are never pure.
+     */
+    private static boolean isPure(final CallExpression call,
+                                  final ExpressionPurityContext context) {
+        final Expression callable = call.callable();
+
+        boolean pure;
+        try {
+            pure = callable instanceof NamedFunctionExpression &&
+                    callable.isPure(context);
+        } catch (final RuntimeException ignore) {
+            pure = false;
+        }
+        return pure;
+    }
+
+    private ExpressionCommonSubexpressions(final Map<Expression, Integer> slots,
+                                           final int count) {
+        this.slots = slots;
+        this.count = count;
+    }
+
+    /**
+     * Returns the slot for the given {@link Expression} or {@link #NO_SLOT} if it is not shared.
+     */
+    int slot(final Expression expression) {
+        final Integer slot = this.slots.get(expression);
+        return null == slot ?
+                NO_SLOT :
+                slot;
+    }
+
+    /**
+     * The number of slots, each slot holds a common sub-expression that appears more than once.
+     */
+    int count() {
+        return this.count;
+    }
+
+    /**
+     * Occurrences are compared by identity, as equality includes the parent.
+     */
+    private final Map<Expression, Integer> slots;
+
+    private final int count;
+
+    @Override
+    public String toString() {
+        return this.count + " common sub-expression(s)";
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.tree.expression;
+
+import walkingkooka.collect.map.Maps;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Holds the state used while compiling an {@link Expression} into a {@link CompiledExpression}. Each {@link Expression}
+ * compiles its children using {@link #compile(Expression)}, which also wraps any common sub-expression.
+ */
+final class ExpressionCompiler {
+
+    static ExpressionCompiler with(final Function<FunctionExpressionName, Optional<ExpressionFunction<?, ExpressionEvaluationContext>>> functions,
+                                   final ExpressionCommonSubexpressions commonSubexpressions) {
+        return new ExpressionCompiler(
+                functions,
+                commonSubexpressions
+        );
+    }
+
+    private ExpressionCompiler(final Function<FunctionExpressionName, Optional<ExpressionFunction<?, ExpressionEvaluationContext>>> functions,
+                               final ExpressionCommonSubexpressions commonSubexpressions) {
+        this.functions = functions;
+        this.commonSubexpressions = commonSubexpressions;
+    }
+
+    /**
+     * Compiles the given {@link Expression}, if it is a common sub-expression it is wrapped so its value is only
+     * computed once for each evaluation.
+     */
+    CompiledExpression compile(final Expression expression) {
+        final CompiledExpression compiled = expression.compile0(this);
+        final int slot = this.commonSubexpressions.slot(expression);
+
+        return ExpressionCommonSubexpressions.NO_SLOT == slot ?
+                compiled :
+                CompiledExpressionShared.with(
+                        compiled,
+                        slot
+                );
+    }
+
+    /**
+     * Resolves the function with the given name, the function will be empty if it should be resolved during evaluation.
+     * Each name is only resolved once for each compilation, even if it appears many times.
+     */
+    Optional<ExpressionFunction<?, ExpressionEvaluationContext>> function(final FunctionExpressionName name) {
+        Optional<ExpressionFunction<?, ExpressionEvaluationContext>> function = this.nameToFunction.get(name);
+        if (null == function) {
+            function = Objects.requireNonNull(
+                    this.functions.apply(name),
+                    "functions returned null"
+            );
+            this.nameToFunction.put(name, function);
+        }
+        return function;
+    }
+
+    private final Map<FunctionExpressionName, Optional<ExpressionFunction<?, ExpressionEvaluationContext>>> nameToFunction = Maps.hash();
+
+    private final Function<FunctionExpressionName, Optional<ExpressionFunction<?, ExpressionEvaluationContext>>> functions;
+
+    private final ExpressionCommonSubexpressions commonSubexpressions;
+
+    @Override
+    public String toString() {
+        return this.functions + " " + this.commonSubexpressions;
+    }
+}
@@ -181,4 +181,12 @@ public interface ExpressionEvaluationContext extends Context,
      * Controls whether equals or not equals tests are case sensitive for {@link String strings}
      */
     CaseSensitivity caseSensitivity();
+
+    /**
+     * When true {@link AndExpression} and {@link OrExpression} with a {@link Boolean} left value that already decides
+     * the result skip evaluating their right. Numeric left values are always combined bitwise with both sides evaluated.
+     */
+    default boolean isShortCircuit() {
+        return false;
+    }
 }
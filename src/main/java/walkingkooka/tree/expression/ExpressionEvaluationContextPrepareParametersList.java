@@ -20,17 +20,17 @@ package walkingkooka.tree.expression;
 import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
 import walkingkooka.tree.expression.function.ExpressionFunctionParameterCardinality;
 import walkingkooka.tree.expression.function.ExpressionFunctionParameterKind;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterMetadata;
 
 import java.util.AbstractList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
-import java.util.Set;
 
 /**
  * Wraps the {@link List} of parameters values and performs several actions lazily for each parameter.
  * <ul>
- * <li>Evaluate {@link Expression} if {@link ExpressionFunctionParameterKind#EVALUATE}</li>
+ * <li>Evaluate {@link Expression} or {@link CompiledExpression} if {@link ExpressionFunctionParameterKind#EVALUATE}</li>
  * <li>Resolve {@link ReferenceExpression} if {@link ExpressionFunctionParameterKind#RESOLVE_REFERENCES}</li>
  * <li>Convert values to the {@link ExpressionFunctionParameter#type()}</li>
  * </ul>
@@ -62,29 +62,31 @@ abstract class ExpressionEvaluationContextPrepareParametersList extends Abstract
     }
 
     /**
-     * Factory that tests if the last parameter is {@link ExpressionFunctionParameterKind#FLATTEN} and creates
-     * the appropriate sub-class.
+     * Factory that uses the {@link ExpressionFunctionParameterMetadata} to select the appropriate sub-class. When no
+     * parameter requires any preparation and all values have a parameter the values are returned without wrapping.
      */
     private static List<Object> withNotEmpty(final List<ExpressionFunctionParameter<?>> parameters,
                                              final List<Object> values,
                                              final ExpressionEvaluationContext context) {
-        final int count = parameters.size();
-        final ExpressionFunctionParameter<?> last = parameters.get(count - 1);
+        final ExpressionFunctionParameterMetadata metadata = ExpressionFunctionParameterMetadata.with(parameters);
+        final int flattenIndex = metadata.flattenIndex();
 
-        return last.kinds().contains(ExpressionFunctionParameterKind.FLATTEN) ?
-                ExpressionEvaluationContextPrepareParametersListFlattened.withFlattened(
-                        parameters,
-                        values,
-                        count - 1,
-                        last,
-                        context
-                ) :
-                ExpressionEvaluationContextPrepareParametersListNonFlattened.withNonFlattened(
-                        parameters,
-                        values,
-                        values.size(),
-                        context
-                );
+        return metadata.isNoKinds() && (metadata.isVariable() || values.size() <= metadata.count()) ?
+                values :
+                ExpressionFunctionParameterMetadata.NO_FLATTEN != flattenIndex ?
+                        ExpressionEvaluationContextPrepareParametersListFlattened.withFlattened(
+                                parameters,
+                                values,
+                                flattenIndex,
+                                parameters.get(flattenIndex),
+                                context
+                        ) :
+                        ExpressionEvaluationContextPrepareParametersListNonFlattened.withNonFlattened(
+                                parameters,
+                                values,
+                                values.size(),
+                                context
+                        );
     }
 
     /**
@@ -137,7 +139,8 @@ abstract class ExpressionEvaluationContextPrepareParametersList extends Abstract
     final Object prepareValue(final ExpressionFunctionParameter<?> parameter,
                               final Object value) {
         final ExpressionEvaluationContext context = this.context;
-        final Set<ExpressionFunctionParameterKind> kinds = parameter.kinds();
+        final boolean evaluate = parameter.isKind(ExpressionFunctionParameterKind.EVALUATE);
+        final boolean resolveReferences = parameter.isKind(ExpressionFunctionParameterKind.RESOLVE_REFERENCES);
         Object result = value;
 
         int i = 0;
@@ -145,7 +148,7 @@ abstract class ExpressionEvaluationContextPrepareParametersList extends Abstract
         do {
             j = i;
 
-            if (result instanceof Expression && kinds.contains(ExpressionFunctionParameterKind.EVALUATE)) {
+            if (evaluate && result instanceof Expression) {
                 final Expression expression = (Expression) result;
 
                 Object result1;
@@ -157,7 +160,19 @@ abstract class ExpressionEvaluationContextPrepareParametersList extends Abstract
                 result = result1;
                 i++;
             }
-            if (result instanceof ExpressionReference && kinds.contains(ExpressionFunctionParameterKind.RESOLVE_REFERENCES)) {
+            if (evaluate && result instanceof CompiledExpression) {
+                final CompiledExpression compiled = (CompiledExpression) result;
+
+                Object result1;
+                try {
+                    result1 = compiled.toReferenceOrValue(context);
+                } catch (final RuntimeException cause) {
+                    result1 = context.handleException(cause);
+                }
+                result = result1;
+                i++;
+            }
+            if (resolveReferences && result instanceof ExpressionReference) {
                 result = context.referenceOrFail((ExpressionReference) result);
                 i++;
             }
@@ -177,8 +192,7 @@ abstract class ExpressionEvaluationContextPrepareParametersList extends Abstract
                     value
             );
 
-            result = parameter.kinds()
-                    .contains(ExpressionFunctionParameterKind.CONVERT) ?
+            result = parameter.isKind(ExpressionFunctionParameterKind.CONVERT) ?
                     context.prepareParameter(
                             parameter,
                             prepared
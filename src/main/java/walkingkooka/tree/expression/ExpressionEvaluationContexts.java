@@ -23,6 +23,7 @@ import walkingkooka.text.CaseSensitivity;
 import walkingkooka.tree.expression.function.ExpressionFunction;
 
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 
 public final class ExpressionEvaluationContexts implements PublicStaticHelper {
@@ -62,6 +63,30 @@ public final class ExpressionEvaluationContexts implements PublicStaticHelper {
         return new FakeExpressionEvaluationContext();
     }
 
+    /**
+     * {@see ParallelExpressionEvaluationContext}
+     */
+    public static ParallelExpressionEvaluationContext parallel(final ExpressionEvaluationContext context,
+                                                               final Executor executor,
+                                                               final int parallelism,
+                                                               final int threshold,
+                                                               final Function<ExpressionEvaluationContext, ExpressionEvaluationContext> fork) {
+        return ParallelExpressionEvaluationContext.with(
+                context,
+                executor,
+                parallelism,
+                threshold,
+                fork
+        );
+    }
+
+    /**
+     * {@see ReferenceCachingExpressionEvaluationContext}
+     */
+    public static ReferenceCachingExpressionEvaluationContext referenceCaching(final ExpressionEvaluationContext context) {
+        return ReferenceCachingExpressionEvaluationContext.with(context);
+    }
+
     /**
      * A namedFunction that creates a {@link ExpressionEvaluationReferenceException}.
      */
@@ -72,6 +97,13 @@ public final class ExpressionEvaluationContexts implements PublicStaticHelper {
         );
     }
 
+    /**
+     * {@see ShortCircuitExpressionEvaluationContext}
+     */
+    public static ExpressionEvaluationContext shortCircuit(final ExpressionEvaluationContext context) {
+        return ShortCircuitExpressionEvaluationContext.with(context);
+    }
+
     /**
      * Stop creation
      */
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.tree.expression;
+
+import walkingkooka.Cast;
+import walkingkooka.collect.list.Lists;
+
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+
+/**
+ * An interning factory that returns a canonical instance for equal parent-less {@link Expression expressions}.
+ * Children are interned first, so identical sub-expressions shared by many formulas become the same instance.
+ * <br>
+ * Interned expressions share their interned children, so comparing two of them stops at the first shared child rather
+ * than walking it, making them cheap keys for expression caches. Which instances are canonical is only recorded by
+ * the {@link ExpressionInterner} itself, the given expressions are never modified.
+ * <br>
+ * Weak or soft references are not available in all runtimes this library targets, instead the number of canonical
+ * instances is bounded and the least recently used are evicted once full. Instances are not thread safe.
+ */
+public final class ExpressionInterner {
+
+    /**
+     * Creates a new {@link ExpressionInterner} holding up to the given number of canonical expressions.
+     */
+    public static ExpressionInterner with(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Invalid capacity " + capacity + " <= 0");
+        }
+        return new ExpressionInterner(capacity);
+    }
+
+    private ExpressionInterner(final int capacity) {
+        this.capacity = capacity;
+        this.expressions = new LinkedHashMap<Expression, Expression>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Entry<Expression, Expression> eldest) {
+                final boolean remove = this.size() > ExpressionInterner.this.capacity;
+                if (remove) {
+                    ExpressionInterner.this.canonicals.remove(eldest.getValue());
+                }
+                return remove;
+            }
+        };
+    }
+
+    /**
+     * Returns the canonical instance equal to the given {@link Expression}, which is always parent-less.
+     */
+    public <E extends Expression> E intern(final E expression) {
+        Objects.requireNonNull(expression, "expression");
+
+        return Cast.to(
+                this.intern0(
+                        expression.removeParent0()
+                )
+        );
+    }
+
+    private Expression intern0(final Expression expression) {
+        Expression canonical;
+
+        if (this.canonicals.containsKey(expression)) {
+            canonical = expression;
+        } else {
+            final Expression withInternedChildren = this.internChildren(expression);
+
+            canonical = this.expressions.get(withInternedChildren);
+            if (null == canonical) {
+                canonical = withInternedChildren;
+                this.expressions.put(canonical, canonical);
+                this.canonicals.put(canonical, canonical);
+            }
+        }
+
+        return canonical;
+    }
+
+    /**
+     * Interns the parent-less children of a {@link ParentExpression}, only creating a new parent if at least one
+     * child was replaced by its canonical instance.
+     */
+    private Expression internChildren(final Expression expression) {
+        Expression result = expression;
+
+        if (expression instanceof ParentExpression) {
+            final ParentExpression parent = (ParentExpression) expression;
+            final List<Expression> children = parent.green;
+            final int count = children.size();
+
+            List<Expression> interned = null;
+
+            for (int i = 0; i < count; i++) {
+                final Expression child = children.get(i);
+                final Expression internedChild = this.intern0(child);
+
+                if (child != internedChild) {
+                    if (null == interned) {
+                        interned = Lists.array();
+                        interned.addAll(children);
+                    }
+                    interned.set(i, internedChild);
+                }
+            }
+
+            if (null != interned) {
+                result = parent.replace0(
+                        Expression.NO_INDEX,
+                        interned
+                );
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the number of canonical expressions currently held.
+     */
+    public int size() {
+        return this.expressions.size();
+    }
+
+    /**
+     * Forgets all canonical expressions.
+     */
+    public void clear() {
+        this.expressions.clear();
+        this.canonicals.clear();
+    }
+
+    private final int capacity;
+
+    private final Map<Expression, Expression> expressions;
+
+    /**
+     * The canonical instances held by {@link #expressions} compared by reference, so a canonical instance is returned
+     * without comparing it to the others.
+     */
+    private final Map<Expression, Expression> canonicals = new IdentityHashMap<>();
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return this.expressions.size() + "/" + this.capacity;
+    }
+}
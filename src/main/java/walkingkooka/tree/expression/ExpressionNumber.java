@@ -48,7 +48,7 @@ public abstract class ExpressionNumber extends Number implements Comparable<Expr
      */
     public static boolean isClass(final Class<?> value) {
         return (null != value && Maths.isNumberClass(value)) ||
-                (value == ExpressionNumber.class || value == ExpressionNumberBigDecimal.class || value == ExpressionNumberDouble.class);
+                (value == ExpressionNumber.class || value == ExpressionNumberBigDecimal.class || value == ExpressionNumberDouble.class || value == ExpressionNumberScaledLong.class);
     }
 
     /**
@@ -89,7 +89,7 @@ public abstract class ExpressionNumber extends Number implements Comparable<Expr
     }
 
     public final boolean isBigDecimal() {
-        return this instanceof ExpressionNumberBigDecimal;
+        return ExpressionNumberKind.BIG_DECIMAL == this.kind();
     }
 
     public final boolean isDouble() {
@@ -112,7 +112,7 @@ public abstract class ExpressionNumber extends Number implements Comparable<Expr
                 this.setKindDouble();
     }
 
-    abstract ExpressionNumberBigDecimal setKindBigDecimal();
+    abstract ExpressionNumber setKindBigDecimal();
 
     abstract ExpressionNumberDouble setKindDouble();
 
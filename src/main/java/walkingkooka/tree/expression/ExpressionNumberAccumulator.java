@@ -0,0 +1,204 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * A mutable accumulator that folds many {@link ExpressionNumber} into a single sum, product, min or max. The
+ * {@link ExpressionNumberKind#DOUBLE} accumulator keeps a primitive double total and only creates an
+ * {@link ExpressionNumber} when {@link #value()} is called, other kinds fold using the {@link ExpressionNumber} methods.
+ * Instances are not thread safe.
+ */
+public abstract class ExpressionNumberAccumulator {
+
+    /**
+     * Creates an accumulator that adds all values.
+     */
+    public static ExpressionNumberAccumulator sum(final ExpressionNumberKind kind,
+                                                  final ExpressionNumberContext context) {
+        return with(ExpressionNumberAccumulatorOperation.SUM, kind, context);
+    }
+
+    /**
+     * Creates an accumulator that adds all values, using Neumaier compensated summation for
+     * {@link ExpressionNumberKind#DOUBLE} to reduce the rounding error of long sums. Other kinds add exactly as
+     * {@link #sum(ExpressionNumberKind, ExpressionNumberContext)}.
+     */
+    public static ExpressionNumberAccumulator sumCompensated(final ExpressionNumberKind kind,
+                                                             final ExpressionNumberContext context) {
+        Objects.requireNonNull(kind, "kind");
+        Objects.requireNonNull(context, "context");
+
+        return ExpressionNumberKind.DOUBLE == kind ?
+                ExpressionNumberAccumulatorDoubleCompensated.with() :
+                ExpressionNumberAccumulatorExpressionNumber.with(ExpressionNumberAccumulatorOperation.SUM, kind, context);
+    }
+
+    /**
+     * Creates an accumulator that multiplies all values.
+     */
+    public static ExpressionNumberAccumulator product(final ExpressionNumberKind kind,
+                                                      final ExpressionNumberContext context) {
+        return with(ExpressionNumberAccumulatorOperation.PRODUCT, kind, context);
+    }
+
+    /**
+     * Creates an accumulator that keeps the smallest value.
+     */
+    public static ExpressionNumberAccumulator min(final ExpressionNumberKind kind,
+                                                  final ExpressionNumberContext context) {
+        return with(ExpressionNumberAccumulatorOperation.MIN, kind, context);
+    }
+
+    /**
+     * Creates an accumulator that keeps the largest value.
+     */
+    public static ExpressionNumberAccumulator max(final ExpressionNumberKind kind,
+                                                  final ExpressionNumberContext context) {
+        return with(ExpressionNumberAccumulatorOperation.MAX, kind, context);
+    }
+
+    private static ExpressionNumberAccumulator with(final ExpressionNumberAccumulatorOperation operation,
+                                                    final ExpressionNumberKind kind,
+                                                    final ExpressionNumberContext context) {
+        Objects.requireNonNull(kind, "kind");
+        Objects.requireNonNull(context, "context");
+
+        return ExpressionNumberKind.DOUBLE == kind ?
+                ExpressionNumberAccumulatorDouble.with(operation) :
+                ExpressionNumberAccumulatorExpressionNumber.with(operation, kind, context);
+    }
+
+    /**
+     * Package private to limit sub classing.
+     */
+    ExpressionNumberAccumulator(final ExpressionNumberAccumulatorOperation operation,
+                                final ExpressionNumberKind kind) {
+        super();
+        this.operation = operation;
+        this.kind = kind;
+    }
+
+    /**
+     * Folds the given value into the total.
+     */
+    public final ExpressionNumberAccumulator accumulate(final ExpressionNumber value) {
+        Objects.requireNonNull(value, "value");
+
+        if (0 == this.count) {
+            this.first(value);
+        } else {
+            this.accumulate0(value);
+        }
+        this.count++;
+        return this;
+    }
+
+    abstract void first(final ExpressionNumber value);
+
+    /**
+     * Folds all the values in order into the total.
+     */
+    public final ExpressionNumberAccumulator accumulateAll(final List<ExpressionNumber> values) {
+        Objects.requireNonNull(values, "values");
+
+        if (values instanceof RandomAccess) {
+            final int count = values.size();
+            for (int i = 0; i < count; i++) {
+                this.accumulate(values.get(i));
+            }
+        } else {
+            for (final ExpressionNumber value : values) {
+                this.accumulate(value);
+            }
+        }
+        return this;
+    }
+
+    abstract void accumulate0(final ExpressionNumber value);
+
+    /**
+     * Folds the given double into the total.
+     */
+    public final ExpressionNumberAccumulator accumulate(final double value) {
+        if (0 == this.count) {
+            this.firstDouble(value);
+        } else {
+            this.accumulateDouble0(value);
+        }
+        this.count++;
+        return this;
+    }
+
+    abstract void firstDouble(final double value);
+
+    abstract void accumulateDouble0(final double value);
+
+    /**
+     * The number of values accumulated since creation or the last {@link #reset()}.
+     */
+    public final long count() {
+        return this.count;
+    }
+
+    private long count;
+
+    /**
+     * Returns the total, or {@link ExpressionNumberKind#zero()} if no values have been accumulated, except for a
+     * product which returns {@link ExpressionNumberKind#one()}.
+     */
+    public final ExpressionNumber value() {
+        return 0 == this.count ?
+                this.operation.empty(this.kind) :
+                this.value0();
+    }
+
+    abstract ExpressionNumber value0();
+
+    /**
+     * Clears the total and count so this accumulator may be used again.
+     */
+    public final ExpressionNumberAccumulator reset() {
+        this.count = 0;
+        this.reset0();
+        return this;
+    }
+
+    abstract void reset0();
+
+    /**
+     * The {@link ExpressionNumberKind} of the {@link #value()}.
+     */
+    public final ExpressionNumberKind kind() {
+        return this.kind;
+    }
+
+    private final ExpressionNumberKind kind;
+
+    final ExpressionNumberAccumulatorOperation operation;
+
+    // Object...........................................................................................................
+
+    @Override
+    public final String toString() {
+        return this.operation + " " + this.value();
+    }
+}
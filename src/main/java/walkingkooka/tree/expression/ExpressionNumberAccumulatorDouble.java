@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+/**
+ * A {@link ExpressionNumberAccumulator} for {@link ExpressionNumberKind#DOUBLE} that keeps its total in a primitive
+ * double, accumulating never allocates.
+ */
+final class ExpressionNumberAccumulatorDouble extends ExpressionNumberAccumulator {
+
+    static ExpressionNumberAccumulatorDouble with(final ExpressionNumberAccumulatorOperation operation) {
+        return new ExpressionNumberAccumulatorDouble(operation);
+    }
+
+    private ExpressionNumberAccumulatorDouble(final ExpressionNumberAccumulatorOperation operation) {
+        super(operation, ExpressionNumberKind.DOUBLE);
+    }
+
+    @Override
+    void first(final ExpressionNumber value) {
+        this.firstDouble(value.doubleValue());
+    }
+
+    @Override
+    void accumulate0(final ExpressionNumber value) {
+        this.accumulateDouble0(value.doubleValue());
+    }
+
+    @Override
+    void firstDouble(final double value) {
+        this.total = value;
+    }
+
+    @Override
+    void accumulateDouble0(final double value) {
+        this.total = this.operation.applyDouble(this.total, value);
+    }
+
+    @Override
+    ExpressionNumber value0() {
+        return ExpressionNumberDouble.withDouble(this.total);
+    }
+
+    @Override
+    void reset0() {
+        this.total = 0;
+    }
+
+    private double total;
+}
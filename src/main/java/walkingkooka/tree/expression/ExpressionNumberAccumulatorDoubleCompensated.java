@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+/**
+ * A {@link ExpressionNumberAccumulator} that sums {@link ExpressionNumberKind#DOUBLE} values using Neumaier's variant
+ * of Kahan summation, keeping a running compensation for the low order bits lost by each addition.
+ */
+final class ExpressionNumberAccumulatorDoubleCompensated extends ExpressionNumberAccumulator {
+
+    static ExpressionNumberAccumulatorDoubleCompensated with() {
+        return new ExpressionNumberAccumulatorDoubleCompensated();
+    }
+
+    private ExpressionNumberAccumulatorDoubleCompensated() {
+        super(ExpressionNumberAccumulatorOperation.SUM, ExpressionNumberKind.DOUBLE);
+    }
+
+    @Override
+    void first(final ExpressionNumber value) {
+        this.firstDouble(value.doubleValue());
+    }
+
+    @Override
+    void accumulate0(final ExpressionNumber value) {
+        this.accumulateDouble0(value.doubleValue());
+    }
+
+    @Override
+    void firstDouble(final double value) {
+        this.total = value;
+        this.compensation = 0;
+    }
+
+    @Override
+    void accumulateDouble0(final double value) {
+        final double total = this.total;
+        final double sum = total + value;
+
+        this.compensation += Math.abs(total) >= Math.abs(value) ?
+                (total - sum) + value :
+                (value - sum) + total;
+        this.total = sum;
+    }
+
+    @Override
+    ExpressionNumber value0() {
+        return ExpressionNumberDouble.withDouble(this.total + this.compensation);
+    }
+
+    @Override
+    void reset0() {
+        this.total = 0;
+        this.compensation = 0;
+    }
+
+    private double total;
+
+    private double compensation;
+}
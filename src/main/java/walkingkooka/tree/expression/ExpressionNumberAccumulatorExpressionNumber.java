@@ -0,0 +1,74 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+/**
+ * A {@link ExpressionNumberAccumulator} that folds values using the {@link ExpressionNumber} methods, giving the
+ * {@link ExpressionNumberContext} to operations such as add that require it.
+ */
+final class ExpressionNumberAccumulatorExpressionNumber extends ExpressionNumberAccumulator {
+
+    static ExpressionNumberAccumulatorExpressionNumber with(final ExpressionNumberAccumulatorOperation operation,
+                                                            final ExpressionNumberKind kind,
+                                                            final ExpressionNumberContext context) {
+        return new ExpressionNumberAccumulatorExpressionNumber(operation, kind, context);
+    }
+
+    private ExpressionNumberAccumulatorExpressionNumber(final ExpressionNumberAccumulatorOperation operation,
+                                                        final ExpressionNumberKind kind,
+                                                        final ExpressionNumberContext context) {
+        super(operation, kind);
+        this.context = context;
+    }
+
+    @Override
+    void first(final ExpressionNumber value) {
+        this.total = value.setKind(this.kind());
+    }
+
+    @Override
+    void accumulate0(final ExpressionNumber value) {
+        this.total = this.operation.apply(this.total, value, this.context);
+    }
+
+    @Override
+    void firstDouble(final double value) {
+        this.total = this.kind().create(value);
+    }
+
+    @Override
+    void accumulateDouble0(final double value) {
+        this.accumulate0(
+                this.kind().create(value)
+        );
+    }
+
+    @Override
+    ExpressionNumber value0() {
+        return this.total;
+    }
+
+    @Override
+    void reset0() {
+        this.total = null;
+    }
+
+    private ExpressionNumber total;
+
+    private final ExpressionNumberContext context;
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+/**
+ * The operations supported by a {@link ExpressionNumberAccumulator}, each with a double and {@link ExpressionNumber}
+ * form that give the same results as the matching {@link ExpressionNumber} method.
+ */
+enum ExpressionNumberAccumulatorOperation {
+
+    SUM {
+        @Override
+        double applyDouble(final double total,
+                           final double value) {
+            return total + value;
+        }
+
+        @Override
+        ExpressionNumber apply(final ExpressionNumber total,
+                               final ExpressionNumber value,
+                               final ExpressionNumberContext context) {
+            return total.add(value, context);
+        }
+    },
+
+    PRODUCT {
+        @Override
+        double applyDouble(final double total,
+                           final double value) {
+            return total * value;
+        }
+
+        @Override
+        ExpressionNumber apply(final ExpressionNumber total,
+                               final ExpressionNumber value,
+                               final ExpressionNumberContext context) {
+            return total.multiply(value, context);
+        }
+
+        /**
+         * The identity of a product is one, so an empty product multiplied into another value leaves it unchanged.
+         */
+        @Override
+        ExpressionNumber empty(final ExpressionNumberKind kind) {
+            return kind.one();
+        }
+    },
+
+    MIN {
+        @Override
+        double applyDouble(final double total,
+                           final double value) {
+            return Math.min(total, value);
+        }
+
+        @Override
+        ExpressionNumber apply(final ExpressionNumber total,
+                               final ExpressionNumber value,
+                               final ExpressionNumberContext context) {
+            return total.min(value);
+        }
+    },
+
+    MAX {
+        @Override
+        double applyDouble(final double total,
+                           final double value) {
+            return Math.max(total, value);
+        }
+
+        @Override
+        ExpressionNumber apply(final ExpressionNumber total,
+                               final ExpressionNumber value,
+                               final ExpressionNumberContext context) {
+            return total.max(value);
+        }
+    };
+
+    abstract double applyDouble(final double total,
+                                final double value);
+
+    /**
+     * The value when nothing has been accumulated.
+     */
+    ExpressionNumber empty(final ExpressionNumberKind kind) {
+        return kind.zero();
+    }
+
+    abstract ExpressionNumber apply(final ExpressionNumber total,
+                                    final ExpressionNumber value,
+                                    final ExpressionNumberContext context);
+}
@@ -411,7 +411,7 @@ final class ExpressionNumberBigDecimal extends ExpressionNumber {
 
     @Override
     boolean canBeEqual(final Object other) {
-        return other instanceof ExpressionNumberBigDecimal;
+        return other instanceof ExpressionNumberBigDecimal || other instanceof ExpressionNumberScaledLong;
     }
 
     private boolean equalsValue(final BigDecimal value) {
@@ -34,6 +34,19 @@ public final class ExpressionNumberConverterContexts implements PublicStaticHelp
                 kind);
     }
 
+    /**
+     * {@see CachingExpressionNumberConverterContext}
+     */
+    public static CachingExpressionNumberConverterContext caching(final ExpressionNumberConverterContext context,
+                                                                  final int maxSize,
+                                                                  final boolean cacheResults) {
+        return CachingExpressionNumberConverterContext.with(
+                context,
+                maxSize,
+                cacheResults
+        );
+    }
+
     /**
      * {@see FakeExpressionNumberContext}
      */
@@ -31,8 +31,39 @@ final class ExpressionNumberDouble extends ExpressionNumber {
 
     private static final long serialVersionUID = 0L;
 
+    /**
+     * The lowest integer value that is cached.
+     */
+    final static int CACHE_MIN = -128;
+
+    /**
+     * The highest integer value that is cached.
+     */
+    final static int CACHE_MAX = 1024;
+
+    private final static ExpressionNumberDouble[] CACHE = new ExpressionNumberDouble[CACHE_MAX - CACHE_MIN + 1];
+
+    static {
+        for (int i = CACHE_MIN; i <= CACHE_MAX; i++) {
+            CACHE[i - CACHE_MIN] = new ExpressionNumberDouble(i);
+        }
+    }
+
+    private final static long NEGATIVE_ZERO = Double.doubleToRawLongBits(-0.0);
+
+    /**
+     * Factory that returns a shared instance for integer values between {@link #CACHE_MIN} and {@link #CACHE_MAX},
+     * otherwise a new {@link ExpressionNumberDouble}. Negative zero is never shared.
+     */
     static ExpressionNumberDouble withDouble(final double value) {
-        return new ExpressionNumberDouble(value);
+        final int integer = (int) value;
+
+        return integer == value &&
+                integer >= CACHE_MIN &&
+                integer <= CACHE_MAX &&
+                NEGATIVE_ZERO != Double.doubleToRawLongBits(value) ?
+                CACHE[integer - CACHE_MIN] :
+                new ExpressionNumberDouble(value);
     }
 
     private ExpressionNumberDouble(final double value) {
@@ -354,7 +385,7 @@ final class ExpressionNumberDouble extends ExpressionNumber {
     private ExpressionNumber setValue(final double value) {
         return this.value == value ?
                 this :
-                new ExpressionNumberDouble(value);
+                withDouble(value);
     }
 
     private final double value;
@@ -24,24 +24,27 @@ import walkingkooka.text.CharSequences;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.RoundingMode;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 
 /**
  * {@link ExpressionNumber} come in two kinds, one that uses {@link BigDecimal} and another that uses {@link Double}.
  * The former uses more memory, is more accurate, but slower, while the later is less accurate limited to 64 bits but is faster.
+ * {@link BigDecimal} values whose unscaled value fits in a long are held as a {@link ExpressionNumberScaledLong}.
  */
 public enum ExpressionNumberKind {
     BIG_DECIMAL(
-            ExpressionNumberBigDecimal.withBigDecimal(BigDecimal.ZERO),
-            ExpressionNumberBigDecimal.withBigDecimal(BigDecimal.ONE)
+            ExpressionNumberScaledLong.with(0, 0),
+            ExpressionNumberScaledLong.with(1, 0)
     ) {
         @Override
         public ExpressionNumber create(final Number number) {
-            return number instanceof ExpressionNumberBigDecimal ?
-                    (ExpressionNumberBigDecimal) number :
+            return number instanceof ExpressionNumberBigDecimal || number instanceof ExpressionNumberScaledLong ?
+                    (ExpressionNumber) number :
                     number instanceof BigDecimal ? fromBigDecimal((BigDecimal) number) :
                             number instanceof BigInteger ? fromBigDecimal(new BigDecimal((BigInteger) number)) :
-                                    number instanceof Long ? fromBigDecimal(new BigDecimal((Long) number)) :
+                                    number instanceof Long ? ExpressionNumberScaledLong.with((Long) number, 0) :
                                             fromBigDecimal(BigDecimal.valueOf(number.doubleValue()));
         }
 
@@ -57,8 +60,11 @@ public enum ExpressionNumberKind {
             return fromBigDecimal(new BigDecimal(text));
         }
 
+        /**
+         * Values whose unscaled value fits in a long become a {@link ExpressionNumberScaledLong}.
+         */
         private ExpressionNumber fromBigDecimal(final BigDecimal value) {
-            return ExpressionNumberBigDecimal.withBigDecimal(value);
+            return ExpressionNumberScaledLong.withBigDecimal(value);
         }
 
         @Override
@@ -272,6 +278,113 @@ public enum ExpressionNumberKind {
 
     public abstract ExpressionNumber pi(final ExpressionNumberContext context);
 
+    // bulk.............................................................................................................
+
+    /**
+     * Adds all the values returning a number of this kind, or {@link #zero()} if there are none. {@link #DOUBLE}
+     * values are added as primitive doubles without creating any intermediate {@link ExpressionNumber}.
+     */
+    public final ExpressionNumber sum(final List<ExpressionNumber> values,
+                                      final ExpressionNumberContext context) {
+        return ExpressionNumberAccumulator.sum(this, context)
+                .accumulateAll(values)
+                .value();
+    }
+
+    /**
+     * Adds all the values like {@link #sum(List, ExpressionNumberContext)}, using compensated summation for
+     * {@link #DOUBLE}.
+     */
+    public final ExpressionNumber sumCompensated(final List<ExpressionNumber> values,
+                                                 final ExpressionNumberContext context) {
+        return ExpressionNumberAccumulator.sumCompensated(this, context)
+                .accumulateAll(values)
+                .value();
+    }
+
+    /**
+     * Multiplies all the values, returning {@link #one()} if there are none.
+     */
+    public final ExpressionNumber product(final List<ExpressionNumber> values,
+                                          final ExpressionNumberContext context) {
+        return ExpressionNumberAccumulator.product(this, context)
+                .accumulateAll(values)
+                .value();
+    }
+
+    /**
+     * Returns the smallest value, or {@link #zero()} if there are none.
+     */
+    public final ExpressionNumber min(final List<ExpressionNumber> values,
+                                      final ExpressionNumberContext context) {
+        return ExpressionNumberAccumulator.min(this, context)
+                .accumulateAll(values)
+                .value();
+    }
+
+    /**
+     * Returns the largest value, or {@link #zero()} if there are none.
+     */
+    public final ExpressionNumber max(final List<ExpressionNumber> values,
+                                      final ExpressionNumberContext context) {
+        return ExpressionNumberAccumulator.max(this, context)
+                .accumulateAll(values)
+                .value();
+    }
+
+    /**
+     * Returns the sum divided by the count of values, failing with a division by zero if there are none.
+     */
+    public final ExpressionNumber average(final List<ExpressionNumber> values,
+                                          final ExpressionNumberContext context) {
+        final ExpressionNumberAccumulator sum = ExpressionNumberAccumulator.sum(this, context)
+                .accumulateAll(values);
+
+        return sum.value()
+                .divide(
+                        this.create(sum.count()),
+                        context
+                );
+    }
+
+    /**
+     * Multiplies the matching left and right values and adds the products. Both lists must have the same size.
+     */
+    public final ExpressionNumber sumProduct(final List<ExpressionNumber> left,
+                                             final List<ExpressionNumber> right,
+                                             final ExpressionNumberContext context) {
+        Objects.requireNonNull(left, "left");
+        Objects.requireNonNull(right, "right");
+
+        final int count = left.size();
+        if (count != right.size()) {
+            throw new IllegalArgumentException("Left count " + count + " different from right count " + right.size());
+        }
+
+        final ExpressionNumberAccumulator sum = ExpressionNumberAccumulator.sum(this, context);
+        final Iterator<ExpressionNumber> rightIterator = right.iterator();
+
+        if (DOUBLE == this) {
+            for (final ExpressionNumber leftValue : left) {
+                sum.accumulate(
+                        leftValue.doubleValue() * rightIterator.next().doubleValue()
+                );
+            }
+        } else {
+            for (final ExpressionNumber leftValue : left) {
+                sum.accumulate(
+                        leftValue.setKind(this)
+                                .multiply(
+                                        rightIterator.next(),
+                                        context
+                                )
+                );
+            }
+        }
+
+        return sum.value();
+    }
+
     /**
      * Generates a random {@link ExpressionNumber} between 0 and 1
      */
@@ -0,0 +1,799 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.Objects;
+
+/**
+ * A compact {@link ExpressionNumberKind#BIG_DECIMAL} {@link ExpressionNumber} holding an unscaled long and a scale,
+ * the same as a {@link BigDecimal} whose unscaled value fits in a long. Add, subtract, multiply, compare and a few
+ * other operations are performed on longs when neither overflows nor needs rounding by the {@link MathContext},
+ * everything else is given to a {@link ExpressionNumberBigDecimal}. Results are always identical, including the
+ * scale, to those of {@link ExpressionNumberBigDecimal}.
+ */
+@SuppressWarnings("lgtm[java/inconsistent-equals-and-hashcode]")
+final class ExpressionNumberScaledLong extends ExpressionNumber {
+
+    private static final long serialVersionUID = 0L;
+
+    /**
+     * Powers of ten that fit in a long, used to align scales and count digits.
+     */
+    private final static long[] POWERS_OF_TEN = new long[]{
+            1L,
+            10L,
+            100L,
+            1000L,
+            10000L,
+            100000L,
+            1000000L,
+            10000000L,
+            100000000L,
+            1000000000L,
+            10000000000L,
+            100000000000L,
+            1000000000000L,
+            10000000000000L,
+            100000000000000L,
+            1000000000000000L,
+            10000000000000000L,
+            100000000000000000L,
+            1000000000000000000L
+    };
+
+    static ExpressionNumberScaledLong with(final long unscaled,
+                                           final int scale) {
+        return new ExpressionNumberScaledLong(unscaled, scale);
+    }
+
+    /**
+     * Returns a {@link ExpressionNumberScaledLong} if the unscaled value fits in a long otherwise a
+     * {@link ExpressionNumberBigDecimal}.
+     */
+    static ExpressionNumber withBigDecimal(final BigDecimal value) {
+        Objects.requireNonNull(value, "value");
+
+        final BigInteger unscaled = value.unscaledValue();
+        return unscaled.bitLength() < 64 ?
+                new ExpressionNumberScaledLong(unscaled.longValue(), value.scale()) :
+                ExpressionNumberBigDecimal.withBigDecimal(value);
+    }
+
+    private ExpressionNumberScaledLong(final long unscaled,
+                                       final int scale) {
+        super();
+        this.unscaled = unscaled;
+        this.scale = scale;
+    }
+
+    @Override
+    Object value() {
+        return this.bigDecimal();
+    }
+
+    @Override
+    public ExpressionNumberKind kind() {
+        return ExpressionNumberKind.BIG_DECIMAL;
+    }
+
+    @Override
+    ExpressionNumber setKindBigDecimal() {
+        return this;
+    }
+
+    @Override
+    ExpressionNumberDouble setKindDouble() {
+        return ExpressionNumberDouble.with(this.doubleValue());
+    }
+
+    @Override
+    public ExpressionNumberSign sign() {
+        return ExpressionNumberSign.pick(this.unscaled);
+    }
+
+    // map..............................................................................................................
+
+    @Override
+    public ExpressionNumber map(final ExpressionNumberFunction function,
+                                final MathContext context) {
+        final ExpressionNumberBigDecimal bigDecimal = this.toExpressionNumberBigDecimal();
+        return this.setValue(
+                bigDecimal,
+                bigDecimal.map(function, context)
+        );
+    }
+
+    // abs..............................................................................................................
+
+    @Override
+    public ExpressionNumber abs(final ExpressionNumberContext context) {
+        return this.unscaled < 0 ?
+                this.negate(context) :
+                fits(this.unscaled, context) ?
+                        this :
+                        this.absBigDecimal(context);
+    }
+
+    private ExpressionNumber absBigDecimal(final ExpressionNumberContext context) {
+        final ExpressionNumberBigDecimal bigDecimal = this.toExpressionNumberBigDecimal();
+        return this.setValue(
+                bigDecimal,
+                bigDecimal.abs(context)
+        );
+    }
+
+    // ceil..............................................................................................................
+
+    @Override
+    public ExpressionNumber ceil(final ExpressionNumberContext context) {
+        final ExpressionNumber result;
+
+        final int scale = this.scale;
+        if (scale <= 0) {
+            result = this;
+        } else {
+            if (scale < POWERS_OF_TEN.length) {
+                final long power = POWERS_OF_TEN[scale];
+                final long quotient = this.unscaled / power;
+                result = this.setValue(
+                        this.unscaled % power > 0 ?
+                                quotient + 1 :
+                                quotient,
+                        0
+                );
+            } else {
+                final ExpressionNumberBigDecimal bigDecimal = this.toExpressionNumberBigDecimal();
+                result = this.setValue(
+                        bigDecimal,
+                        bigDecimal.ceil(context)
+                );
+            }
+        }
+
+        return result;
+    }
+
+    // exp..............................................................................................................
+
+    @Override
+    public ExpressionNumber exp(final ExpressionNumberContext context) {
+        final ExpressionNumberBigDecimal bigDecimal = this.toExpressionNumberBigDecimal();
+        return this.setValue(
+                bigDecimal,
+                bigDecimal.exp(context)
+        );
+    }
+
+    // floor..............................................................................................................
+
+    @Override
+    public ExpressionNumber floor(final ExpressionNumberContext context) {
+        final ExpressionNumber result;
+
+        final int scale = this.scale;
+        if (scale <= 0) {
+            result = this;
+        } else {
+            if (scale < POWERS_OF_TEN.length) {
+                final long power = POWERS_OF_TEN[scale];
+                final long quotient = this.unscaled / power;
+                result = this.setValue(
+                        this.unscaled % power < 0 ?
+                                quotient - 1 :
+                                quotient,
+                        0
+                );
+            } else {
+                final ExpressionNumberBigDecimal bigDecimal = this.toExpressionNumberBigDecimal();
+                result = this.setValue(
+                        bigDecimal,
+                        bigDecimal.floor(context)
+                );
+            }
+        }
+
+        return result;
+    }
+
+    // ln..............................................................................................................
+
+    @Override
+    public ExpressionNumber ln(final ExpressionNumberContext context) {
+        final ExpressionNumberBigDecimal bigDecimal = this.toExpressionNumberBigDecimal();
+        return this.setValue(
+                bigDecimal,
+                bigDecimal.ln(context)
+        );
+    }
+
+    // log10............................................................................................................
+
+    @Override
+    public ExpressionNumber log10(final ExpressionNumberContext context) {
+        final ExpressionNumberBigDecimal bigDecimal = this.toExpressionNumberBigDecimal();
+        return this.setValue(
+                bigDecimal,
+                bigDecimal.log10(context)
+        );
+    }
+
+    // neg..............................................................................................................
+
+    @Override
+    public ExpressionNumber negate(final ExpressionNumberContext context) {
+        final long unscaled = this.unscaled;
+
+        final ExpressionNumber result;
+        if (Long.MIN_VALUE != unscaled && fits(unscaled, context)) {
+            result = this.setValue(-unscaled, this.scale);
+        } else {
+            final ExpressionNumberBigDecimal bigDecimal = this.toExpressionNumberBigDecimal();
+            result = this.setValue(
+                    bigDecimal,
+                    bigDecimal.negate(context)
+            );
+        }
+        return result;
+    }
+
+    // not..............................................................................................................
+
+    @Override
+    public ExpressionNumber not() {
+        final ExpressionNumber result;
+
+        if (0 == this.scale) {
+            result = this.setValue(~this.unscaled, 0);
+        } else {
+            final ExpressionNumberBigDecimal bigDecimal = this.toExpressionNumberBigDecimal();
+            result = this.setValue(
+                    bigDecimal,
+                    bigDecimal.not()
+            );
+        }
+
+        return result;
+    }
+
+    // round............................................................................................................
+
+    @Override
+    public ExpressionNumber round(final ExpressionNumberContext context) {
+        final ExpressionNumber result;
+
+        if (this.scale <= 0) {
+            result = this;
+        } else {
+            final ExpressionNumberBigDecimal bigDecimal = this.toExpressionNumberBigDecimal();
+            result = this.setValue(
+                    bigDecimal,
+                    bigDecimal.round(context)
+            );
+        }
+
+        return result;
+    }
+
+    // add..............................................................................................................
+
+    @Override
+    ExpressionNumber add0(final ExpressionNumber value,
+                          final ExpressionNumberContext context) {
+        ExpressionNumber result = null;
+
+        if (value instanceof ExpressionNumberScaledLong) {
+            final ExpressionNumberScaledLong other = (ExpressionNumberScaledLong) value;
+            result = this.addLong(
+                    other.unscaled,
+                    other.scale,
+                    context
+            );
+        }
+
+        if (null == result) {
+            final ExpressionNumberBigDecimal bigDecimal = this.toExpressionNumberBigDecimal();
+            result = this.setValue(
+                    bigDecimal,
+                    bigDecimal.add0(value, context)
+            );
+        }
+
+        return result;
+    }
+
+    /**
+     * Adds the given value aligning scales, returning null if a long overflows or the exact sum needs rounding.
+     * An exact sum with no more digits than the {@link MathContext} precision is the same value and scale
+     * {@link BigDecimal#add(BigDecimal, MathContext)} returns.
+     */
+    private ExpressionNumber addLong(final long otherUnscaled,
+                                     final int otherScale,
+                                     final ExpressionNumberContext context) {
+        ExpressionNumber result = null;
+
+        final int scale = Math.max(this.scale, otherScale);
+        try {
+            final long sum = Math.addExact(
+                    rescale(this.unscaled, (long) scale - this.scale),
+                    rescale(otherUnscaled, (long) scale - otherScale)
+            );
+            if (fits(sum, context)) {
+                result = this.setValue(sum, scale);
+            }
+        } catch (final ArithmeticException overflow) {
+            // result remains null, BigDecimal will be used
+        }
+
+        return result;
+    }
+
+    // divide..............................................................................................................
+
+    @Override
+    ExpressionNumber divide0(final ExpressionNumber value,
+                             final ExpressionNumberContext context) {
+        final ExpressionNumberBigDecimal bigDecimal = this.toExpressionNumberBigDecimal();
+        return this.setValue(
+                bigDecimal,
+                bigDecimal.divide0(value, context)
+        );
+    }
+
+    // max..............................................................................................................
+
+    @Override
+    ExpressionNumber max0(final ExpressionNumber value) {
+        final ExpressionNumber result;
+
+        if (value instanceof ExpressionNumberScaledLong) {
+            result = this.compareTo(value) >= 0 ?
+                    this :
+                    value;
+        } else {
+            final ExpressionNumberBigDecimal bigDecimal = this.toExpressionNumberBigDecimal();
+            result = this.setValue(
+                    bigDecimal,
+                    bigDecimal.max0(value)
+            );
+        }
+
+        return result;
+    }
+
+    // min..............................................................................................................
+
+    @Override
+    ExpressionNumber min0(final ExpressionNumber value) {
+        final ExpressionNumber result;
+
+        if (value instanceof ExpressionNumberScaledLong) {
+            result = this.compareTo(value) <= 0 ?
+                    this :
+                    value;
+        } else {
+            final ExpressionNumberBigDecimal bigDecimal = this.toExpressionNumberBigDecimal();
+            result = this.setValue(
+                    bigDecimal,
+                    bigDecimal.min0(value)
+            );
+        }
+
+        return result;
+    }
+
+    // modulo..............................................................................................................
+
+    @Override
+    ExpressionNumber modulo0(final ExpressionNumber value,
+                             final ExpressionNumberContext context) {
+        final ExpressionNumberBigDecimal bigDecimal = this.toExpressionNumberBigDecimal();
+        return this.setValue(
+                bigDecimal,
+                bigDecimal.modulo0(value, context)
+        );
+    }
+
+    // multiply..............................................................................................................
+
+    @Override
+    ExpressionNumber multiply0(final ExpressionNumber value,
+                               final ExpressionNumberContext context) {
+        ExpressionNumber result = null;
+
+        if (value instanceof ExpressionNumberScaledLong) {
+            final ExpressionNumberScaledLong other = (ExpressionNumberScaledLong) value;
+            try {
+                final long product = Math.multiplyExact(this.unscaled, other.unscaled);
+                if (fits(product, context)) {
+                    result = this.setValue(
+                            product,
+                            Math.addExact(this.scale, other.scale)
+                    );
+                }
+            } catch (final ArithmeticException overflow) {
+                // result remains null, BigDecimal will be used
+            }
+        }
+
+        if (null == result) {
+            final ExpressionNumberBigDecimal bigDecimal = this.toExpressionNumberBigDecimal();
+            result = this.setValue(
+                    bigDecimal,
+                    bigDecimal.multiply0(value, context)
+            );
+        }
+
+        return result;
+    }
+
+    // power..............................................................................................................
+
+    @Override
+    ExpressionNumber power0(final ExpressionNumber value,
+                            final ExpressionNumberContext context) {
+        final ExpressionNumberBigDecimal bigDecimal = this.toExpressionNumberBigDecimal();
+        return this.setValue(
+                bigDecimal,
+                bigDecimal.power0(value, context)
+        );
+    }
+
+    // sqrt..............................................................................................................
+
+    @Override
+    public ExpressionNumber sqrt(final ExpressionNumberContext context) {
+        final ExpressionNumberBigDecimal bigDecimal = this.toExpressionNumberBigDecimal();
+        return this.setValue(
+                bigDecimal,
+                bigDecimal.sqrt(context)
+        );
+    }
+
+    // subtract..............................................................................................................
+
+    @Override
+    ExpressionNumber subtract0(final ExpressionNumber value,
+                               final ExpressionNumberContext context) {
+        ExpressionNumber result = null;
+
+        if (value instanceof ExpressionNumberScaledLong) {
+            final ExpressionNumberScaledLong other = (ExpressionNumberScaledLong) value;
+            if (Long.MIN_VALUE != other.unscaled) {
+                result = this.addLong(
+                        -other.unscaled,
+                        other.scale,
+                        context
+                );
+            }
+        }
+
+        if (null == result) {
+            final ExpressionNumberBigDecimal bigDecimal = this.toExpressionNumberBigDecimal();
+            result = this.setValue(
+                    bigDecimal,
+                    bigDecimal.subtract0(value, context)
+            );
+        }
+
+        return result;
+    }
+
+    // and..............................................................................................................
+
+    @Override
+    ExpressionNumber and0(final ExpressionNumber value) {
+        final ExpressionNumber result;
+
+        if (this.isInteger(value)) {
+            result = this.setValue(
+                    this.unscaled & ((ExpressionNumberScaledLong) value).unscaled,
+                    0
+            );
+        } else {
+            final ExpressionNumberBigDecimal bigDecimal = this.toExpressionNumberBigDecimal();
+            result = this.setValue(
+                    bigDecimal,
+                    bigDecimal.and0(value)
+            );
+        }
+
+        return result;
+    }
+
+    // andNot...........................................................................................................
+
+    @Override
+    ExpressionNumber andNot0(final ExpressionNumber value) {
+        final ExpressionNumber result;
+
+        if (this.isInteger(value)) {
+            result = this.setValue(
+                    this.unscaled & ~((ExpressionNumberScaledLong) value).unscaled,
+                    0
+            );
+        } else {
+            final ExpressionNumberBigDecimal bigDecimal = this.toExpressionNumberBigDecimal();
+            result = this.setValue(
+                    bigDecimal,
+                    bigDecimal.andNot0(value)
+            );
+        }
+
+        return result;
+    }
+
+    // or..............................................................................................................
+
+    @Override
+    ExpressionNumber or0(final ExpressionNumber value) {
+        final ExpressionNumber result;
+
+        if (this.isInteger(value)) {
+            result = this.setValue(
+                    this.unscaled | ((ExpressionNumberScaledLong) value).unscaled,
+                    0
+            );
+        } else {
+            final ExpressionNumberBigDecimal bigDecimal = this.toExpressionNumberBigDecimal();
+            result = this.setValue(
+                    bigDecimal,
+                    bigDecimal.or0(value)
+            );
+        }
+
+        return result;
+    }
+
+    // xor..............................................................................................................
+
+    @Override
+    ExpressionNumber xor0(final ExpressionNumber value) {
+        final ExpressionNumber result;
+
+        if (this.isInteger(value)) {
+            result = this.setValue(
+                    this.unscaled ^ ((ExpressionNumberScaledLong) value).unscaled,
+                    0
+            );
+        } else {
+            final ExpressionNumberBigDecimal bigDecimal = this.toExpressionNumberBigDecimal();
+            result = this.setValue(
+                    bigDecimal,
+                    bigDecimal.xor0(value)
+            );
+        }
+
+        return result;
+    }
+
+    /**
+     * Tests if this and the other value are both {@link ExpressionNumberScaledLong} with a zero scale, where bit
+     * operations on the unscaled values give the same result as {@link BigInteger}.
+     */
+    private boolean isInteger(final ExpressionNumber other) {
+        return 0 == this.scale &&
+                other instanceof ExpressionNumberScaledLong &&
+                0 == ((ExpressionNumberScaledLong) other).scale;
+    }
+
+    // toXXX............................................................................................................
+
+    @Override
+    public byte byteValue() {
+        return this.bigDecimal().byteValue();
+    }
+
+    @Override
+    public byte byteValueExact() {
+        return this.bigDecimal().byteValueExact();
+    }
+
+    @Override
+    public short shortValue() {
+        return this.bigDecimal().shortValue();
+    }
+
+    @Override
+    public short shortValueExact() {
+        return this.bigDecimal().shortValueExact();
+    }
+
+    @Override
+    public int intValue() {
+        return this.bigDecimal().intValue();
+    }
+
+    @Override
+    public int intValueExact() {
+        return this.bigDecimal().intValueExact();
+    }
+
+    @Override
+    public long longValue() {
+        return 0 == this.scale ?
+                this.unscaled :
+                this.bigDecimal().longValue();
+    }
+
+    @Override
+    public long longValueExact() {
+        return 0 == this.scale ?
+                this.unscaled :
+                this.bigDecimal().longValueExact();
+    }
+
+    @Override
+    public float floatValue() {
+        return this.bigDecimal().floatValue();
+    }
+
+    @Override
+    public double doubleValue() {
+        return this.bigDecimal().doubleValue();
+    }
+
+    @Override
+    public BigInteger bigInteger() {
+        return this.bigDecimal().toBigInteger();
+    }
+
+    @Override
+    public BigInteger bigIntegerExact() {
+        return this.bigDecimal().toBigIntegerExact();
+    }
+
+    @Override
+    public BigDecimal bigDecimal() {
+        return BigDecimal.valueOf(
+                this.unscaled,
+                this.scale
+        );
+    }
+
+    // value............................................................................................................
+
+    /**
+     * Would be setter returns a new {@link ExpressionNumberScaledLong} if the value is different.
+     */
+    private ExpressionNumber setValue(final long unscaled,
+                                      final int scale) {
+        return 0 == this.compareTo(unscaled, scale) ?
+                this :
+                new ExpressionNumberScaledLong(unscaled, scale);
+    }
+
+    /**
+     * Returns this if the {@link ExpressionNumberBigDecimal} returned itself meaning the value was unchanged,
+     * otherwise the result which is made compact when possible.
+     */
+    private ExpressionNumber setValue(final ExpressionNumberBigDecimal bigDecimal,
+                                      final ExpressionNumber result) {
+        return bigDecimal == result ?
+                this :
+                result instanceof ExpressionNumberBigDecimal ?
+                        withBigDecimal(((ExpressionNumberBigDecimal) result).value) :
+                        result;
+    }
+
+    private ExpressionNumberBigDecimal toExpressionNumberBigDecimal() {
+        return ExpressionNumberBigDecimal.withBigDecimal(this.bigDecimal());
+    }
+
+    private final long unscaled;
+
+    private final int scale;
+
+    /**
+     * Returns true if the unscaled value has no more digits than the {@link MathContext#getPrecision()}, meaning
+     * {@link BigDecimal} operations would not round the exact result.
+     */
+    private static boolean fits(final long unscaled,
+                                final ExpressionNumberContext context) {
+        final int precision = context.mathContext()
+                .getPrecision();
+        return 0 == precision || digits(unscaled) <= precision;
+    }
+
+    /**
+     * Counts the decimal digits in the given value, zero has one digit like {@link BigDecimal#precision()}.
+     */
+    static int digits(final long value) {
+        int digits = POWERS_OF_TEN.length;
+
+        if (Long.MIN_VALUE != value) {
+            final long abs = Math.abs(value);
+
+            for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+                if (abs < POWERS_OF_TEN[i]) {
+                    digits = i;
+                    break;
+                }
+            }
+        }
+
+        return digits;
+    }
+
+    /**
+     * Multiplies the unscaled value by 10 to the power of the scale difference, throwing {@link ArithmeticException}
+     * if the result overflows.
+     */
+    private static long rescale(final long unscaled,
+                                final long difference) {
+        if (difference >= POWERS_OF_TEN.length) {
+            throw new ArithmeticException("Overflow");
+        }
+        return 0 == difference ?
+                unscaled :
+                Math.multiplyExact(unscaled, POWERS_OF_TEN[(int) difference]);
+    }
+
+    // Object............................................................................................................
+
+    @Override
+    public int hashCode() {
+        return this.bigDecimal().stripTrailingZeros().hashCode();
+    }
+
+    @Override
+    boolean canBeEqual(final Object other) {
+        return other instanceof ExpressionNumberScaledLong || other instanceof ExpressionNumberBigDecimal;
+    }
+
+    // Comparable.......................................................................................................
+
+    @Override
+    public int compareTo(final ExpressionNumber other) {
+        final int compare;
+
+        if (other instanceof ExpressionNumberScaledLong) {
+            final ExpressionNumberScaledLong scaledLong = (ExpressionNumberScaledLong) other;
+            compare = this.compareTo(scaledLong.unscaled, scaledLong.scale);
+        } else {
+            compare = this.bigDecimal().compareTo(other.bigDecimal());
+        }
+
+        return compare;
+    }
+
+    private int compareTo(final long otherUnscaled,
+                          final int otherScale) {
+        int compare;
+
+        final int scale = this.scale;
+        if (scale == otherScale) {
+            compare = Long.compare(this.unscaled, otherUnscaled);
+        } else {
+            final int maxScale = Math.max(scale, otherScale);
+            try {
+                compare = Long.compare(
+                        rescale(this.unscaled, (long) maxScale - scale),
+                        rescale(otherUnscaled, (long) maxScale - otherScale)
+                );
+            } catch (final ArithmeticException overflow) {
+                compare = this.bigDecimal()
+                        .compareTo(BigDecimal.valueOf(otherUnscaled, otherScale));
+            }
+        }
+
+        return compare;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.tree.expression;
+
+import java.util.Objects;
+
+/**
+ * Optimizes an {@link Expression} by folding pure sub-trees with constant operands into a {@link ValueExpression},
+ * and simplifying some redundant operations.
+ * <ul>
+ * <li>arithmetic and comparisons with only {@link ValueExpression} operands, eg <code>1+2*3</code> becomes <code>7</code></li>
+ * <li>{@link AndExpression} and {@link OrExpression} with a constant boolean operand</li>
+ * <li>double {@link NegativeExpression} and triple {@link NotExpression}</li>
+ * <li>pure {@link CallExpression} with only {@link ValueExpression} parameters</li>
+ * </ul>
+ * Any sub-tree that fails to evaluate is left untouched, so the failure still happens when the expression is evaluated.
+ */
+public final class ExpressionOptimizer {
+
+    /**
+     * Creates a new {@link ExpressionOptimizer} which uses the given {@link ExpressionEvaluationContext} to test purity
+     * and evaluate constant sub-trees.
+     */
+    public static ExpressionOptimizer with(final ExpressionEvaluationContext context) {
+        Objects.requireNonNull(context, "context");
+
+        return new ExpressionOptimizer(context);
+    }
+
+    private ExpressionOptimizer(final ExpressionEvaluationContext context) {
+        this.context = context;
+    }
+
+    /**
+     * Returns an equivalent optimized {@link Expression} or the given {@link Expression} if nothing was optimized.
+     */
+    public Expression optimize(final Expression expression) {
+        Objects.requireNonNull(expression, "expression");
+
+        return ExpressionOptimizerExpressionVisitor.optimize(
+                expression,
+                this.context
+        );
+    }
+
+    private final ExpressionEvaluationContext context;
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return this.context.toString();
+    }
+}
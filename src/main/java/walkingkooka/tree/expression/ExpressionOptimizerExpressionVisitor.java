@@ -0,0 +1,334 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.tree.expression;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.visit.Visiting;
+
+import java.util.List;
+
+/**
+ * A {@link ExpressionVisitor} that rebuilds an {@link Expression} bottom up, replacing pure constant sub-trees with
+ * a {@link ValueExpression}.
+ */
+final class ExpressionOptimizerExpressionVisitor extends ExpressionVisitor {
+
+    static Expression optimize(final Expression expression,
+                               final ExpressionEvaluationContext context) {
+        final ExpressionOptimizerExpressionVisitor visitor = new ExpressionOptimizerExpressionVisitor(context);
+        visitor.accept(expression);
+        return visitor.optimized;
+    }
+
+    // @VisibleForTesting
+    ExpressionOptimizerExpressionVisitor(final ExpressionEvaluationContext context) {
+        super();
+        this.context = context;
+    }
+
+    @Override
+    protected Visiting startVisit(final Expression node) {
+        this.children.add(Lists.array());
+        return Visiting.CONTINUE;
+    }
+
+    /**
+     * The callable of a {@link CallExpression} is not visited as a child, so only the parameters are visited here,
+     * and the callable is optimized separately in {@link #replaceChildren(Expression, List)}.
+     */
+    @Override
+    protected Visiting startVisit(final CallExpression node) {
+        for (final Expression parameter : node.children()) {
+            this.accept(parameter);
+        }
+        return Visiting.SKIP;
+    }
+
+    @Override
+    protected void endVisit(final Expression node) {
+        final List<List<Expression>> children = this.children;
+
+        final Expression optimized = this.optimize(
+                this.replaceChildren(
+                        node,
+                        children.remove(children.size() - 1)
+                )
+        );
+
+        if (children.isEmpty()) {
+            this.optimized = optimized;
+        } else {
+            children.get(children.size() - 1)
+                    .add(optimized);
+        }
+    }
+
+    /**
+     * A stack holding the optimized children of each {@link Expression} being visited.
+     */
+    private final List<List<Expression>> children = Lists.array();
+
+    /**
+     * The optimized {@link Expression} for the root.
+     */
+    private Expression optimized;
+
+    /**
+     * Returns the given {@link Expression} if none of its children were optimized, otherwise recreates it with the
+     * optimized children. The callable of a {@link CallExpression} is optimized separately because it is not a child.
+     */
+    private Expression replaceChildren(final Expression expression,
+                                       final List<Expression> children) {
+        Expression result = expression;
+
+        if (expression instanceof CallExpression) {
+            final CallExpression call = (CallExpression) expression;
+            final Expression callable = optimize(
+                    call.callable(),
+                    this.context
+            );
+
+            if (callable != call.callable() || isDifferent(call.children(), children)) {
+                result = Expression.call(
+                        callable,
+                        Lists.immutable(children)
+                );
+            }
+        } else {
+            if (expression instanceof ParentExpression && isDifferent(expression.children(), children)) {
+                result = ((ParentExpression) expression).replace0(
+                        expression.index(),
+                        children
+                );
+            }
+        }
+
+        return result;
+    }
+
+    private static boolean isDifferent(final List<Expression> children,
+                                       final List<Expression> optimized) {
+        final int count = children.size();
+        boolean different = false;
+
+        for (int i = 0; false == different && i < count; i++) {
+            different = children.get(i) != optimized.get(i);
+        }
+
+        return different;
+    }
+
+    private Expression optimize(final Expression expression) {
+        final Expression optimized;
+
+        if (expression instanceof BinaryArithmeticExpression || expression instanceof BinaryComparisonExpression) {
+            optimized = this.binary((BinaryExpression) expression);
+        } else if (expression instanceof AndExpression) {
+            optimized = this.logical(
+                    (BinaryLogicalExpression) expression,
+                    false
+            );
+        } else if (expression instanceof OrExpression) {
+            optimized = this.logical(
+                    (BinaryLogicalExpression) expression,
+                    true
+            );
+        } else if (expression instanceof XorExpression) {
+            optimized = this.binary((BinaryExpression) expression);
+        } else if (expression instanceof NegativeExpression) {
+            optimized = this.negative((NegativeExpression) expression);
+        } else if (expression instanceof NotExpression) {
+            optimized = this.not((NotExpression) expression);
+        } else if (expression instanceof CallExpression) {
+            optimized = this.call((CallExpression) expression);
+        } else {
+            optimized = expression;
+        }
+
+        return optimized;
+    }
+
+    private Expression binary(final BinaryExpression binary) {
+        return binary.left() instanceof ValueExpression && binary.right() instanceof ValueExpression ?
+                this.fold(binary) :
+                binary;
+    }
+
+    /**
+     * Simplifies an {@link AndExpression} or {@link OrExpression} when one of the operands is a constant boolean.
+     * The absorbing value is <code>false</code> for and, and <code>true</code> for or. The other operand must always
+     * be a {@link Boolean}, because a non boolean left would switch the logical operation to bitwise, and a right
+     * that fails to convert to a {@link Boolean} would fail.
+     */
+    private Expression logical(final BinaryLogicalExpression logical,
+                               final boolean absorbing) {
+        final Expression left = logical.left();
+        final Expression right = logical.right();
+
+        Expression optimized = logical;
+
+        if (left instanceof ValueExpression) {
+            if (right instanceof ValueExpression) {
+                optimized = this.fold(logical);
+            } else {
+                optimized = this.logicalConstant(
+                        logical,
+                        left,
+                        right,
+                        absorbing
+                );
+            }
+        } else {
+            if (right instanceof ValueExpression) {
+                optimized = this.logicalConstant(
+                        logical,
+                        right,
+                        left,
+                        absorbing
+                );
+            }
+        }
+
+        return optimized;
+    }
+
+    private Expression logicalConstant(final BinaryLogicalExpression logical,
+                                       final Expression constant,
+                                       final Expression other,
+                                       final boolean absorbing) {
+        final Object value = ((ValueExpression<?>) constant).value();
+
+        Expression optimized = logical;
+
+        if (value instanceof Boolean && other.isBooleanResult()) {
+            if (absorbing == (Boolean) value) {
+                if (this.isPure(other)) {
+                    optimized = this.fold(logical);
+                }
+            } else {
+                optimized = other.removeParent0();
+            }
+        }
+
+        return optimized;
+    }
+
+    /**
+     * Folds a {@link NegativeExpression} of a constant, or removes a double negative when the inner value is
+     * always a number. Other values such as text would fail to convert when negated.
+     */
+    private Expression negative(final NegativeExpression negative) {
+        final Expression value = negative.value();
+
+        Expression optimized = negative;
+
+        if (value instanceof ValueExpression) {
+            optimized = this.fold(negative);
+        } else {
+            if (value instanceof NegativeExpression) {
+                final Expression inner = ((NegativeExpression) value).value();
+                if (inner.isExpressionNumberResult()) {
+                    optimized = inner.removeParent0();
+                }
+            }
+        }
+
+        return optimized;
+    }
+
+    /**
+     * Folds a {@link NotExpression} of a constant. Because not truncates its value to an integer a double not is not
+     * a nop, but a triple not is equivalent to a single not.
+     */
+    private Expression not(final NotExpression not) {
+        final Expression value = not.value();
+
+        Expression optimized = not;
+
+        if (value instanceof ValueExpression) {
+            optimized = this.fold(not);
+        } else {
+            if (value instanceof NotExpression) {
+                final Expression inner = ((NotExpression) value).value();
+                if (inner instanceof NotExpression) {
+                    optimized = inner.removeParent0();
+                }
+            }
+        }
+
+        return optimized;
+    }
+
+    /**
+     * Only pure named functions with all parameters constant are evaluated.
+     */
+    private Expression call(final CallExpression call) {
+        boolean constant = call.callable() instanceof NamedFunctionExpression;
+
+        for (final Expression parameter : call.children()) {
+            constant = constant && parameter instanceof ValueExpression;
+        }
+
+        return constant && this.isPure(call) ?
+                this.fold(call) :
+                call;
+    }
+
+    /**
+     * Unknown functions are not pure.
+     */
+    private boolean isPure(final Expression expression) {
+        boolean pure;
+
+        try {
+            pure = expression.isPure(this.context);
+        } catch (final RuntimeException ignore) {
+            pure = false;
+        }
+
+        return pure;
+    }
+
+    /**
+     * Evaluates the given pure {@link Expression} and returns its value, if evaluation fails the original
+     * {@link Expression} is returned, so the failure happens when it is actually evaluated.
+     */
+    private Expression fold(final Expression expression) {
+        Expression folded;
+
+        try {
+            folded = Expression.value(
+                    expression.toValue(this.context)
+            );
+        } catch (final RuntimeException ignore) {
+            folded = expression;
+        }
+
+        return folded;
+    }
+
+    private final ExpressionEvaluationContext context;
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return this.context.toString();
+    }
+}
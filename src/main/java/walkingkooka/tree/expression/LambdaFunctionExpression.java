@@ -50,6 +50,7 @@ public final class LambdaFunctionExpression extends UnaryExpression {
                                      final Expression value) {
         super(index, value);
         this.parameters = parameters;
+        this.structuralHash = 31 * this.structuralHash + parameters.hashCode();
     }
 
     @Override
@@ -144,6 +145,16 @@ public final class LambdaFunctionExpression extends UnaryExpression {
         );
     }
 
+    // Compile..........................................................................................................
+
+    @Override
+    CompiledExpression compile0(final ExpressionCompiler compiler) {
+        return CompiledExpressionLambdaFunction.with(
+                this,
+                compiler.compile(this.value())
+        );
+    }
+
     // printTree.......................................................................................................
 
     // LambdaFunctionExpression
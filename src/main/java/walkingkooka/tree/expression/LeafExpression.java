@@ -36,6 +36,7 @@ abstract class LeafExpression<V> extends Expression implements Value<V> {
     LeafExpression(final int index, final V value) {
         super(index);
         this.value = value;
+        this.structuralHash = 31 * this.name().hashCode() + Objects.hashCode(value);
     }
 
     @Override
@@ -84,11 +85,6 @@ abstract class LeafExpression<V> extends Expression implements Value<V> {
 
     // Object ......................................................................................................
 
-    @Override
-    public final int hashCode() {
-        return Objects.hash(this.value);
-    }
-
     @Override final boolean equalsDescendants0(final Expression other) {
         return true;
     }
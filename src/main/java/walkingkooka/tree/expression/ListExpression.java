@@ -127,10 +127,29 @@ public final class ListExpression extends VariableExpression {
     }
 
     private List<?> convertValues(final ExpressionEvaluationContext context) {
-        return this.value()
-                .stream()
-                .map(v -> v.toValue(context))
-                .collect(Collectors.toList());
+        return context instanceof ParallelExpressionEvaluationContext ?
+                ((ParallelExpressionEvaluationContext) context).evaluateAll(
+                        this,
+                        this.value(),
+                        Expression::toValue
+                ) :
+                this.value()
+                        .stream()
+                        .map(v -> v.toValue(context))
+                        .collect(Collectors.toList());
+    }
+
+    // Compile..........................................................................................................
+
+    @Override
+    CompiledExpression compile0(final ExpressionCompiler compiler) {
+        return CompiledExpressionList.with(
+                this,
+                this.value()
+                        .stream()
+                        .map(compiler::compile)
+                        .collect(Collectors.toList())
+        );
     }
 
     // printTree.......................................................................................................
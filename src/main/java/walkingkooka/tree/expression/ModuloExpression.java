@@ -83,6 +83,12 @@ public final class ModuloExpression extends BinaryArithmeticExpression {
         return left.modulo(right, context);
     }
 
+    @Override
+    double applyDouble(final double left,
+                       final double right) {
+        return left % right;
+    }
+
     // Object .........................................................................................................
 
     @Override
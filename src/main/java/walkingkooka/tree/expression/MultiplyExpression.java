@@ -83,6 +83,12 @@ public final class MultiplyExpression extends BinaryArithmeticExpression {
         return left.multiply(right, context);
     }
 
+    @Override
+    double applyDouble(final double left,
+                       final double right) {
+        return left * right;
+    }
+
     // Object .........................................................................................................
 
     @Override
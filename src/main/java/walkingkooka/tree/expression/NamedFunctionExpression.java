@@ -130,6 +130,16 @@ final public class NamedFunctionExpression extends LeafExpression<FunctionExpres
         return context.convertOrFail(this.value(), String.class);
     }
 
+    // Compile..........................................................................................................
+
+    @Override
+    CompiledExpression compile0(final ExpressionCompiler compiler) {
+        return CompiledExpressionNamedFunction.with(
+                this,
+                compiler.function(this.value)
+        );
+    }
+
     // Object ..........................................................................................................
 
     @Override
@@ -99,6 +99,39 @@ public final class NotExpression extends UnaryExpression {
         return this.toExpressionNumber(context);
     }
 
+    /**
+     * When the {@link ExpressionNumberKind} is {@link ExpressionNumberKind#DOUBLE} the bits are inverted without
+     * creating any {@link ExpressionNumber}.
+     */
+    @Override
+    public double toDouble(final ExpressionEvaluationContext context) {
+        return ExpressionNumberKind.DOUBLE == context.expressionNumberKind() ?
+                ~(long) this.value().toDouble(context) :
+                super.toDouble(context);
+    }
+
+    @Override
+    public long toLong(final ExpressionEvaluationContext context) {
+        return ExpressionNumberKind.DOUBLE == context.expressionNumberKind() ?
+                (long) this.toDouble(context) :
+                super.toLong(context);
+    }
+
+    @Override
+    boolean isExpressionNumberResult() {
+        return true;
+    }
+
+    // Compile..........................................................................................................
+
+    @Override
+    CompiledExpression compile0(final ExpressionCompiler compiler) {
+        return CompiledExpressionNot.with(
+                this,
+                compiler.compile(this.value())
+        );
+    }
+
     // printTree.......................................................................................................
 
     @Override
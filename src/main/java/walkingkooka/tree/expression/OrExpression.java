@@ -71,6 +71,11 @@ public final class OrExpression extends BinaryLogicalExpression {
 
     // evaluation .....................................................................................................
 
+    @Override
+    boolean isShortCircuitBoolean(final boolean left) {
+        return left;
+    }
+
     @Override
     boolean applyBoolean(final boolean left, final boolean right) {
         return left | right;
@@ -0,0 +1,360 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+import walkingkooka.Cast;
+import walkingkooka.Either;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.text.CaseSensitivity;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
+
+import java.math.MathContext;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Wraps another {@link ExpressionEvaluationContext} delegating all methods, and enables the parallel evaluation of the
+ * elements of {@link ListExpression} and their compiled form.
+ * <br>
+ * Elements are only evaluated in parallel when there are at least {@link #threshold()} of them and the list
+ * {@link Expression#isPure(ExpressionPurityContext)}, smaller or impure lists are evaluated sequentially as before.
+ * The elements are divided into chunks, the calling thread evaluates chunks with this context while up to
+ * {@link #parallelism()} - 1 helpers submitted to the {@link Executor} evaluate the remaining chunks. Because the
+ * calling thread also takes work, evaluation always completes even if the {@link Executor} is busy or runs tasks later.
+ * <br>
+ * Each helper evaluates with a context returned by the fork {@link Function}, which receives the wrapped context and
+ * must return a context that may be used on another thread at the same time as the original. The wrapped context may
+ * be returned if it is already thread safe. Exceptions thrown by any element are rethrown by the calling thread.
+ */
+public final class ParallelExpressionEvaluationContext implements ExpressionEvaluationContext {
+
+    /**
+     * Factory that creates a new {@link ParallelExpressionEvaluationContext}.
+     */
+    static ParallelExpressionEvaluationContext with(final ExpressionEvaluationContext context,
+                                                    final Executor executor,
+                                                    final int parallelism,
+                                                    final int threshold,
+                                                    final Function<ExpressionEvaluationContext, ExpressionEvaluationContext> fork) {
+        Objects.requireNonNull(context, "context");
+        Objects.requireNonNull(executor, "executor");
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Invalid parallelism " + parallelism + " < 1");
+        }
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Invalid threshold " + threshold + " < 1");
+        }
+        Objects.requireNonNull(fork, "fork");
+
+        return new ParallelExpressionEvaluationContext(
+                context,
+                executor,
+                parallelism,
+                threshold,
+                fork
+        );
+    }
+
+    /**
+     * Private ctor use factory.
+     */
+    private ParallelExpressionEvaluationContext(final ExpressionEvaluationContext context,
+                                                final Executor executor,
+                                                final int parallelism,
+                                                final int threshold,
+                                                final Function<ExpressionEvaluationContext, ExpressionEvaluationContext> fork) {
+        this.context = context;
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.threshold = threshold;
+        this.fork = fork;
+    }
+
+    /**
+     * The {@link Executor} that runs helpers.
+     */
+    public Executor executor() {
+        return this.executor;
+    }
+
+    private final Executor executor;
+
+    /**
+     * The maximum number of threads including the calling thread that evaluate the elements of a single list.
+     */
+    public int parallelism() {
+        return this.parallelism;
+    }
+
+    private final int parallelism;
+
+    /**
+     * The minimum number of elements before a list is evaluated in parallel.
+     */
+    public int threshold() {
+        return this.threshold;
+    }
+
+    private final int threshold;
+
+    /**
+     * Returns a context for a helper running on another thread.
+     */
+    public ExpressionEvaluationContext fork() {
+        return this.fork.apply(this.context);
+    }
+
+    private final Function<ExpressionEvaluationContext, ExpressionEvaluationContext> fork;
+
+    /**
+     * Evaluates all values, in parallel if there are enough and the owner is pure, returning a mutable list of the results.
+     */
+    <T> List<Object> evaluateAll(final ExpressionPurity owner,
+                                 final List<T> values,
+                                 final BiFunction<T, ExpressionEvaluationContext, Object> evaluator) {
+        final List<Object> results;
+
+        if (this.parallelism > 1 && values.size() >= this.threshold && owner.isPure(this)) {
+            results = ParallelExpressionEvaluationContextWork.with(
+                    values,
+                    evaluator,
+                    this
+            ).evaluate();
+        } else {
+            results = Lists.array();
+            for (final T value : values) {
+                results.add(
+                        evaluator.apply(value, this)
+                );
+            }
+        }
+
+        return results;
+    }
+
+    @Override
+    public boolean isPure(final FunctionExpressionName name) {
+        return this.context.isPure(name);
+    }
+
+    @Override
+    public ExpressionEvaluationContext context(final Function<ExpressionReference, Optional<Optional<Object>>> resolver) {
+        return this.context.context(resolver);
+    }
+
+    @Override
+    public ExpressionFunction<?, ExpressionEvaluationContext> function(final FunctionExpressionName name) {
+        return this.context.function(name);
+    }
+
+    @Override
+    public <T> T prepareParameter(final ExpressionFunctionParameter<T> parameter,
+                                  final Object value) {
+        return this.context.prepareParameter(parameter, value);
+    }
+
+    @Override
+    public Object evaluate(final Expression expression) {
+        Object result;
+
+        try {
+            result = expression.toValue(this);
+        } catch (final RuntimeException exception) {
+            result = this.handleException(exception);
+        }
+
+        return result;
+    }
+
+    /**
+     * Parameters are prepared and the function executed with this context, so lists within the parameters may also
+     * be evaluated in parallel.
+     */
+    @Override
+    public Object evaluateFunction(final ExpressionFunction<?, ? extends ExpressionEvaluationContext> function,
+                                   final List<Object> parameters) {
+        Object result;
+
+        try {
+            result = function.apply(
+                    this.prepareParameters(function, parameters),
+                    Cast.to(this)
+            );
+        } catch (final RuntimeException exception) {
+            result = this.handleException(exception);
+        }
+
+        return result;
+    }
+
+    @Override
+    public Object handleException(final RuntimeException exception) {
+        return this.context.handleException(exception);
+    }
+
+    @Override
+    public Optional<Optional<Object>> reference(final ExpressionReference reference) {
+        return this.context.reference(reference);
+    }
+
+    // DateTimeContext..................................................................................................
+
+    @Override
+    public List<String> ampms() {
+        return this.context.ampms();
+    }
+
+    @Override
+    public int defaultYear() {
+        return this.context.defaultYear();
+    }
+
+    @Override
+    public List<String> monthNames() {
+        return this.context.monthNames();
+    }
+
+    @Override
+    public List<String> monthNameAbbreviations() {
+        return this.context.monthNameAbbreviations();
+    }
+
+    @Override
+    public LocalDateTime now() {
+        return this.context.now();
+    }
+
+    @Override
+    public int twoToFourDigitYear(final int year) {
+        return this.context.twoToFourDigitYear(year);
+    }
+
+    @Override
+    public int twoDigitYear() {
+        return this.context.twoDigitYear();
+    }
+
+    @Override
+    public List<String> weekDayNames() {
+        return this.context.weekDayNames();
+    }
+
+    @Override
+    public List<String> weekDayNameAbbreviations() {
+        return this.context.weekDayNameAbbreviations();
+    }
+
+    // DecimalNumberContext.............................................................................................
+
+    @Override
+    public String currencySymbol() {
+        return this.context.currencySymbol();
+    }
+
+    @Override
+    public char decimalSeparator() {
+        return this.context.decimalSeparator();
+    }
+
+    @Override
+    public String exponentSymbol() {
+        return this.context.exponentSymbol();
+    }
+
+    @Override
+    public ExpressionNumberKind expressionNumberKind() {
+        return this.context.expressionNumberKind();
+    }
+
+    @Override
+    public char groupingSeparator() {
+        return this.context.groupingSeparator();
+    }
+
+    @Override
+    public char percentageSymbol() {
+        return this.context.percentageSymbol();
+    }
+
+    @Override
+    public char negativeSign() {
+        return this.context.negativeSign();
+    }
+
+    @Override
+    public char positiveSign() {
+        return this.context.positiveSign();
+    }
+
+    @Override
+    public Locale locale() {
+        return this.context.locale();
+    }
+
+    @Override
+    public MathContext mathContext() {
+        return this.context.mathContext();
+    }
+
+    // CanConvert................................................................................................
+
+    @Override
+    public boolean canConvert(final Object from,
+                              final Class<?> type) {
+        return this.context.canConvert(from, type);
+    }
+
+    @Override
+    public <T> Either<T, String> convert(final Object from,
+                                         final Class<T> type) {
+        return this.context.convert(from, type);
+    }
+
+    // Strings..........................................................................................................
+
+    @Override
+    public CaseSensitivity caseSensitivity() {
+        return this.context.caseSensitivity();
+    }
+
+    @Override
+    public boolean isShortCircuit() {
+        return this.context.isShortCircuit();
+    }
+
+    @Override
+    public boolean isText(final Object value) {
+        return this.context.isText(value);
+    }
+
+    private final ExpressionEvaluationContext context;
+
+    // toString.........................................................................................................
+
+    @Override
+    public String toString() {
+        return this.context + " parallelism=" + this.parallelism + " threshold=" + this.threshold;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+import walkingkooka.collect.list.Lists;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+
+/**
+ * Evaluates the values of a single list for {@link ParallelExpressionEvaluationContext}. The values are divided into
+ * chunks which are claimed in order by the calling thread and any helpers, each result is written to its own index so
+ * the order of the results matches the values.
+ */
+final class ParallelExpressionEvaluationContextWork<T> implements Runnable {
+
+    /**
+     * The number of chunks for each thread, more chunks balance uneven work at the cost of more claims.
+     */
+    final static int CHUNKS_PER_THREAD = 4;
+
+    static <T> ParallelExpressionEvaluationContextWork<T> with(final List<T> values,
+                                                               final BiFunction<T, ExpressionEvaluationContext, Object> evaluator,
+                                                               final ParallelExpressionEvaluationContext context) {
+        return new ParallelExpressionEvaluationContextWork<>(
+                values,
+                evaluator,
+                context
+        );
+    }
+
+    private ParallelExpressionEvaluationContextWork(final List<T> values,
+                                                    final BiFunction<T, ExpressionEvaluationContext, Object> evaluator,
+                                                    final ParallelExpressionEvaluationContext context) {
+        this.values = values;
+        this.evaluator = evaluator;
+        this.context = context;
+
+        final int count = values.size();
+        this.results = new Object[count];
+        this.chunkSize = Math.max(
+                1,
+                count / (context.parallelism() * CHUNKS_PER_THREAD)
+        );
+        this.chunks = (count + this.chunkSize - 1) / this.chunkSize;
+    }
+
+    /**
+     * Submits the helpers, evaluates any unclaimed chunks on the calling thread and then waits for the chunks still
+     * being evaluated by helpers. Only atomics are used so this also works under J2CL, which runs helpers on the
+     * calling thread or after it returns, so nothing remains to wait for.
+     */
+    List<Object> evaluate() {
+        final ParallelExpressionEvaluationContext context = this.context;
+
+        final int helpers = Math.min(
+                context.parallelism() - 1,
+                this.chunks - 1
+        );
+        for (int i = 0; i < helpers; i++) {
+            context.executor()
+                    .execute(this);
+        }
+
+        this.work(context);
+
+        // only chunks claimed by a running helper remain, at most one per helper and each a small part of the list.
+        while (this.completed.get() < this.chunks) {
+            // wait
+        }
+
+        final RuntimeException failure = this.failure.get();
+        if (null != failure) {
+            throw failure;
+        }
+
+        final List<Object> results = Lists.array();
+        for (final Object result : this.results) {
+            results.add(result);
+        }
+        return results;
+    }
+
+    /**
+     * Helpers evaluate with a forked context.
+     */
+    @Override
+    public void run() {
+        if (this.next.get() < this.chunks) {
+            final ExpressionEvaluationContext context;
+            try {
+                context = this.context.fork();
+            } catch (final RuntimeException cause) {
+                this.failure.compareAndSet(null, cause);
+                return;
+            }
+            this.work(context);
+        }
+    }
+
+    /**
+     * Claims and evaluates chunks until none remain. After a failure the remaining chunks are claimed but not
+     * evaluated.
+     */
+    private void work(final ExpressionEvaluationContext context) {
+        final List<T> values = this.values;
+        final BiFunction<T, ExpressionEvaluationContext, Object> evaluator = this.evaluator;
+        final Object[] results = this.results;
+        final int chunkSize = this.chunkSize;
+        final int chunks = this.chunks;
+
+        for (; ; ) {
+            final int chunk = this.next.getAndIncrement();
+            if (chunk >= chunks) {
+                break;
+            }
+
+            try {
+                if (null == this.failure.get()) {
+                    final int end = Math.min(
+                            (chunk + 1) * chunkSize,
+                            results.length
+                    );
+                    for (int i = chunk * chunkSize; i < end; i++) {
+                        results[i] = evaluator.apply(
+                                values.get(i),
+                                context
+                        );
+                    }
+                }
+            } catch (final RuntimeException cause) {
+                this.failure.compareAndSet(null, cause);
+            } finally {
+                this.completed.incrementAndGet();
+            }
+        }
+    }
+
+    private final List<T> values;
+
+    private final BiFunction<T, ExpressionEvaluationContext, Object> evaluator;
+
+    private final ParallelExpressionEvaluationContext context;
+
+    private final Object[] results;
+
+    private final int chunkSize;
+
+    private final int chunks;
+
+    /**
+     * The next chunk to be claimed.
+     */
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * The number of chunks evaluated, publishes the results written by helpers to the calling thread.
+     */
+    private final AtomicInteger completed = new AtomicInteger();
+
+    /**
+     * The first failure, which is rethrown by the calling thread.
+     */
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+    @Override
+    public String toString() {
+        return this.completed + "/" + this.chunks + " chunks of " + this.chunkSize;
+    }
+}
@@ -34,30 +34,62 @@ abstract class ParentExpression extends Expression {
     ParentExpression(final int index, final List<Expression> children) {
         super(index);
 
+        final List<Expression> green = Lists.array();
+        int structuralHash = this.name().hashCode();
+
+        for (Expression child : children) {
+            green.add(child.removeParent0());
+            structuralHash = 31 * structuralHash + child.structuralHash;
+        }
+
+        this.green = Lists.readOnly(green);
+        this.structuralHash = structuralHash;
+    }
+
+    /**
+     * Lazily creates the parent aware children on first access. Because children are only copied and adopted when
+     * they are actually visited, building a deep tree no longer re-copies each sub tree once per ancestor.
+     */
+    @Override
+    public final List<Expression> children() {
+        List<Expression> children = this.children;
+        if (null == children) {
+            children = this.adoptChildren();
+            this.children = children;
+        }
+        return children;
+    }
+
+    private List<Expression> adoptChildren() {
         final Optional<Expression> p = Optional.of(this);
 
         final List<Expression> copy = Lists.array();
-        this.children = Lists.readOnly(copy);
 
         int i = 0;
-        for (Expression child : children) {
+        for (Expression child : this.green) {
             copy.add(child.setParent(p, i));
             i++;
         }
-    }
 
-    @Override
-    public final List<Expression> children() {
-        return this.children;
+        return Lists.readOnly(copy);
     }
 
-    private final List<Expression> children;
+    /**
+     * The parent aware children, lazily created by {@link #children()}.
+     */
+    private List<Expression> children;
+
+    /**
+     * The children without any parent, these are shared by all copies of this parent and only adopted when
+     * {@link #children()} is called.
+     */
+    final List<Expression> green;
 
     final Expression setChildren0(final List<Expression> children) {
         Objects.requireNonNull(children, "children");
 
         final List<Expression> copy = Lists.immutable(children);
-        return Lists.equals(this.children(), copy, (first, other) -> first.equalsIgnoringParentAndChildren(other) && first.equalsDescendants0(other)) ?
+        return Lists.equals(this.green, copy, (first, other) -> first.equalsIgnoringParentAndChildren(other) && first.equalsDescendants0(other)) ?
                 this :
                 this.replaceChildren(copy);
     }
@@ -65,7 +97,7 @@ abstract class ParentExpression extends Expression {
     @Override
     final Expression setChild(final Expression newChild) {
         final int index = newChild.index();
-        final Expression previous = this.children().get(index);
+        final Expression previous = this.green.get(index);
         return previous.equalsIgnoringParentAndChildren(newChild) && previous.equalsDescendants(newChild) ?
                 this :
                 this.replaceChild0(newChild, index);
@@ -73,7 +105,7 @@ abstract class ParentExpression extends Expression {
 
     private Expression replaceChild0(final Expression newChild, final int index) {
         final List<Expression> newChildren = Lists.array();
-        newChildren.addAll(this.children());
+        newChildren.addAll(this.green);
         newChildren.set(index, newChild);
 
         return this.replaceChildren(newChildren);
@@ -90,7 +122,7 @@ abstract class ParentExpression extends Expression {
 
     @Override
     final Expression replace(final int index) {
-        return this.replace0(index, this.children());
+        return this.replace0(index, this.green);
     }
 
     abstract ParentExpression replace0(final int index, final List<Expression> children);
@@ -107,7 +139,7 @@ abstract class ParentExpression extends Expression {
     final boolean isPureChildren(final ExpressionPurityContext context) {
         boolean pure = true;
 
-        for (final Expression expression : this.children()) {
+        for (final Expression expression : this.green) {
             pure = pure & expression.isPure(context);
             if (!pure) {
                 break;
@@ -136,7 +168,7 @@ abstract class ParentExpression extends Expression {
     final void printTreeChildren(final IndentingPrinter printer) {
         printer.indent();
 
-        for (final Object child : this.children()) {
+        for (final Object child : this.green) {
             TreePrintable.printTreeOrToString(child, printer);
         }
 
@@ -145,20 +177,19 @@ abstract class ParentExpression extends Expression {
 
     // Object...........................................................................................................
 
-    @Override
-    public final int hashCode() {
-        return this.children().hashCode();
-    }
-
     final boolean equalsDescendants0(final Expression other) {
-        return this.equalsDescendants1(other.children());
+        return this.equalsDescendants1(
+                other instanceof ParentExpression ?
+                        ((ParentExpression) other).green :
+                        other.children()
+        );
     }
 
     /**
      * Only returns true if the descendants of this node and the given children are equal ignoring the parents.
      */
     private boolean equalsDescendants1(final List<Expression> otherChildren) {
-        final List<Expression> children = this.children();
+        final List<Expression> children = this.green;
         final int count = children.size();
         boolean equals = count == otherChildren.size();
 
@@ -83,6 +83,12 @@ public final class PowerExpression extends BinaryArithmeticExpression {
         return left.power(right, context);
     }
 
+    @Override
+    double applyDouble(final double left,
+                       final double right) {
+        return Math.pow(left, right);
+    }
+
     // Object .........................................................................................................
 
     @Override
@@ -125,6 +125,13 @@ public final class ReferenceExpression extends LeafExpression<ExpressionReferenc
         );
     }
 
+    // Compile..........................................................................................................
+
+    @Override
+    CompiledExpression compile0(final ExpressionCompiler compiler) {
+        return CompiledExpressionReference.with(this);
+    }
+
     // Object ....................................................................................................
 
     @Override
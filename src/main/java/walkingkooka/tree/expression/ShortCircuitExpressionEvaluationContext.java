@@ -0,0 +1,263 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+import walkingkooka.Cast;
+import walkingkooka.Either;
+import walkingkooka.text.CaseSensitivity;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
+
+import java.math.MathContext;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Wraps another {@link ExpressionEvaluationContext} delegating all methods, except for {@link #isShortCircuit()} which
+ * always returns true, so {@link AndExpression} and {@link OrExpression} skip evaluating their right when the
+ * {@link Boolean} left already decides the result.
+ * <br>
+ * Functions, expressions and scoped contexts are evaluated with this context, so logical expressions within
+ * parameters and lambdas also short-circuit.
+ */
+final class ShortCircuitExpressionEvaluationContext implements ExpressionEvaluationContext {
+
+    /**
+     * Factory that creates a new {@link ShortCircuitExpressionEvaluationContext}.
+     */
+    static ShortCircuitExpressionEvaluationContext with(final ExpressionEvaluationContext context) {
+        Objects.requireNonNull(context, "context");
+
+        return context instanceof ShortCircuitExpressionEvaluationContext ?
+                (ShortCircuitExpressionEvaluationContext) context :
+                new ShortCircuitExpressionEvaluationContext(context);
+    }
+
+    /**
+     * Private ctor use factory.
+     */
+    private ShortCircuitExpressionEvaluationContext(final ExpressionEvaluationContext context) {
+        this.context = context;
+    }
+
+    @Override
+    public boolean isPure(final FunctionExpressionName name) {
+        return this.context.isPure(name);
+    }
+
+    @Override
+    public ExpressionEvaluationContext context(final Function<ExpressionReference, Optional<Optional<Object>>> resolver) {
+        return with(
+                this.context.context(resolver)
+        );
+    }
+
+    @Override
+    public ExpressionFunction<?, ExpressionEvaluationContext> function(final FunctionExpressionName name) {
+        return this.context.function(name);
+    }
+
+    @Override
+    public <T> T prepareParameter(final ExpressionFunctionParameter<T> parameter,
+                                  final Object value) {
+        return this.context.prepareParameter(parameter, value);
+    }
+
+    @Override
+    public Object evaluate(final Expression expression) {
+        Object result;
+
+        try {
+            result = expression.toValue(this);
+        } catch (final RuntimeException exception) {
+            result = this.handleException(exception);
+        }
+
+        return result;
+    }
+
+    @Override
+    public Object evaluateFunction(final ExpressionFunction<?, ? extends ExpressionEvaluationContext> function,
+                                   final List<Object> parameters) {
+        Object result;
+
+        try {
+            result = function.apply(
+                    this.prepareParameters(function, parameters),
+                    Cast.to(this)
+            );
+        } catch (final RuntimeException exception) {
+            result = this.handleException(exception);
+        }
+
+        return result;
+    }
+
+    @Override
+    public Object handleException(final RuntimeException exception) {
+        return this.context.handleException(exception);
+    }
+
+    @Override
+    public Optional<Optional<Object>> reference(final ExpressionReference reference) {
+        return this.context.reference(reference);
+    }
+
+    // DateTimeContext..................................................................................................
+
+    @Override
+    public List<String> ampms() {
+        return this.context.ampms();
+    }
+
+    @Override
+    public int defaultYear() {
+        return this.context.defaultYear();
+    }
+
+    @Override
+    public List<String> monthNames() {
+        return this.context.monthNames();
+    }
+
+    @Override
+    public List<String> monthNameAbbreviations() {
+        return this.context.monthNameAbbreviations();
+    }
+
+    @Override
+    public LocalDateTime now() {
+        return this.context.now();
+    }
+
+    @Override
+    public int twoToFourDigitYear(final int year) {
+        return this.context.twoToFourDigitYear(year);
+    }
+
+    @Override
+    public int twoDigitYear() {
+        return this.context.twoDigitYear();
+    }
+
+    @Override
+    public List<String> weekDayNames() {
+        return this.context.weekDayNames();
+    }
+
+    @Override
+    public List<String> weekDayNameAbbreviations() {
+        return this.context.weekDayNameAbbreviations();
+    }
+
+    // DecimalNumberContext.............................................................................................
+
+    @Override
+    public String currencySymbol() {
+        return this.context.currencySymbol();
+    }
+
+    @Override
+    public char decimalSeparator() {
+        return this.context.decimalSeparator();
+    }
+
+    @Override
+    public String exponentSymbol() {
+        return this.context.exponentSymbol();
+    }
+
+    @Override
+    public ExpressionNumberKind expressionNumberKind() {
+        return this.context.expressionNumberKind();
+    }
+
+    @Override
+    public char groupingSeparator() {
+        return this.context.groupingSeparator();
+    }
+
+    @Override
+    public char percentageSymbol() {
+        return this.context.percentageSymbol();
+    }
+
+    @Override
+    public char negativeSign() {
+        return this.context.negativeSign();
+    }
+
+    @Override
+    public char positiveSign() {
+        return this.context.positiveSign();
+    }
+
+    @Override
+    public Locale locale() {
+        return this.context.locale();
+    }
+
+    @Override
+    public MathContext mathContext() {
+        return this.context.mathContext();
+    }
+
+    // CanConvert................................................................................................
+
+    @Override
+    public boolean canConvert(final Object from,
+                              final Class<?> type) {
+        return this.context.canConvert(from, type);
+    }
+
+    @Override
+    public <T> Either<T, String> convert(final Object from,
+                                         final Class<T> type) {
+        return this.context.convert(from, type);
+    }
+
+    // Strings..........................................................................................................
+
+    @Override
+    public CaseSensitivity caseSensitivity() {
+        return this.context.caseSensitivity();
+    }
+
+    @Override
+    public boolean isShortCircuit() {
+        return true;
+    }
+
+    @Override
+    public boolean isText(final Object value) {
+        return this.context.isText(value);
+    }
+
+    private final ExpressionEvaluationContext context;
+
+    // toString.........................................................................................................
+
+    @Override
+    public String toString() {
+        return this.context.toString();
+    }
+}
@@ -83,6 +83,12 @@ public final class SubtractExpression extends BinaryArithmeticExpression {
         return left.subtract(right, context);
     }
 
+    @Override
+    double applyDouble(final double left,
+                       final double right) {
+        return left - right;
+    }
+
     // Object .........................................................................................................
 
     @Override
@@ -89,7 +89,10 @@ final public class ValueExpression<V> extends LeafExpression<V> {
 
     @Override
     public boolean toBoolean(final ExpressionEvaluationContext context) {
-        return context.convertOrFail(this.value(), Boolean.class);
+        final V value = this.value();
+        return value instanceof Boolean ?
+                (Boolean) value :
+                context.convertOrFail(value, Boolean.class);
     }
 
     @Override
@@ -114,6 +117,44 @@ final public class ValueExpression<V> extends LeafExpression<V> {
         return context.convertOrFail(this.value(), String.class);
     }
 
+    /**
+     * {@link ExpressionNumber} values only need their {@link ExpressionNumberKind} updated, skipping the converter.
+     */
+    @Override
+    public double toDouble(final ExpressionEvaluationContext context) {
+        final V value = this.value();
+        return value instanceof ExpressionNumber ?
+                ((ExpressionNumber) value).setKind(context.expressionNumberKind())
+                        .doubleValue() :
+                super.toDouble(context);
+    }
+
+    @Override
+    public long toLong(final ExpressionEvaluationContext context) {
+        final V value = this.value();
+        return value instanceof ExpressionNumber ?
+                ((ExpressionNumber) value).setKind(context.expressionNumberKind())
+                        .longValue() :
+                super.toLong(context);
+    }
+
+    @Override
+    boolean isExpressionNumberResult() {
+        return this.value() instanceof ExpressionNumber;
+    }
+
+    @Override
+    boolean isBooleanResult() {
+        return this.value() instanceof Boolean;
+    }
+
+    // Compile..........................................................................................................
+
+    @Override
+    CompiledExpression compile0(final ExpressionCompiler compiler) {
+        return CompiledExpressionValue.with(this);
+    }
+
     // Object ..........................................................................................................
 
     @Override
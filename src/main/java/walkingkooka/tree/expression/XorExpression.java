@@ -71,6 +71,11 @@ public final class XorExpression extends BinaryLogicalExpression {
 
     // evaluation .....................................................................................................
 
+    @Override
+    boolean isShortCircuitBoolean(final boolean left) {
+        return false;
+    }
+
     @Override
     boolean applyBoolean(final boolean left, final boolean right) {
         return left ^ right;
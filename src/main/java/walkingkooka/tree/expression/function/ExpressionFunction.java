@@ -86,29 +86,11 @@ public interface ExpressionFunction<T, C extends ExpressionEvaluationContext> ex
      * {@link IllegalArgumentException} being thrown.
      */
     default void checkParameterCount(final List<Object> parameters) {
-        int min = 0;
-        int max = 0;
-
-        ExpressionFunctionParameterCardinality last = null;
-
         final int count = parameters.size();
-        for (final ExpressionFunctionParameter<?> functionParameter : this.parameters(count)) {
-            final ExpressionFunctionParameterCardinality cardinality = functionParameter.cardinality();
-            min += cardinality.min;
-            max += cardinality.max;
-            last = cardinality;
-        }
-
-        if (ExpressionFunctionParameterCardinality.VARIABLE == last) {
-            max = Integer.MAX_VALUE;
-        }
-
-        if (count < min) {
-            throw new IllegalArgumentException("Missing parameters, got " + count + " expected " + min);
-        }
-        if (count > max) {
-            throw new IllegalArgumentException("Too many parameters got " + count + " expected " + max);
-        }
+
+        ExpressionFunctionParameterMetadata.with(
+                this.parameters(count)
+        ).checkCount(count);
     }
 
     /**
@@ -75,10 +75,11 @@ public final class ExpressionFunctionParameter<T> implements HasName<ExpressionF
     public final static ExpressionFunctionParameter<Object> VALUE = ExpressionFunctionParameterName.VALUE.required(Object.class);
 
     /**
-     * Helper that creates a read only list of the given parameters.
+     * Helper that creates a read only list of the given parameters, the {@link ExpressionFunctionParameterMetadata} is
+     * computed once and shared by all calls.
      */
     public static List<ExpressionFunctionParameter<?>> list(final ExpressionFunctionParameter<?>... parameters) {
-        return Lists.of(parameters);
+        return ExpressionFunctionParameterList.with(parameters);
     }
 
     // @VisibleForTesting
@@ -112,6 +113,7 @@ public final class ExpressionFunctionParameter<T> implements HasName<ExpressionF
         this.cardinality = cardinality;
         this.typeParameters = typeParameters;
         this.kinds = kinds;
+        this.kindsMask = ExpressionFunctionParameterKind.mask(kinds);
     }
 
     @Override
@@ -223,6 +225,18 @@ public final class ExpressionFunctionParameter<T> implements HasName<ExpressionF
 
     private final Set<ExpressionFunctionParameterKind> kinds;
 
+    /**
+     * Tests if this parameter has the given {@link ExpressionFunctionParameterKind}, without querying {@link #kinds()}.
+     */
+    public boolean isKind(final ExpressionFunctionParameterKind kind) {
+        return 0 != (this.kindsMask & kind.mask);
+    }
+
+    /**
+     * Bits for all {@link #kinds}, computed once in the ctor.
+     */
+    final int kindsMask;
+
     /**
      * Gets the parameter at index or uses the default.
      * <br>
@@ -52,6 +52,25 @@ public enum ExpressionFunctionParameterKind {
      */
     RESOLVE_REFERENCES;
 
+    /**
+     * A single bit used by {@link ExpressionFunctionParameter} and {@link ExpressionFunctionParameterMetadata} to test
+     * kinds without querying a {@link Set}.
+     */
+    final int mask = 1 << this.ordinal();
+
+    /**
+     * Returns the bits for all the given kinds.
+     */
+    static int mask(final Set<ExpressionFunctionParameterKind> kinds) {
+        int mask = 0;
+
+        for (final ExpressionFunctionParameterKind kind : kinds) {
+            mask |= kind.mask;
+        }
+
+        return mask;
+    }
+
     // See ExpressionFunctionParameter#toString
     final String parameterToString() {
         return "@" + this.name();
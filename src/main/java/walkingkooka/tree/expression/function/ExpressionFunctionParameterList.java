@@ -0,0 +1,66 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression.function;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * A read only {@link List} of {@link ExpressionFunctionParameter} that also holds its {@link ExpressionFunctionParameterMetadata},
+ * which avoids recomputing counts and kinds for every function call.
+ */
+final class ExpressionFunctionParameterList extends AbstractList<ExpressionFunctionParameter<?>> {
+
+    static ExpressionFunctionParameterList with(final ExpressionFunctionParameter<?>... parameters) {
+        final ExpressionFunctionParameter<?>[] copy = parameters.clone();
+        for (final ExpressionFunctionParameter<?> parameter : copy) {
+            if (null == parameter) {
+                throw new NullPointerException("Includes null parameter");
+            }
+        }
+        return new ExpressionFunctionParameterList(copy);
+    }
+
+    /**
+     * Returns the given {@link List} if it is already a {@link ExpressionFunctionParameterList} otherwise a copy.
+     */
+    static ExpressionFunctionParameterList copy(final List<ExpressionFunctionParameter<?>> parameters) {
+        return parameters instanceof ExpressionFunctionParameterList ?
+                (ExpressionFunctionParameterList) parameters :
+                with(parameters.toArray(new ExpressionFunctionParameter<?>[0]));
+    }
+
+    private ExpressionFunctionParameterList(final ExpressionFunctionParameter<?>[] parameters) {
+        this.parameters = parameters;
+        this.metadata = ExpressionFunctionParameterMetadata.compute(this);
+    }
+
+    @Override
+    public ExpressionFunctionParameter<?> get(final int index) {
+        return this.parameters[index];
+    }
+
+    @Override
+    public int size() {
+        return this.parameters.length;
+    }
+
+    private final ExpressionFunctionParameter<?>[] parameters;
+
+    final ExpressionFunctionParameterMetadata metadata;
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression.function;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Facts about a {@link List} of {@link ExpressionFunctionParameter} that are required each time a function is called,
+ * such as the minimum and maximum parameter counts and the index of the {@link ExpressionFunctionParameterKind#FLATTEN}
+ * parameter. Lists created by {@link ExpressionFunctionParameter#list(ExpressionFunctionParameter[])} compute this once
+ * and share it, other lists have their metadata computed each time.
+ */
+public final class ExpressionFunctionParameterMetadata {
+
+    /**
+     * Returns the {@link ExpressionFunctionParameterMetadata} for the given parameters.
+     */
+    public static ExpressionFunctionParameterMetadata with(final List<ExpressionFunctionParameter<?>> parameters) {
+        Objects.requireNonNull(parameters, "parameters");
+
+        return parameters instanceof ExpressionFunctionParameterList ?
+                ((ExpressionFunctionParameterList) parameters).metadata :
+                compute(parameters);
+    }
+
+    static ExpressionFunctionParameterMetadata compute(final List<ExpressionFunctionParameter<?>> parameters) {
+        int min = 0;
+        int max = 0;
+        int kindsMask = 0;
+
+        ExpressionFunctionParameter<?> last = null;
+
+        for (final ExpressionFunctionParameter<?> parameter : parameters) {
+            final ExpressionFunctionParameterCardinality cardinality = parameter.cardinality();
+            min += cardinality.min;
+            max += cardinality.max;
+            kindsMask |= parameter.kindsMask;
+            last = parameter;
+        }
+
+        final boolean variable = null != last && ExpressionFunctionParameterCardinality.VARIABLE == last.cardinality();
+
+        return new ExpressionFunctionParameterMetadata(
+                parameters.size(),
+                min,
+                variable ?
+                        Integer.MAX_VALUE :
+                        max,
+                variable,
+                null != last && last.isKind(ExpressionFunctionParameterKind.FLATTEN) ?
+                        parameters.size() - 1 :
+                        NO_FLATTEN,
+                kindsMask
+        );
+    }
+
+    /**
+     * Returned by {@link #flattenIndex()} when the last parameter is not {@link ExpressionFunctionParameterKind#FLATTEN}.
+     */
+    public final static int NO_FLATTEN = -1;
+
+    private ExpressionFunctionParameterMetadata(final int count,
+                                                final int min,
+                                                final int max,
+                                                final boolean variable,
+                                                final int flattenIndex,
+                                                final int kindsMask) {
+        this.count = count;
+        this.min = min;
+        this.max = max;
+        this.variable = variable;
+        this.flattenIndex = flattenIndex;
+        this.kindsMask = kindsMask;
+    }
+
+    /**
+     * The number of {@link ExpressionFunctionParameter}.
+     */
+    public int count() {
+        return this.count;
+    }
+
+    private final int count;
+
+    /**
+     * The minimum number of parameter values required.
+     */
+    public int min() {
+        return this.min;
+    }
+
+    private final int min;
+
+    /**
+     * The maximum number of parameter values, {@link Integer#MAX_VALUE} if the last parameter is {@link ExpressionFunctionParameterCardinality#VARIABLE}.
+     */
+    public int max() {
+        return this.max;
+    }
+
+    private final int max;
+
+    /**
+     * Returns true if the last parameter is {@link ExpressionFunctionParameterCardinality#VARIABLE}.
+     */
+    public boolean isVariable() {
+        return this.variable;
+    }
+
+    private final boolean variable;
+
+    /**
+     * The index of the last parameter if it is {@link ExpressionFunctionParameterKind#FLATTEN} otherwise {@link #NO_FLATTEN}.
+     */
+    public int flattenIndex() {
+        return this.flattenIndex;
+    }
+
+    private final int flattenIndex;
+
+    /**
+     * Returns true if any parameter has the given {@link ExpressionFunctionParameterKind}.
+     */
+    public boolean isAnyKind(final ExpressionFunctionParameterKind kind) {
+        return 0 != (this.kindsMask & kind.mask);
+    }
+
+    /**
+     * Returns true if no parameter has any {@link ExpressionFunctionParameterKind}, meaning values do not require any preparation.
+     */
+    public boolean isNoKinds() {
+        return 0 == this.kindsMask;
+    }
+
+    private final int kindsMask;
+
+    /**
+     * Complains if the given count is outside the min and max.
+     */
+    public void checkCount(final int count) {
+        final int min = this.min;
+        if (count < min) {
+            throw new IllegalArgumentException("Missing parameters, got " + count + " expected " + min);
+        }
+        final int max = this.max;
+        if (count > max) {
+            throw new IllegalArgumentException("Too many parameters got " + count + " expected " + max);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.count + " min=" + this.min + " max=" + this.max + " flatten=" + this.flattenIndex;
+    }
+}
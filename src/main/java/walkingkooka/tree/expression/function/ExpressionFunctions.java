@@ -18,11 +18,9 @@
 package walkingkooka.tree.expression.function;
 
 import walkingkooka.collect.list.Lists;
-import walkingkooka.collect.map.Maps;
 import walkingkooka.naming.Name;
 import walkingkooka.reflect.PublicStaticHelper;
 import walkingkooka.text.CaseSensitivity;
-import walkingkooka.text.CharSequences;
 import walkingkooka.tree.Node;
 import walkingkooka.tree.expression.Expression;
 import walkingkooka.tree.expression.ExpressionEvaluationContext;
@@ -32,8 +30,6 @@ import walkingkooka.tree.expression.FunctionExpressionName;
 import walkingkooka.tree.select.NodeSelectorExpressionEvaluationContext;
 
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.BiFunction;
@@ -52,30 +48,10 @@ public final class ExpressionFunctions implements PublicStaticHelper {
      */
     public static <C extends ExpressionEvaluationContext> Function<FunctionExpressionName, Optional<ExpressionFunction<?, C>>> lookup(final Set<ExpressionFunction<?, C>> functions,
                                                                                                                                       final CaseSensitivity caseSensitivity) {
-        Objects.requireNonNull(caseSensitivity, "caseSensitivity");
-
-        final Map<String, ExpressionFunction<?, C>> nameToFunctions = Maps.sorted(caseSensitivity.comparator());
-
-        for (final ExpressionFunction<?, C> function : functions) {
-            final String name = function.name()
-                    .orElseThrow(() -> new IllegalArgumentException("Anonymous namedFunction encountered"))
-                    .value();
-            if (null != nameToFunctions.put(
-                    name,
-                    function
-            )) {
-                throw new IllegalArgumentException("Duplicate namedFunction " + CharSequences.quote(name));
-            }
-            ;
-        }
-
-        return (name) -> {
-            Objects.requireNonNull(name, "name");
-
-            return Optional.ofNullable(
-                    nameToFunctions.get(name.value())
-            );
-        };
+        return ExpressionFunctionsLookup.with(
+                functions,
+                caseSensitivity
+        );
     }
 
     /**
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression.function;
+
+import walkingkooka.collect.map.Maps;
+import walkingkooka.text.CaseSensitivity;
+import walkingkooka.text.CharSequences;
+import walkingkooka.tree.expression.ExpressionEvaluationContext;
+import walkingkooka.tree.expression.FunctionExpressionName;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A {@link Function} that finds an {@link ExpressionFunction} by {@link FunctionExpressionName} using a hash table.
+ * When {@link CaseSensitivity#INSENSITIVE} names are folded once when added and again for each lookup, instead of
+ * walking a sorted map with a case-insensitive comparator. The found {@link Optional} are also created once.
+ */
+final class ExpressionFunctionsLookup<C extends ExpressionEvaluationContext> implements Function<FunctionExpressionName, Optional<ExpressionFunction<?, C>>> {
+
+    /**
+     * Factory called by {@link ExpressionFunctions#lookup(Set, CaseSensitivity)}
+     */
+    static <C extends ExpressionEvaluationContext> ExpressionFunctionsLookup<C> with(final Set<ExpressionFunction<?, C>> functions,
+                                                                                     final CaseSensitivity caseSensitivity) {
+        Objects.requireNonNull(functions, "functions");
+        Objects.requireNonNull(caseSensitivity, "caseSensitivity");
+
+        final boolean fold = CaseSensitivity.INSENSITIVE == caseSensitivity;
+        final Map<String, Optional<ExpressionFunction<?, C>>> nameToFunctions = Maps.hash();
+
+        for (final ExpressionFunction<?, C> function : functions) {
+            final String name = function.name()
+                    .orElseThrow(() -> new IllegalArgumentException("Anonymous namedFunction encountered"))
+                    .value();
+            if (null != nameToFunctions.put(
+                    key(name, fold),
+                    Optional.of(function)
+            )) {
+                throw new IllegalArgumentException("Duplicate namedFunction " + CharSequences.quote(name));
+            }
+        }
+
+        return new ExpressionFunctionsLookup<>(
+                nameToFunctions,
+                fold,
+                caseSensitivity
+        );
+    }
+
+    private ExpressionFunctionsLookup(final Map<String, Optional<ExpressionFunction<?, C>>> nameToFunctions,
+                                      final boolean fold,
+                                      final CaseSensitivity caseSensitivity) {
+        this.nameToFunctions = nameToFunctions;
+        this.fold = fold;
+        this.caseSensitivity = caseSensitivity;
+    }
+
+    @Override
+    public Optional<ExpressionFunction<?, C>> apply(final FunctionExpressionName name) {
+        Objects.requireNonNull(name, "name");
+
+        final Optional<ExpressionFunction<?, C>> function = this.nameToFunctions.get(
+                key(name.value(), this.fold)
+        );
+        return null != function ?
+                function :
+                Optional.empty();
+    }
+
+    /**
+     * Folds the case of the name if required, only creating a new {@link String} when a character changes. Both
+     * upper and lower case are applied, matching {@link String#equalsIgnoreCase(String)}.
+     */
+    static String key(final String name,
+                      final boolean fold) {
+        String key = name;
+
+        if (fold) {
+            final int length = name.length();
+
+            for (int i = 0; i < length; i++) {
+                final char c = name.charAt(i);
+                if (c != fold(c)) {
+                    final char[] chars = name.toCharArray();
+                    for (int j = i; j < length; j++) {
+                        chars[j] = fold(chars[j]);
+                    }
+                    key = new String(chars);
+                    break;
+                }
+            }
+        }
+
+        return key;
+    }
+
+    private static char fold(final char c) {
+        return Character.toLowerCase(
+                Character.toUpperCase(c)
+        );
+    }
+
+    private final Map<String, Optional<ExpressionFunction<?, C>>> nameToFunctions;
+
+    private final boolean fold;
+
+    private final CaseSensitivity caseSensitivity;
+
+    @Override
+    public String toString() {
+        return this.nameToFunctions.size() + " " + this.caseSensitivity;
+    }
+}
@@ -17,15 +17,16 @@
 
 package walkingkooka.tree.expression.function;
 
-import walkingkooka.collect.list.Lists;
 import walkingkooka.tree.expression.Expression;
 import walkingkooka.tree.expression.ExpressionEvaluationContext;
 import walkingkooka.tree.expression.ExpressionPurityContext;
+import walkingkooka.tree.expression.ExpressionReference;
 import walkingkooka.tree.expression.FunctionExpressionName;
 
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
 /**
@@ -41,7 +42,7 @@ final class LambdaExpressionFunction<T, C extends ExpressionEvaluationContext> i
         Objects.requireNonNull(expression, "expression");
 
         return new LambdaExpressionFunction<>(
-                Lists.immutable(parameters),
+                ExpressionFunctionParameterList.copy(parameters),
                 returnType,
                 expression
         );
@@ -51,6 +52,7 @@ final class LambdaExpressionFunction<T, C extends ExpressionEvaluationContext> i
                                     final Class<T> returnType,
                                     final Expression expression) {
         this.parameters = parameters;
+        this.references = new ExpressionReference[parameters.size()];
         this.returnType = returnType;
         this.expression = expression;
     }
@@ -73,7 +75,54 @@ final class LambdaExpressionFunction<T, C extends ExpressionEvaluationContext> i
     /**
      * The parameter definitions which are transformed into scoped local variables when the {@link #expression} is executed.
      */
-    private final List<ExpressionFunctionParameter<?>> parameters;
+    final List<ExpressionFunctionParameter<?>> parameters;
+
+    /**
+     * Returns the index of the parameter with the given {@link ExpressionReference} or {@link #NOT_PARAMETER}. The last
+     * reference matching each parameter is remembered, so a parameter reference is only tested against the parameter
+     * names once, while references that are not parameters are tested every time and never remembered.
+     */
+    int slot(final ExpressionReference reference) {
+        final ExpressionReference[] references = this.references;
+        final int count = references.length;
+
+        int slot = NOT_PARAMETER;
+
+        for (int i = 0; i < count; i++) {
+            if (reference.equals(references[i])) {
+                slot = i;
+                break;
+            }
+        }
+
+        if (NOT_PARAMETER == slot) {
+            int i = 0;
+            for (final ExpressionFunctionParameter<?> parameter : this.parameters) {
+                if (reference.testParameterName(
+                        parameter.name()
+                )) {
+                    slot = i;
+                    references[i] = reference;
+                    break;
+                }
+                i++;
+            }
+        }
+
+        return slot;
+    }
+
+    /**
+     * Returned by {@link #slot(ExpressionReference)} when the reference is not a parameter.
+     */
+    final static int NOT_PARAMETER = -1;
+
+    /**
+     * The last {@link ExpressionReference} matching each parameter, indexed by slot, filled as the {@link #expression}
+     * is executed. Its size is fixed by the parameters, a racing write only replaces one matching reference with
+     * another.
+     */
+    private final ExpressionReference[] references;
 
     @Override
     public Class<T> returnType() {
@@ -87,17 +136,31 @@ final class LambdaExpressionFunction<T, C extends ExpressionEvaluationContext> i
                    final C context) {
         this.checkParameterCount(values);
 
-        return context.convertOrFail(
-                context.context(
-                        LambdaExpressionFunctionExpressionEvaluationContextContextFunction.with(
-                                this.parameters,
-                                values
-                        )
-                ).evaluate(this.expression),
-                this.returnType
-        );
+        LambdaExpressionFunctionExpressionEvaluationContextContextFunction frame = this.frame.getAndSet(null);
+        if (null == frame) {
+            frame = LambdaExpressionFunctionExpressionEvaluationContextContextFunction.with(this);
+        }
+
+        try {
+            return context.convertOrFail(
+                    frame.enter(
+                            values,
+                            context
+                    ).evaluate(this.expression),
+                    this.returnType
+            );
+        } finally {
+            frame.exit();
+            this.frame.set(frame);
+        }
     }
 
+    /**
+     * A free frame that may be reused by the next invocation. Recursive or concurrent invocations find this empty and
+     * create their own frame.
+     */
+    private final AtomicReference<LambdaExpressionFunctionExpressionEvaluationContextContextFunction> frame = new AtomicReference<>();
+
     /**
      * The {@link Function} that will be executed.
      */
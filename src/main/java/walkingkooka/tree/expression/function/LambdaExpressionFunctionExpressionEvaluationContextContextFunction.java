@@ -1,5 +1,5 @@
 /*
- * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,8 +17,11 @@
 
 package walkingkooka.tree.expression.function;
 
+import walkingkooka.Cast;
+import walkingkooka.tree.expression.ExpressionEvaluationContext;
 import walkingkooka.tree.expression.ExpressionReference;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
@@ -26,56 +29,83 @@ import java.util.function.Function;
 /**
  * A {@link Function} that handles translating {@link ExpressionReference} into possible values and is given to {@link walkingkooka.tree.expression.ExpressionEvaluationContext#context(Function)}
  * for that purpose.
+ * <br>
+ * Each instance is a frame that is reused by its {@link LambdaExpressionFunction} for many invocations, references are
+ * translated to parameter slots by the function. The child {@link ExpressionEvaluationContext} is created for each
+ * invocation and never kept, and the values are released on exit, so an idle frame never keeps a context alive.
  */
 final class LambdaExpressionFunctionExpressionEvaluationContextContextFunction implements Function<ExpressionReference, Optional<Optional<Object>>> {
 
-    static LambdaExpressionFunctionExpressionEvaluationContextContextFunction with(final List<ExpressionFunctionParameter<?>> parameters,
-                                                                                   final List<Object> values) {
-        return new LambdaExpressionFunctionExpressionEvaluationContextContextFunction(
-                parameters,
-                values
-        );
+    static LambdaExpressionFunctionExpressionEvaluationContextContextFunction with(final LambdaExpressionFunction<?, ?> function) {
+        return new LambdaExpressionFunctionExpressionEvaluationContextContextFunction(function);
     }
 
-    private LambdaExpressionFunctionExpressionEvaluationContextContextFunction(final List<ExpressionFunctionParameter<?>> parameters,
-                                                                               final List<Object> values) {
-        this.parameters = parameters;
+    private LambdaExpressionFunctionExpressionEvaluationContextContextFunction(final LambdaExpressionFunction<?, ?> function) {
+        this.function = function;
+        this.resolved = Cast.to(new Optional[function.parameters.size()]);
+    }
+
+    /**
+     * Prepares this frame for an invocation with the given values, returning the child {@link ExpressionEvaluationContext}.
+     */
+    ExpressionEvaluationContext enter(final List<Object> values,
+                                      final ExpressionEvaluationContext context) {
         this.values = values;
+        Arrays.fill(this.resolved, null);
+
+        return context.context(this);
+    }
+
+    /**
+     * Releases the values of the just completed invocation.
+     */
+    void exit() {
+        this.values = null;
+        Arrays.fill(this.resolved, null);
     }
 
     @Override
     public Optional<Optional<Object>> apply(final ExpressionReference reference) {
-        Optional<Object> value = null;
-
-        int i = 0;
-
-        for (final ExpressionFunctionParameter<?> parameter : this.parameters) {
-            if (reference.testParameterName(
-                    parameter.name()
-            )) {
-                value = Optional.ofNullable(
-                        this.values.get(i)
-                );
-                break;
+        final int slot = this.function.slot(reference);
+
+        Optional<Optional<Object>> value;
+        if (LambdaExpressionFunction.NOT_PARAMETER == slot) {
+            value = Optional.empty();
+        } else {
+            value = this.resolved[slot];
+            if (null == value) {
+                final Object parameterValue = this.values.get(slot);
+                value = null == parameterValue ?
+                        NULL_VALUE :
+                        Optional.of(
+                                Optional.of(parameterValue)
+                        );
+                this.resolved[slot] = value;
             }
-            i++;
         }
 
-        return Optional.ofNullable(value);
+        return value;
     }
 
+    private final static Optional<Optional<Object>> NULL_VALUE = Optional.of(Optional.empty());
+
+    /**
+     * The owner which translates references to slots.
+     */
+    private final LambdaExpressionFunction<?, ?> function;
+
     /**
-     * Provides the names for each parameter, and the type
+     * The values to the lambda function for the current invocation.
      */
-    private final List<ExpressionFunctionParameter<?>> parameters;
+    private List<Object> values;
 
     /**
-     * The values to the lambda function when executed.
+     * Parameter values already wrapped for the current invocation, indexed by slot.
      */
-    private final List<Object> values;
+    private final Optional<Optional<Object>>[] resolved;
 
     @Override
     public String toString() {
-        return this.parameters.toString();
+        return this.function.parameters.toString();
     }
 }
@@ -61,6 +61,11 @@ final class AbsoluteNodeSelector<N extends Node<N, NAME, ANAME, AVALUE>, NAME ex
 
     @Override
     N apply1(final N node, final NodeSelectorContext2<N, NAME, ANAME, AVALUE> context) {
+        if (context.readOnly) {
+            this.select(node.root(), context);
+            return node;
+        }
+
         final NodePointer<N, NAME> pointer = node.pointer();
         final N node2 = this.select(node.root(), context);
         return pointer.traverse(node2).orElse(node2); // try and return the Node at the equivalent location as $node otherwise return node2 itself.
@@ -288,6 +288,11 @@ final class BasicNodeSelectorExpressionEvaluationContext<N extends Node<N, NAME,
         return this.context.caseSensitivity();
     }
 
+    @Override
+    public boolean isShortCircuit() {
+        return this.context.isShortCircuit();
+    }
+
     @Override
     public boolean isText(final Object value) {
         return this.context.isText(value);
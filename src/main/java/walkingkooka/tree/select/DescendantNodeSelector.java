@@ -57,7 +57,9 @@ final class DescendantNodeSelector<N extends Node<N, NAME, ANAME, AVALUE>, NAME
 
     @Override
     N apply1(final N node, final NodeSelectorContext2<N, NAME, ANAME, AVALUE> context) {
-        return this.selectChildren(node, context);
+        return context.selectDescendants(this, node, false) ?
+                node :
+                this.selectChildren(node, context);
     }
 
     @Override
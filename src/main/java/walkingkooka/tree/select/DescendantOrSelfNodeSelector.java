@@ -62,6 +62,10 @@ final class DescendantOrSelfNodeSelector<N extends Node<N, NAME, ANAME, AVALUE>,
 
     @Override
     N select(final N node, final NodeSelectorContext2<N, NAME, ANAME, AVALUE> context) {
+        if (context.selectDescendants(this, node, true)) {
+            return node;
+        }
+
         final N node2 = this.selectNext(node, context);
 
         return this.selectChildren(node2, context);
@@ -67,6 +67,13 @@ final class NodePredicateNodeSelector<N extends Node<N, NAME, ANAME, AVALUE>, NA
                 node;
     }
 
+    /**
+     * Used by {@link NodeSelectorIndex} to find attribute value equals tests.
+     */
+    Predicate<N> predicate() {
+        return this.predicate;
+    }
+
     private final Predicate<N> predicate;
 
     // NodeSelectorVisitor..............................................................................................
@@ -31,8 +31,10 @@ import walkingkooka.tree.select.parser.NodeSelectorParserToken;
 import walkingkooka.visit.Visitable;
 import walkingkooka.visit.Visiting;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -274,6 +276,24 @@ public abstract class NodeSelector<N extends Node<N, NAME, ANAME, AVALUE>,
                 node;
     }
 
+    /**
+     * Query only form of {@link #apply(Node, NodeSelectorContext)}, which walks the tree without replacing or
+     * re-navigating to any node. Matches are still given to {@link NodeSelectorContext#selected(Node)} but its
+     * result is ignored.
+     */
+    final void find(final N node, final NodeSelectorContext<N, NAME, ANAME, AVALUE> context) {
+        this.find0(node, NodeSelectorContext2.readOnly(context));
+    }
+
+    /**
+     * Finds the given {@link Node} using the given {@link NodeSelectorContext2}, which should be read only.
+     */
+    private void find0(final N node, final NodeSelectorContext2<N, NAME, ANAME, AVALUE> context) {
+        if (!context.isFinished() && context.test(node)) {
+            this.apply0(node, context);
+        }
+    }
+
     /**
      * Sub classes must call this method which calls the observer and then immediately calls {@link #apply1(Node, NodeSelectorContext2)}
      * This method assumes that {@link NodeSelectorContext#test(Node)} was previously called for the given {@link Node}.
@@ -300,6 +320,17 @@ public abstract class NodeSelector<N extends Node<N, NAME, ANAME, AVALUE>,
      * Selects all preceding siblings of the given {@link Node}.
      */
     final N selectPrecedingSiblings(final N node, final NodeSelectorContext2<N, NAME, ANAME, AVALUE> context) {
+        if (context.readOnly) {
+            final Optional<N> parent = node.parent();
+            if (parent.isPresent()) {
+                final List<N> siblings = parent.get().children();
+                for (int i = node.index() - 1; i >= 0 && false == context.isFinished(); i--) {
+                    this.testThenSelect(siblings.get(i), context);
+                }
+            }
+            return node;
+        }
+
         N result = node;
 
         final Optional<N> parent = node.parent();
@@ -330,6 +361,18 @@ public abstract class NodeSelector<N extends Node<N, NAME, ANAME, AVALUE>,
      * Selects all following siblings of the given {@link Node}.
      */
     final N selectFollowingSiblings(final N node, final NodeSelectorContext2<N, NAME, ANAME, AVALUE> context) {
+        if (context.readOnly) {
+            final Optional<N> parent = node.parent();
+            if (parent.isPresent()) {
+                final List<N> siblings = parent.get().children();
+                final int count = siblings.size();
+                for (int i = node.index() + 1; i < count && false == context.isFinished(); i++) {
+                    this.testThenSelect(siblings.get(i), context);
+                }
+            }
+            return node;
+        }
+
         N result = node;
 
         final Optional<N> parent = node.parent();
@@ -358,6 +401,19 @@ public abstract class NodeSelector<N extends Node<N, NAME, ANAME, AVALUE>,
      * Selects all direct children of the given {@link Node node}.`
      */
     final N selectChildren(final N node, final NodeSelectorContext2<N, NAME, ANAME, AVALUE> context) {
+        if (context.readOnly) {
+            final List<N> children = node.children();
+            if (false == NodeSelectorParallelContext.selectChildren(this, children, context)) {
+                for (final N child : children) {
+                    if (context.isFinished()) {
+                        break;
+                    }
+                    this.testThenSelect(child, context);
+                }
+            }
+            return node;
+        }
+
         N result = node;
 
         Optional<N> next = node.firstChild();
@@ -385,6 +441,14 @@ public abstract class NodeSelector<N extends Node<N, NAME, ANAME, AVALUE>,
      * Matches the parent only if one is present.
      */
     final N selectParent(final N node, final NodeSelectorContext2<N, NAME, ANAME, AVALUE> context) {
+        if (context.readOnly) {
+            if (false == context.isFinished()) {
+                node.parent()
+                        .ifPresent(parent -> this.testThenSelect(parent, context));
+            }
+            return node;
+        }
+
         return context.isFinished() ?
                 node :
                 node.parent()
@@ -431,17 +495,103 @@ public abstract class NodeSelector<N extends Node<N, NAME, ANAME, AVALUE>,
     /**
      * Returns a stream which will execute this selector starting with the given {@link Node} and then push matches to the
      * {@link Stream} for further stream processing.
+     * <br>
+     * The walk stops once the stream is satisfied, for example by findFirst, limit or anyMatch. Matches are pushed by a
+     * single sequential walk, so {@link Stream#parallel()} does not split the walk and at most the stages after it run
+     * in parallel. Use {@link #parallelFind(Node, Function, Class, Executor, int, int)} to divide the walk itself
+     * between threads.
      */
     public final <C extends ExpressionNumberConverterContext> Stream<N> stream(final N node,
                                                                                final Function<NodeSelectorContext<N, NAME, ANAME, AVALUE>, ExpressionEvaluationContext> expressionEvaluationContext,
                                                                                final Class<N> nodeType) {
         return PushableStreamConsumer.stream(
                 NodeSelectorStreamConsumerPushableStreamConsumer.with(node,
-                        this,
+                        this.plan(),
                         expressionEvaluationContext,
                         nodeType));
     }
 
+    // parallelFind.....................................................................................................
+
+    /**
+     * Executes this selector starting with the given {@link Node} returning all matches in document order. When the
+     * children of a {@link Node} are walked and there are at least threshold of them, they are divided between the
+     * calling thread and up to parallelism - 1 helpers submitted to the {@link Executor}. Children are walked
+     * sequentially when this selector tests the position of nodes with an {@link Expression}.
+     * The {@link Function} creating an {@link ExpressionEvaluationContext} may be called by several threads, each with
+     * its own {@link NodeSelectorContext}.
+     */
+    public final List<N> parallelFind(final N node,
+                                      final Function<NodeSelectorContext<N, NAME, ANAME, AVALUE>, ExpressionEvaluationContext> expressionEvaluationContext,
+                                      final Class<N> nodeType,
+                                      final Executor executor,
+                                      final int parallelism,
+                                      final int threshold) {
+        Objects.requireNonNull(node, "node");
+
+        final NodeSelectorParallelContext<N, NAME, ANAME, AVALUE> context = NodeSelectorParallelContext.with(expressionEvaluationContext,
+                nodeType,
+                executor,
+                parallelism,
+                threshold);
+        this.plan()
+                .find(node, context);
+        return context.selected;
+    }
+
+    // indexedFind......................................................................................................
+
+    /**
+     * Executes this selector starting with the given {@link Node} returning all matches in document order. Descendant
+     * steps followed by a name test or attribute equals test find their matches in the {@link NodeSelectorIndex},
+     * which must have been built for the tree containing the given {@link Node}, all other steps walk the tree.
+     */
+    public final List<N> indexedFind(final N node,
+                                     final NodeSelectorIndex<N, NAME, ANAME, AVALUE> index,
+                                     final Function<NodeSelectorContext<N, NAME, ANAME, AVALUE>, ExpressionEvaluationContext> expressionEvaluationContext,
+                                     final Class<N> nodeType) {
+        Objects.requireNonNull(node, "node");
+
+        Objects.requireNonNull(index, "index");
+
+        final NodeSelectorIndexContext<N, NAME, ANAME, AVALUE> context = NodeSelectorIndexContext.with(expressionEvaluationContext,
+                nodeType);
+        this.plan()
+                .find0(node, NodeSelectorContext2.indexed(context, index));
+        return context.selected;
+    }
+
+    // plan.............................................................................................................
+
+    /**
+     * Returns a description of the plan used by {@link #stream(Node, Function, Class)},
+     * {@link #parallelFind(Node, Function, Class, Executor, int, int)} and
+     * {@link #indexedFind(Node, NodeSelectorIndex, Function, Class)}, listing each rewrite of this selector one per
+     * line, which is useful when investigating a slow selector.
+     */
+    public final String explain() {
+        return NodeSelectorPlannerNodeSelectorVisitor.explain(this);
+    }
+
+    /**
+     * Lazily plans and caches an equivalent {@link NodeSelector}, which is only used by queries that neither filter
+     * nor replace nodes. {@link #apply(Node, NodeSelectorContext)} executes this selector as composed, as its
+     * {@link NodeSelectorContext} observes every step.
+     */
+    final NodeSelector<N, NAME, ANAME, AVALUE> plan() {
+        NodeSelector<N, NAME, ANAME, AVALUE> plan = this.plan;
+        if (null == plan) {
+            plan = NodeSelectorPlannerNodeSelectorVisitor.plan(this);
+            this.plan = plan;
+        }
+        return plan;
+    }
+
+    /**
+     * The cached plan, planning is repeatable so a race only wastes a plan.
+     */
+    private NodeSelector<N, NAME, ANAME, AVALUE> plan;
+
     // Object...........................................................................................................
 
     /**
@@ -33,7 +33,28 @@ abstract class NodeSelectorContext2<N extends Node<N, NAME, ANAME, AVALUE>, NAME
             NAME extends Name,
             ANAME extends Name,
             AVALUE> NodeSelectorContext2<N, NAME, ANAME, AVALUE> all(final NodeSelectorContext<N, NAME, ANAME, AVALUE> context) {
-        return NodeSelectorContext2All.with(context);
+        return NodeSelectorContext2All.with(context, false);
+    }
+
+    /**
+     * {@see AllNodeSelectorContext2} that only finds nodes, see {@link #readOnly}.
+     */
+    static <N extends Node<N, NAME, ANAME, AVALUE>,
+            NAME extends Name,
+            ANAME extends Name,
+            AVALUE> NodeSelectorContext2<N, NAME, ANAME, AVALUE> readOnly(final NodeSelectorContext<N, NAME, ANAME, AVALUE> context) {
+        return NodeSelectorContext2All.with(context, true);
+    }
+
+    /**
+     * {@see AllNodeSelectorContext2} that only finds nodes and selects descendants using the given {@link NodeSelectorIndex}.
+     */
+    static <N extends Node<N, NAME, ANAME, AVALUE>,
+            NAME extends Name,
+            ANAME extends Name,
+            AVALUE> NodeSelectorContext2<N, NAME, ANAME, AVALUE> indexed(final NodeSelectorContext<N, NAME, ANAME, AVALUE> context,
+                                                                         final NodeSelectorIndex<N, NAME, ANAME, AVALUE> index) {
+        return NodeSelectorContext2All.with(context, true, index);
     }
 
     /**
@@ -42,16 +63,22 @@ abstract class NodeSelectorContext2<N extends Node<N, NAME, ANAME, AVALUE>, NAME
     static <N extends Node<N, NAME, ANAME, AVALUE>,
             NAME extends Name,
             ANAME extends Name,
-            AVALUE> NodeSelectorContext2ExpressionNodeSelector<N, NAME, ANAME, AVALUE> expression(final NodeSelectorContext<N, NAME, ANAME, AVALUE> context) {
-        return NodeSelectorContext2ExpressionNodeSelector.with(context);
+            AVALUE> NodeSelectorContext2ExpressionNodeSelector<N, NAME, ANAME, AVALUE> expression(final NodeSelectorContext<N, NAME, ANAME, AVALUE> context,
+                                                                                                  final boolean readOnly,
+                                                                                                  final NodeSelectorIndex<N, NAME, ANAME, AVALUE> index) {
+        return NodeSelectorContext2ExpressionNodeSelector.with(context, readOnly, index);
     }
 
     /**
      * Package private to limit sub classing.
      */
-    NodeSelectorContext2(final NodeSelectorContext<N, NAME, ANAME, AVALUE> context) {
+    NodeSelectorContext2(final NodeSelectorContext<N, NAME, ANAME, AVALUE> context,
+                         final boolean readOnly,
+                         final NodeSelectorIndex<N, NAME, ANAME, AVALUE> index) {
         super();
         this.context = context;
+        this.readOnly = readOnly;
+        this.index = index;
     }
 
     // delegate NodeSelectorContext methods to this.context.
@@ -101,6 +128,17 @@ abstract class NodeSelectorContext2<N extends Node<N, NAME, ANAME, AVALUE>, NAME
      */
     abstract NodeSelectorContext2<N, NAME, ANAME, AVALUE> expression();
 
+    /**
+     * Invoked by the descendant and descendant-or-self {@link NodeSelector selectors} to select the matches of the step
+     * after them from the {@link NodeSelectorIndex}, returning false if the descendants should be walked instead.
+     */
+    final boolean selectDescendants(final NonTerminalNodeSelector<N, NAME, ANAME, AVALUE> selector,
+                                    final N node,
+                                    final boolean self) {
+        return null != this.index &&
+                this.index.selectDescendants(selector, node, self, this);
+    }
+
     /**
      * Invoked during a {@link ExpressionNodeSelector} to test a value against the position of the current {@link Node}.
      */
@@ -115,4 +153,16 @@ abstract class NodeSelectorContext2<N extends Node<N, NAME, ANAME, AVALUE>, NAME
      * The active {@link NodeSelectorContext}.
      */
     final NodeSelectorContext<N, NAME, ANAME, AVALUE> context;
+
+    /**
+     * When true nodes are only being found and never replaced, so selectors return the given node rather than
+     * navigating back to it from its parent, and {@link #selected(Node)} results are ignored.
+     */
+    final boolean readOnly;
+
+    /**
+     * The {@link NodeSelectorIndex} used by {@link #selectDescendants(NonTerminalNodeSelector, Node, boolean)}, only
+     * present for {@link NodeSelector#indexedFind(Node, NodeSelectorIndex, java.util.function.Function, Class)}.
+     */
+    final NodeSelectorIndex<N, NAME, ANAME, AVALUE> index;
 }
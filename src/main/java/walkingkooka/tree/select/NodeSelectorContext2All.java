@@ -28,11 +28,24 @@ final class NodeSelectorContext2All<N extends Node<N, NAME, ANAME, AVALUE>, NAME
         extends NodeSelectorContext2<N, NAME, ANAME, AVALUE> {
 
     static <N extends Node<N, NAME, ANAME, AVALUE>, NAME extends Name, ANAME extends Name, AVALUE> NodeSelectorContext2All<N, NAME, ANAME, AVALUE> with(final NodeSelectorContext<N, NAME, ANAME, AVALUE> context) {
-        return new NodeSelectorContext2All<>(context);
+        return with(context, false);
     }
 
-    private NodeSelectorContext2All(final NodeSelectorContext<N, NAME, ANAME, AVALUE> context) {
-        super(context);
+    static <N extends Node<N, NAME, ANAME, AVALUE>, NAME extends Name, ANAME extends Name, AVALUE> NodeSelectorContext2All<N, NAME, ANAME, AVALUE> with(final NodeSelectorContext<N, NAME, ANAME, AVALUE> context,
+                                                                                                                                                        final boolean readOnly) {
+        return with(context, readOnly, null);
+    }
+
+    static <N extends Node<N, NAME, ANAME, AVALUE>, NAME extends Name, ANAME extends Name, AVALUE> NodeSelectorContext2All<N, NAME, ANAME, AVALUE> with(final NodeSelectorContext<N, NAME, ANAME, AVALUE> context,
+                                                                                                                                                        final boolean readOnly,
+                                                                                                                                                        final NodeSelectorIndex<N, NAME, ANAME, AVALUE> index) {
+        return new NodeSelectorContext2All<>(context, readOnly, index);
+    }
+
+    private NodeSelectorContext2All(final NodeSelectorContext<N, NAME, ANAME, AVALUE> context,
+                                    final boolean readOnly,
+                                    final NodeSelectorIndex<N, NAME, ANAME, AVALUE> index) {
+        super(context, readOnly, index);
     }
 
     @Override
@@ -47,7 +60,7 @@ final class NodeSelectorContext2All<N extends Node<N, NAME, ANAME, AVALUE>, NAME
 
     @Override
     NodeSelectorContext2<N, NAME, ANAME, AVALUE> expression() {
-        return NodeSelectorContext2.expression(this.context);
+        return NodeSelectorContext2.expression(this.context, this.readOnly, this.index);
     }
 
     @Override
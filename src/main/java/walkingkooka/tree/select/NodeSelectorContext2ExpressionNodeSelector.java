@@ -29,16 +29,29 @@ final class NodeSelectorContext2ExpressionNodeSelector<N extends Node<N, NAME, A
         extends NodeSelectorContext2<N, NAME, ANAME, AVALUE> {
 
     static <N extends Node<N, NAME, ANAME, AVALUE>, NAME extends Name, ANAME extends Name, AVALUE> NodeSelectorContext2ExpressionNodeSelector<N, NAME, ANAME, AVALUE> with(final NodeSelectorContext<N, NAME, ANAME, AVALUE> context) {
-        return new NodeSelectorContext2ExpressionNodeSelector<>(context);
+        return with(context, false);
     }
 
-    private NodeSelectorContext2ExpressionNodeSelector(final NodeSelectorContext<N, NAME, ANAME, AVALUE> context) {
-        super(context);
+    static <N extends Node<N, NAME, ANAME, AVALUE>, NAME extends Name, ANAME extends Name, AVALUE> NodeSelectorContext2ExpressionNodeSelector<N, NAME, ANAME, AVALUE> with(final NodeSelectorContext<N, NAME, ANAME, AVALUE> context,
+                                                                                                                                                                           final boolean readOnly) {
+        return with(context, readOnly, null);
+    }
+
+    static <N extends Node<N, NAME, ANAME, AVALUE>, NAME extends Name, ANAME extends Name, AVALUE> NodeSelectorContext2ExpressionNodeSelector<N, NAME, ANAME, AVALUE> with(final NodeSelectorContext<N, NAME, ANAME, AVALUE> context,
+                                                                                                                                                                           final boolean readOnly,
+                                                                                                                                                                           final NodeSelectorIndex<N, NAME, ANAME, AVALUE> index) {
+        return new NodeSelectorContext2ExpressionNodeSelector<>(context, readOnly, index);
+    }
+
+    private NodeSelectorContext2ExpressionNodeSelector(final NodeSelectorContext<N, NAME, ANAME, AVALUE> context,
+                                                       final boolean readOnly,
+                                                       final NodeSelectorIndex<N, NAME, ANAME, AVALUE> index) {
+        super(context, readOnly, index);
     }
 
     @Override
     NodeSelectorContext2<N, NAME, ANAME, AVALUE> all() {
-        return NodeSelectorContext2.all(this.context);
+        return NodeSelectorContext2All.with(this.context, this.readOnly, this.index);
     }
 
     @Override
@@ -48,7 +61,7 @@ final class NodeSelectorContext2ExpressionNodeSelector<N extends Node<N, NAME, A
 
     @Override
     NodeSelectorContext2<N, NAME, ANAME, AVALUE> expression() {
-        return NodeSelectorContext2.expression(this.context);
+        return NodeSelectorContext2.expression(this.context, this.readOnly, this.index);
     }
 
     /**
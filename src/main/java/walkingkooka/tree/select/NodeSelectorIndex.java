@@ -0,0 +1,281 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.select;
+
+import walkingkooka.Cast;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.naming.Name;
+import walkingkooka.tree.Node;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * An index of all {@link Node nodes} in a tree by name and by attribute name and value, built once for a root and
+ * shared by any number of {@link NodeSelector#indexedFind(Node, NodeSelectorIndex, Function, Class)} queries.
+ * Those queries find the matches of descendant or descendant-or-self followed by a name test or an attribute equals
+ * test in the index rather than walking every descendant. All other steps, and nodes that are not part of the
+ * indexed tree, are walked as usual.
+ * <br>
+ * Nodes are identified by reference, the index must be rebuilt for a new root after any change to the tree.
+ * <br>
+ * A {@link Node} whose {@link Node#children()} returns new wrapper objects on each call is only found in the index
+ * when it is the root or was itself returned by the index. Any other node, such as a child reached by a children step
+ * or a start node taken from a fresh {@link Node#children()} list, is not found, so its descendants are silently
+ * walked instead. The results are the same but without the speed up.
+ */
+public final class NodeSelectorIndex<N extends Node<N, NAME, ANAME, AVALUE>, NAME extends Name, ANAME extends Name, AVALUE> {
+
+    /**
+     * Builds an index of the given root and all its descendants.
+     */
+    public static <N extends Node<N, NAME, ANAME, AVALUE>, NAME extends Name, ANAME extends Name, AVALUE> NodeSelectorIndex<N, NAME, ANAME, AVALUE> with(final N root) {
+        Objects.requireNonNull(root, "root");
+
+        return new NodeSelectorIndex<>(root);
+    }
+
+    private final static int[] NONE = new int[0];
+
+    /**
+     * Private ctor use factory
+     */
+    private NodeSelectorIndex(final N root) {
+        super();
+        this.root = root;
+
+        final Map<NAME, List<Integer>> names = Maps.hash();
+        final Map<ANAME, Map<AVALUE, List<Integer>>> attributes = Maps.hash();
+        final List<Integer> ends = Lists.array();
+
+        this.index(root, names, attributes, ends);
+
+        this.names = postings(names);
+
+        this.attributes = Maps.hash();
+        for (final Map.Entry<ANAME, Map<AVALUE, List<Integer>>> attribute : attributes.entrySet()) {
+            this.attributes.put(
+                    attribute.getKey(),
+                    postings(attribute.getValue())
+            );
+        }
+
+        this.ends = toArray(ends);
+    }
+
+    /**
+     * Records the position in document order of the given node and then its children, followed by the position of its
+     * last descendant.
+     */
+    private void index(final N node,
+                       final Map<NAME, List<Integer>> names,
+                       final Map<ANAME, Map<AVALUE, List<Integer>>> attributes,
+                       final List<Integer> ends) {
+        final Integer position = this.nodes.size();
+
+        this.nodes.add(node);
+        this.positions.put(node, position);
+        ends.add(position);
+
+        names.computeIfAbsent(node.name(), (n) -> Lists.array())
+                .add(position);
+
+        for (final Map.Entry<ANAME, AVALUE> attribute : node.attributes().entrySet()) {
+            attributes.computeIfAbsent(attribute.getKey(), (n) -> Maps.hash())
+                    .computeIfAbsent(attribute.getValue(), (v) -> Lists.array())
+                    .add(position);
+        }
+
+        for (final N child : node.children()) {
+            this.index(child, names, attributes, ends);
+        }
+
+        ends.set(position, this.nodes.size() - 1);
+    }
+
+    private static <K> Map<K, int[]> postings(final Map<K, List<Integer>> keyToPositions) {
+        final Map<K, int[]> postings = Maps.hash();
+        for (final Map.Entry<K, List<Integer>> keyAndPositions : keyToPositions.entrySet()) {
+            postings.put(
+                    keyAndPositions.getKey(),
+                    toArray(keyAndPositions.getValue())
+            );
+        }
+        return postings;
+    }
+
+    private static int[] toArray(final List<Integer> values) {
+        final int count = values.size();
+        final int[] array = new int[count];
+        for (int i = 0; i < count; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * The root of the indexed tree.
+     */
+    public N root() {
+        return this.root;
+    }
+
+    private final N root;
+
+    /**
+     * Returns all {@link Node nodes} with the given name in document order.
+     */
+    public List<N> named(final NAME name) {
+        Objects.requireNonNull(name, "name");
+
+        return this.nodes(
+                this.names.getOrDefault(name, NONE)
+        );
+    }
+
+    /**
+     * Returns all {@link Node nodes} with an attribute equal to the given value in document order.
+     */
+    public List<N> attributeValueEquals(final ANAME name,
+                                        final AVALUE value) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(value, "value");
+
+        return this.nodes(
+                this.attributePostings(name, value)
+        );
+    }
+
+    private List<N> nodes(final int[] postings) {
+        final List<N> nodes = Lists.array();
+        for (final int position : postings) {
+            nodes.add(this.nodes.get(position));
+        }
+        return nodes;
+    }
+
+    private int[] attributePostings(final ANAME name,
+                                    final AVALUE value) {
+        final Map<AVALUE, int[]> values = this.attributes.get(name);
+        return null != values ?
+                values.getOrDefault(value, NONE) :
+                NONE;
+    }
+
+    /**
+     * Selects the nodes matching the step after the given descendant or descendant-or-self {@link NodeSelector} from
+     * the index, returning false if the step is not indexed or the {@link Node} is not part of this index.
+     */
+    boolean selectDescendants(final NonTerminalNodeSelector<N, NAME, ANAME, AVALUE> selector,
+                              final N node,
+                              final boolean self,
+                              final NodeSelectorContext2<N, NAME, ANAME, AVALUE> context) {
+        final int[] postings = this.postings(selector.next);
+        final Integer position = null != postings ?
+                this.positions.get(node) :
+                null;
+
+        final boolean selected = null != position;
+        if (selected) {
+            final int start = self ?
+                    position :
+                    position + 1;
+            final int end = this.ends[position];
+
+            for (int i = lowerBound(postings, start); i < postings.length; i++) {
+                final int candidate = postings[i];
+                if (candidate > end || context.isFinished()) {
+                    break;
+                }
+                selector.selectNext(this.nodes.get(candidate), context);
+            }
+        }
+
+        return selected;
+    }
+
+    /**
+     * Returns the positions of the nodes that may match the given step, or null if the step is not indexed.
+     */
+    private int[] postings(final NodeSelector<N, NAME, ANAME, AVALUE> step) {
+        int[] postings = null;
+
+        if (step instanceof NamedNodeSelector) {
+            final NamedNodeSelector<N, NAME, ANAME, AVALUE> named = Cast.to(step);
+            postings = this.names.getOrDefault(named.name, NONE);
+        } else if (step instanceof NodePredicateNodeSelector) {
+            final NodePredicateNodeSelector<N, NAME, ANAME, AVALUE> predicate = Cast.to(step);
+            final Predicate<N> test = predicate.predicate();
+            if (test instanceof NodeSelectorNodeAttributeValueEqualsPredicate) {
+                final NodeSelectorNodeAttributeValueEqualsPredicate<N, NAME, ANAME, AVALUE> equals = Cast.to(test);
+                postings = this.attributePostings(equals.name(), equals.value());
+            }
+        }
+
+        return postings;
+    }
+
+    /**
+     * Returns the index of the first posting that is greater or equal to the given position.
+     */
+    private static int lowerBound(final int[] postings,
+                                  final int position) {
+        int low = 0;
+        int high = postings.length;
+
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (postings[mid] < position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * All nodes in document order.
+     */
+    private final List<N> nodes = Lists.array();
+
+    /**
+     * The position of each node in {@link #nodes}, nodes are compared by reference.
+     */
+    private final Map<N, Integer> positions = new IdentityHashMap<>();
+
+    /**
+     * The position of the last descendant of the node at each position.
+     */
+    private final int[] ends;
+
+    private final Map<NAME, int[]> names;
+
+    private final Map<ANAME, Map<AVALUE, int[]>> attributes;
+
+    @Override
+    public String toString() {
+        return this.root.name() + " " + this.nodes.size() + " nodes";
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.select;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.naming.Name;
+import walkingkooka.predicate.Predicates;
+import walkingkooka.tree.Node;
+import walkingkooka.tree.expression.Expression;
+import walkingkooka.tree.expression.ExpressionEvaluationContext;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * The {@link NodeSelectorContext} used by {@link NodeSelector#indexedFind(Node, NodeSelectorIndex, Function, Class)},
+ * which gathers selected {@link Node nodes} into a list.
+ */
+final class NodeSelectorIndexContext<N extends Node<N, NAME, ANAME, AVALUE>, NAME extends Name, ANAME extends Name, AVALUE>
+        implements NodeSelectorContext<N, NAME, ANAME, AVALUE> {
+
+    /**
+     * Factory called by {@link NodeSelector#indexedFind(Node, NodeSelectorIndex, Function, Class)}.
+     */
+    static <N extends Node<N, NAME, ANAME, AVALUE>, NAME extends Name, ANAME extends Name, AVALUE> NodeSelectorIndexContext<N, NAME, ANAME, AVALUE> with(final Function<NodeSelectorContext<N, NAME, ANAME, AVALUE>, ExpressionEvaluationContext> expressionEvaluationContext,
+                                                                                                                                                          final Class<N> nodeType) {
+        Objects.requireNonNull(expressionEvaluationContext, "expressionEvaluationContext");
+        Objects.requireNonNull(nodeType, "nodeType");
+
+        return new NodeSelectorIndexContext<>(expressionEvaluationContext,
+                nodeType);
+    }
+
+    /**
+     * Private ctor use factory
+     */
+    private NodeSelectorIndexContext(final Function<NodeSelectorContext<N, NAME, ANAME, AVALUE>, ExpressionEvaluationContext> expressionEvaluationContext,
+                                     final Class<N> nodeType) {
+        super();
+
+        this.context = NodeSelectorContexts.basic(() -> false,
+                Predicates.always(),
+                this::mapper,
+                expressionEvaluationContext,
+                nodeType);
+    }
+
+    /**
+     * Records each selected {@link Node}.
+     */
+    private N mapper(final N node) {
+        this.selected.add(node);
+        return node;
+    }
+
+    /**
+     * All selected {@link Node nodes} in document order.
+     */
+    final List<N> selected = Lists.array();
+
+    @Override
+    public boolean isFinished() {
+        return this.context.isFinished();
+    }
+
+    @Override
+    public boolean test(final N node) {
+        return this.context.test(node);
+    }
+
+    @Override
+    public N node() {
+        return this.context.node();
+    }
+
+    @Override
+    public void setNode(final N node) {
+        this.context.setNode(node);
+    }
+
+    @Override
+    public N selected(final N node) {
+        return this.context.selected(node);
+    }
+
+    @Override
+    public Object evaluate(final Expression expression) {
+        return this.context.evaluate(expression);
+    }
+
+    private final NodeSelectorContext<N, NAME, ANAME, AVALUE> context;
+
+    @Override
+    public String toString() {
+        return this.context.toString();
+    }
+}
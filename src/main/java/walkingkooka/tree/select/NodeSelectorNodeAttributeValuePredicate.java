@@ -87,6 +87,20 @@ abstract class NodeSelectorNodeAttributeValuePredicate<N extends Node<N, NAME, A
     private final ANAME name;
     private final AVALUE value;
 
+    /**
+     * The name of the attribute being tested.
+     */
+    final ANAME name() {
+        return this.name;
+    }
+
+    /**
+     * The expected attribute value.
+     */
+    final AVALUE value() {
+        return this.value;
+    }
+
     @Override
     public final boolean test(final N node) {
         final AVALUE current = node.attributes().get(this.name);
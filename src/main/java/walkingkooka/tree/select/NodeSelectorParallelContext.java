@@ -0,0 +1,194 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.select;
+
+import walkingkooka.Cast;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.naming.Name;
+import walkingkooka.predicate.Predicates;
+import walkingkooka.tree.Node;
+import walkingkooka.tree.expression.Expression;
+import walkingkooka.tree.expression.ExpressionEvaluationContext;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * The {@link NodeSelectorContext} used by {@link NodeSelector#parallelFind(Node, Function, Class, Executor, int, int)},
+ * which gathers selected {@link Node nodes} into a list. When the children of a {@link Node} are walked and there are
+ * at least {@link #threshold} of them, each child and its descendants are walked by a task with its own forked
+ * context, as {@link BasicNodeSelectorContext} holds the current node, and the selected nodes of each task are then
+ * appended in document order.
+ */
+final class NodeSelectorParallelContext<N extends Node<N, NAME, ANAME, AVALUE>, NAME extends Name, ANAME extends Name, AVALUE>
+        implements NodeSelectorContext<N, NAME, ANAME, AVALUE> {
+
+    /**
+     * Factory called by {@link NodeSelector#parallelFind(Node, Function, Class, Executor, int, int)}.
+     */
+    static <N extends Node<N, NAME, ANAME, AVALUE>, NAME extends Name, ANAME extends Name, AVALUE> NodeSelectorParallelContext<N, NAME, ANAME, AVALUE> with(final Function<NodeSelectorContext<N, NAME, ANAME, AVALUE>, ExpressionEvaluationContext> expressionEvaluationContext,
+                                                                                                                                                             final Class<N> nodeType,
+                                                                                                                                                             final Executor executor,
+                                                                                                                                                             final int parallelism,
+                                                                                                                                                             final int threshold) {
+        Objects.requireNonNull(expressionEvaluationContext, "expressionEvaluationContext");
+        Objects.requireNonNull(nodeType, "nodeType");
+        Objects.requireNonNull(executor, "executor");
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Invalid parallelism " + parallelism + " < 1");
+        }
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Invalid threshold " + threshold + " < 1");
+        }
+
+        return new NodeSelectorParallelContext<>(expressionEvaluationContext,
+                nodeType,
+                executor,
+                parallelism,
+                threshold);
+    }
+
+    /**
+     * Walks the given children in parallel if the {@link NodeSelectorContext2} is a parallel context without an
+     * expression, returning false if they should be walked sequentially. Expressions count positions across the
+     * entire walk and therefore cannot be split.
+     */
+    static <N extends Node<N, NAME, ANAME, AVALUE>, NAME extends Name, ANAME extends Name, AVALUE> boolean selectChildren(final NodeSelector<N, NAME, ANAME, AVALUE> selector,
+                                                                                                                         final List<N> children,
+                                                                                                                         final NodeSelectorContext2<N, NAME, ANAME, AVALUE> context) {
+        boolean selected = false;
+
+        if (context instanceof NodeSelectorContext2All && context.context instanceof NodeSelectorParallelContext) {
+            final NodeSelectorParallelContext<N, NAME, ANAME, AVALUE> parallel = Cast.to(context.context);
+            selected = parallel.selectChildren0(selector, children);
+        }
+
+        return selected;
+    }
+
+    /**
+     * Private ctor use factory
+     */
+    private NodeSelectorParallelContext(final Function<NodeSelectorContext<N, NAME, ANAME, AVALUE>, ExpressionEvaluationContext> expressionEvaluationContext,
+                                        final Class<N> nodeType,
+                                        final Executor executor,
+                                        final int parallelism,
+                                        final int threshold) {
+        super();
+        this.expressionEvaluationContext = expressionEvaluationContext;
+        this.nodeType = nodeType;
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.threshold = threshold;
+
+        this.context = NodeSelectorContexts.basic(() -> false,
+                Predicates.always(),
+                this::mapper,
+                expressionEvaluationContext,
+                nodeType);
+    }
+
+    /**
+     * Returns a new context with the same settings and no selected nodes, for a task walking a single child.
+     */
+    NodeSelectorParallelContext<N, NAME, ANAME, AVALUE> fork() {
+        return new NodeSelectorParallelContext<>(this.expressionEvaluationContext,
+                this.nodeType,
+                this.executor,
+                this.parallelism,
+                this.threshold);
+    }
+
+    private boolean selectChildren0(final NodeSelector<N, NAME, ANAME, AVALUE> selector,
+                                    final List<N> children) {
+        final boolean parallel = this.parallelism > 1 && children.size() >= this.threshold;
+        if (parallel) {
+            NodeSelectorParallelContextWork.with(selector, children, this)
+                    .select();
+        }
+        return parallel;
+    }
+
+    /**
+     * Records each selected {@link Node}.
+     */
+    private N mapper(final N node) {
+        this.selected.add(node);
+        return node;
+    }
+
+    /**
+     * All selected {@link Node nodes} in document order.
+     */
+    final List<N> selected = Lists.array();
+
+    @Override
+    public boolean isFinished() {
+        return this.context.isFinished();
+    }
+
+    @Override
+    public boolean test(final N node) {
+        return this.context.test(node);
+    }
+
+    @Override
+    public N node() {
+        return this.context.node();
+    }
+
+    @Override
+    public void setNode(final N node) {
+        this.context.setNode(node);
+    }
+
+    @Override
+    public N selected(final N node) {
+        return this.context.selected(node);
+    }
+
+    @Override
+    public Object evaluate(final Expression expression) {
+        return this.context.evaluate(expression);
+    }
+
+    private final NodeSelectorContext<N, NAME, ANAME, AVALUE> context;
+
+    private final Function<NodeSelectorContext<N, NAME, ANAME, AVALUE>, ExpressionEvaluationContext> expressionEvaluationContext;
+
+    private final Class<N> nodeType;
+
+    final Executor executor;
+
+    /**
+     * The maximum number of threads including the calling thread that walk the children of a single {@link Node}.
+     */
+    final int parallelism;
+
+    /**
+     * The minimum number of children before they are walked in parallel.
+     */
+    final int threshold;
+
+    @Override
+    public String toString() {
+        return this.context + " parallelism=" + this.parallelism + " threshold=" + this.threshold;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.select;
+
+import walkingkooka.Cast;
+import walkingkooka.naming.Name;
+import walkingkooka.tree.Node;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Walks the children of a single {@link Node} for {@link NodeSelectorParallelContext}. Each child is claimed in order
+ * by the calling thread or a helper and walked with its own forked context. The selected nodes of each child are then
+ * appended to the calling context in the order of the children.
+ */
+final class NodeSelectorParallelContextWork<N extends Node<N, NAME, ANAME, AVALUE>, NAME extends Name, ANAME extends Name, AVALUE>
+        implements Runnable {
+
+    static <N extends Node<N, NAME, ANAME, AVALUE>, NAME extends Name, ANAME extends Name, AVALUE> NodeSelectorParallelContextWork<N, NAME, ANAME, AVALUE> with(final NodeSelector<N, NAME, ANAME, AVALUE> selector,
+                                                                                                                                                                 final List<N> children,
+                                                                                                                                                                 final NodeSelectorParallelContext<N, NAME, ANAME, AVALUE> context) {
+        return new NodeSelectorParallelContextWork<>(selector,
+                children,
+                context);
+    }
+
+    private NodeSelectorParallelContextWork(final NodeSelector<N, NAME, ANAME, AVALUE> selector,
+                                            final List<N> children,
+                                            final NodeSelectorParallelContext<N, NAME, ANAME, AVALUE> context) {
+        this.selector = selector;
+        this.children = children;
+        this.context = context;
+        this.results = new Object[children.size()];
+    }
+
+    /**
+     * Submits the helpers, walks any unclaimed children on the calling thread and then waits for the children still
+     * being walked by helpers. Only atomics are used so this also works under J2CL, where helpers run on the calling
+     * thread or after it returns, leaving nothing to wait for.
+     */
+    void select() {
+        final NodeSelectorParallelContext<N, NAME, ANAME, AVALUE> context = this.context;
+        final Object[] results = this.results;
+
+        final int helpers = Math.min(
+                context.parallelism - 1,
+                results.length - 1
+        );
+        for (int i = 0; i < helpers; i++) {
+            context.executor.execute(this);
+        }
+
+        this.work();
+
+        // only children claimed by a running helper remain, at most one per helper.
+        while (this.completed.get() < results.length) {
+            // wait
+        }
+
+        final RuntimeException failure = this.failure.get();
+        if (null != failure) {
+            throw failure;
+        }
+
+        for (final Object result : results) {
+            final List<N> selected = Cast.to(result);
+            context.selected.addAll(selected);
+        }
+    }
+
+    @Override
+    public void run() {
+        this.work();
+    }
+
+    /**
+     * Claims and walks children until none remain. After a failure the remaining children are claimed but not walked.
+     */
+    private void work() {
+        final NodeSelector<N, NAME, ANAME, AVALUE> selector = this.selector;
+        final List<N> children = this.children;
+        final Object[] results = this.results;
+
+        for (; ; ) {
+            final int i = this.next.getAndIncrement();
+            if (i >= results.length) {
+                break;
+            }
+
+            try {
+                if (null == this.failure.get()) {
+                    final NodeSelectorParallelContext<N, NAME, ANAME, AVALUE> fork = this.context.fork();
+                    selector.testThenSelect(
+                            children.get(i),
+                            NodeSelectorContext2.readOnly(fork)
+                    );
+                    results[i] = fork.selected;
+                }
+            } catch (final RuntimeException cause) {
+                this.failure.compareAndSet(null, cause);
+            } finally {
+                this.completed.incrementAndGet();
+            }
+        }
+    }
+
+    private final NodeSelector<N, NAME, ANAME, AVALUE> selector;
+
+    private final List<N> children;
+
+    private final NodeSelectorParallelContext<N, NAME, ANAME, AVALUE> context;
+
+    /**
+     * The selected nodes of each child.
+     */
+    private final Object[] results;
+
+    /**
+     * The next child to be claimed.
+     */
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * The number of children walked, publishes the results written by helpers to the calling thread.
+     */
+    private final AtomicInteger completed = new AtomicInteger();
+
+    /**
+     * The first failure, which is rethrown by the calling thread.
+     */
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+    @Override
+    public String toString() {
+        return this.completed + "/" + this.results.length + " children of " + this.selector;
+    }
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.select;
+
+import walkingkooka.Cast;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.naming.Name;
+import walkingkooka.tree.Node;
+import walkingkooka.tree.expression.AndExpression;
+import walkingkooka.tree.expression.CallExpression;
+import walkingkooka.tree.expression.EqualsExpression;
+import walkingkooka.tree.expression.Expression;
+import walkingkooka.tree.expression.ExpressionNumber;
+import walkingkooka.tree.expression.GreaterThanEqualsExpression;
+import walkingkooka.tree.expression.GreaterThanExpression;
+import walkingkooka.tree.expression.LessThanEqualsExpression;
+import walkingkooka.tree.expression.LessThanExpression;
+import walkingkooka.tree.expression.NotEqualsExpression;
+import walkingkooka.tree.expression.NotExpression;
+import walkingkooka.tree.expression.OrExpression;
+import walkingkooka.tree.expression.ValueExpression;
+import walkingkooka.tree.expression.XorExpression;
+import walkingkooka.visit.Visiting;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * A {@link NodeSelectorVisitor} that gathers the steps of a {@link NodeSelector} and rewrites them into a plan that
+ * selects the same {@link Node nodes} with less work.
+ * <ul>
+ * <li>Name tests are moved ahead of predicates and expressions, so the cheaper test is tried first.</li>
+ * <li>children followed by the position 1 becomes first-child, which avoids walking all children.</li>
+ * </ul>
+ * Rewrites never change the selected nodes or their document order, and are skipped when they would change the
+ * position counted by an expression. The plan is only used when the {@link NodeSelectorContext} does not filter nodes
+ * and matches are only observed, because the plan does not test nodes in the same order as the original.
+ */
+final class NodeSelectorPlannerNodeSelectorVisitor<N extends Node<N, NAME, ANAME, AVALUE>, NAME extends Name, ANAME extends Name, AVALUE>
+        extends NodeSelectorVisitor<N, NAME, ANAME, AVALUE> {
+
+    /**
+     * Returns a plan for the given {@link NodeSelector}, which is the given {@link NodeSelector} if no rewrites were
+     * possible.
+     */
+    static <N extends Node<N, NAME, ANAME, AVALUE>, NAME extends Name, ANAME extends Name, AVALUE> NodeSelector<N, NAME, ANAME, AVALUE> plan(final NodeSelector<N, NAME, ANAME, AVALUE> selector) {
+        final NodeSelectorPlannerNodeSelectorVisitor<N, NAME, ANAME, AVALUE> planner = with(selector);
+        return planner.rewrites.isEmpty() ?
+                selector :
+                planner.build();
+    }
+
+    /**
+     * Returns the original {@link NodeSelector}, each rewrite and the plan one per line.
+     */
+    static <N extends Node<N, NAME, ANAME, AVALUE>, NAME extends Name, ANAME extends Name, AVALUE> String explain(final NodeSelector<N, NAME, ANAME, AVALUE> selector) {
+        final NodeSelectorPlannerNodeSelectorVisitor<N, NAME, ANAME, AVALUE> planner = with(selector);
+
+        final StringBuilder b = new StringBuilder();
+        b.append("selector: ")
+                .append(selector);
+        for (final String rewrite : planner.rewrites) {
+            b.append('\n')
+                    .append("rewrite: ")
+                    .append(rewrite);
+        }
+        b.append('\n')
+                .append("plan: ")
+                .append(planner.build());
+
+        return b.toString();
+    }
+
+    private static <N extends Node<N, NAME, ANAME, AVALUE>, NAME extends Name, ANAME extends Name, AVALUE> NodeSelectorPlannerNodeSelectorVisitor<N, NAME, ANAME, AVALUE> with(final NodeSelector<N, NAME, ANAME, AVALUE> selector) {
+        final NodeSelectorPlannerNodeSelectorVisitor<N, NAME, ANAME, AVALUE> planner = new NodeSelectorPlannerNodeSelectorVisitor<>();
+        planner.accept(selector);
+        planner.rewrite();
+        return planner;
+    }
+
+    // @VisibleForTesting
+    NodeSelectorPlannerNodeSelectorVisitor() {
+        super();
+    }
+
+    /**
+     * Records each step, as a copy without any following steps.
+     */
+    @Override
+    protected Visiting startVisit(final NodeSelector<N, NAME, ANAME, AVALUE> selector) {
+        if (selector instanceof NonTerminalNodeSelector) {
+            final NonTerminalNodeSelector<N, NAME, ANAME, AVALUE> step = Cast.to(selector);
+            this.steps.add(
+                    step.append1(NodeSelector.terminal())
+            );
+        }
+        return Visiting.CONTINUE;
+    }
+
+    private void rewrite() {
+        boolean rewritten;
+        do {
+            rewritten = this.namedFirst() |
+                    this.firstChild();
+        } while (rewritten);
+    }
+
+    /**
+     * Swaps a predicate or expression followed by a name test so the name is tested first.
+     */
+    private boolean namedFirst() {
+        final List<NodeSelector<N, NAME, ANAME, AVALUE>> steps = this.steps;
+        boolean rewritten = false;
+
+        for (int i = 0; i < steps.size() - 1; i++) {
+            final NodeSelector<N, NAME, ANAME, AVALUE> step = steps.get(i);
+            final NodeSelector<N, NAME, ANAME, AVALUE> next = steps.get(i + 1);
+
+            if (next instanceof NamedNodeSelector &&
+                    (step instanceof NodePredicateNodeSelector || step instanceof ExpressionNodeSelector && isNotPositional(((ExpressionNodeSelector<?, ?, ?, ?>) step).expression))) {
+                this.rewritten(
+                        next.append(step),
+                        i,
+                        2
+                );
+                rewritten = true;
+            }
+        }
+
+        return rewritten;
+    }
+
+    /**
+     * Replaces children followed by the position 1 with first-child.
+     */
+    private boolean firstChild() {
+        final List<NodeSelector<N, NAME, ANAME, AVALUE>> steps = this.steps;
+        boolean rewritten = false;
+
+        for (int i = 0; i < steps.size() - 1; i++) {
+            final NodeSelector<N, NAME, ANAME, AVALUE> step = steps.get(i);
+            final NodeSelector<N, NAME, ANAME, AVALUE> next = steps.get(i + 1);
+
+            if (step instanceof ChildrenNodeSelector &&
+                    next instanceof ExpressionNodeSelector &&
+                    isFirst(((ExpressionNodeSelector<?, ?, ?, ?>) next).expression)) {
+                this.rewritten(
+                        FirstChildNodeSelector.get(),
+                        i,
+                        2
+                );
+                rewritten = true;
+            }
+        }
+
+        return rewritten;
+    }
+
+    /**
+     * Replaces count steps starting at index with the steps of the given replacement, recording the rewrite.
+     */
+    private void rewritten(final NodeSelector<N, NAME, ANAME, AVALUE> replacement,
+                           final int index,
+                           final int count) {
+        final List<NodeSelector<N, NAME, ANAME, AVALUE>> steps = this.steps;
+        final List<NodeSelector<N, NAME, ANAME, AVALUE>> replaced = steps.subList(index, index + count);
+
+        final NodeSelectorPlannerNodeSelectorVisitor<N, NAME, ANAME, AVALUE> planner = new NodeSelectorPlannerNodeSelectorVisitor<>();
+        planner.accept(replacement);
+
+        this.rewrites.add(build(replaced) + " => " + replacement);
+
+        replaced.clear();
+        steps.addAll(index, planner.steps);
+    }
+
+    /**
+     * Only comparisons and logical operators combining comparisons without any function calls always return a
+     * boolean that is not compared against the position.
+     */
+    private static boolean isNotPositional(final Expression expression) {
+        return isBoolean(expression) && false == hasCall(expression);
+    }
+
+    private static boolean isBoolean(final Expression expression) {
+        final boolean isBoolean;
+
+        if (expression instanceof AndExpression) {
+            final AndExpression and = (AndExpression) expression;
+            isBoolean = isBoolean(and.left()) && isBoolean(and.right());
+        } else if (expression instanceof OrExpression) {
+            final OrExpression or = (OrExpression) expression;
+            isBoolean = isBoolean(or.left()) && isBoolean(or.right());
+        } else if (expression instanceof XorExpression) {
+            final XorExpression xor = (XorExpression) expression;
+            isBoolean = isBoolean(xor.left()) && isBoolean(xor.right());
+        } else if (expression instanceof NotExpression) {
+            isBoolean = isBoolean(((NotExpression) expression).value());
+        } else {
+            isBoolean = expression instanceof EqualsExpression ||
+                    expression instanceof NotEqualsExpression ||
+                    expression instanceof GreaterThanExpression ||
+                    expression instanceof GreaterThanEqualsExpression ||
+                    expression instanceof LessThanExpression ||
+                    expression instanceof LessThanEqualsExpression;
+        }
+
+        return isBoolean;
+    }
+
+    private static boolean hasCall(final Expression expression) {
+        boolean call = expression instanceof CallExpression;
+
+        if (false == call) {
+            for (final Expression child : expression.children()) {
+                call = hasCall(child);
+                if (call) {
+                    break;
+                }
+            }
+        }
+
+        return call;
+    }
+
+    /**
+     * Tests if the {@link Expression} is exactly the integer 1, which selects the first node.
+     */
+    private static boolean isFirst(final Expression expression) {
+        boolean first = false;
+
+        if (expression instanceof ValueExpression) {
+            final Object value = ((ValueExpression<?>) expression).value();
+            first = value instanceof Number &&
+                    isFirst((Number) value);
+        }
+
+        return first;
+    }
+
+    /**
+     * Values such as 1.5 or a large long are not first even though they truncate to 1.
+     */
+    private static boolean isFirst(final Number number) {
+        return number.doubleValue() == NodeSelector.INDEX_BIAS &&
+                0 == toBigDecimal(number).compareTo(BigDecimal.valueOf(NodeSelector.INDEX_BIAS));
+    }
+
+    private static BigDecimal toBigDecimal(final Number number) {
+        return number instanceof ExpressionNumber ?
+                ((ExpressionNumber) number).bigDecimal() :
+                number instanceof BigDecimal ?
+                        (BigDecimal) number :
+                        number instanceof BigInteger ?
+                                new BigDecimal((BigInteger) number) :
+                                number instanceof Double || number instanceof Float ?
+                                        new BigDecimal(number.doubleValue()) :
+                                        BigDecimal.valueOf(number.longValue());
+    }
+
+    /**
+     * Assembles the plan from the steps.
+     */
+    private NodeSelector<N, NAME, ANAME, AVALUE> build() {
+        return build(this.steps);
+    }
+
+    private static <N extends Node<N, NAME, ANAME, AVALUE>, NAME extends Name, ANAME extends Name, AVALUE> NodeSelector<N, NAME, ANAME, AVALUE> build(final List<NodeSelector<N, NAME, ANAME, AVALUE>> steps) {
+        NodeSelector<N, NAME, ANAME, AVALUE> plan = NodeSelector.terminal();
+        for (final NodeSelector<N, NAME, ANAME, AVALUE> step : steps) {
+            plan = plan.append(step);
+        }
+        return plan;
+    }
+
+    /**
+     * Each step without any following steps.
+     */
+    private final List<NodeSelector<N, NAME, ANAME, AVALUE>> steps = Lists.array();
+
+    /**
+     * A description of each rewrite in the order they were made.
+     */
+    private final List<String> rewrites = Lists.array();
+
+    @Override
+    public String toString() {
+        return this.steps.toString();
+    }
+}
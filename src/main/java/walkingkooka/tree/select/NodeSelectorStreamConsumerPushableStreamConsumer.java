@@ -75,10 +75,13 @@ final class NodeSelectorStreamConsumerPushableStreamConsumer<N extends Node<N, N
     }
 
     /**
-     * The finisher for the {@link NodeSelectorContext} that always returns false.
+     * The finisher for the {@link NodeSelectorContext} reports finished once the {@link PushableStreamConsumer} is
+     * satisfied, eg a {@link Stream#findFirst()} or {@link Stream#limit(long)}, stopping the selector from walking
+     * the remainder of the tree.
      */
     private boolean finisher() {
-        return false;
+        final PushableStreamConsumer<N> pushableStreamConsumer = this.pushableStreamConsumer;
+        return null != pushableStreamConsumer && pushableStreamConsumer.isFinished();
     }
 
     /**
@@ -95,7 +98,7 @@ final class NodeSelectorStreamConsumerPushableStreamConsumer<N extends Node<N, N
     @Override
     public void accept(final PushableStreamConsumer<N> pushableStreamConsumer) {
         this.pushableStreamConsumer = pushableStreamConsumer;
-        this.selector.apply(this.node, this.context);
+        this.selector.find(this.node, this.context);
     }
 
     private PushableStreamConsumer<N> pushableStreamConsumer;
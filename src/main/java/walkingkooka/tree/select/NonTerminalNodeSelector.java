@@ -47,6 +47,11 @@ abstract class NonTerminalNodeSelector<N extends Node<N, NAME, ANAME, AVALUE>, N
     final N selectChild(final Optional<N> node,
                         final N parent,
                         final NodeSelectorContext2<N, NAME, ANAME, AVALUE> context) {
+        if (context.readOnly) {
+            node.ifPresent(child -> this.select(child, context));
+            return parent;
+        }
+
         return node.map(child -> this.select(child, context).parentOrFail())
                 .orElse(parent);
     }
@@ -63,9 +63,17 @@ final class TerminalNodeSelector<N extends Node<N, NAME, ANAME, AVALUE>, NAME ex
 
     @Override
     N apply1(final N node, final NodeSelectorContext2<N, NAME, ANAME, AVALUE> context) {
-        return !context.isFinished() && context.test(node) ?
-                node.replace(context.selected(node)) :
-                node;
+        N result = node;
+
+        if (!context.isFinished() && context.test(node)) {
+            if (context.readOnly) {
+                context.selected(node);
+            } else {
+                result = node.replace(context.selected(node));
+            }
+        }
+
+        return result;
     }
 
     @Override
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.Cast;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.naming.Names;
+import walkingkooka.naming.StringName;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public final class IndexCachingNodeTest implements ClassTesting2<IndexCachingNode<?, ?, ?, ?>> {
+
+    @Test
+    public void testRootIndex() {
+        this.checkEquals(
+                Traversable.NO_INDEX,
+                TestIndexCachingNode.with("root").index()
+        );
+    }
+
+    @Test
+    public void testIndex() {
+        final TestIndexCachingNode parent = TestIndexCachingNode.with("parent", "a", "b", "c");
+        final List<TestIndexCachingNode> children = parent.children();
+
+        this.checkEquals(2, children.get(2).index(), "c");
+        this.checkEquals(0, children.get(0).index(), "a");
+        this.checkEquals(1, children.get(1).index(), "b");
+    }
+
+    @Test
+    public void testIndexEqualSiblings() {
+        final TestIndexCachingNode parent = TestIndexCachingNode.with("parent", "same", "same", "same");
+        final List<TestIndexCachingNode> children = parent.children();
+
+        this.checkEquals(1, children.get(1).index(), "1");
+        this.checkEquals(2, children.get(2).index(), "2");
+        this.checkEquals(0, children.get(0).index(), "0");
+    }
+
+    @Test
+    public void testIndexCachesSiblings() {
+        final TestIndexCachingNode parent = TestIndexCachingNode.with("parent", "a", "b", "c", "d");
+        final List<TestIndexCachingNode> children = parent.children();
+
+        children.get(0).index();
+        parent.childrenCount = 0;
+
+        for (int i = 0; i < children.size(); i++) {
+            this.checkEquals(i, children.get(i).index(), () -> "index");
+        }
+
+        this.checkEquals(0, parent.childrenCount, "parent children should not have been fetched again");
+    }
+
+    @Test
+    public void testNextSibling() {
+        final TestIndexCachingNode parent = TestIndexCachingNode.with("parent", "a", "b");
+        final List<TestIndexCachingNode> children = parent.children();
+
+        this.checkEquals(
+                Optional.of(children.get(1)),
+                children.get(0).nextSibling()
+        );
+        this.checkEquals(
+                Optional.empty(),
+                children.get(1).nextSibling()
+        );
+    }
+
+    @Test
+    public void testPreviousSibling() {
+        final TestIndexCachingNode parent = TestIndexCachingNode.with("parent", "a", "b");
+        final List<TestIndexCachingNode> children = parent.children();
+
+        this.checkEquals(
+                Optional.of(children.get(0)),
+                children.get(1).previousSibling()
+        );
+        this.checkEquals(
+                Optional.empty(),
+                children.get(0).previousSibling()
+        );
+    }
+
+    static final class TestIndexCachingNode extends IndexCachingNode<TestIndexCachingNode, StringName, StringName, Object> {
+
+        static TestIndexCachingNode with(final String name,
+                                         final String... children) {
+            return new TestIndexCachingNode(name, Optional.empty(), children);
+        }
+
+        private TestIndexCachingNode(final String name,
+                                     final Optional<TestIndexCachingNode> parent,
+                                     final String... children) {
+            this.name = Names.string(name);
+            this.parent = parent;
+
+            final List<TestIndexCachingNode> list = Lists.array();
+            for (final String child : children) {
+                list.add(
+                        new TestIndexCachingNode(child, Optional.of(this))
+                );
+            }
+            this.children = Lists.readOnly(list);
+        }
+
+        @Override
+        public StringName name() {
+            return this.name;
+        }
+
+        private final StringName name;
+
+        @Override
+        public Optional<TestIndexCachingNode> parent() {
+            return this.parent;
+        }
+
+        private final Optional<TestIndexCachingNode> parent;
+
+        @Override
+        public TestIndexCachingNode removeParent() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<TestIndexCachingNode> children() {
+            this.childrenCount++;
+            return this.children;
+        }
+
+        private final List<TestIndexCachingNode> children;
+
+        /**
+         * Counts the number of times {@link #children()} is called.
+         */
+        int childrenCount;
+
+        @Override
+        public TestIndexCachingNode setChildren(final List<TestIndexCachingNode> children) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<StringName, Object> attributes() {
+            return Maps.empty();
+        }
+
+        @Override
+        public TestIndexCachingNode setAttributes(final Map<StringName, Object> attributes) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int hashCode() {
+            return this.name.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof TestIndexCachingNode &&
+                    this.name.equals(((TestIndexCachingNode) other).name);
+        }
+
+        @Override
+        public String toString() {
+            return this.name.toString();
+        }
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<IndexCachingNode<?, ?, ?, ?>> type() {
+        return Cast.to(IndexCachingNode.class);
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
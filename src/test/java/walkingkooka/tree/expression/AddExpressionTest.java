@@ -22,6 +22,7 @@ import walkingkooka.collect.list.Lists;
 import walkingkooka.visit.Visiting;
 
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertSame;
 
@@ -121,6 +122,51 @@ public final class AddExpressionTest extends BinaryArithmeticExpressionTestCase<
         this.evaluateAndCheckExpressionNumber(this.createExpression(expressionNumber(12), text("34")), 12 + 34);
     }
 
+    // toDouble.........................................................................................................
+
+    @Test
+    public void testEvaluateToDoubleExpressionNumber() {
+        this.evaluateAndCheckDouble(this.createExpression(expressionNumber(12), expressionNumber(34)), 12 + 34);
+    }
+
+    @Test
+    public void testEvaluateToDoubleNested() {
+        this.evaluateAndCheckDouble(
+                this.createExpression(
+                        this.createExpression(expressionNumber(1), expressionNumber(2)),
+                        Expression.negative(expressionNumber(3.5))
+                ),
+                1 + 2 - 3.5
+        );
+    }
+
+    @Test
+    public void testEvaluateToDoubleLocalDate() {
+        this.evaluateAndCheckDouble(this.createExpression(expressionNumber(12), localDate(34)), 12 + 34);
+    }
+
+    @Test
+    public void testEvaluateToDoubleTextLeft() {
+        this.evaluateAndCheckDouble(this.createExpression(text("12"), expressionNumber(34)), 1234);
+    }
+
+    @Test
+    public void testEvaluateToDoubleCompiled() {
+        this.checkEquals(
+                12.5 + 34,
+                this.createExpression(expressionNumber(12.5), expressionNumber(34))
+                        .compile((n) -> Optional.empty())
+                        .toDouble(this.context())
+        );
+    }
+
+    // toLong...........................................................................................................
+
+    @Test
+    public void testEvaluateToLongExpressionNumber() {
+        this.evaluateAndCheckLong(this.createExpression(expressionNumber(12.5), expressionNumber(34)), 46);
+    }
+
     // toLocalDate..............................................................................................................
 
     @Test
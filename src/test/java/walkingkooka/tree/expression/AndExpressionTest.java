@@ -22,8 +22,10 @@ import walkingkooka.collect.list.Lists;
 import walkingkooka.visit.Visiting;
 
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public final class AndExpressionTest extends BinaryLogicalExpressionTestCase<AndExpression> {
 
@@ -128,6 +130,99 @@ public final class AndExpressionTest extends BinaryLogicalExpressionTestCase<And
         this.evaluateAndCheckValue(this.createExpression(expressionNumber(6), expressionNumber(3)), expressionNumberValue(6 & 3));
     }
 
+    // shortCircuit......................................................................................................
+
+    @Test
+    public void testEvaluateToValueShortCircuit() {
+        this.evaluateAndCheckValue(
+                this.createExpression(booleanValue(false), rightFails()),
+                ExpressionEvaluationContexts.shortCircuit(this.context()),
+                false
+        );
+    }
+
+    @Test
+    public void testEvaluateToValueShortCircuitRightEvaluated() {
+        this.evaluateAndCheckValue(
+                this.createExpression(booleanValue(true), booleanValue(false)),
+                ExpressionEvaluationContexts.shortCircuit(this.context()),
+                false
+        );
+    }
+
+    @Test
+    public void testEvaluateToValueShortCircuitExpressionNumber() {
+        this.evaluateAndCheckValue(
+                this.createExpression(expressionNumber(6), expressionNumber(3)),
+                ExpressionEvaluationContexts.shortCircuit(this.context()),
+                expressionNumberValue(6 & 3)
+        );
+    }
+
+    @Test
+    public void testEvaluateToValueWithoutShortCircuitRightEvaluated() {
+        assertThrows(
+                UnsupportedOperationException.class,
+                () -> this.createExpression(booleanValue(false), rightFails())
+                        .toValue(this.context())
+        );
+    }
+
+    @Test
+    public void testEvaluateToBooleanShortCircuit() {
+        this.evaluateAndCheckBoolean(
+                this.createExpression(booleanValue(false), rightFails()),
+                ExpressionEvaluationContexts.shortCircuit(this.context()),
+                false
+        );
+    }
+
+    @Test
+    public void testEvaluateToBooleanComparisons() {
+        this.evaluateAndCheckBoolean(
+                this.createExpression(
+                        Expression.lessThan(expressionNumber(1), expressionNumber(2)),
+                        Expression.greaterThan(expressionNumber(3), expressionNumber(4))
+                ),
+                false
+        );
+    }
+
+    @Test
+    public void testEvaluateToBooleanBooleanText() {
+        this.evaluateAndCheckBoolean(
+                this.createExpression(booleanValue(true), text("true")),
+                true
+        );
+    }
+
+    @Test
+    public void testCompiledToBooleanShortCircuit() {
+        this.checkEquals(
+                false,
+                this.createExpression(booleanValue(false), rightFails())
+                        .compile((n) -> Optional.empty())
+                        .toBoolean(ExpressionEvaluationContexts.shortCircuit(this.context()))
+        );
+    }
+
+    @Test
+    public void testCompiledToValueShortCircuit() {
+        this.checkEquals(
+                false,
+                this.createExpression(booleanValue(false), rightFails())
+                        .compile((n) -> Optional.empty())
+                        .toValue(ExpressionEvaluationContexts.shortCircuit(this.context()))
+        );
+    }
+
+    /**
+     * A reference which fails if evaluated, because the test context does not support references.
+     */
+    private static Expression rightFails() {
+        return Expression.reference(new FakeExpressionReference());
+    }
+
     @Override
     AndExpression createExpression(final Expression left, final Expression right) {
         return AndExpression.with(left, right);
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.text.CaseSensitivity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public final class BinaryComparisonExpressionComparatorTest implements ClassTesting<BinaryComparisonExpressionComparator> {
+
+    // select...........................................................................................................
+
+    @Test
+    public void testSelectExpressionNumberExpressionNumber() {
+        this.selectAndCheck(
+                ExpressionNumberKind.DOUBLE.create(1),
+                ExpressionNumberKind.DOUBLE.create(2),
+                BinaryComparisonExpressionComparator.EXPRESSION_NUMBER
+        );
+    }
+
+    @Test
+    public void testSelectExpressionNumberExpressionNumberBigDecimalScaledLong() {
+        this.selectAndCheck(
+                ExpressionNumberKind.BIG_DECIMAL.create(new BigDecimal("123456789012345678901234567890")),
+                ExpressionNumberKind.BIG_DECIMAL.create(2),
+                BinaryComparisonExpressionComparator.EXPRESSION_NUMBER
+        );
+    }
+
+    @Test
+    public void testSelectExpressionNumberExpressionNumberDifferentKinds() {
+        this.selectAndCheck(
+                ExpressionNumberKind.DOUBLE.create(1),
+                ExpressionNumberKind.BIG_DECIMAL.create(2),
+                BinaryComparisonExpressionComparator.GENERAL
+        );
+    }
+
+    @Test
+    public void testSelectStringString() {
+        this.selectAndCheck(
+                "a",
+                "b",
+                BinaryComparisonExpressionComparator.STRING
+        );
+    }
+
+    @Test
+    public void testSelectLocalDateLocalDate() {
+        this.selectAndCheck(
+                LocalDate.of(2000, 1, 1),
+                LocalDate.of(2000, 1, 2),
+                BinaryComparisonExpressionComparator.LOCAL_DATE
+        );
+    }
+
+    @Test
+    public void testSelectBooleanBoolean() {
+        this.selectAndCheck(
+                true,
+                false,
+                BinaryComparisonExpressionComparator.BOOLEAN
+        );
+    }
+
+    @Test
+    public void testSelectStringExpressionNumber() {
+        this.selectAndCheck(
+                "1",
+                ExpressionNumberKind.DOUBLE.create(1),
+                BinaryComparisonExpressionComparator.GENERAL
+        );
+    }
+
+    @Test
+    public void testSelectNull() {
+        this.selectAndCheck(
+                null,
+                "b",
+                BinaryComparisonExpressionComparator.GENERAL
+        );
+    }
+
+    private void selectAndCheck(final Object left,
+                                final Object right,
+                                final BinaryComparisonExpressionComparator expected) {
+        assertSame(
+                expected,
+                BinaryComparisonExpressionComparator.select(left, right),
+                () -> "select " + left + " " + right
+        );
+    }
+
+    // compare..........................................................................................................
+
+    @Test
+    public void testCompareExpressionNumber() {
+        this.compareAndCheck(
+                BinaryComparisonExpressionComparator.EXPRESSION_NUMBER,
+                ExpressionNumberKind.BIG_DECIMAL.create(new BigDecimal("123456789012345678901234567890")),
+                ExpressionNumberKind.BIG_DECIMAL.create(2),
+                1
+        );
+    }
+
+    @Test
+    public void testCompareStringCaseInsensitive() {
+        this.compareAndCheck(
+                BinaryComparisonExpressionComparator.STRING,
+                "ABC",
+                "abc",
+                0
+        );
+    }
+
+    @Test
+    public void testCompareLocalDate() {
+        this.compareAndCheck(
+                BinaryComparisonExpressionComparator.LOCAL_DATE,
+                LocalDate.of(2000, 1, 1),
+                LocalDate.of(2000, 1, 2),
+                -1
+        );
+    }
+
+    @Test
+    public void testCompareBoolean() {
+        this.compareAndCheck(
+                BinaryComparisonExpressionComparator.BOOLEAN,
+                true,
+                false,
+                1
+        );
+    }
+
+    private void compareAndCheck(final BinaryComparisonExpressionComparator comparator,
+                                 final Object left,
+                                 final Object right,
+                                 final int expected) {
+        this.checkEquals(
+                expected,
+                Integer.signum(
+                        comparator.compare(
+                                left,
+                                right,
+                                new FakeExpressionEvaluationContext() {
+                                    @Override
+                                    public CaseSensitivity caseSensitivity() {
+                                        return CaseSensitivity.INSENSITIVE;
+                                    }
+
+                                    @Override
+                                    public boolean isText(final Object value) {
+                                        return value instanceof String;
+                                    }
+                                }
+                        )
+                ),
+                () -> comparator + " compare " + left + " " + right
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<BinaryComparisonExpressionComparator> type() {
+        return BinaryComparisonExpressionComparator.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public final class BinaryComparisonExpressionInlineCacheTest implements ClassTesting<BinaryComparisonExpressionInlineCache> {
+
+    @Test
+    public void testInitiallyEmpty() {
+        assertSame(
+                BinaryComparisonExpressionInlineCache.EMPTY,
+                this.expression().inlineCache
+        );
+    }
+
+    @Test
+    public void testComparatorFillsEmpty() {
+        final BinaryComparisonExpression expression = this.expression();
+
+        assertSame(
+                BinaryComparisonExpressionComparator.STRING,
+                expression.inlineCache.comparator("a", "b", expression)
+        );
+        this.checkEquals(
+                "String String STRING",
+                expression.inlineCache.toString()
+        );
+    }
+
+    @Test
+    public void testComparatorHit() {
+        final BinaryComparisonExpression expression = this.expression();
+        expression.inlineCache.comparator("a", "b", expression);
+
+        final BinaryComparisonExpressionInlineCache cache = expression.inlineCache;
+
+        assertSame(
+                BinaryComparisonExpressionComparator.STRING,
+                cache.comparator("c", "d", expression)
+        );
+        assertSame(
+                cache,
+                expression.inlineCache
+        );
+    }
+
+    @Test
+    public void testComparatorMissBecomesPolymorphic() {
+        final BinaryComparisonExpression expression = this.expression();
+        expression.inlineCache.comparator("a", "b", expression);
+
+        assertSame(
+                BinaryComparisonExpressionComparator.BOOLEAN,
+                expression.inlineCache.comparator(true, false, expression)
+        );
+        assertSame(
+                BinaryComparisonExpressionInlineCache.POLYMORPHIC,
+                expression.inlineCache
+        );
+
+        assertSame(
+                BinaryComparisonExpressionComparator.STRING,
+                expression.inlineCache.comparator("a", "b", expression)
+        );
+        assertSame(
+                BinaryComparisonExpressionInlineCache.POLYMORPHIC,
+                expression.inlineCache
+        );
+    }
+
+    @Test
+    public void testComparatorNullNotCached() {
+        final BinaryComparisonExpression expression = this.expression();
+
+        assertSame(
+                BinaryComparisonExpressionComparator.GENERAL,
+                expression.inlineCache.comparator(null, "b", expression)
+        );
+        assertSame(
+                BinaryComparisonExpressionInlineCache.EMPTY,
+                expression.inlineCache
+        );
+    }
+
+    @Test
+    public void testEvaluateAfterPolymorphic() {
+        final BinaryComparisonExpression expression = this.expression();
+        final ExpressionEvaluationContext context = new FakeExpressionEvaluationContext() {
+            @Override
+            public boolean isText(final Object value) {
+                return false;
+            }
+        };
+
+        this.checkEquals(
+                true,
+                expression.test(
+                        ExpressionNumberKind.DOUBLE.create(1),
+                        ExpressionNumberKind.DOUBLE.create(2),
+                        context
+                ),
+                "numbers"
+        );
+        this.checkEquals(
+                false,
+                expression.test(
+                        true,
+                        false,
+                        context
+                ),
+                "booleans"
+        );
+        this.checkEquals(
+                true,
+                expression.test(
+                        ExpressionNumberKind.DOUBLE.create(3),
+                        ExpressionNumberKind.DOUBLE.create(4),
+                        context
+                ),
+                "numbers again"
+        );
+    }
+
+    private BinaryComparisonExpression expression() {
+        return Expression.lessThan(
+                Expression.value(1),
+                Expression.value(2)
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<BinaryComparisonExpressionInlineCache> type() {
+        return BinaryComparisonExpressionInlineCache.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.Cast;
+import walkingkooka.Either;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.convert.Converter;
+import walkingkooka.convert.ConverterContext;
+import walkingkooka.convert.ConverterContexts;
+import walkingkooka.convert.Converters;
+import walkingkooka.convert.FakeConverter;
+import walkingkooka.datetime.DateTimeContexts;
+import walkingkooka.math.DecimalNumberContext;
+import walkingkooka.math.DecimalNumberContexts;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class CachingExpressionNumberConverterContextTest implements ExpressionNumberConverterContextTesting<CachingExpressionNumberConverterContext>,
+        ToStringTesting<CachingExpressionNumberConverterContext> {
+
+    private final static ExpressionNumberKind KIND = ExpressionNumberKind.DEFAULT;
+    private final static Converter<ExpressionNumberConverterContext> CONVERTER = Converters.collection(
+            Lists.of(
+                    Converters.simple(),
+                    Converters.numberNumber()
+            )
+    );
+    private final static int MAX_SIZE = 2;
+
+    @Test
+    public void testWithNullContextFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> CachingExpressionNumberConverterContext.with(null, MAX_SIZE, true)
+        );
+    }
+
+    @Test
+    public void testWithInvalidMaxSizeFails() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> CachingExpressionNumberConverterContext.with(this.basic(), 0, true)
+        );
+    }
+
+    @Test
+    public void testConvert() {
+        this.convertAndCheck(123, Float.class, 123f);
+    }
+
+    @Test
+    public void testConvertResultCached() {
+        final CachingExpressionNumberConverterContext context = this.createContext();
+
+        this.convertAndCheck(context, 123, Float.class, 123f);
+        this.convertAndCheck(context, 123, Float.class, 123f);
+
+        this.hitsAndMissesCheck(context, 1, 1);
+    }
+
+    @Test
+    public void testConvertResultNotCached() {
+        final CachingExpressionNumberConverterContext context = CachingExpressionNumberConverterContext.with(
+                this.basic(),
+                MAX_SIZE,
+                false
+        );
+
+        this.convertAndCheck(context, 123, Float.class, 123f);
+        this.convertAndCheck(context, 123, Float.class, 123f);
+
+        this.hitsAndMissesCheck(context, 0, 2);
+    }
+
+    @Test
+    public void testConvertDifferentValues() {
+        final CachingExpressionNumberConverterContext context = this.createContext();
+
+        this.convertAndCheck(context, 123, Float.class, 123f);
+        this.convertAndCheck(context, 456, Float.class, 456f);
+
+        this.hitsAndMissesCheck(context, 0, 2);
+    }
+
+    @Test
+    public void testConvertSameValueDifferentClass() {
+        final CachingExpressionNumberConverterContext context = this.createContext();
+
+        this.convertAndCheck(context, 123, Float.class, 123f);
+        this.convertAndCheck(context, 123L, Float.class, 123f);
+
+        this.hitsAndMissesCheck(context, 0, 2);
+    }
+
+    @Test
+    public void testConvertExpressionNumberDifferentScale() {
+        final CachingExpressionNumberConverterContext context = CachingExpressionNumberConverterContext.with(
+                ExpressionNumberConverterContexts.basic(
+                        new FakeConverter<>() {
+                            @Override
+                            public boolean canConvert(final Object value,
+                                                      final Class<?> type,
+                                                      final ExpressionNumberConverterContext context) {
+                                return value instanceof ExpressionNumber && String.class == type;
+                            }
+
+                            @Override
+                            public <T> Either<T, String> convert(final Object value,
+                                                                 final Class<T> type,
+                                                                 final ExpressionNumberConverterContext context) {
+                                return this.canConvert(value, type, context) ?
+                                        Cast.to(Either.left(((ExpressionNumber) value).bigDecimal().toPlainString())) :
+                                        this.failConversion(value, type);
+                            }
+                        },
+                        this.converterContext(),
+                        ExpressionNumberKind.BIG_DECIMAL
+                ),
+                MAX_SIZE,
+                true
+        );
+
+        final ExpressionNumber one = ExpressionNumberKind.BIG_DECIMAL.create(new BigDecimal("1.0"));
+        final ExpressionNumber oneHundredths = ExpressionNumberKind.BIG_DECIMAL.create(new BigDecimal("1.00"));
+        this.checkEquals(one, oneHundredths, "ExpressionNumber.equals ignores scale");
+
+        this.convertAndCheck(context, one, String.class, "1.0");
+        this.convertAndCheck(context, oneHundredths, String.class, "1.00");
+        this.convertAndCheck(context, one, String.class, "1.0");
+
+        this.hitsAndMissesCheck(context, 1, 2);
+    }
+
+    @Test
+    public void testConvertUnchangedPairCached() {
+        final CachingExpressionNumberConverterContext context = CachingExpressionNumberConverterContext.with(
+                this.basic(),
+                MAX_SIZE,
+                false
+        );
+
+        this.convertAndCheck(context, "abc", String.class, "abc");
+        this.convertAndCheck(context, "def", String.class, "def");
+
+        this.hitsAndMissesCheck(context, 1, 1);
+        this.checkEquals(true, context.canConvert("ghi", String.class));
+    }
+
+    @Test
+    public void testConvertMaxSize() {
+        final CachingExpressionNumberConverterContext context = this.createContext();
+
+        this.convertAndCheck(context, 1, Float.class, 1f);
+        this.convertAndCheck(context, 2, Float.class, 2f);
+        this.convertAndCheck(context, 3, Float.class, 3f);
+        this.convertAndCheck(context, 3, Float.class, 3f);
+
+        this.hitsAndMissesCheck(context, 0, 4);
+    }
+
+    @Test
+    public void testConvertFailedNotCached() {
+        final CachingExpressionNumberConverterContext context = this.createContext();
+
+        this.convertFails(context, "abc", Float.class);
+        this.convertFails(context, "abc", Float.class);
+
+        this.hitsAndMissesCheck(context, 0, 2);
+    }
+
+    @Test
+    public void testClear() {
+        final CachingExpressionNumberConverterContext context = this.createContext();
+
+        this.convertAndCheck(context, 123, Float.class, 123f);
+        context.clear();
+        this.convertAndCheck(context, 123, Float.class, 123f);
+
+        this.hitsAndMissesCheck(context, 0, 2);
+    }
+
+    @Test
+    public void testHitRate() {
+        final CachingExpressionNumberConverterContext context = this.createContext();
+        this.checkEquals(0.0, context.hitRate(), "empty");
+
+        this.convertAndCheck(context, 123, Float.class, 123f);
+        this.convertAndCheck(context, 123, Float.class, 123f);
+        this.convertAndCheck(context, 123, Float.class, 123f);
+        this.convertAndCheck(context, 456, Float.class, 456f);
+
+        this.checkEquals(0.5, context.hitRate());
+    }
+
+    private void hitsAndMissesCheck(final CachingExpressionNumberConverterContext context,
+                                    final long hits,
+                                    final long misses) {
+        this.checkEquals(hits, context.hits(), "hits");
+        this.checkEquals(misses, context.misses(), "misses");
+    }
+
+    @Test
+    public void testToString() {
+        final ExpressionNumberConverterContext basic = this.basic();
+        this.toStringAndCheck(
+                CachingExpressionNumberConverterContext.with(basic, MAX_SIZE, true),
+                basic.toString()
+        );
+    }
+
+    @Override
+    public CachingExpressionNumberConverterContext createContext() {
+        return CachingExpressionNumberConverterContext.with(
+                this.basic(),
+                MAX_SIZE,
+                true
+        );
+    }
+
+    private ExpressionNumberConverterContext basic() {
+        return ExpressionNumberConverterContexts.basic(
+                CONVERTER,
+                this.converterContext(),
+                KIND
+        );
+    }
+
+    private ConverterContext converterContext() {
+        return ConverterContexts.basic(
+                Converters.fake(),
+                DateTimeContexts.locale(
+                        Locale.forLanguageTag("EN-AU"),
+                        1900,
+                        20,
+                        LocalDateTime::now
+                ),
+                this.decimalNumberContext()
+        );
+    }
+
+    private DecimalNumberContext decimalNumberContext() {
+        return DecimalNumberContexts.american(MathContext.DECIMAL32);
+    }
+
+    @Override
+    public String currencySymbol() {
+        return this.decimalNumberContext().currencySymbol();
+    }
+
+    @Override
+    public char decimalSeparator() {
+        return this.decimalNumberContext().decimalSeparator();
+    }
+
+    @Override
+    public String exponentSymbol() {
+        return this.decimalNumberContext().exponentSymbol();
+    }
+
+    @Override
+    public char groupingSeparator() {
+        return this.decimalNumberContext().groupingSeparator();
+    }
+
+    @Override
+    public MathContext mathContext() {
+        return this.decimalNumberContext().mathContext();
+    }
+
+    @Override
+    public char negativeSign() {
+        return this.decimalNumberContext().negativeSign();
+    }
+
+    @Override
+    public char percentageSymbol() {
+        return this.decimalNumberContext().percentageSymbol();
+    }
+
+    @Override
+    public char positiveSign() {
+        return this.decimalNumberContext().positiveSign();
+    }
+
+    @Override
+    public Class<CachingExpressionNumberConverterContext> type() {
+        return CachingExpressionNumberConverterContext.class;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.tree.expression;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
+import walkingkooka.tree.expression.function.FakeExpressionFunction;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class CommonSubexpressionsExpressionEvaluationContextTest implements ClassTesting2<CommonSubexpressionsExpressionEvaluationContext> {
+
+    private final static ExpressionReference REFERENCE = new FakeExpressionReference() {
+        @Override
+        public String toString() {
+            return "A1";
+        }
+    };
+
+    @Test
+    public void testWithNullContextFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> CommonSubexpressionsExpressionEvaluationContext.with(null, 1)
+        );
+    }
+
+    @Test
+    public void testValue() {
+        final int[] references = new int[1];
+        final CommonSubexpressionsExpressionEvaluationContext context = this.createContext(references);
+        final CompiledExpression compiled = Expression.reference(REFERENCE)
+                .compile((n) -> Optional.empty());
+
+        this.checkEquals("A1 value", context.value(0, compiled), "first");
+        this.checkEquals("A1 value", context.value(0, compiled), "second");
+        this.checkEquals(1, references[0], "reference lookups");
+    }
+
+    @Test
+    public void testValueDifferentSlots() {
+        final int[] references = new int[1];
+        final CommonSubexpressionsExpressionEvaluationContext context = this.createContext(references);
+        final CompiledExpression compiled = Expression.reference(REFERENCE)
+                .compile((n) -> Optional.empty());
+
+        context.value(0, compiled);
+        context.value(1, compiled);
+        this.checkEquals(2, references[0], "reference lookups");
+    }
+
+    @Test
+    public void testEvaluateFunctionContext() {
+        final CommonSubexpressionsExpressionEvaluationContext context = this.createContext(new int[1]);
+
+        final ExpressionFunction<?, ExpressionEvaluationContext> function = new FakeExpressionFunction<Object, ExpressionEvaluationContext>() {
+            @Override
+            public Object apply(final List<Object> parameters,
+                                final ExpressionEvaluationContext c) {
+                assertSame(context, c, "context");
+                return "result";
+            }
+
+            @Override
+            public List<ExpressionFunctionParameter<?>> parameters(final int count) {
+                return Lists.empty();
+            }
+        };
+
+        this.checkEquals(
+                "result",
+                context.evaluateFunction(
+                        function,
+                        Lists.empty()
+                )
+        );
+    }
+
+    private CommonSubexpressionsExpressionEvaluationContext createContext(final int[] references) {
+        return CommonSubexpressionsExpressionEvaluationContext.with(
+                new FakeExpressionEvaluationContext() {
+                    @Override
+                    public Optional<Optional<Object>> reference(final ExpressionReference reference) {
+                        references[0]++;
+                        return Optional.of(
+                                Optional.of(reference + " value")
+                        );
+                    }
+                },
+                2
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<CommonSubexpressionsExpressionEvaluationContext> type() {
+        return CommonSubexpressionsExpressionEvaluationContext.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
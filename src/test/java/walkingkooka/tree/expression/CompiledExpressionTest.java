@@ -0,0 +1,569 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.convert.ConverterContext;
+import walkingkooka.convert.ConverterContexts;
+import walkingkooka.convert.Converters;
+import walkingkooka.datetime.DateTimeContexts;
+import walkingkooka.math.DecimalNumberContexts;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.text.CaseSensitivity;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterCardinality;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterKind;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterName;
+import walkingkooka.tree.expression.function.FakeExpressionFunction;
+import walkingkooka.tree.expression.function.UnknownExpressionFunctionException;
+
+import java.math.MathContext;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class CompiledExpressionTest implements ClassTesting2<CompiledExpression> {
+
+    private final static ExpressionNumberKind KIND = ExpressionNumberKind.DEFAULT;
+
+    private final static ExpressionReference REFERENCE = new FakeExpressionReference() {
+    };
+
+    private final static FunctionExpressionName FUNCTION_NAME = FunctionExpressionName.with("sum");
+
+    @Test
+    public void testCompileNullFunctionsFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> Expression.value(1).compile(null)
+        );
+    }
+
+    @Test
+    public void testExpression() {
+        final Expression expression = this.number(1);
+        assertSame(
+                expression,
+                expression.compile(this.functions())
+                        .expression()
+        );
+    }
+
+    @Test
+    public void testValue() {
+        this.compileAndCheck(
+                this.number(1)
+        );
+    }
+
+    @Test
+    public void testReference() {
+        final Expression expression = Expression.reference(REFERENCE);
+        this.compileAndCheck(expression);
+
+        this.checkEquals(
+                REFERENCE,
+                expression.compile(this.functions())
+                        .toReferenceOrValue(this.context()),
+                "toReferenceOrValue"
+        );
+    }
+
+    @Test
+    public void testAdd() {
+        final Expression expression = Expression.add(
+                this.number(1),
+                Expression.multiply(
+                        this.number(2),
+                        this.number(3)
+                )
+        );
+        this.compileAndCheck(expression);
+
+        this.checkEquals(
+                expression.toExpressionNumber(this.context()),
+                expression.compile(this.functions())
+                        .toExpressionNumber(this.context()),
+                "toExpressionNumber"
+        );
+    }
+
+    @Test
+    public void testAddText() {
+        final Expression expression = Expression.add(
+                Expression.value("abc"),
+                Expression.value("def")
+        );
+
+        this.checkEquals(
+                expression.toString(this.context()),
+                expression.compile(this.functions())
+                        .toString(this.context())
+        );
+    }
+
+    @Test
+    public void testAddReference() {
+        this.compileAndCheck(
+                Expression.add(
+                        Expression.reference(REFERENCE),
+                        this.number(1)
+                )
+        );
+    }
+
+    @Test
+    public void testLessThan() {
+        this.compileAndCheck(
+                Expression.lessThan(
+                        this.number(1),
+                        this.number(2)
+                )
+        );
+    }
+
+    @Test
+    public void testAnd() {
+        this.compileAndCheck(
+                Expression.and(
+                        Expression.value(true),
+                        Expression.value(false)
+                )
+        );
+    }
+
+    @Test
+    public void testNegative() {
+        this.compileAndCheck(
+                Expression.negative(
+                        this.number(1)
+                )
+        );
+    }
+
+    @Test
+    public void testNot() {
+        this.compileAndCheck(
+                Expression.not(
+                        this.number(1)
+                )
+        );
+    }
+
+    @Test
+    public void testList() {
+        final Expression expression = Expression.list(
+                Lists.of(
+                        this.number(1),
+                        Expression.add(
+                                this.number(2),
+                                this.number(3)
+                        )
+                )
+        );
+
+        this.checkEquals(
+                expression.toValue(this.context()),
+                expression.compile(this.functions())
+                        .toValue(this.context())
+        );
+    }
+
+    @Test
+    public void testCallFunctionResolvedDuringCompile() {
+        final Expression expression = Expression.call(
+                Expression.namedFunction(FUNCTION_NAME),
+                Lists.of(
+                        this.number(1),
+                        Expression.add(
+                                this.number(2),
+                                this.number(3)
+                        )
+                )
+        );
+
+        final CompiledExpression compiled = expression.compile(this.functions());
+
+        this.checkEquals(
+                expression.toValue(this.context(this.function())),
+                compiled.toValue(
+                        this.context(
+                                (n) -> {
+                                    throw new UnsupportedOperationException("Function " + n + " should have been resolved during compile");
+                                }
+                        )
+                )
+        );
+    }
+
+    @Test
+    public void testCallFunctionResolvedOncePerName() {
+        final Expression expression = Expression.add(
+                Expression.call(
+                        Expression.namedFunction(FUNCTION_NAME),
+                        Lists.of(
+                                this.number(1)
+                        )
+                ),
+                Expression.call(
+                        Expression.namedFunction(FUNCTION_NAME),
+                        Lists.of(
+                                this.number(2)
+                        )
+                )
+        );
+
+        final List<FunctionExpressionName> resolved = Lists.array();
+        final CompiledExpression compiled = expression.compile(
+                (n) -> {
+                    resolved.add(n);
+                    return this.functions().apply(n);
+                }
+        );
+
+        this.checkEquals(
+                Lists.of(FUNCTION_NAME),
+                resolved,
+                "resolved"
+        );
+        this.checkEquals(
+                expression.toValue(this.context(this.function())),
+                compiled.toValue(this.context(this.function()))
+        );
+    }
+
+    @Test
+    public void testCallFunctionNotResolvedDuringCompile() {
+        final Expression expression = Expression.call(
+                Expression.namedFunction(FUNCTION_NAME),
+                Lists.of(
+                        this.number(1)
+                )
+        );
+
+        this.checkEquals(
+                this.number(1).value(),
+                expression.compile((n) -> Optional.empty())
+                        .toValue(this.context())
+        );
+    }
+
+    @Test
+    public void testLambdaFunction() {
+        this.compileAndCheck(
+                Expression.lambdaFunction(
+                        Lists.empty(),
+                        Expression.add(
+                                this.number(1),
+                                this.number(2)
+                        )
+                )
+        );
+    }
+
+    @Test
+    public void testLambdaFunctionToValueUsesBoundFunction() {
+        final CompiledExpression compiled = Expression.lambdaFunction(
+                Lists.empty(),
+                Expression.call(
+                        Expression.namedFunction(FUNCTION_NAME),
+                        Lists.of(
+                                this.number(1),
+                                this.number(2)
+                        )
+                )
+        ).compile(this.functions());
+
+        this.checkEquals(
+                KIND.create(3),
+                compiled.toValue(
+                        this.context(
+                                (n) -> {
+                                    throw new UnsupportedOperationException("Function " + n + " should have been resolved during compile");
+                                }
+                        )
+                )
+        );
+    }
+
+    // common sub expressions.........................................................................................
+
+    @Test
+    public void testCompileCommonSubexpressionsNullContextFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> Expression.value(1).compile(this.functions(), null)
+        );
+    }
+
+    @Test
+    public void testCompileCommonSubexpressionsNone() {
+        final Expression expression = Expression.add(
+                Expression.reference(REFERENCE),
+                this.number(1)
+        );
+
+        final CompiledExpression compiled = expression.compile(
+                this.functions(),
+                this.context()
+        );
+        this.checkEquals(
+                CompiledExpressionBinaryArithmetic.class,
+                compiled.getClass()
+        );
+        this.compileAndCheck(expression);
+    }
+
+    @Test
+    public void testCompileCommonSubexpressionsReference() {
+        final Expression expression = Expression.add(
+                Expression.multiply(
+                        Expression.reference(REFERENCE),
+                        this.number(2)
+                ),
+                Expression.multiply(
+                        Expression.reference(REFERENCE),
+                        this.number(2)
+                )
+        );
+
+        final int[] references = new int[1];
+        final ExpressionEvaluationContext context = this.context(
+                this.function(),
+                references
+        );
+
+        final CompiledExpression compiled = expression.compile(
+                this.functions(),
+                context
+        );
+        assertSame(expression, compiled.expression());
+
+        this.checkEquals(
+                KIND.create(99 * 2 * 2),
+                compiled.toValue(context)
+        );
+        this.checkEquals(1, references[0], "reference lookups");
+
+        this.checkEquals(
+                expression.toValue(context),
+                compiled.toValue(context)
+        );
+        this.checkEquals(1 + 2 + 1, references[0], "reference lookups after interpreted and second compiled evaluation");
+    }
+
+    @Test
+    public void testCompileCommonSubexpressionsPureFunction() {
+        this.compileCommonSubexpressionsFunctionAndCheck(
+                true,
+                1
+        );
+    }
+
+    @Test
+    public void testCompileCommonSubexpressionsImpureFunction() {
+        this.compileCommonSubexpressionsFunctionAndCheck(
+                false,
+                2
+        );
+    }
+
+    private void compileCommonSubexpressionsFunctionAndCheck(final boolean pure,
+                                                             final int expected) {
+        final Expression call = Expression.call(
+                Expression.namedFunction(FUNCTION_NAME),
+                Lists.of(
+                        this.number(1),
+                        Expression.reference(REFERENCE)
+                )
+        );
+        final Expression expression = Expression.add(
+                call,
+                Expression.negative(call)
+        );
+
+        final int[] calls = new int[1];
+        final ExpressionFunction<?, ExpressionEvaluationContext> function = new FakeExpressionFunction<Object, ExpressionEvaluationContext>() {
+            @Override
+            public Object apply(final List<Object> parameters,
+                                final ExpressionEvaluationContext context) {
+                calls[0]++;
+                return CompiledExpressionTest.this.function()
+                        .apply(parameters, context);
+            }
+
+            @Override
+            public List<ExpressionFunctionParameter<?>> parameters(final int count) {
+                return CompiledExpressionTest.this.function()
+                        .parameters(count);
+            }
+
+            @Override
+            public boolean isPure(final ExpressionPurityContext context) {
+                return pure;
+            }
+        };
+        final ExpressionEvaluationContext context = this.context(function);
+
+        this.checkEquals(
+                KIND.zero(),
+                expression.compile(
+                        (n) -> Optional.of(function),
+                        context
+                ).toValue(context)
+        );
+        this.checkEquals(expected, calls[0], "function calls");
+    }
+
+    private void compileAndCheck(final Expression expression) {
+        final ExpressionEvaluationContext context = this.context();
+        final CompiledExpression compiled = expression.compile(this.functions());
+
+        this.checkEquals(
+                expression.toValue(context),
+                compiled.toValue(context),
+                () -> "toValue " + expression
+        );
+        this.checkEquals(
+                expression.toBoolean(context),
+                compiled.toBoolean(context),
+                () -> "toBoolean " + expression
+        );
+    }
+
+    private ValueExpression<ExpressionNumber> number(final int value) {
+        return Expression.value(KIND.create(value));
+    }
+
+    private Function<FunctionExpressionName, Optional<ExpressionFunction<?, ExpressionEvaluationContext>>> functions() {
+        return (n) -> Optional.ofNullable(
+                FUNCTION_NAME.equals(n) ?
+                        this.function() :
+                        null
+        );
+    }
+
+    private ExpressionFunction<?, ExpressionEvaluationContext> function() {
+        return new FakeExpressionFunction<Object, ExpressionEvaluationContext>() {
+            @Override
+            public Object apply(final List<Object> parameters,
+                                final ExpressionEvaluationContext context) {
+                ExpressionNumber sum = KIND.zero();
+                for (final Object parameter : parameters) {
+                    sum = sum.add((ExpressionNumber) parameter, context);
+                }
+                return sum;
+            }
+
+            @Override
+            public List<ExpressionFunctionParameter<?>> parameters(final int count) {
+                return Lists.of(
+                        ExpressionFunctionParameterName.VALUE.required(Object.class)
+                                .setKinds(ExpressionFunctionParameterKind.EVALUATE_RESOLVE_REFERENCES)
+                                .setCardinality(ExpressionFunctionParameterCardinality.VARIABLE)
+                );
+            }
+        };
+    }
+
+    private ExpressionEvaluationContext context() {
+        return this.context(this.function());
+    }
+
+    private ExpressionEvaluationContext context(final ExpressionFunction<?, ExpressionEvaluationContext> function) {
+        return this.context(
+                function,
+                new int[1]
+        );
+    }
+
+    private ExpressionEvaluationContext context(final ExpressionFunction<?, ExpressionEvaluationContext> function,
+                                                final int[] references) {
+        return this.context(
+                (n) -> {
+                    if (FUNCTION_NAME.equals(n)) {
+                        return function;
+                    }
+                    throw new UnknownExpressionFunctionException(n);
+                },
+                references
+        );
+    }
+
+    private ExpressionEvaluationContext context(final Function<FunctionExpressionName, ExpressionFunction<?, ExpressionEvaluationContext>> functions) {
+        return this.context(
+                functions,
+                new int[1]
+        );
+    }
+
+    private ExpressionEvaluationContext context(final Function<FunctionExpressionName, ExpressionFunction<?, ExpressionEvaluationContext>> functions,
+                                                final int[] references) {
+        return ExpressionEvaluationContexts.basic(
+                KIND,
+                functions,
+                (r) -> {
+                    throw r;
+                },
+                (r) -> {
+                    references[0]++;
+                    return Optional.of(
+                            Optional.ofNullable(
+                                    REFERENCE.equals(r) ?
+                                            KIND.create(99) :
+                                            null
+                            )
+                    );
+                },
+                ExpressionEvaluationContexts.referenceNotFound(),
+                CaseSensitivity.SENSITIVE,
+                this.converterContext()
+        );
+    }
+
+    private ConverterContext converterContext() {
+        return ConverterContexts.basic(
+                Converters.collection(
+                        Lists.of(
+                                Converters.simple(),
+                                ExpressionNumber.fromConverter(Converters.truthyNumberBoolean())
+                        )
+                ),
+                DateTimeContexts.fake(),
+                DecimalNumberContexts.american(MathContext.DECIMAL32)
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<CompiledExpression> type() {
+        return CompiledExpression.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
@@ -24,6 +24,7 @@ import walkingkooka.visit.Visiting;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public final class DivideExpressionTest extends BinaryArithmeticExpressionTestCase2<DivideExpression> {
 
@@ -101,6 +102,28 @@ public final class DivideExpressionTest extends BinaryArithmeticExpressionTestCa
         this.evaluateAndCheckExpressionNumber(this.createExpression(expressionNumber(60), expressionNumber(5)), expressionNumberValue(60.0 / 5));
     }
 
+    // toDouble.........................................................................................................
+
+    @Test
+    public void testEvaluateToDouble() {
+        this.evaluateAndCheckDouble(this.createExpression(expressionNumber(60), expressionNumber(8)), 60.0 / 8);
+    }
+
+    @Test
+    public void testEvaluateToDoubleDivisionByZeroFails() {
+        final ExpressionEvaluationException thrown = assertThrows(
+                ExpressionEvaluationException.class,
+                () -> this.createExpression(expressionNumber(60), expressionNumber(0))
+                        .toDouble(this.context())
+        );
+        this.checkEquals("Division by zero", thrown.getMessage(), "message");
+    }
+
+    @Test
+    public void testEvaluateToLong() {
+        this.evaluateAndCheckLong(this.createExpression(expressionNumber(60), expressionNumber(8)), 7);
+    }
+
     @Override
     DivideExpression createExpression(final Expression left, final Expression right) {
         return DivideExpression.with(left, right);
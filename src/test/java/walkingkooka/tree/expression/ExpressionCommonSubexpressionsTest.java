@@ -0,0 +1,201 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.tree.expression;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public final class ExpressionCommonSubexpressionsTest implements ClassTesting2<ExpressionCommonSubexpressions> {
+
+    private final static ExpressionReference REFERENCE = new FakeExpressionReference() {
+        @Override
+        public String toString() {
+            return "A1";
+        }
+    };
+
+    private final static FunctionExpressionName PURE = FunctionExpressionName.with("pure");
+
+    private final static FunctionExpressionName IMPURE = FunctionExpressionName.with("impure");
+
+    private final static ExpressionPurityContext CONTEXT = (n) -> {
+        if (PURE.equals(n)) {
+            return true;
+        }
+        if (IMPURE.equals(n)) {
+            return false;
+        }
+        throw new IllegalArgumentException("Unknown function " + n);
+    };
+
+    @Test
+    public void testNone() {
+        assertSame(
+                ExpressionCommonSubexpressions.NONE,
+                ExpressionCommonSubexpressions.with(
+                        Expression.add(
+                                Expression.reference(REFERENCE),
+                                Expression.value(1)
+                        ),
+                        CONTEXT
+                )
+        );
+    }
+
+    @Test
+    public void testValuesNotShared() {
+        assertSame(
+                ExpressionCommonSubexpressions.NONE,
+                ExpressionCommonSubexpressions.with(
+                        Expression.add(
+                                Expression.value(1),
+                                Expression.value(1)
+                        ),
+                        CONTEXT
+                )
+        );
+    }
+
+    @Test
+    public void testReferenceShared() {
+        final Expression expression = Expression.add(
+                Expression.reference(REFERENCE),
+                Expression.reference(REFERENCE)
+        );
+        final ExpressionCommonSubexpressions common = ExpressionCommonSubexpressions.with(
+                expression,
+                CONTEXT
+        );
+
+        this.checkEquals(1, common.count(), "count");
+        this.checkEquals(0, common.slot(expression.children().get(0)), "left");
+        this.checkEquals(0, common.slot(expression.children().get(1)), "right");
+        this.checkEquals(ExpressionCommonSubexpressions.NO_SLOT, common.slot(expression), "expression");
+    }
+
+    @Test
+    public void testSlotNotSameInstance() {
+        final ExpressionCommonSubexpressions common = ExpressionCommonSubexpressions.with(
+                Expression.add(
+                        Expression.reference(REFERENCE),
+                        Expression.reference(REFERENCE)
+                ),
+                CONTEXT
+        );
+
+        this.checkEquals(
+                ExpressionCommonSubexpressions.NO_SLOT,
+                common.slot(Expression.reference(REFERENCE))
+        );
+    }
+
+    @Test
+    public void testNestedShared() {
+        final Expression multiply = Expression.multiply(
+                Expression.reference(REFERENCE),
+                Expression.value(2)
+        );
+        final Expression expression = Expression.add(
+                multiply,
+                multiply
+        );
+        final ExpressionCommonSubexpressions common = ExpressionCommonSubexpressions.with(
+                expression,
+                CONTEXT
+        );
+
+        this.checkEquals(2, common.count(), "count");
+    }
+
+    @Test
+    public void testPureCallShared() {
+        this.callAndCheck(PURE, 1);
+    }
+
+    @Test
+    public void testImpureCallNotShared() {
+        this.callAndCheck(IMPURE, 0);
+    }
+
+    @Test
+    public void testUnknownCallNotShared() {
+        this.callAndCheck(FunctionExpressionName.with("unknown"), 0);
+    }
+
+    private void callAndCheck(final FunctionExpressionName name,
+                              final int count) {
+        final Expression call = Expression.call(
+                Expression.namedFunction(name),
+                Lists.of(
+                        Expression.value(1)
+                )
+        );
+
+        this.checkEquals(
+                count,
+                ExpressionCommonSubexpressions.with(
+                        Expression.add(
+                                call,
+                                call
+                        ),
+                        CONTEXT
+                ).count()
+        );
+    }
+
+    @Test
+    public void testLambdaNotShared() {
+        final Expression lambda = Expression.lambdaFunction(
+                Lists.empty(),
+                Expression.add(
+                        Expression.reference(REFERENCE),
+                        Expression.reference(REFERENCE)
+                )
+        );
+
+        assertSame(
+                ExpressionCommonSubexpressions.NONE,
+                ExpressionCommonSubexpressions.with(
+                        Expression.list(
+                                Lists.of(
+                                        lambda,
+                                        lambda
+                                )
+                        ),
+                        CONTEXT
+                )
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<ExpressionCommonSubexpressions> type() {
+        return ExpressionCommonSubexpressions.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -48,6 +48,45 @@ public final class ExpressionEvaluationContextPrepareParametersListTest extends
         );
     }
 
+    @Test
+    public void testNoKindsReturnsValues() {
+        final List<Object> values = Lists.of(
+                "Ten",
+                "Twenty"
+        );
+
+        assertSame(
+                values,
+                ExpressionEvaluationContextPrepareParametersList.with(
+                        Lists.of(
+                                REQUIRED,
+                                OPTIONAL
+                        ),
+                        values,
+                        ExpressionEvaluationContexts.fake()
+                )
+        );
+    }
+
+    @Test
+    public void testNoKindsTooManyValues() {
+        final List<Object> list = ExpressionEvaluationContextPrepareParametersList.with(
+                Lists.of(
+                        REQUIRED
+                ),
+                Lists.of(
+                        "Ten",
+                        "Twenty"
+                ),
+                ExpressionEvaluationContexts.fake()
+        );
+
+        this.checkEquals(
+                ExpressionEvaluationContextPrepareParametersListNonFlattened.class,
+                list.getClass()
+        );
+    }
+
     @Test
     public void testGetVariable() {
         final List<Object> list = ExpressionEvaluationContextPrepareParametersList.with(
@@ -58,7 +58,9 @@ public class ExpressionEvaluationContextsTest implements PublicStaticHelperTesti
 
     @Override
     public boolean canHavePublicTypes(final Method method) {
-        return method.getName().equals("referenceNotFound");
+        final String name = method.getName();
+        return name.equals("referenceCaching") ||
+                name.equals("referenceNotFound");
     }
 
     @Override
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.tree.expression;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class ExpressionInternerTest implements ClassTesting2<ExpressionInterner>,
+        ToStringTesting<ExpressionInterner> {
+
+    @Test
+    public void testWithZeroCapacityFails() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> ExpressionInterner.with(0)
+        );
+    }
+
+    @Test
+    public void testInternNullFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> ExpressionInterner.with(10).intern(null)
+        );
+    }
+
+    @Test
+    public void testInternSame() {
+        final ExpressionInterner interner = ExpressionInterner.with(10);
+        final Expression expression = this.expression();
+
+        assertSame(expression, interner.intern(expression));
+        assertSame(expression, interner.intern(expression));
+    }
+
+    @Test
+    public void testInternEqual() {
+        final ExpressionInterner interner = ExpressionInterner.with(10);
+        final Expression expression = this.expression();
+        final Expression expression2 = this.expression();
+        assertNotSame(expression, expression2);
+
+        assertSame(interner.intern(expression), interner.intern(expression2));
+    }
+
+    @Test
+    public void testInternSharesChildren() {
+        final ExpressionInterner interner = ExpressionInterner.with(10);
+
+        final AddExpression add = interner.intern(
+                Expression.add(
+                        Expression.value(1),
+                        Expression.value(2)
+                )
+        );
+        final MultiplyExpression multiply = interner.intern(
+                Expression.multiply(
+                        Expression.value(2),
+                        Expression.value(3)
+                )
+        );
+
+        assertSame(add.green.get(1), multiply.green.get(0));
+        this.checkEquals(4, interner.size(), "size");
+    }
+
+    @Test
+    public void testInternWithParent() {
+        final ExpressionInterner interner = ExpressionInterner.with(10);
+        final Expression child = this.expression()
+                .children()
+                .get(0);
+
+        final Expression interned = interner.intern(child);
+        this.checkEquals(true, interned.isRoot(), "root");
+        this.checkEquals(child.removeParent(), interned);
+    }
+
+    @Test
+    public void testInternedEquals() {
+        final ExpressionInterner interner = ExpressionInterner.with(10);
+        final Expression interned = interner.intern(this.expression());
+
+        this.checkEquals(interned, this.expression());
+        this.checkEquals(this.expression(), interned);
+        this.checkEquals(interned.hashCode(), this.expression().hashCode(), "hashCode");
+    }
+
+    @Test
+    public void testInternedDifferentNotEquals() {
+        final ExpressionInterner interner = ExpressionInterner.with(10);
+
+        this.checkNotEquals(
+                interner.intern(Expression.value(1)),
+                interner.intern(Expression.value(2))
+        );
+    }
+
+    @Test
+    public void testInternEvicted() {
+        final ExpressionInterner interner = ExpressionInterner.with(1);
+
+        final Expression value1 = interner.intern(Expression.value(1));
+        interner.intern(Expression.value(2));
+        this.checkEquals(1, interner.size(), "size");
+
+        final Expression value1b = Expression.value(1);
+        final Expression interned = interner.intern(value1b);
+        assertSame(value1b, interned);
+        this.checkEquals(value1, interned);
+    }
+
+    @Test
+    public void testClear() {
+        final ExpressionInterner interner = ExpressionInterner.with(10);
+        final Expression interned = interner.intern(this.expression());
+        interner.clear();
+
+        this.checkEquals(0, interner.size(), "size");
+
+        final Expression interned2 = interner.intern(this.expression());
+        assertNotSame(interned, interned2);
+        this.checkEquals(interned, interned2);
+    }
+
+    @Test
+    public void testInternSameByTwoInterners() {
+        final ExpressionInterner interner = ExpressionInterner.with(10);
+        final ExpressionInterner interner2 = ExpressionInterner.with(10);
+
+        final Expression expression = this.expression();
+        assertSame(expression, interner.intern(expression));
+        assertSame(expression, interner2.intern(expression));
+
+        final int size = interner2.size();
+        interner.clear();
+
+        assertSame(expression, interner2.intern(expression));
+        this.checkEquals(size, interner2.size(), "size");
+    }
+
+    @Test
+    public void testToString() {
+        final ExpressionInterner interner = ExpressionInterner.with(10);
+        interner.intern(Expression.value(1));
+
+        this.toStringAndCheck(interner, "1/10");
+    }
+
+    private Expression expression() {
+        return Expression.add(
+                Expression.value(1),
+                Expression.multiply(
+                        Expression.value(2),
+                        Expression.value(3)
+                )
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<ExpressionInterner> type() {
+        return ExpressionInterner.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
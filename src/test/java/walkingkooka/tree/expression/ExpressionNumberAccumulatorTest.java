@@ -0,0 +1,308 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class ExpressionNumberAccumulatorTest implements ClassTesting2<ExpressionNumberAccumulator>,
+        ToStringTesting<ExpressionNumberAccumulator> {
+
+    private final static ExpressionNumberContext CONTEXT = new FakeExpressionNumberContext() {
+        @Override
+        public MathContext mathContext() {
+            return MathContext.DECIMAL32;
+        }
+    };
+
+    @Test
+    public void testSumNullKindFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> ExpressionNumberAccumulator.sum(null, CONTEXT)
+        );
+    }
+
+    @Test
+    public void testSumNullContextFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> ExpressionNumberAccumulator.sum(ExpressionNumberKind.DOUBLE, null)
+        );
+    }
+
+    @Test
+    public void testAccumulateNullFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> ExpressionNumberAccumulator.sum(ExpressionNumberKind.DOUBLE, CONTEXT)
+                        .accumulate(null)
+        );
+    }
+
+    @Test
+    public void testEmptyDouble() {
+        this.emptyAndCheck(ExpressionNumberKind.DOUBLE);
+    }
+
+    @Test
+    public void testEmptyBigDecimal() {
+        this.emptyAndCheck(ExpressionNumberKind.BIG_DECIMAL);
+    }
+
+    private void emptyAndCheck(final ExpressionNumberKind kind) {
+        final ExpressionNumberAccumulator accumulator = ExpressionNumberAccumulator.sum(kind, CONTEXT);
+        this.checkEquals(0L, accumulator.count(), "count");
+        assertSame(kind.zero(), accumulator.value());
+    }
+
+    @Test
+    public void testProductEmptyDouble() {
+        this.productEmptyAndCheck(ExpressionNumberKind.DOUBLE);
+    }
+
+    @Test
+    public void testProductEmptyBigDecimal() {
+        this.productEmptyAndCheck(ExpressionNumberKind.BIG_DECIMAL);
+    }
+
+    private void productEmptyAndCheck(final ExpressionNumberKind kind) {
+        final ExpressionNumberAccumulator accumulator = ExpressionNumberAccumulator.product(kind, CONTEXT);
+        this.checkEquals(0L, accumulator.count(), "count");
+        assertSame(kind.one(), accumulator.value());
+    }
+
+    @Test
+    public void testSumDouble() {
+        this.accumulateAndCheck(
+                ExpressionNumberAccumulator.sum(ExpressionNumberKind.DOUBLE, CONTEXT),
+                ExpressionNumberKind.DOUBLE.create(1.5 + 2 + 3.25),
+                1.5, 2, 3.25
+        );
+    }
+
+    @Test
+    public void testSumBigDecimal() {
+        this.accumulateAndCheck(
+                ExpressionNumberAccumulator.sum(ExpressionNumberKind.BIG_DECIMAL, CONTEXT),
+                ExpressionNumberKind.BIG_DECIMAL.create(new BigDecimal("6.75")),
+                1.5, 2, 3.25
+        );
+    }
+
+    @Test
+    public void testProductDouble() {
+        this.accumulateAndCheck(
+                ExpressionNumberAccumulator.product(ExpressionNumberKind.DOUBLE, CONTEXT),
+                ExpressionNumberKind.DOUBLE.create(-12),
+                2, -3, 2
+        );
+    }
+
+    @Test
+    public void testProductBigDecimal() {
+        this.accumulateAndCheck(
+                ExpressionNumberAccumulator.product(ExpressionNumberKind.BIG_DECIMAL, CONTEXT),
+                ExpressionNumberKind.BIG_DECIMAL.create(-12),
+                2, -3, 2
+        );
+    }
+
+    @Test
+    public void testMinDouble() {
+        this.accumulateAndCheck(
+                ExpressionNumberAccumulator.min(ExpressionNumberKind.DOUBLE, CONTEXT),
+                ExpressionNumberKind.DOUBLE.create(-3),
+                2, -3, 5
+        );
+    }
+
+    @Test
+    public void testMinBigDecimal() {
+        this.accumulateAndCheck(
+                ExpressionNumberAccumulator.min(ExpressionNumberKind.BIG_DECIMAL, CONTEXT),
+                ExpressionNumberKind.BIG_DECIMAL.create(-3),
+                2, -3, 5
+        );
+    }
+
+    @Test
+    public void testMaxDouble() {
+        this.accumulateAndCheck(
+                ExpressionNumberAccumulator.max(ExpressionNumberKind.DOUBLE, CONTEXT),
+                ExpressionNumberKind.DOUBLE.create(5),
+                2, -3, 5
+        );
+    }
+
+    @Test
+    public void testMaxBigDecimal() {
+        this.accumulateAndCheck(
+                ExpressionNumberAccumulator.max(ExpressionNumberKind.BIG_DECIMAL, CONTEXT),
+                ExpressionNumberKind.BIG_DECIMAL.create(5),
+                2, -3, 5
+        );
+    }
+
+    @Test
+    public void testMaxSingleNegative() {
+        this.accumulateAndCheck(
+                ExpressionNumberAccumulator.max(ExpressionNumberKind.DOUBLE, CONTEXT),
+                ExpressionNumberKind.DOUBLE.create(-3),
+                -3
+        );
+    }
+
+    @Test
+    public void testSumDoubleMatchesAdd() {
+        final ExpressionNumberAccumulator accumulator = ExpressionNumberAccumulator.sum(ExpressionNumberKind.DOUBLE, CONTEXT);
+        ExpressionNumber expected = ExpressionNumberKind.DOUBLE.zero();
+
+        for (int i = 0; i < 1000; i++) {
+            final ExpressionNumber value = ExpressionNumberKind.DOUBLE.create(i * 0.1);
+            accumulator.accumulate(value);
+            expected = expected.add(value, CONTEXT);
+        }
+
+        this.checkEquals(expected, accumulator.value());
+    }
+
+    @Test
+    public void testSumBigDecimalDifferentKind() {
+        final ExpressionNumberAccumulator accumulator = ExpressionNumberAccumulator.sum(ExpressionNumberKind.BIG_DECIMAL, CONTEXT)
+                .accumulate(ExpressionNumberKind.DOUBLE.create(1))
+                .accumulate(ExpressionNumberKind.BIG_DECIMAL.create(2));
+
+        this.checkEquals(ExpressionNumberKind.BIG_DECIMAL.create(3), accumulator.value());
+        this.checkEquals(ExpressionNumberKind.BIG_DECIMAL, accumulator.value().kind());
+    }
+
+    @Test
+    public void testSumCompensatedDouble() {
+        this.accumulateAndCheck(
+                ExpressionNumberAccumulator.sumCompensated(ExpressionNumberKind.DOUBLE, CONTEXT),
+                ExpressionNumberKind.DOUBLE.create(2),
+                1, 1.0E100, 1, -1.0E100
+        );
+    }
+
+    @Test
+    public void testSumCompensatedBigDecimal() {
+        this.accumulateAndCheck(
+                ExpressionNumberAccumulator.sumCompensated(ExpressionNumberKind.BIG_DECIMAL, CONTEXT),
+                ExpressionNumberKind.BIG_DECIMAL.create(new BigDecimal("6.75")),
+                1.5, 2, 3.25
+        );
+    }
+
+    @Test
+    public void testAccumulateAllNullFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> ExpressionNumberAccumulator.sum(ExpressionNumberKind.DOUBLE, CONTEXT)
+                        .accumulateAll(null)
+        );
+    }
+
+    @Test
+    public void testAccumulateAll() {
+        final ExpressionNumberKind kind = ExpressionNumberKind.DOUBLE;
+        final ExpressionNumberAccumulator accumulator = ExpressionNumberAccumulator.sum(kind, CONTEXT)
+                .accumulate(1);
+
+        assertSame(
+                accumulator,
+                accumulator.accumulateAll(
+                        Lists.of(
+                                kind.create(2),
+                                kind.create(3)
+                        )
+                )
+        );
+        this.checkEquals(3L, accumulator.count(), "count");
+        this.checkEquals(kind.create(6), accumulator.value());
+    }
+
+    @Test
+    public void testReset() {
+        final ExpressionNumberAccumulator accumulator = ExpressionNumberAccumulator.sum(ExpressionNumberKind.DOUBLE, CONTEXT)
+                .accumulate(1)
+                .accumulate(2);
+        assertSame(accumulator, accumulator.reset());
+        this.checkEquals(0L, accumulator.count(), "count");
+
+        this.accumulateAndCheck(
+                accumulator,
+                ExpressionNumberKind.DOUBLE.create(10),
+                10
+        );
+    }
+
+    private void accumulateAndCheck(final ExpressionNumberAccumulator accumulator,
+                                    final ExpressionNumber expected,
+                                    final double... values) {
+        for (final double value : values) {
+            accumulator.accumulate(
+                    accumulator.kind()
+                            .create(value)
+            );
+        }
+        this.checkEquals((long) values.length, accumulator.count(), "count");
+        this.checkEquals(expected, accumulator.value(), accumulator::toString);
+
+        // again with primitive doubles
+        accumulator.reset();
+        for (final double value : values) {
+            accumulator.accumulate(value);
+        }
+        this.checkEquals(expected, accumulator.value(), accumulator::toString);
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+                ExpressionNumberAccumulator.sum(ExpressionNumberKind.DOUBLE, CONTEXT)
+                        .accumulate(1)
+                        .accumulate(2),
+                "SUM 3"
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<ExpressionNumberAccumulator> type() {
+        return ExpressionNumberAccumulator.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
@@ -38,6 +38,83 @@ public final class ExpressionNumberDoubleTest extends ExpressionNumberTestCase<E
         this.checkEquals(value, different.doubleValue());
     }
 
+    // cache...........................................................................................................
+
+    @Test
+    public void testWithDoubleCached() {
+        assertSame(
+                ExpressionNumberDouble.withDouble(123),
+                ExpressionNumberDouble.withDouble(123)
+        );
+    }
+
+    @Test
+    public void testWithDoubleCachedMin() {
+        assertSame(
+                ExpressionNumberDouble.withDouble(ExpressionNumberDouble.CACHE_MIN),
+                ExpressionNumberDouble.withDouble(ExpressionNumberDouble.CACHE_MIN)
+        );
+    }
+
+    @Test
+    public void testWithDoubleCachedMax() {
+        assertSame(
+                ExpressionNumberDouble.withDouble(ExpressionNumberDouble.CACHE_MAX),
+                ExpressionNumberDouble.withDouble(ExpressionNumberDouble.CACHE_MAX)
+        );
+    }
+
+    @Test
+    public void testWithDoubleOutsideCache() {
+        final double value = ExpressionNumberDouble.CACHE_MAX + 1;
+        assertNotSame(
+                ExpressionNumberDouble.withDouble(value),
+                ExpressionNumberDouble.withDouble(value)
+        );
+    }
+
+    @Test
+    public void testWithDoubleFractionNotCached() {
+        assertNotSame(
+                ExpressionNumberDouble.withDouble(1.5),
+                ExpressionNumberDouble.withDouble(1.5)
+        );
+    }
+
+    @Test
+    public void testWithDoubleNegativeZeroNotCached() {
+        final ExpressionNumberDouble negativeZero = ExpressionNumberDouble.withDouble(-0.0);
+        assertNotSame(
+                ExpressionNumberDouble.withDouble(0),
+                negativeZero
+        );
+        this.checkEquals(
+                Double.doubleToRawLongBits(-0.0),
+                Double.doubleToRawLongBits(negativeZero.doubleValue())
+        );
+    }
+
+    @Test
+    public void testKindZeroAndOneCached() {
+        assertSame(
+                ExpressionNumberKind.DOUBLE.zero(),
+                ExpressionNumberKind.DOUBLE.create(0)
+        );
+        assertSame(
+                ExpressionNumberKind.DOUBLE.one(),
+                ExpressionNumberKind.DOUBLE.create(1)
+        );
+    }
+
+    @Test
+    public void testAddCached() {
+        assertSame(
+                ExpressionNumberKind.DOUBLE.create(3),
+                ExpressionNumberKind.DOUBLE.create(1)
+                        .add(ExpressionNumberKind.DOUBLE.create(2), CONTEXT)
+        );
+    }
+
     // exp...............................................................................................................
 
     @Test
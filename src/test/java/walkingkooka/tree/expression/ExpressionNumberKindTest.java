@@ -19,6 +19,7 @@ package walkingkooka.tree.expression;
 
 import org.junit.jupiter.api.Test;
 import walkingkooka.InvalidCharacterException;
+import walkingkooka.collect.list.Lists;
 import walkingkooka.reflect.ClassTesting;
 import walkingkooka.reflect.JavaVisibility;
 import walkingkooka.text.CharSequences;
@@ -26,6 +27,8 @@ import walkingkooka.text.CharSequences;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.MathContext;
+import java.util.LinkedList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -806,6 +809,215 @@ public final class ExpressionNumberKindTest implements ClassTesting<ExpressionNu
         );
     }
 
+    // bulk............................................................................................................
+
+    @Test
+    public void testSumNullValuesFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> ExpressionNumberKind.DOUBLE.sum(null, this.createContext(ExpressionNumberKind.DOUBLE))
+        );
+    }
+
+    @Test
+    public void testSumEmpty() {
+        for (final ExpressionNumberKind kind : ExpressionNumberKind.values()) {
+            assertSame(
+                    kind.zero(),
+                    kind.sum(Lists.empty(), this.createContext(kind)),
+                    kind::toString
+            );
+        }
+    }
+
+    @Test
+    public void testSum() {
+        this.bulkAndCheck(
+                ExpressionNumberKind::sum,
+                10,
+                1, 2, 3, 4
+        );
+    }
+
+    @Test
+    public void testSumNotRandomAccess() {
+        for (final ExpressionNumberKind kind : ExpressionNumberKind.values()) {
+            final List<ExpressionNumber> values = new LinkedList<>();
+            values.add(kind.create(1));
+            values.add(kind.create(2));
+
+            this.checkEquals(
+                    kind.create(3),
+                    kind.sum(values, this.createContext(kind)),
+                    kind::toString
+            );
+        }
+    }
+
+    @Test
+    public void testSumMixedKinds() {
+        this.checkEquals(
+                ExpressionNumberKind.BIG_DECIMAL.create(3),
+                ExpressionNumberKind.BIG_DECIMAL.sum(
+                        Lists.of(
+                                ExpressionNumberKind.DOUBLE.create(1),
+                                ExpressionNumberKind.BIG_DECIMAL.create(2)
+                        ),
+                        this.createContext(ExpressionNumberKind.BIG_DECIMAL)
+                )
+        );
+    }
+
+    @Test
+    public void testSumCompensated() {
+        this.bulkAndCheck(
+                ExpressionNumberKind::sumCompensated,
+                10,
+                1, 2, 3, 4
+        );
+    }
+
+    @Test
+    public void testSumCompensatedMoreAccurate() {
+        final ExpressionNumberKind kind = ExpressionNumberKind.DOUBLE;
+        final List<ExpressionNumber> values = Lists.of(
+                kind.create(1),
+                kind.create(1.0E100),
+                kind.create(1),
+                kind.create(-1.0E100)
+        );
+        final ExpressionNumberContext context = this.createContext(kind);
+
+        this.checkEquals(
+                kind.create(0),
+                kind.sum(values, context),
+                "sum"
+        );
+        this.checkEquals(
+                kind.create(2),
+                kind.sumCompensated(values, context),
+                "sumCompensated"
+        );
+    }
+
+    @Test
+    public void testProduct() {
+        this.bulkAndCheck(
+                ExpressionNumberKind::product,
+                -24,
+                1, -2, 3, 4
+        );
+    }
+
+    @Test
+    public void testProductEmpty() {
+        for (final ExpressionNumberKind kind : ExpressionNumberKind.values()) {
+            final ExpressionNumberContext context = this.createContext(kind);
+            final ExpressionNumber value = kind.create(5);
+
+            this.checkEquals(
+                    value,
+                    kind.product(Lists.empty(), context)
+                            .multiply(value, context),
+                    kind::toString
+            );
+        }
+    }
+
+    @Test
+    public void testMin() {
+        this.bulkAndCheck(
+                ExpressionNumberKind::min,
+                -2,
+                1, -2, 3, 4
+        );
+    }
+
+    @Test
+    public void testMax() {
+        this.bulkAndCheck(
+                ExpressionNumberKind::max,
+                4,
+                1, -2, 3, 4
+        );
+    }
+
+    @Test
+    public void testAverage() {
+        this.bulkAndCheck(
+                ExpressionNumberKind::average,
+                2.5,
+                1, 2, 3, 4
+        );
+    }
+
+    @Test
+    public void testAverageEmptyFails() {
+        for (final ExpressionNumberKind kind : ExpressionNumberKind.values()) {
+            assertThrows(
+                    ExpressionEvaluationException.class,
+                    () -> kind.average(Lists.empty(), this.createContext(kind))
+            );
+        }
+    }
+
+    interface BulkOperation {
+        ExpressionNumber apply(final ExpressionNumberKind kind,
+                               final List<ExpressionNumber> values,
+                               final ExpressionNumberContext context);
+    }
+
+    private void bulkAndCheck(final BulkOperation operation,
+                              final double expected,
+                              final double... values) {
+        for (final ExpressionNumberKind kind : ExpressionNumberKind.values()) {
+            final List<ExpressionNumber> numbers = Lists.array();
+            for (final double value : values) {
+                numbers.add(kind.create(value));
+            }
+
+            final ExpressionNumber result = operation.apply(kind, numbers, this.createContext(kind));
+            this.checkEquals(
+                    kind.create(expected),
+                    result,
+                    kind::toString
+            );
+            assertSame(
+                    kind,
+                    result.kind(),
+                    kind::toString
+            );
+        }
+    }
+
+    @Test
+    public void testSumProduct() {
+        for (final ExpressionNumberKind kind : ExpressionNumberKind.values()) {
+            this.checkEquals(
+                    kind.create(1 * 4 + 2 * 5 + 3 * 6),
+                    kind.sumProduct(
+                            Lists.of(kind.create(1), kind.create(2), kind.create(3)),
+                            Lists.of(kind.create(4), kind.create(5), kind.create(6)),
+                            this.createContext(kind)
+                    ),
+                    kind::toString
+            );
+        }
+    }
+
+    @Test
+    public void testSumProductDifferentCountFails() {
+        final ExpressionNumberKind kind = ExpressionNumberKind.DOUBLE;
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> kind.sumProduct(
+                        Lists.of(kind.create(1)),
+                        Lists.of(kind.create(1), kind.create(2)),
+                        this.createContext(kind)
+                )
+        );
+    }
+
     // zero............................................................................................................
 
     @Test
@@ -0,0 +1,390 @@
+/*
+ * Copyright 2020 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public final class ExpressionNumberScaledLongTest implements ClassTesting2<ExpressionNumberScaledLong> {
+
+    private final static String[] VALUES = new String[]{
+            "0",
+            "0.00",
+            "1",
+            "-1",
+            "1.5",
+            "2.00",
+            "-3.25",
+            "0.001",
+            "10",
+            "123456789",
+            "12345678.9",
+            "1E+3",
+            "999999999999999999",
+            "-999999999999999999",
+            "9223372036854775807",
+            "-9223372036854775808",
+            "0.000000000000000001"
+    };
+
+    private final static MathContext[] MATH_CONTEXTS = new MathContext[]{
+            MathContext.UNLIMITED,
+            MathContext.DECIMAL32,
+            MathContext.DECIMAL64,
+            new MathContext(3, RoundingMode.HALF_UP)
+    };
+
+    @Test
+    public void testWithBigDecimalFitsLong() {
+        this.checkEquals(
+                ExpressionNumberScaledLong.class,
+                ExpressionNumberScaledLong.withBigDecimal(new BigDecimal("-9223372036854775808")).getClass()
+        );
+    }
+
+    @Test
+    public void testWithBigDecimalOverflowsLong() {
+        this.checkEquals(
+                ExpressionNumberBigDecimal.class,
+                ExpressionNumberScaledLong.withBigDecimal(new BigDecimal("9223372036854775808")).getClass()
+        );
+    }
+
+    @Test
+    public void testKindCreate() {
+        final ExpressionNumber number = ExpressionNumberKind.BIG_DECIMAL.create(1.25);
+        this.checkEquals(ExpressionNumberScaledLong.class, number.getClass());
+        this.checkEquals(true, number.isBigDecimal(), "isBigDecimal");
+        this.checkEquals(new BigDecimal("1.25"), number.bigDecimal());
+    }
+
+    @Test
+    public void testKindCreateLong() {
+        this.checkEquals(
+                new BigDecimal(Long.MAX_VALUE),
+                ExpressionNumberKind.BIG_DECIMAL.create(Long.MAX_VALUE).bigDecimal()
+        );
+    }
+
+    @Test
+    public void testKindParse() {
+        this.checkEquals(
+                new BigDecimal("12.50"),
+                ExpressionNumberKind.BIG_DECIMAL.parse("12.50").bigDecimal()
+        );
+    }
+
+    @Test
+    public void testSetKindBigDecimal() {
+        final ExpressionNumber number = ExpressionNumberScaledLong.with(15, 1);
+        assertSame(number, number.setKind(ExpressionNumberKind.BIG_DECIMAL));
+    }
+
+    @Test
+    public void testSetKindDouble() {
+        this.checkEquals(
+                ExpressionNumberKind.DOUBLE.create(1.5),
+                ExpressionNumberScaledLong.with(15, 1)
+                        .setKind(ExpressionNumberKind.DOUBLE)
+        );
+    }
+
+    @Test
+    public void testEqualsExpressionNumberBigDecimal() {
+        final ExpressionNumber scaledLong = ExpressionNumberScaledLong.with(150, 2);
+        final ExpressionNumber bigDecimal = ExpressionNumberBigDecimal.withBigDecimal(new BigDecimal("1.5"));
+
+        this.checkEquals(scaledLong, bigDecimal);
+        this.checkEquals(bigDecimal, scaledLong);
+        this.checkEquals(bigDecimal.hashCode(), scaledLong.hashCode(), "hashCode");
+    }
+
+    @Test
+    public void testNotEqualsExpressionNumberDouble() {
+        this.checkNotEquals(
+                ExpressionNumberScaledLong.with(1, 0),
+                ExpressionNumberDouble.withDouble(1)
+        );
+    }
+
+    @Test
+    public void testToString() {
+        this.checkEquals(
+                "1.5",
+                ExpressionNumberScaledLong.with(150, 2).toString()
+        );
+    }
+
+    @Test
+    public void testDigits() {
+        this.checkEquals(1, ExpressionNumberScaledLong.digits(0), "0");
+        this.checkEquals(1, ExpressionNumberScaledLong.digits(-9), "-9");
+        this.checkEquals(2, ExpressionNumberScaledLong.digits(10), "10");
+        this.checkEquals(18, ExpressionNumberScaledLong.digits(999999999999999999L), "999999999999999999");
+        this.checkEquals(19, ExpressionNumberScaledLong.digits(Long.MAX_VALUE), "Long.MAX_VALUE");
+        this.checkEquals(19, ExpressionNumberScaledLong.digits(Long.MIN_VALUE), "Long.MIN_VALUE");
+    }
+
+    // same as ExpressionNumberBigDecimal...............................................................................
+
+    @Test
+    public void testAdd() {
+        this.binaryAndCheck(
+                "add",
+                (l, r, c) -> l.add(r, c)
+        );
+    }
+
+    @Test
+    public void testSubtract() {
+        this.binaryAndCheck(
+                "subtract",
+                (l, r, c) -> l.subtract(r, c)
+        );
+    }
+
+    @Test
+    public void testMultiply() {
+        this.binaryAndCheck(
+                "multiply",
+                (l, r, c) -> l.multiply(r, c)
+        );
+    }
+
+    @Test
+    public void testMax() {
+        this.binaryAndCheck(
+                "max",
+                (l, r, c) -> l.max(r)
+        );
+    }
+
+    @Test
+    public void testMin() {
+        this.binaryAndCheck(
+                "min",
+                (l, r, c) -> l.min(r)
+        );
+    }
+
+    @Test
+    public void testAnd() {
+        this.binaryAndCheck(
+                "and",
+                (l, r, c) -> l.and(r)
+        );
+    }
+
+    @Test
+    public void testAndNot() {
+        this.binaryAndCheck(
+                "andNot",
+                (l, r, c) -> l.andNot(r)
+        );
+    }
+
+    @Test
+    public void testOr() {
+        this.binaryAndCheck(
+                "or",
+                (l, r, c) -> l.or(r)
+        );
+    }
+
+    @Test
+    public void testXor() {
+        this.binaryAndCheck(
+                "xor",
+                (l, r, c) -> l.xor(r)
+        );
+    }
+
+    @Test
+    public void testCompareTo() {
+        for (final String left : VALUES) {
+            for (final String right : VALUES) {
+                this.checkEquals(
+                        Integer.signum(new BigDecimal(left).compareTo(new BigDecimal(right))),
+                        Integer.signum(scaledLong(left).compareTo(scaledLong(right))),
+                        () -> left + " compareTo " + right
+                );
+            }
+        }
+    }
+
+    @Test
+    public void testAbs() {
+        this.unaryAndCheck(
+                "abs",
+                (n, c) -> n.abs(c)
+        );
+    }
+
+    @Test
+    public void testCeil() {
+        this.unaryAndCheck(
+                "ceil",
+                (n, c) -> n.ceil(c)
+        );
+    }
+
+    @Test
+    public void testFloor() {
+        this.unaryAndCheck(
+                "floor",
+                (n, c) -> n.floor(c)
+        );
+    }
+
+    @Test
+    public void testNegate() {
+        this.unaryAndCheck(
+                "negate",
+                (n, c) -> n.negate(c)
+        );
+    }
+
+    @Test
+    public void testNot() {
+        this.unaryAndCheck(
+                "not",
+                (n, c) -> n.not()
+        );
+    }
+
+    @Test
+    public void testRound() {
+        this.unaryAndCheck(
+                "round",
+                (n, c) -> n.round(c)
+        );
+    }
+
+    interface BinaryOperation {
+        ExpressionNumber apply(final ExpressionNumber left,
+                               final ExpressionNumber right,
+                               final ExpressionNumberContext context);
+    }
+
+    private void binaryAndCheck(final String label,
+                                final BinaryOperation operation) {
+        for (final MathContext mathContext : MATH_CONTEXTS) {
+            final ExpressionNumberContext context = context(mathContext);
+
+            for (final String left : VALUES) {
+                for (final String right : VALUES) {
+                    this.resultAndCheck(
+                            left,
+                            (l) -> operation.apply(
+                                    l,
+                                    l instanceof ExpressionNumberScaledLong ?
+                                            scaledLong(right) :
+                                            bigDecimal(right),
+                                    context
+                            ),
+                            () -> left + " " + label + " " + right + " " + mathContext
+                    );
+                }
+            }
+        }
+    }
+
+    private void unaryAndCheck(final String label,
+                               final BiFunction<ExpressionNumber, ExpressionNumberContext, ExpressionNumber> operation) {
+        for (final MathContext mathContext : MATH_CONTEXTS) {
+            final ExpressionNumberContext context = context(mathContext);
+
+            for (final String value : VALUES) {
+                this.resultAndCheck(
+                        value,
+                        (n) -> operation.apply(n, context),
+                        () -> label + " " + value + " " + mathContext
+                );
+            }
+        }
+    }
+
+    /**
+     * Performs the operation with a {@link ExpressionNumberBigDecimal} and {@link ExpressionNumberScaledLong}, checking
+     * both results are the same {@link BigDecimal} including the scale, and that when one returns itself so does the other.
+     */
+    private void resultAndCheck(final String value,
+                                final Function<ExpressionNumber, ExpressionNumber> operation,
+                                final Supplier<String> message) {
+        final ExpressionNumber bigDecimal = bigDecimal(value);
+        final ExpressionNumber scaledLong = scaledLong(value);
+
+        final ExpressionNumber expected = operation.apply(bigDecimal);
+        final ExpressionNumber actual = operation.apply(scaledLong);
+
+        this.checkEquals(
+                expected.bigDecimal(),
+                actual.bigDecimal(),
+                message
+        );
+        this.checkEquals(
+                expected == bigDecimal,
+                actual == scaledLong,
+                () -> message.get() + " same"
+        );
+        this.checkEquals(
+                true,
+                actual.isBigDecimal(),
+                () -> message.get() + " isBigDecimal"
+        );
+    }
+
+    private static ExpressionNumber bigDecimal(final String value) {
+        return ExpressionNumberBigDecimal.withBigDecimal(new BigDecimal(value));
+    }
+
+    private static ExpressionNumber scaledLong(final String value) {
+        return ExpressionNumberScaledLong.withBigDecimal(new BigDecimal(value));
+    }
+
+    private static ExpressionNumberContext context(final MathContext mathContext) {
+        return new FakeExpressionNumberContext() {
+            @Override
+            public MathContext mathContext() {
+                return mathContext;
+            }
+        };
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<ExpressionNumberScaledLong> type() {
+        return ExpressionNumberScaledLong.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,665 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.tree.expression;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.convert.ConverterContexts;
+import walkingkooka.convert.Converters;
+import walkingkooka.datetime.DateTimeContexts;
+import walkingkooka.math.DecimalNumberContexts;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.text.CaseSensitivity;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterCardinality;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterKind;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterName;
+import walkingkooka.tree.expression.function.FakeExpressionFunction;
+import walkingkooka.tree.expression.function.UnknownExpressionFunctionException;
+
+import java.math.MathContext;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class ExpressionOptimizerTest implements ClassTesting2<ExpressionOptimizer>,
+        ToStringTesting<ExpressionOptimizer> {
+
+    private final static ExpressionNumberKind KIND = ExpressionNumberKind.DEFAULT;
+
+    private final static ExpressionReference REFERENCE = new FakeExpressionReference() {
+        @Override
+        public String toString() {
+            return "A1";
+        }
+    };
+
+    private final static FunctionExpressionName PURE = FunctionExpressionName.with("sum");
+
+    private final static FunctionExpressionName IMPURE = FunctionExpressionName.with("random");
+
+    @Test
+    public void testWithNullContextFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> ExpressionOptimizer.with(null)
+        );
+    }
+
+    @Test
+    public void testOptimizeNullFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> this.createOptimizer().optimize(null)
+        );
+    }
+
+    @Test
+    public void testValue() {
+        this.optimizeAndCheckSame(
+                this.number(1)
+        );
+    }
+
+    @Test
+    public void testReference() {
+        this.optimizeAndCheckSame(
+                this.reference()
+        );
+    }
+
+    @Test
+    public void testAddValues() {
+        this.optimizeAndCheck(
+                Expression.add(
+                        this.number(1),
+                        Expression.multiply(
+                                this.number(2),
+                                this.number(3)
+                        )
+                ),
+                this.number(7)
+        );
+    }
+
+    @Test
+    public void testAddReferenceAndValues() {
+        this.optimizeAndCheck(
+                Expression.add(
+                        this.reference(),
+                        Expression.multiply(
+                                this.number(2),
+                                this.number(3)
+                        )
+                ),
+                Expression.add(
+                        this.reference(),
+                        this.number(6)
+                )
+        );
+    }
+
+    @Test
+    public void testAddReference() {
+        this.optimizeAndCheckSame(
+                Expression.add(
+                        this.reference(),
+                        this.number(1)
+                )
+        );
+    }
+
+    @Test
+    public void testDivideByZeroUnchanged() {
+        this.optimizeAndCheckSame(
+                Expression.divide(
+                        this.number(1),
+                        this.number(0)
+                )
+        );
+    }
+
+    @Test
+    public void testLessThanValues() {
+        this.optimizeAndCheck(
+                Expression.lessThan(
+                        this.number(1),
+                        this.number(2)
+                ),
+                Expression.value(true)
+        );
+    }
+
+    @Test
+    public void testAndFalseReference() {
+        this.optimizeAndCheckSame(
+                Expression.and(
+                        Expression.value(false),
+                        this.reference()
+                )
+        );
+    }
+
+    @Test
+    public void testAndFalsePureNotBoolean() {
+        this.optimizeAndCheckSame(
+                Expression.and(
+                        Expression.value(false),
+                        Expression.divide(
+                                this.number(1),
+                                this.number(0)
+                        )
+                )
+        );
+    }
+
+    @Test
+    public void testAndFalseComparisonReference() {
+        this.optimizeAndCheckSame(
+                Expression.and(
+                        Expression.value(false),
+                        this.referenceLessThan()
+                )
+        );
+    }
+
+    @Test
+    public void testAndComparisonFalseReference() {
+        this.optimizeAndCheckSame(
+                Expression.and(
+                        this.referenceLessThan(),
+                        Expression.value(false)
+                )
+        );
+    }
+
+    @Test
+    public void testAndTrueComparison() {
+        this.optimizeAndCheck(
+                Expression.and(
+                        Expression.value(true),
+                        this.referenceLessThan()
+                ),
+                this.referenceLessThan()
+        );
+    }
+
+    @Test
+    public void testAndComparisonTrue() {
+        this.optimizeAndCheck(
+                Expression.and(
+                        this.referenceLessThan(),
+                        Expression.value(true)
+                ),
+                this.referenceLessThan()
+        );
+    }
+
+    @Test
+    public void testAndTrueReference() {
+        this.optimizeAndCheckSame(
+                Expression.and(
+                        Expression.value(true),
+                        this.reference()
+                )
+        );
+    }
+
+    @Test
+    public void testOrTrueComparison() {
+        this.optimizeAndCheckSame(
+                Expression.or(
+                        Expression.value(true),
+                        this.referenceLessThan()
+                )
+        );
+    }
+
+    @Test
+    public void testOrFalseComparison() {
+        this.optimizeAndCheck(
+                Expression.or(
+                        Expression.value(false),
+                        this.referenceLessThan()
+                ),
+                this.referenceLessThan()
+        );
+    }
+
+    @Test
+    public void testOrFalseReference() {
+        this.optimizeAndCheckSame(
+                Expression.or(
+                        Expression.value(false),
+                        this.reference()
+                )
+        );
+    }
+
+    @Test
+    public void testOrValues() {
+        this.optimizeAndCheck(
+                Expression.or(
+                        Expression.value(false),
+                        Expression.value(true)
+                ),
+                Expression.value(true)
+        );
+    }
+
+    @Test
+    public void testNegativeValue() {
+        this.optimizeAndCheck(
+                Expression.negative(
+                        this.number(1)
+                ),
+                this.number(-1)
+        );
+    }
+
+    @Test
+    public void testNegativeNegativeReference() {
+        this.optimizeAndCheckSame(
+                Expression.negative(
+                        Expression.negative(
+                                this.reference()
+                        )
+                )
+        );
+    }
+
+    @Test
+    public void testNegativeNegativeAddReference() {
+        this.optimizeAndCheckSame(
+                Expression.negative(
+                        Expression.negative(
+                                Expression.add(
+                                        this.reference(),
+                                        this.number(1)
+                                )
+                        )
+                )
+        );
+    }
+
+    @Test
+    public void testNegativeNegativeAddNumber() {
+        final Expression add = Expression.add(
+                Expression.negative(
+                        this.reference()
+                ),
+                this.number(1)
+        );
+
+        this.optimizeAndCheck(
+                Expression.negative(
+                        Expression.negative(
+                                add
+                        )
+                ),
+                add
+        );
+    }
+
+    @Test
+    public void testNotNotReference() {
+        this.optimizeAndCheckSame(
+                Expression.not(
+                        Expression.not(
+                                this.reference()
+                        )
+                )
+        );
+    }
+
+    @Test
+    public void testNotNotNotReference() {
+        this.optimizeAndCheck(
+                Expression.not(
+                        Expression.not(
+                                Expression.not(
+                                        this.reference()
+                                )
+                        )
+                ),
+                Expression.not(
+                        this.reference()
+                )
+        );
+    }
+
+    @Test
+    public void testCallPureValues() {
+        this.optimizeAndCheck(
+                this.call(
+                        PURE,
+                        this.number(1),
+                        Expression.add(
+                                this.number(2),
+                                this.number(3)
+                        )
+                ),
+                this.number(6)
+        );
+    }
+
+    @Test
+    public void testCallPureReference() {
+        this.optimizeAndCheck(
+                this.call(
+                        PURE,
+                        this.reference(),
+                        Expression.add(
+                                this.number(2),
+                                this.number(3)
+                        )
+                ),
+                this.call(
+                        PURE,
+                        this.reference(),
+                        this.number(5)
+                )
+        );
+    }
+
+    @Test
+    public void testCallPureWithoutParameters() {
+        this.optimizeAndCheck(
+                this.call(
+                        PURE
+                ),
+                this.number(0)
+        );
+    }
+
+    @Test
+    public void testCallImpureWithoutParameters() {
+        this.optimizeAndCheckSame(
+                this.call(
+                        IMPURE
+                )
+        );
+    }
+
+    @Test
+    public void testCallImpureParameters() {
+        this.optimizeAndCheck(
+                this.call(
+                        IMPURE,
+                        this.number(1),
+                        Expression.add(
+                                this.number(2),
+                                this.number(3)
+                        )
+                ),
+                this.call(
+                        IMPURE,
+                        this.number(1),
+                        this.number(5)
+                )
+        );
+    }
+
+    @Test
+    public void testCallImpure() {
+        this.optimizeAndCheckSame(
+                this.call(
+                        IMPURE,
+                        this.number(1)
+                )
+        );
+    }
+
+    @Test
+    public void testCallUnknownFunction() {
+        this.optimizeAndCheckSame(
+                this.call(
+                        FunctionExpressionName.with("unknown"),
+                        this.number(1)
+                )
+        );
+    }
+
+    @Test
+    public void testList() {
+        this.optimizeAndCheck(
+                Expression.list(
+                        Lists.of(
+                                this.reference(),
+                                Expression.add(
+                                        this.number(2),
+                                        this.number(3)
+                                )
+                        )
+                ),
+                Expression.list(
+                        Lists.of(
+                                this.reference(),
+                                this.number(5)
+                        )
+                )
+        );
+    }
+
+    @Test
+    public void testOptimizedEvaluatesSame() {
+        final Expression expression = Expression.add(
+                this.reference(),
+                this.call(
+                        PURE,
+                        this.number(1),
+                        Expression.multiply(
+                                this.number(2),
+                                Expression.negative(
+                                        this.number(3)
+                                )
+                        )
+                )
+        );
+        final ExpressionEvaluationContext context = this.context();
+
+        this.checkEquals(
+                expression.toValue(context),
+                this.createOptimizer()
+                        .optimize(expression)
+                        .toValue(context)
+        );
+    }
+
+    @Test
+    public void testOptimizedCallEvaluatesSame() {
+        this.optimizeAndEvaluateCheck(
+                this.call(
+                        IMPURE,
+                        this.reference(),
+                        Expression.add(
+                                this.number(2),
+                                this.number(3)
+                        ),
+                        this.call(
+                                IMPURE
+                        )
+                )
+        );
+    }
+
+    @Test
+    public void testOptimizedLogicalEvaluatesSame() {
+        this.optimizeAndEvaluateCheck(
+                Expression.or(
+                        Expression.value(false),
+                        Expression.and(
+                                this.referenceLessThan(),
+                                Expression.value(true)
+                        )
+                )
+        );
+    }
+
+    private void optimizeAndEvaluateCheck(final Expression expression) {
+        final ExpressionEvaluationContext context = this.context();
+        final Expression optimized = this.createOptimizer()
+                .optimize(expression);
+
+        this.checkEquals(
+                expression.toValue(context),
+                optimized.toValue(context),
+                () -> "optimize " + expression + " to " + optimized
+        );
+    }
+
+    private void optimizeAndCheckSame(final Expression expression) {
+        assertSame(
+                expression,
+                this.createOptimizer()
+                        .optimize(expression),
+                () -> "optimize " + expression
+        );
+    }
+
+    private void optimizeAndCheck(final Expression expression,
+                                  final Expression expected) {
+        this.checkEquals(
+                expected,
+                this.createOptimizer()
+                        .optimize(expression),
+                () -> "optimize " + expression
+        );
+    }
+
+    private ValueExpression<ExpressionNumber> number(final int value) {
+        return Expression.value(KIND.create(value));
+    }
+
+    private Expression reference() {
+        return Expression.reference(REFERENCE);
+    }
+
+    private Expression referenceLessThan() {
+        return Expression.lessThan(
+                this.reference(),
+                this.number(1)
+        );
+    }
+
+    private Expression call(final FunctionExpressionName name,
+                            final Expression... parameters) {
+        return Expression.call(
+                Expression.namedFunction(name),
+                Lists.of(parameters)
+        );
+    }
+
+    private ExpressionOptimizer createOptimizer() {
+        return ExpressionOptimizer.with(this.context());
+    }
+
+    private ExpressionEvaluationContext context() {
+        return ExpressionEvaluationContexts.basic(
+                KIND,
+                (n) -> {
+                    if (PURE.equals(n)) {
+                        return this.function(true);
+                    }
+                    if (IMPURE.equals(n)) {
+                        return this.function(false);
+                    }
+                    throw new UnknownExpressionFunctionException(n);
+                },
+                (r) -> {
+                    throw r;
+                },
+                (r) -> Optional.of(
+                        Optional.ofNullable(
+                                REFERENCE.equals(r) ?
+                                        KIND.create(99) :
+                                        null
+                        )
+                ),
+                ExpressionEvaluationContexts.referenceNotFound(),
+                CaseSensitivity.SENSITIVE,
+                ConverterContexts.basic(
+                        Converters.collection(
+                                Lists.of(
+                                        Converters.simple(),
+                                        ExpressionNumber.fromConverter(Converters.truthyNumberBoolean())
+                                )
+                        ),
+                        DateTimeContexts.fake(),
+                        DecimalNumberContexts.american(MathContext.DECIMAL32)
+                )
+        );
+    }
+
+    private ExpressionFunction<?, ExpressionEvaluationContext> function(final boolean pure) {
+        return new FakeExpressionFunction<Object, ExpressionEvaluationContext>() {
+            @Override
+            public Object apply(final List<Object> parameters,
+                                final ExpressionEvaluationContext context) {
+                ExpressionNumber sum = KIND.zero();
+                for (final Object parameter : parameters) {
+                    sum = sum.add((ExpressionNumber) parameter, context);
+                }
+                return sum;
+            }
+
+            @Override
+            public List<ExpressionFunctionParameter<?>> parameters(final int count) {
+                return Lists.of(
+                        ExpressionFunctionParameterName.VALUE.required(Object.class)
+                                .setKinds(ExpressionFunctionParameterKind.EVALUATE_RESOLVE_REFERENCES)
+                                .setCardinality(ExpressionFunctionParameterCardinality.VARIABLE)
+                );
+            }
+
+            @Override
+            public boolean isPure(final ExpressionPurityContext context) {
+                return pure;
+            }
+        };
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        final ExpressionEvaluationContext context = this.context();
+        this.toStringAndCheck(
+                ExpressionOptimizer.with(context),
+                context.toString()
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<ExpressionOptimizer> type() {
+        return ExpressionOptimizer.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
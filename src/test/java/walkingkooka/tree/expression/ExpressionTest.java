@@ -18,6 +18,7 @@
 package walkingkooka.tree.expression;
 
 import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
 import walkingkooka.reflect.ClassTesting2;
 import walkingkooka.reflect.JavaVisibility;
 import walkingkooka.text.Indentation;
@@ -27,6 +28,64 @@ import walkingkooka.text.printer.Printers;
 
 public final class ExpressionTest implements ClassTesting2<Expression> {
 
+    // structuralHash...................................................................................................
+
+    @Test
+    public void testStructuralHashEqual() {
+        this.checkEquals(
+                this.expression().structuralHash(),
+                this.expression().structuralHash()
+        );
+    }
+
+    @Test
+    public void testStructuralHashDifferentValue() {
+        this.checkNotEquals(
+                this.expression().structuralHash(),
+                Expression.add(
+                        Expression.value(1),
+                        Expression.value(99)
+                ).structuralHash()
+        );
+    }
+
+    @Test
+    public void testStructuralHashDifferentType() {
+        this.checkNotEquals(
+                this.expression().structuralHash(),
+                Expression.subtract(
+                        Expression.value(1),
+                        Expression.value(2)
+                ).structuralHash()
+        );
+    }
+
+    @Test
+    public void testEqualsDifferentChildType() {
+        this.checkNotEquals(
+                Expression.list(
+                        Lists.of(
+                                this.expression()
+                        )
+                ),
+                Expression.list(
+                        Lists.of(
+                                Expression.subtract(
+                                        Expression.value(1),
+                                        Expression.value(2)
+                                )
+                        )
+                )
+        );
+    }
+
+    private Expression expression() {
+        return Expression.add(
+                Expression.value(1),
+                Expression.value(2)
+        );
+    }
+
     // TreePrinting......................................................................................................
 
     @Test
@@ -76,6 +76,24 @@ public abstract class ExpressionTestCase<N extends Expression> implements TreePr
                 this.type());
     }
 
+    @Test
+    public final void testStructuralHash() {
+        final N expression = this.createExpression();
+        this.checkEquals(expression.hashCode(), expression.structuralHash(), "hashCode");
+    }
+
+    @Test
+    public final void testStructuralHashRemoveParent() {
+        final Expression parent = Expression.list(
+                Lists.of(
+                        this.createExpression()
+                )
+        );
+        final Expression child = parent.children().get(0);
+
+        this.checkEquals(child.removeParent().structuralHash(), child.structuralHash());
+    }
+
     @Override
     public final void testSetSameAttributes() {
         // Ignored
@@ -186,6 +204,36 @@ public abstract class ExpressionTestCase<N extends Expression> implements TreePr
         );
     }
 
+    final void evaluateAndCheckDouble(final Expression node,
+                                      final double expected) {
+        this.evaluateAndCheckDouble(node, this.context(), expected);
+    }
+
+    final void evaluateAndCheckDouble(final Expression node,
+                                      final ExpressionEvaluationContext context,
+                                      final double expected) {
+        this.checkEquals(
+                expected,
+                node.toDouble(context),
+                () -> "toDouble of " + node + " failed"
+        );
+    }
+
+    final void evaluateAndCheckLong(final Expression node,
+                                    final long expected) {
+        this.evaluateAndCheckLong(node, this.context(), expected);
+    }
+
+    final void evaluateAndCheckLong(final Expression node,
+                                    final ExpressionEvaluationContext context,
+                                    final long expected) {
+        this.checkEquals(
+                expected,
+                node.toLong(context),
+                () -> "toLong of " + node + " failed"
+        );
+    }
+
     final void evaluateAndCheckLocalDate(final Expression node, final long expected) {
         this.evaluateAndCheckLocalDate(node, this.localDateValue(expected));
     }
@@ -21,7 +21,9 @@ import org.junit.jupiter.api.Test;
 import walkingkooka.collect.list.Lists;
 import walkingkooka.visit.Visiting;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertSame;
 
@@ -136,6 +138,27 @@ public final class LessThanExpressionTest extends BinaryComparisonExpressionTest
         this.evaluateAndCheckBoolean(this.createExpression(text(12), text(-99)), false);
     }
 
+    @Test
+    public void testEvaluateToBooleanExpressionNumberBigDecimalAndScaledLong() {
+        this.evaluateAndCheckBoolean(
+                this.createExpression(
+                        Expression.value(ExpressionNumberKind.BIG_DECIMAL.create(2)),
+                        Expression.value(ExpressionNumberKind.BIG_DECIMAL.create(new BigDecimal("123456789012345678901234567890")))
+                ),
+                true
+        );
+    }
+
+    @Test
+    public void testCompiledToBoolean() {
+        this.checkEquals(
+                true,
+                this.createExpression(expressionNumber(12), expressionNumber(34))
+                        .compile((n) -> Optional.empty())
+                        .toBoolean(this.context())
+        );
+    }
+
     @Override
     LessThanExpression createExpression(final Expression left, final Expression right) {
         return LessThanExpression.with(left, right);
@@ -86,6 +86,16 @@ public final class NegativeExpressionTest extends UnaryExpressionTestCase<Negati
         this.evaluateAndCheckExpressionNumber(this.createExpression(expressionNumber(value)), -value);
     }
 
+    @Test
+    public void testEvaluateToDouble() {
+        this.evaluateAndCheckDouble(this.createExpression(expressionNumber(12.5)), -12.5);
+    }
+
+    @Test
+    public void testEvaluateToLong() {
+        this.evaluateAndCheckLong(this.createExpression(expressionNumber(123)), -123);
+    }
+
     @Override
     NegativeExpression createExpression(final Expression child) {
         return NegativeExpression.with(child);
@@ -86,6 +86,18 @@ public final class NotExpressionTest extends UnaryExpressionTestCase<NotExpressi
         this.evaluateAndCheckExpressionNumber(this.createExpression(expressionNumber(value)), ~value);
     }
 
+    @Test
+    public void testEvaluateToDouble() {
+        final long value = 123;
+        this.evaluateAndCheckDouble(this.createExpression(expressionNumber(value)), ~value);
+    }
+
+    @Test
+    public void testEvaluateToLong() {
+        final long value = 123;
+        this.evaluateAndCheckLong(this.createExpression(expressionNumber(value)), ~value);
+    }
+
     @Override
     NotExpression createExpression(final Expression child) {
         return NotExpression.with(child);
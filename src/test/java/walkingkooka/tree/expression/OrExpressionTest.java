@@ -22,8 +22,10 @@ import walkingkooka.collect.list.Lists;
 import walkingkooka.visit.Visiting;
 
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public final class OrExpressionTest extends BinaryLogicalExpressionTestCase<OrExpression> {
 
@@ -143,6 +145,61 @@ public final class OrExpressionTest extends BinaryLogicalExpressionTestCase<OrEx
         this.evaluateAndCheckValue(this.createExpression(expressionNumber(6), expressionNumber(3)), expressionNumberValue(6 | 3));
     }
 
+    // shortCircuit......................................................................................................
+
+    @Test
+    public void testEvaluateToValueShortCircuit() {
+        this.evaluateAndCheckValue(
+                this.createExpression(booleanValue(true), rightFails()),
+                ExpressionEvaluationContexts.shortCircuit(this.context()),
+                true
+        );
+    }
+
+    @Test
+    public void testEvaluateToValueShortCircuitRightEvaluated() {
+        this.evaluateAndCheckValue(
+                this.createExpression(booleanValue(false), booleanValue(true)),
+                ExpressionEvaluationContexts.shortCircuit(this.context()),
+                true
+        );
+    }
+
+    @Test
+    public void testEvaluateToValueShortCircuitExpressionNumber() {
+        this.evaluateAndCheckValue(
+                this.createExpression(expressionNumber(6), expressionNumber(3)),
+                ExpressionEvaluationContexts.shortCircuit(this.context()),
+                expressionNumberValue(6 | 3)
+        );
+    }
+
+    @Test
+    public void testEvaluateToValueWithoutShortCircuitRightEvaluated() {
+        assertThrows(
+                UnsupportedOperationException.class,
+                () -> this.createExpression(booleanValue(true), rightFails())
+                        .toValue(this.context())
+        );
+    }
+
+    @Test
+    public void testCompiledToValueShortCircuit() {
+        this.checkEquals(
+                true,
+                this.createExpression(booleanValue(true), rightFails())
+                        .compile((n) -> Optional.empty())
+                        .toValue(ExpressionEvaluationContexts.shortCircuit(this.context()))
+        );
+    }
+
+    /**
+     * A reference which fails if evaluated, because the test context does not support references.
+     */
+    private static Expression rightFails() {
+        return Expression.reference(new FakeExpressionReference());
+    }
+
     @Override
     OrExpression createExpression(final Expression left, final Expression right) {
         return OrExpression.with(left, right);
@@ -0,0 +1,369 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class ParallelExpressionEvaluationContextTest implements ClassTesting2<ParallelExpressionEvaluationContext>,
+        ToStringTesting<ParallelExpressionEvaluationContext> {
+
+    private final static int PARALLELISM = 4;
+
+    private final static int THRESHOLD = 8;
+
+    private final static Executor FAILING_EXECUTOR = (r) -> {
+        throw new UnsupportedOperationException("Executor should not be used");
+    };
+
+    private final static Function<ExpressionEvaluationContext, ExpressionEvaluationContext> FORK = Function.identity();
+
+    // with.............................................................................................................
+
+    @Test
+    public void testWithNullContextFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> ExpressionEvaluationContexts.parallel(
+                        null,
+                        FAILING_EXECUTOR,
+                        PARALLELISM,
+                        THRESHOLD,
+                        FORK
+                )
+        );
+    }
+
+    @Test
+    public void testWithNullExecutorFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> ExpressionEvaluationContexts.parallel(
+                        this.context(),
+                        null,
+                        PARALLELISM,
+                        THRESHOLD,
+                        FORK
+                )
+        );
+    }
+
+    @Test
+    public void testWithInvalidParallelismFails() {
+        final IllegalArgumentException thrown = assertThrows(
+                IllegalArgumentException.class,
+                () -> ExpressionEvaluationContexts.parallel(
+                        this.context(),
+                        FAILING_EXECUTOR,
+                        0,
+                        THRESHOLD,
+                        FORK
+                )
+        );
+        this.checkEquals(
+                "Invalid parallelism 0 < 1",
+                thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testWithInvalidThresholdFails() {
+        final IllegalArgumentException thrown = assertThrows(
+                IllegalArgumentException.class,
+                () -> ExpressionEvaluationContexts.parallel(
+                        this.context(),
+                        FAILING_EXECUTOR,
+                        PARALLELISM,
+                        0,
+                        FORK
+                )
+        );
+        this.checkEquals(
+                "Invalid threshold 0 < 1",
+                thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testWithNullForkFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> ExpressionEvaluationContexts.parallel(
+                        this.context(),
+                        FAILING_EXECUTOR,
+                        PARALLELISM,
+                        THRESHOLD,
+                        null
+                )
+        );
+    }
+
+    // evaluate.........................................................................................................
+
+    @Test
+    public void testEvaluateBelowThresholdSequential() {
+        this.evaluateAndCheck(
+                ExpressionEvaluationContexts.parallel(
+                        this.context(),
+                        FAILING_EXECUTOR,
+                        PARALLELISM,
+                        THRESHOLD,
+                        FORK
+                ),
+                THRESHOLD - 1
+        );
+    }
+
+    @Test
+    public void testEvaluateImpureSequential() {
+        final ParallelExpressionEvaluationContext context = ExpressionEvaluationContexts.parallel(
+                this.context(),
+                FAILING_EXECUTOR,
+                PARALLELISM,
+                THRESHOLD,
+                FORK
+        );
+
+        final List<Expression> values = values(THRESHOLD);
+        values.add(
+                Expression.reference(REFERENCE)
+        );
+
+        final List<Object> expected = expected(THRESHOLD);
+        expected.add("Reference value");
+
+        this.checkEquals(
+                expected,
+                context.evaluate(
+                        Expression.list(values)
+                )
+        );
+    }
+
+    @Test
+    public void testEvaluateParallelismOneSequential() {
+        this.evaluateAndCheck(
+                ExpressionEvaluationContexts.parallel(
+                        this.context(),
+                        FAILING_EXECUTOR,
+                        1,
+                        THRESHOLD,
+                        FORK
+                ),
+                THRESHOLD * 2
+        );
+    }
+
+    @Test
+    public void testEvaluateParallelHelpersForked() {
+        final int[] executes = new int[1];
+        final int[] forks = new int[1];
+        final ExpressionEvaluationContext wrapped = this.context();
+
+        this.evaluateAndCheck(
+                ExpressionEvaluationContexts.parallel(
+                        wrapped,
+                        (r) -> {
+                            executes[0]++;
+                            r.run();
+                        },
+                        PARALLELISM,
+                        THRESHOLD,
+                        (c) -> {
+                            assertSame(wrapped, c, "context");
+                            forks[0]++;
+                            return c;
+                        }
+                ),
+                THRESHOLD * 4
+        );
+
+        this.checkEquals(PARALLELISM - 1, executes[0], "executes");
+        this.checkEquals(1, forks[0], "forks");
+    }
+
+    @Test
+    public void testEvaluateParallelThreads() {
+        final ExecutorService executor = Executors.newFixedThreadPool(PARALLELISM - 1);
+        try {
+            this.evaluateAndCheck(
+                    ExpressionEvaluationContexts.parallel(
+                            this.context(),
+                            executor,
+                            PARALLELISM,
+                            THRESHOLD,
+                            FORK
+                    ),
+                    1000
+            );
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testEvaluateParallelCompiled() {
+        final ExecutorService executor = Executors.newFixedThreadPool(PARALLELISM - 1);
+        try {
+            final int count = 1000;
+
+            this.checkEquals(
+                    expected(count),
+                    Expression.list(
+                            values(count)
+                    ).compile((n) -> Optional.empty())
+                            .toValue(
+                                    ExpressionEvaluationContexts.parallel(
+                                            this.context(),
+                                            executor,
+                                            PARALLELISM,
+                                            THRESHOLD,
+                                            FORK
+                                    )
+                            )
+            );
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testEvaluateParallelForkFails() {
+        final IllegalStateException thrown = assertThrows(
+                IllegalStateException.class,
+                () -> ExpressionEvaluationContexts.parallel(
+                        this.context(),
+                        Runnable::run,
+                        PARALLELISM,
+                        THRESHOLD,
+                        (c) -> {
+                            throw new IllegalStateException("Fork failed");
+                        }
+                ).evaluate(
+                        Expression.list(
+                                values(THRESHOLD)
+                        )
+                )
+        );
+        this.checkEquals(
+                "Fork failed",
+                thrown.getMessage()
+        );
+    }
+
+    private void evaluateAndCheck(final ParallelExpressionEvaluationContext context,
+                                  final int count) {
+        this.checkEquals(
+                expected(count),
+                context.evaluate(
+                        Expression.list(
+                                values(count)
+                        )
+                ),
+                () -> "evaluate " + count + " values"
+        );
+    }
+
+    private static List<Expression> values(final int count) {
+        final List<Expression> values = Lists.array();
+        for (int i = 0; i < count; i++) {
+            values.add(
+                    Expression.value(i)
+            );
+        }
+        return values;
+    }
+
+    private static List<Object> expected(final int count) {
+        final List<Object> expected = Lists.array();
+        for (int i = 0; i < count; i++) {
+            expected.add(i);
+        }
+        return expected;
+    }
+
+    private final static ExpressionReference REFERENCE = new FakeExpressionReference() {
+        @Override
+        public String toString() {
+            return "Reference";
+        }
+    };
+
+    private ExpressionEvaluationContext context() {
+        return new FakeExpressionEvaluationContext() {
+
+            @Override
+            public Optional<Optional<Object>> reference(final ExpressionReference reference) {
+                return Optional.of(
+                        Optional.of(reference + " value")
+                );
+            }
+
+            @Override
+            public Object handleException(final RuntimeException exception) {
+                throw exception;
+            }
+
+            @Override
+            public String toString() {
+                return "TestContext";
+            }
+        };
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+                ExpressionEvaluationContexts.parallel(
+                        this.context(),
+                        FAILING_EXECUTOR,
+                        PARALLELISM,
+                        THRESHOLD,
+                        FORK
+                ),
+                "TestContext parallelism=4 threshold=8"
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<ParallelExpressionEvaluationContext> type() {
+        return ParallelExpressionEvaluationContext.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
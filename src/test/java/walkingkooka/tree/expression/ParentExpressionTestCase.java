@@ -18,6 +18,7 @@
 package walkingkooka.tree.expression;
 
 import org.junit.jupiter.api.Test;
+import walkingkooka.Cast;
 import walkingkooka.naming.Name;
 import walkingkooka.tree.ParentNodeTesting;
 
@@ -51,6 +52,37 @@ public abstract class ParentExpressionTestCase<N extends ParentExpression> exten
         assertSame(expression, expression.setChildren(this.children()));
     }
 
+    @Test
+    public final void testChildrenParentAndIndex() {
+        final N parent = this.createExpression();
+
+        int i = 0;
+        for (final Expression child : parent.children()) {
+            assertSame(parent, child.parentOrFail(), () -> "parent of " + child);
+            this.checkEquals(i, child.index(), () -> "index of " + child);
+            i++;
+        }
+    }
+
+    @Test
+    public final void testChildrenCached() {
+        final N parent = this.createExpression();
+        assertSame(parent.children(), parent.children());
+    }
+
+    @Test
+    public final void testCreateWithChildrenWithParent() {
+        final N parent = this.createExpression();
+        final N parent2 = Cast.to(parent.replace0(parent.index(), parent.children()));
+
+        this.checkEquals(parent, parent2);
+        this.checkEquals(parent.hashCode(), parent2.hashCode(), "hashCode");
+
+        for (final Expression child : parent2.green) {
+            this.checkEquals(true, child.isRoot(), () -> "green child has parent " + child);
+        }
+    }
+
     abstract List<Expression> children();
 
     final void checkChildren(final N node, final List<Expression> children) {
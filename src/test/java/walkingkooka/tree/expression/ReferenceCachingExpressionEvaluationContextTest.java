@@ -0,0 +1,273 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.tree.expression;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterKind;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameterName;
+import walkingkooka.tree.expression.function.FakeExpressionFunction;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class ReferenceCachingExpressionEvaluationContextTest implements ClassTesting2<ReferenceCachingExpressionEvaluationContext>,
+        ToStringTesting<ReferenceCachingExpressionEvaluationContext> {
+
+    private final static ExpressionReference A1 = reference("A1");
+    private final static ExpressionReference B2 = reference("B2");
+    private final static ExpressionReference CYCLE = reference("Cycle");
+    private final static ExpressionReference UNKNOWN = reference("Unknown");
+
+    private static ExpressionReference reference(final String label) {
+        return new FakeExpressionReference() {
+            @Override
+            public String toString() {
+                return label;
+            }
+        };
+    }
+
+    @Test
+    public void testWithNullContextFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> ExpressionEvaluationContexts.referenceCaching(null)
+        );
+    }
+
+    @Test
+    public void testReferenceNullFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> this.createContext(new int[1]).reference(null)
+        );
+    }
+
+    @Test
+    public void testReference() {
+        final int[] lookups = new int[1];
+        final ReferenceCachingExpressionEvaluationContext context = this.createContext(lookups);
+
+        this.referenceAndCheck(context, A1, "A1 value");
+        this.referenceAndCheck(context, A1, "A1 value");
+        this.referenceAndCheck(context, B2, "B2 value");
+        this.referenceAndCheck(context, A1, "A1 value");
+
+        this.checkEquals(2, lookups[0], "lookups");
+        this.hitsAndMissesCheck(context, 2, 2);
+    }
+
+    @Test
+    public void testReferenceUnknownCached() {
+        final int[] lookups = new int[1];
+        final ReferenceCachingExpressionEvaluationContext context = this.createContext(lookups);
+
+        this.checkEquals(Optional.empty(), context.reference(UNKNOWN));
+        this.checkEquals(Optional.empty(), context.reference(UNKNOWN));
+
+        this.checkEquals(1, lookups[0], "lookups");
+        this.hitsAndMissesCheck(context, 1, 1);
+    }
+
+    @Test
+    public void testClear() {
+        final int[] lookups = new int[1];
+        final ReferenceCachingExpressionEvaluationContext context = this.createContext(lookups);
+
+        this.referenceAndCheck(context, A1, "A1 value");
+        context.clear();
+        this.referenceAndCheck(context, A1, "A1 value");
+
+        this.checkEquals(2, lookups[0], "lookups");
+        this.hitsAndMissesCheck(context, 0, 2);
+    }
+
+    @Test
+    public void testCycleDetectedNotCached() {
+        final int[] lookups = new int[1];
+        final ReferenceCachingExpressionEvaluationContext context = ExpressionEvaluationContexts.referenceCaching(
+                ExpressionEvaluationContexts.cycleDetecting(
+                        this.context(lookups)
+                )
+        );
+
+        assertThrows(
+                CycleDetectedExpressionEvaluationConversionException.class,
+                () -> context.reference(CYCLE)
+        );
+        assertThrows(
+                CycleDetectedExpressionEvaluationConversionException.class,
+                () -> context.reference(CYCLE)
+        );
+
+        this.checkEquals(2, lookups[0], "lookups");
+        this.hitsAndMissesCheck(context, 0, 2);
+    }
+
+    @Test
+    public void testEvaluate() {
+        final int[] lookups = new int[1];
+        final ReferenceCachingExpressionEvaluationContext context = this.createContext(lookups);
+
+        this.checkEquals(
+                Lists.of("A1 value", "A1 value", "B2 value", "A1 value"),
+                context.evaluate(
+                        Expression.list(
+                                Lists.of(
+                                        Expression.reference(A1),
+                                        Expression.reference(A1),
+                                        Expression.reference(B2),
+                                        Expression.reference(A1)
+                                )
+                        )
+                )
+        );
+
+        this.checkEquals(2, lookups[0], "lookups");
+        this.hitsAndMissesCheck(context, 2, 2);
+    }
+
+    @Test
+    public void testEvaluateFunction() {
+        final int[] lookups = new int[1];
+        final ReferenceCachingExpressionEvaluationContext context = this.createContext(lookups);
+
+        final ExpressionFunction<?, ExpressionEvaluationContext> function = new FakeExpressionFunction<Object, ExpressionEvaluationContext>() {
+            @Override
+            public Object apply(final List<Object> parameters,
+                                final ExpressionEvaluationContext c) {
+                assertSame(context, c, "context");
+                return parameters.get(0) + " " + parameters.get(1);
+            }
+
+            @Override
+            public List<ExpressionFunctionParameter<?>> parameters(final int count) {
+                return Lists.of(
+                        ExpressionFunctionParameterName.with("first")
+                                .required(Object.class)
+                                .setKinds(ExpressionFunctionParameterKind.EVALUATE_RESOLVE_REFERENCES),
+                        ExpressionFunctionParameterName.with("second")
+                                .required(Object.class)
+                                .setKinds(ExpressionFunctionParameterKind.EVALUATE_RESOLVE_REFERENCES)
+                );
+            }
+        };
+
+        this.checkEquals(
+                "A1 value A1 value",
+                context.evaluateFunction(
+                        function,
+                        Lists.of(
+                                Expression.reference(A1),
+                                Expression.reference(A1)
+                        )
+                )
+        );
+
+        this.checkEquals(1, lookups[0], "lookups");
+        this.hitsAndMissesCheck(context, 1, 1);
+    }
+
+    private void referenceAndCheck(final ReferenceCachingExpressionEvaluationContext context,
+                                   final ExpressionReference reference,
+                                   final Object expected) {
+        this.checkEquals(
+                Optional.of(
+                        Optional.of(expected)
+                ),
+                context.reference(reference),
+                () -> "reference " + reference
+        );
+    }
+
+    private void hitsAndMissesCheck(final ReferenceCachingExpressionEvaluationContext context,
+                                    final int hits,
+                                    final int misses) {
+        this.checkEquals(hits, context.hits(), "hits");
+        this.checkEquals(misses, context.misses(), "misses");
+    }
+
+    private ReferenceCachingExpressionEvaluationContext createContext(final int[] lookups) {
+        return ExpressionEvaluationContexts.referenceCaching(
+                this.context(lookups)
+        );
+    }
+
+    private ExpressionEvaluationContext context(final int[] lookups) {
+        return new FakeExpressionEvaluationContext() {
+            @Override
+            public Optional<Optional<Object>> reference(final ExpressionReference reference) {
+                lookups[0]++;
+
+                final Object value;
+                if (A1 == reference || B2 == reference) {
+                    value = reference + " value";
+                } else if (CYCLE == reference) {
+                    value = CYCLE;
+                } else {
+                    return Optional.empty();
+                }
+                return Optional.of(
+                        Optional.of(value)
+                );
+            }
+
+            @Override
+            public Object handleException(final RuntimeException exception) {
+                throw exception;
+            }
+
+            @Override
+            public String toString() {
+                return "TestContext";
+            }
+        };
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+                this.createContext(new int[1]),
+                "TestContext"
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<ReferenceCachingExpressionEvaluationContext> type() {
+        return ReferenceCachingExpressionEvaluationContext.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
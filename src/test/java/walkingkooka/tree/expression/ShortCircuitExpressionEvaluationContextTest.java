@@ -0,0 +1,180 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.tree.expression;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.expression.function.ExpressionFunction;
+import walkingkooka.tree.expression.function.ExpressionFunctionParameter;
+import walkingkooka.tree.expression.function.FakeExpressionFunction;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class ShortCircuitExpressionEvaluationContextTest implements ClassTesting2<ShortCircuitExpressionEvaluationContext>,
+        ToStringTesting<ShortCircuitExpressionEvaluationContext> {
+
+    @Test
+    public void testWithNullContextFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> ShortCircuitExpressionEvaluationContext.with(null)
+        );
+    }
+
+    @Test
+    public void testWithShortCircuitExpressionEvaluationContext() {
+        final ShortCircuitExpressionEvaluationContext context = this.createContext();
+        assertSame(
+                context,
+                ShortCircuitExpressionEvaluationContext.with(context)
+        );
+    }
+
+    @Test
+    public void testIsShortCircuit() {
+        this.checkEquals(
+                true,
+                this.createContext().isShortCircuit()
+        );
+    }
+
+    @Test
+    public void testIsShortCircuitDefault() {
+        this.checkEquals(
+                false,
+                this.context().isShortCircuit()
+        );
+    }
+
+    @Test
+    public void testCycleDetectingIsShortCircuit() {
+        this.checkEquals(
+                true,
+                ExpressionEvaluationContexts.cycleDetecting(
+                        this.createContext()
+                ).isShortCircuit()
+        );
+    }
+
+    @Test
+    public void testContext() {
+        final ExpressionEvaluationContext scoped = this.createContext()
+                .context((r) -> Optional.empty());
+        this.checkEquals(
+                true,
+                scoped.isShortCircuit(),
+                () -> scoped.toString()
+        );
+    }
+
+    @Test
+    public void testEvaluate() {
+        final ExpressionEvaluationContext context = this.createContext();
+
+        this.checkEquals(
+                false,
+                context.evaluate(
+                        Expression.and(
+                                Expression.value(false),
+                                Expression.reference(new FakeExpressionReference())
+                        )
+                )
+        );
+    }
+
+    @Test
+    public void testEvaluateFunction() {
+        final ShortCircuitExpressionEvaluationContext context = this.createContext();
+
+        final ExpressionFunction<?, ExpressionEvaluationContext> function = new FakeExpressionFunction<Object, ExpressionEvaluationContext>() {
+            @Override
+            public Object apply(final List<Object> parameters,
+                                final ExpressionEvaluationContext c) {
+                assertSame(context, c, "context");
+                return Expression.or(
+                        Expression.value(true),
+                        Expression.reference(new FakeExpressionReference())
+                ).toValue(c);
+            }
+
+            @Override
+            public List<ExpressionFunctionParameter<?>> parameters(final int count) {
+                return Lists.empty();
+            }
+        };
+
+        this.checkEquals(
+                true,
+                context.evaluateFunction(
+                        function,
+                        Lists.empty()
+                )
+        );
+    }
+
+    private ShortCircuitExpressionEvaluationContext createContext() {
+        return ShortCircuitExpressionEvaluationContext.with(
+                this.context()
+        );
+    }
+
+    private ExpressionEvaluationContext context() {
+        return new FakeExpressionEvaluationContext() {
+            @Override
+            public ExpressionEvaluationContext context(final Function<ExpressionReference, Optional<Optional<Object>>> scoped) {
+                return this;
+            }
+
+            @Override
+            public String toString() {
+                return "TestContext";
+            }
+        };
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+                this.createContext(),
+                "TestContext"
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<ShortCircuitExpressionEvaluationContext> type() {
+        return ShortCircuitExpressionEvaluationContext.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
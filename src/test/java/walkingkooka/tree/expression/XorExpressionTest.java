@@ -148,6 +148,15 @@ public final class XorExpressionTest extends BinaryLogicalExpressionTestCase<Xor
         this.evaluateAndCheckValue(this.createExpression(expressionNumber(6), expressionNumber(3)), expressionNumberValue(6 ^ 3));
     }
 
+    @Test
+    public void testEvaluateToValueShortCircuitRightEvaluated() {
+        this.evaluateAndCheckValue(
+                this.createExpression(booleanValue(true), booleanValue(true)),
+                ExpressionEvaluationContexts.shortCircuit(this.context()),
+                false
+        );
+    }
+
     @Override
     XorExpression createExpression(final Expression left, final Expression right) {
         return XorExpression.with(left, right);
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class ExpressionFunctionParameterMetadataTest implements ClassTesting2<ExpressionFunctionParameterMetadata>,
+        ToStringTesting<ExpressionFunctionParameterMetadata> {
+
+    private final static ExpressionFunctionParameter<Integer> REQUIRED = ExpressionFunctionParameterName.with("required")
+            .required(Integer.class)
+            .setKinds(ExpressionFunctionParameterKind.CONVERT_EVALUATE);
+
+    private final static ExpressionFunctionParameter<Boolean> OPTIONAL = ExpressionFunctionParameterName.with("optional")
+            .optional(Boolean.class);
+
+    private final static ExpressionFunctionParameter<String> VARIABLE = ExpressionFunctionParameterName.with("variable")
+            .variable(String.class)
+            .setKinds(ExpressionFunctionParameterKind.CONVERT_EVALUATE_FLATTEN_RESOLVE_REFERENCES);
+
+    @Test
+    public void testWithNullFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> ExpressionFunctionParameterMetadata.with(null)
+        );
+    }
+
+    @Test
+    public void testWithListShared() {
+        final List<ExpressionFunctionParameter<?>> parameters = ExpressionFunctionParameter.list(REQUIRED, OPTIONAL);
+
+        assertSame(
+                ExpressionFunctionParameterMetadata.with(parameters),
+                ExpressionFunctionParameterMetadata.with(parameters)
+        );
+    }
+
+    @Test
+    public void testEmpty() {
+        final ExpressionFunctionParameterMetadata metadata = ExpressionFunctionParameterMetadata.with(Lists.empty());
+
+        this.checkEquals(0, metadata.count(), "count");
+        this.checkEquals(0, metadata.min(), "min");
+        this.checkEquals(0, metadata.max(), "max");
+        this.checkEquals(false, metadata.isVariable(), "variable");
+        this.checkEquals(ExpressionFunctionParameterMetadata.NO_FLATTEN, metadata.flattenIndex(), "flattenIndex");
+        this.checkEquals(true, metadata.isNoKinds(), "noKinds");
+    }
+
+    @Test
+    public void testRequiredOptional() {
+        final ExpressionFunctionParameterMetadata metadata = ExpressionFunctionParameterMetadata.with(
+                Lists.of(REQUIRED, OPTIONAL)
+        );
+
+        this.checkEquals(2, metadata.count(), "count");
+        this.checkEquals(1, metadata.min(), "min");
+        this.checkEquals(2, metadata.max(), "max");
+        this.checkEquals(false, metadata.isVariable(), "variable");
+        this.checkEquals(ExpressionFunctionParameterMetadata.NO_FLATTEN, metadata.flattenIndex(), "flattenIndex");
+        this.checkEquals(true, metadata.isAnyKind(ExpressionFunctionParameterKind.CONVERT), "CONVERT");
+        this.checkEquals(true, metadata.isAnyKind(ExpressionFunctionParameterKind.EVALUATE), "EVALUATE");
+        this.checkEquals(false, metadata.isAnyKind(ExpressionFunctionParameterKind.FLATTEN), "FLATTEN");
+        this.checkEquals(false, metadata.isAnyKind(ExpressionFunctionParameterKind.RESOLVE_REFERENCES), "RESOLVE_REFERENCES");
+        this.checkEquals(false, metadata.isNoKinds(), "noKinds");
+    }
+
+    @Test
+    public void testRequiredVariableFlatten() {
+        final ExpressionFunctionParameterMetadata metadata = ExpressionFunctionParameterMetadata.with(
+                ExpressionFunctionParameter.list(REQUIRED, VARIABLE)
+        );
+
+        this.checkEquals(2, metadata.count(), "count");
+        this.checkEquals(1, metadata.min(), "min");
+        this.checkEquals(Integer.MAX_VALUE, metadata.max(), "max");
+        this.checkEquals(true, metadata.isVariable(), "variable");
+        this.checkEquals(1, metadata.flattenIndex(), "flattenIndex");
+        this.checkEquals(true, metadata.isAnyKind(ExpressionFunctionParameterKind.RESOLVE_REFERENCES), "RESOLVE_REFERENCES");
+    }
+
+    @Test
+    public void testNoKinds() {
+        this.checkEquals(
+                true,
+                ExpressionFunctionParameterMetadata.with(
+                        Lists.of(
+                                OPTIONAL,
+                                REQUIRED.setKinds(Sets.empty())
+                        )
+                ).isNoKinds()
+        );
+    }
+
+    @Test
+    public void testCheckCount() {
+        ExpressionFunctionParameterMetadata.with(
+                Lists.of(REQUIRED, OPTIONAL)
+        ).checkCount(1);
+    }
+
+    @Test
+    public void testCheckCountMissingFails() {
+        final IllegalArgumentException thrown = assertThrows(
+                IllegalArgumentException.class,
+                () -> ExpressionFunctionParameterMetadata.with(
+                        Lists.of(REQUIRED, OPTIONAL)
+                ).checkCount(0)
+        );
+        this.checkEquals(
+                "Missing parameters, got 0 expected 1",
+                thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testCheckCountTooManyFails() {
+        final IllegalArgumentException thrown = assertThrows(
+                IllegalArgumentException.class,
+                () -> ExpressionFunctionParameterMetadata.with(
+                        Lists.of(REQUIRED, OPTIONAL)
+                ).checkCount(3)
+        );
+        this.checkEquals(
+                "Too many parameters got 3 expected 2",
+                thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+                ExpressionFunctionParameterMetadata.with(
+                        Lists.of(REQUIRED, VARIABLE)
+                ),
+                "2 min=1 max=2147483647 flatten=1"
+        );
+    }
+
+    @Override
+    public Class<ExpressionFunctionParameterMetadata> type() {
+        return ExpressionFunctionParameterMetadata.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
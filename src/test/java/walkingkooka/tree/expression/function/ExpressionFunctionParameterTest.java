@@ -652,6 +652,29 @@ public final class ExpressionFunctionParameterTest implements HashCodeEqualsDefi
         };
     }
 
+    // isKind.........................................................................................................
+
+    @Test
+    public void testIsKind() {
+        final ExpressionFunctionParameter<String> parameter = this.createObject()
+                .setKinds(ExpressionFunctionParameterKind.CONVERT_EVALUATE);
+
+        this.checkEquals(true, parameter.isKind(ExpressionFunctionParameterKind.CONVERT), "CONVERT");
+        this.checkEquals(true, parameter.isKind(ExpressionFunctionParameterKind.EVALUATE), "EVALUATE");
+        this.checkEquals(false, parameter.isKind(ExpressionFunctionParameterKind.FLATTEN), "FLATTEN");
+        this.checkEquals(false, parameter.isKind(ExpressionFunctionParameterKind.RESOLVE_REFERENCES), "RESOLVE_REFERENCES");
+    }
+
+    @Test
+    public void testIsKindNoKinds() {
+        final ExpressionFunctionParameter<String> parameter = this.createObject()
+                .setKinds(ExpressionFunctionParameter.NO_KINDS);
+
+        for (final ExpressionFunctionParameterKind kind : ExpressionFunctionParameterKind.values()) {
+            this.checkEquals(false, parameter.isKind(kind), kind::toString);
+        }
+    }
+
     @Test
     public void testList() {
         final ExpressionFunctionParameter<String> string = ExpressionFunctionParameterName.with("string").required(String.class);
@@ -663,6 +686,16 @@ public final class ExpressionFunctionParameterTest implements HashCodeEqualsDefi
         );
     }
 
+    @Test
+    public void testListReadOnly() {
+        final List<ExpressionFunctionParameter<?>> list = ExpressionFunctionParameter.list(ExpressionFunctionParameter.STRING);
+
+        assertThrows(
+                UnsupportedOperationException.class,
+                () -> list.add(ExpressionFunctionParameter.NUMBER)
+        );
+    }
+
     @Test
     public void testDifferentName() {
         this.checkNotEquals(
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package walkingkooka.tree.expression.function;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.Cast;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.text.CaseSensitivity;
+import walkingkooka.tree.expression.ExpressionEvaluationContext;
+import walkingkooka.tree.expression.FunctionExpressionName;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public final class ExpressionFunctionsLookupTest implements ClassTesting<ExpressionFunctionsLookup<?>>,
+        ToStringTesting<ExpressionFunctionsLookup<?>> {
+
+    @Test
+    public void testKeySensitive() {
+        final String name = "Hello-World";
+        assertSame(
+                name,
+                ExpressionFunctionsLookup.key(name, false)
+        );
+    }
+
+    @Test
+    public void testKeyInsensitiveAlreadyFolded() {
+        final String name = "hello-world";
+        assertSame(
+                name,
+                ExpressionFunctionsLookup.key(name, true)
+        );
+    }
+
+    @Test
+    public void testKeyInsensitive() {
+        this.checkEquals(
+                "hello-world",
+                ExpressionFunctionsLookup.key("hello-WORLD", true)
+        );
+    }
+
+    @Test
+    public void testApplyInsensitiveFoundAnyCase() {
+        final ExpressionFunction<Void, ExpressionEvaluationContext> function = functionWithName("Hello");
+        final ExpressionFunctionsLookup<ExpressionEvaluationContext> lookup = ExpressionFunctionsLookup.with(
+                Sets.of(function),
+                CaseSensitivity.INSENSITIVE
+        );
+
+        this.checkEquals(
+                Optional.of(function),
+                lookup.apply(FunctionExpressionName.with("hELLO"))
+        );
+        assertSame(
+                lookup.apply(FunctionExpressionName.with("hello")),
+                lookup.apply(FunctionExpressionName.with("HELLO"))
+        );
+    }
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+                ExpressionFunctionsLookup.with(
+                        Sets.of(
+                                functionWithName("a"),
+                                functionWithName("b")
+                        ),
+                        CaseSensitivity.INSENSITIVE
+                ),
+                "2 INSENSITIVE"
+        );
+    }
+
+    private static ExpressionFunction<Void, ExpressionEvaluationContext> functionWithName(final String name) {
+        return new FakeExpressionFunction<>() {
+            @Override
+            public Optional<FunctionExpressionName> name() {
+                return Optional.of(
+                        FunctionExpressionName.with(name)
+                );
+            }
+
+            @Override
+            public String toString() {
+                return name;
+            }
+        };
+    }
+
+    @Override
+    public Class<ExpressionFunctionsLookup<?>> type() {
+        return Cast.to(ExpressionFunctionsLookup.class);
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -139,6 +139,74 @@ public class LambdaExpressionFunctionTest implements ExpressionFunctionTesting<L
         );
     }
 
+    @Test
+    public void testApplySameContextCreatesChildContextEachInvocation() {
+        final int[] childCount = new int[1];
+        final LambdaExpressionFunction<String, FakeExpressionEvaluationContext> function = this.createBiFunction();
+        final FakeExpressionEvaluationContext context = this.createContext(childCount);
+
+        this.checkEquals(
+                "String30",
+                function.apply(
+                        Lists.of(10, 20),
+                        context
+                )
+        );
+        this.checkEquals(
+                "String300",
+                function.apply(
+                        Lists.of(100, 200),
+                        context
+                )
+        );
+        this.checkEquals(2, childCount[0], "child contexts");
+    }
+
+    @Test
+    public void testApplyDifferentContextCreatesChildContext() {
+        final int[] childCount = new int[1];
+        final LambdaExpressionFunction<String, FakeExpressionEvaluationContext> function = this.createBiFunction();
+
+        function.apply(
+                Lists.of(10, 20),
+                this.createContext(childCount)
+        );
+        function.apply(
+                Lists.of(100, 200),
+                this.createContext(childCount)
+        );
+        this.checkEquals(2, childCount[0], "child contexts");
+    }
+
+    // slot.............................................................................................................
+
+    @Test
+    public void testSlot() {
+        final LambdaExpressionFunction<String, FakeExpressionEvaluationContext> function = this.createBiFunction();
+
+        this.checkEquals(0, function.slot(var("x")), "x");
+        this.checkEquals(1, function.slot(var("y")), "y");
+    }
+
+    @Test
+    public void testSlotNotParameter() {
+        this.checkEquals(
+                LambdaExpressionFunction.NOT_PARAMETER,
+                this.createBiFunction()
+                        .slot(var("z"))
+        );
+    }
+
+    @Test
+    public void testSlotNotParameterThenParameter() {
+        final LambdaExpressionFunction<String, FakeExpressionEvaluationContext> function = this.createBiFunction();
+
+        this.checkEquals(LambdaExpressionFunction.NOT_PARAMETER, function.slot(var("z")), "z");
+        this.checkEquals(1, function.slot(var("y")), "y");
+        this.checkEquals(1, function.slot(var("y")), "y again");
+        this.checkEquals(LambdaExpressionFunction.NOT_PARAMETER, function.slot(var("z")), "z again");
+    }
+
     // toString..........................................................................................................
 
     @Test
@@ -162,10 +230,16 @@ public class LambdaExpressionFunctionTest implements ExpressionFunctionTesting<L
 
     @Override
     public FakeExpressionEvaluationContext createContext() {
+        return this.createContext(new int[1]);
+    }
+
+    private FakeExpressionEvaluationContext createContext(final int[] childCount) {
         return new FakeExpressionEvaluationContext() {
 
             @Override
             public FakeExpressionEvaluationContext context(final Function<ExpressionReference, Optional<Optional<Object>>> scoped) {
+                childCount[0]++;
+
                 return new FakeExpressionEvaluationContext() {
 
                     @Override
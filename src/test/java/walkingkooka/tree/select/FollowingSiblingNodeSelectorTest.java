@@ -219,6 +219,25 @@ final public class FollowingSiblingNodeSelectorTest extends
                 following1, following3);
     }
 
+    @Test
+    public void testFollowingSiblingFindManySiblings() {
+        final TestNode parent = TestNode.with("parent",
+                TestNode.with("sibling0"),
+                TestNode.with("sibling1"),
+                TestNode.with("sibling2"),
+                TestNode.with("sibling3"),
+                TestNode.with("sibling4"),
+                TestNode.with("sibling5"),
+                TestNode.with("sibling6"),
+                TestNode.with("sibling7"),
+                TestNode.with("sibling8"),
+                TestNode.with("sibling9"));
+
+        this.findAndCheck(this.createSelector(),
+                parent.child(6),
+                "sibling7", "sibling8", "sibling9");
+    }
+
     @Test
     public void testFollowingSiblingMap() {
         final TestNode grandParent = TestNode.with("grand",
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.select;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.Cast;
+import walkingkooka.naming.StringName;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.TestNode;
+import walkingkooka.tree.expression.ExpressionEvaluationContexts;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class NodeSelectorIndexContextTest implements ClassTesting2<NodeSelectorIndexContext<TestNode, StringName, StringName, Object>> {
+
+    @Test
+    public void testWithNullExpressionEvaluationContextFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> NodeSelectorIndexContext.with(
+                        null,
+                        TestNode.class
+                )
+        );
+    }
+
+    @Test
+    public void testWithNullNodeTypeFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> NodeSelectorIndexContext.with(
+                        (c) -> ExpressionEvaluationContexts.fake(),
+                        null
+                )
+        );
+    }
+
+    @Override
+    public Class<NodeSelectorIndexContext<TestNode, StringName, StringName, Object>> type() {
+        return Cast.to(NodeSelectorIndexContext.class);
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
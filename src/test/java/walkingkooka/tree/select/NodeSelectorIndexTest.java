@@ -0,0 +1,449 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.select;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import walkingkooka.Cast;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.naming.Names;
+import walkingkooka.naming.StringName;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.FakeNode;
+import walkingkooka.tree.Node;
+import walkingkooka.tree.TestNode;
+import walkingkooka.tree.expression.ExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionEvaluationContexts;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class NodeSelectorIndexTest implements ClassTesting2<NodeSelectorIndex<TestNode, StringName, StringName, Object>>,
+        ToStringTesting<NodeSelectorIndex<TestNode, StringName, StringName, Object>> {
+
+    private final static StringName LEAF = Names.string("leaf");
+
+    private final static StringName ATTRIBUTE = Names.string("a1");
+
+    @BeforeEach
+    public void beforeEachTest() {
+        TestNode.clear();
+        TestNode.disableUniqueNameChecks();
+    }
+
+    @Test
+    public void testWithNullRootFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> NodeSelectorIndex.with(null)
+        );
+    }
+
+    @Test
+    public void testRoot() {
+        final TestNode root = this.tree();
+        this.checkEquals(
+                root,
+                NodeSelectorIndex.with(root).root()
+        );
+    }
+
+    // named............................................................................................................
+
+    @Test
+    public void testNamedNullFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> NodeSelectorIndex.with(this.tree()).named(null)
+        );
+    }
+
+    @Test
+    public void testNamed() {
+        final TestNode root = this.tree();
+
+        this.checkEquals(
+                Lists.of(
+                        root.child(0).child(0),
+                        root.child(0).child(0).child(0),
+                        root.child(1).child(1)
+                ),
+                NodeSelectorIndex.with(root).named(LEAF)
+        );
+    }
+
+    @Test
+    public void testNamedUnknown() {
+        this.checkEquals(
+                Lists.empty(),
+                NodeSelectorIndex.with(this.tree()).named(Names.string("unknown"))
+        );
+    }
+
+    // attributeValueEquals.............................................................................................
+
+    @Test
+    public void testAttributeValueEqualsNullNameFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> NodeSelectorIndex.with(this.tree()).attributeValueEquals(null, "v1")
+        );
+    }
+
+    @Test
+    public void testAttributeValueEqualsNullValueFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> NodeSelectorIndex.with(this.tree()).attributeValueEquals(ATTRIBUTE, null)
+        );
+    }
+
+    @Test
+    public void testAttributeValueEquals() {
+        final TestNode root = this.tree();
+
+        this.checkEquals(
+                Lists.of(
+                        root.child(0),
+                        root.child(1).child(1)
+                ),
+                NodeSelectorIndex.with(root).attributeValueEquals(ATTRIBUTE, "v1")
+        );
+    }
+
+    @Test
+    public void testAttributeValueEqualsDifferentValue() {
+        this.checkEquals(
+                Lists.empty(),
+                NodeSelectorIndex.with(this.tree()).attributeValueEquals(ATTRIBUTE, "different")
+        );
+    }
+
+    // indexedFind......................................................................................................
+
+    @Test
+    public void testIndexedFindDescendantOrSelfNamed() {
+        final TestNode root = this.tree();
+
+        this.indexedFindAndCheck(
+                TestNode.absoluteNodeSelector()
+                        .descendantOrSelf()
+                        .named(LEAF),
+                root,
+                root,
+                3
+        );
+    }
+
+    @Test
+    public void testIndexedFindDescendantNamedSubtree() {
+        final TestNode root = this.tree();
+
+        this.indexedFindAndCheck(
+                TestNode.relativeNodeSelector()
+                        .descendant()
+                        .named(LEAF),
+                root,
+                root.child(0),
+                2
+        );
+    }
+
+    @Test
+    public void testIndexedFindDescendantNamedExcludesSelf() {
+        final TestNode root = this.tree();
+
+        this.indexedFindAndCheck(
+                TestNode.relativeNodeSelector()
+                        .descendant()
+                        .named(LEAF),
+                root,
+                root.child(0).child(0),
+                1
+        );
+    }
+
+    @Test
+    public void testIndexedFindDescendantOrSelfAttributeValueEquals() {
+        final TestNode root = this.tree();
+
+        this.indexedFindAndCheck(
+                TestNode.absoluteNodeSelector()
+                        .descendantOrSelf()
+                        .attributeValueEquals(ATTRIBUTE, "v1"),
+                root,
+                root,
+                2
+        );
+    }
+
+    @Test
+    public void testIndexedFindDescendantOrSelfNamedChildren() {
+        final TestNode root = this.tree();
+
+        this.indexedFindAndCheck(
+                TestNode.absoluteNodeSelector()
+                        .descendantOrSelf()
+                        .named(LEAF)
+                        .children(),
+                root,
+                root,
+                1
+        );
+    }
+
+    @Test
+    public void testIndexedFindNotIndexed() {
+        final TestNode root = this.tree();
+
+        this.indexedFindAndCheck(
+                TestNode.absoluteNodeSelector()
+                        .descendantOrSelf()
+                        .children(),
+                root,
+                root,
+                6
+        );
+    }
+
+    @Test
+    public void testIndexedFindDifferentTree() {
+        final TestNode root = this.tree();
+
+        this.indexedFindAndCheck(
+                TestNode.absoluteNodeSelector()
+                        .descendantOrSelf()
+                        .named(LEAF),
+                TestNode.with("different",
+                        TestNode.with("leaf")),
+                root,
+                3
+        );
+    }
+
+    @Test
+    public void testIndexedFindChildrenWrappers() {
+        final WrapperNode root = new WrapperNode(this.tree(), null);
+
+        this.indexedFindWrappersAndCheck(
+                NodeSelector.<WrapperNode, StringName, StringName, Object>absolute()
+                        .children()
+                        .descendant()
+                        .named(LEAF),
+                root,
+                root,
+                3
+        );
+    }
+
+    @Test
+    public void testIndexedFindChildrenWrappersStartNotIndexed() {
+        final WrapperNode root = new WrapperNode(this.tree(), null);
+
+        this.indexedFindWrappersAndCheck(
+                NodeSelector.<WrapperNode, StringName, StringName, Object>relative()
+                        .descendant()
+                        .named(LEAF),
+                root,
+                root.children().get(0),
+                2
+        );
+    }
+
+    private void indexedFindWrappersAndCheck(final NodeSelector<WrapperNode, StringName, StringName, Object> selector,
+                                             final WrapperNode indexed,
+                                             final WrapperNode start,
+                                             final int count) {
+        final Function<NodeSelectorContext<WrapperNode, StringName, StringName, Object>, ExpressionEvaluationContext> expressionEvaluationContext = (c) -> ExpressionEvaluationContexts.fake();
+
+        final List<WrapperNode> expected = selector.stream(
+                start,
+                expressionEvaluationContext,
+                WrapperNode.class
+        ).collect(Collectors.toList());
+        this.checkEquals(
+                count,
+                expected.size(),
+                () -> "stream " + expected
+        );
+
+        this.checkEquals(
+                expected,
+                selector.indexedFind(
+                        start,
+                        NodeSelectorIndex.with(indexed),
+                        expressionEvaluationContext,
+                        WrapperNode.class
+                ),
+                () -> selector + " indexedFind " + start
+        );
+    }
+
+    /**
+     * A {@link Node} that wraps a {@link TestNode} and returns new wrappers each time its children are requested.
+     */
+    static final class WrapperNode extends FakeNode<WrapperNode, StringName, StringName, Object> {
+
+        WrapperNode(final TestNode node,
+                    final WrapperNode parent) {
+            super();
+            this.node = node;
+            this.parent = parent;
+        }
+
+        @Override
+        public StringName name() {
+            return this.node.name();
+        }
+
+        @Override
+        public int index() {
+            return this.node.index();
+        }
+
+        @Override
+        public Optional<WrapperNode> parent() {
+            return Optional.ofNullable(this.parent);
+        }
+
+        @Override
+        public boolean isRoot() {
+            return null == this.parent;
+        }
+
+        @Override
+        public List<WrapperNode> children() {
+            return this.node.children()
+                    .stream()
+                    .map(c -> new WrapperNode(c, this))
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public Map<StringName, Object> attributes() {
+            return this.node.attributes();
+        }
+
+        private final TestNode node;
+
+        private final WrapperNode parent;
+
+        @Override
+        public int hashCode() {
+            return this.node.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return this == other ||
+                    other instanceof WrapperNode &&
+                            this.node == ((WrapperNode) other).node;
+        }
+
+        @Override
+        public String toString() {
+            return this.node.toString();
+        }
+    }
+
+    private void indexedFindAndCheck(final NodeSelector<TestNode, StringName, StringName, Object> selector,
+                                     final TestNode indexed,
+                                     final TestNode start,
+                                     final int count) {
+        final List<TestNode> expected = selector.stream(
+                start,
+                this.expressionEvaluationContext(),
+                TestNode.class
+        ).collect(Collectors.toList());
+        this.checkEquals(
+                count,
+                expected.size(),
+                () -> "stream " + expected
+        );
+
+        this.checkEquals(
+                expected,
+                selector.indexedFind(
+                        start,
+                        NodeSelectorIndex.with(indexed),
+                        this.expressionEvaluationContext(),
+                        TestNode.class
+                ),
+                () -> selector + " indexedFind " + start
+        );
+    }
+
+    private Function<NodeSelectorContext<TestNode, StringName, StringName, Object>, ExpressionEvaluationContext> expressionEvaluationContext() {
+        return (c) -> ExpressionEvaluationContexts.fake();
+    }
+
+    /**
+     * <pre>
+     * root
+     *   branch1 a1=v1
+     *     leaf
+     *       leaf
+     *   branch2
+     *     other
+     *     leaf a1=v1
+     * </pre>
+     */
+    private TestNode tree() {
+        return TestNode.with("root",
+                TestNode.with("branch1",
+                        TestNode.with("leaf",
+                                TestNode.with("leaf"))
+                ).setAttributes(Maps.of(ATTRIBUTE, "v1")),
+                TestNode.with("branch2",
+                        TestNode.with("other"),
+                        TestNode.with("leaf")
+                                .setAttributes(Maps.of(ATTRIBUTE, "v1"))
+                )
+        );
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+                NodeSelectorIndex.with(this.tree()),
+                "root 7 nodes"
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<NodeSelectorIndex<TestNode, StringName, StringName, Object>> type() {
+        return Cast.to(NodeSelectorIndex.class);
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
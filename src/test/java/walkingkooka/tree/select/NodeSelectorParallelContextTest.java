@@ -0,0 +1,302 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.select;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import walkingkooka.Cast;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.naming.Names;
+import walkingkooka.naming.StringName;
+import walkingkooka.reflect.ClassTesting2;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.TestNode;
+import walkingkooka.tree.expression.ExpressionEvaluationContext;
+import walkingkooka.tree.expression.ExpressionEvaluationContexts;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class NodeSelectorParallelContextTest implements ClassTesting2<NodeSelectorParallelContext<TestNode, StringName, StringName, Object>> {
+
+    private final static int PARALLELISM = 4;
+
+    private final static int THRESHOLD = 8;
+
+    private final static Executor FAILING_EXECUTOR = (r) -> {
+        throw new UnsupportedOperationException("Executor should not be used");
+    };
+
+    @BeforeEach
+    public void beforeEachTest() {
+        TestNode.clear();
+        TestNode.disableUniqueNameChecks();
+    }
+
+    // with.............................................................................................................
+
+    @Test
+    public void testWithNullExpressionEvaluationContextFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> NodeSelectorParallelContext.with(
+                        null,
+                        TestNode.class,
+                        FAILING_EXECUTOR,
+                        PARALLELISM,
+                        THRESHOLD
+                )
+        );
+    }
+
+    @Test
+    public void testWithNullNodeTypeFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> NodeSelectorParallelContext.with(
+                        this.expressionEvaluationContext(),
+                        null,
+                        FAILING_EXECUTOR,
+                        PARALLELISM,
+                        THRESHOLD
+                )
+        );
+    }
+
+    @Test
+    public void testWithNullExecutorFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> NodeSelectorParallelContext.with(
+                        this.expressionEvaluationContext(),
+                        TestNode.class,
+                        null,
+                        PARALLELISM,
+                        THRESHOLD
+                )
+        );
+    }
+
+    @Test
+    public void testWithInvalidParallelismFails() {
+        final IllegalArgumentException thrown = assertThrows(
+                IllegalArgumentException.class,
+                () -> NodeSelectorParallelContext.with(
+                        this.expressionEvaluationContext(),
+                        TestNode.class,
+                        FAILING_EXECUTOR,
+                        0,
+                        THRESHOLD
+                )
+        );
+        this.checkEquals(
+                "Invalid parallelism 0 < 1",
+                thrown.getMessage()
+        );
+    }
+
+    @Test
+    public void testWithInvalidThresholdFails() {
+        final IllegalArgumentException thrown = assertThrows(
+                IllegalArgumentException.class,
+                () -> NodeSelectorParallelContext.with(
+                        this.expressionEvaluationContext(),
+                        TestNode.class,
+                        FAILING_EXECUTOR,
+                        PARALLELISM,
+                        0
+                )
+        );
+        this.checkEquals(
+                "Invalid threshold 0 < 1",
+                thrown.getMessage()
+        );
+    }
+
+    // parallelFind.....................................................................................................
+
+    @Test
+    public void testParallelFindBelowThresholdSequential() {
+        this.parallelFindAndCheck(
+                TestNode.absoluteNodeSelector()
+                        .descendantOrSelf()
+                        .named(Names.string("leaf")),
+                this.tree(THRESHOLD - 1),
+                FAILING_EXECUTOR
+        );
+    }
+
+    @Test
+    public void testParallelFindHelpers() {
+        final int[] executes = new int[1];
+
+        this.parallelFindAndCheck(
+                TestNode.absoluteNodeSelector()
+                        .descendantOrSelf()
+                        .named(Names.string("leaf")),
+                this.tree(THRESHOLD),
+                (r) -> {
+                    executes[0]++;
+                    r.run();
+                }
+        );
+
+        this.checkEquals(PARALLELISM - 1, executes[0], "executes");
+    }
+
+    @Test
+    public void testParallelFindDescendantThreads() {
+        final ExecutorService executor = Executors.newFixedThreadPool(PARALLELISM - 1);
+        try {
+            this.parallelFindAndCheck(
+                    TestNode.absoluteNodeSelector()
+                            .descendant()
+                            .named(Names.string("leaf")),
+                    this.tree(100),
+                    executor
+            );
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testParallelFindFollowingThreads() {
+        final ExecutorService executor = Executors.newFixedThreadPool(PARALLELISM - 1);
+        try {
+            final TestNode root = TestNode.with("root",
+                    TestNode.with("first"),
+                    this.tree(100));
+
+            this.parallelFindAndCheck(
+                    TestNode.relativeNodeSelector()
+                            .following(),
+                    root.child(0),
+                    executor
+            );
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testParallelFindPredicateFails() {
+        final IllegalStateException thrown = assertThrows(
+                IllegalStateException.class,
+                () -> TestNode.absoluteNodeSelector()
+                        .descendantOrSelf()
+                        .predicate((n) -> {
+                            if (n.name().value().equals("leaf")) {
+                                throw new IllegalStateException("Predicate failed");
+                            }
+                            return true;
+                        })
+                        .parallelFind(
+                                this.tree(THRESHOLD),
+                                this.expressionEvaluationContext(),
+                                TestNode.class,
+                                Runnable::run,
+                                PARALLELISM,
+                                THRESHOLD
+                        )
+        );
+        this.checkEquals(
+                "Predicate failed",
+                thrown.getMessage()
+        );
+    }
+
+    private void parallelFindAndCheck(final NodeSelector<TestNode, StringName, StringName, Object> selector,
+                                      final TestNode start,
+                                      final Executor executor) {
+        final List<TestNode> expected = selector.stream(
+                start,
+                this.expressionEvaluationContext(),
+                TestNode.class
+        ).collect(Collectors.toList());
+
+        this.checkEquals(
+                expected,
+                selector.parallelFind(
+                        start,
+                        this.expressionEvaluationContext(),
+                        TestNode.class,
+                        executor,
+                        PARALLELISM,
+                        THRESHOLD
+                ),
+                () -> selector + " parallelFind " + start
+        );
+    }
+
+    /**
+     * Creates a root with the given number of branches each with two leaves.
+     */
+    private TestNode tree(final int branches) {
+        final List<TestNode> children = Lists.array();
+        for (int i = 0; i < branches; i++) {
+            children.add(
+                    TestNode.with("branch" + i,
+                            TestNode.with("leaf"),
+                            TestNode.with("leaf"))
+            );
+        }
+        return TestNode.with("root")
+                .setChildren(children);
+    }
+
+    private Function<NodeSelectorContext<TestNode, StringName, StringName, Object>, ExpressionEvaluationContext> expressionEvaluationContext() {
+        return (c) -> ExpressionEvaluationContexts.fake();
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        final String toString = NodeSelectorParallelContext.with(
+                this.expressionEvaluationContext(),
+                TestNode.class,
+                FAILING_EXECUTOR,
+                PARALLELISM,
+                THRESHOLD
+        ).toString();
+        this.checkEquals(
+                true,
+                toString.endsWith(" parallelism=4 threshold=8"),
+                () -> toString
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<NodeSelectorParallelContext<TestNode, StringName, StringName, Object>> type() {
+        return Cast.to(NodeSelectorParallelContext.class);
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.tree.select;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import walkingkooka.Cast;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.naming.Names;
+import walkingkooka.naming.StringName;
+import walkingkooka.predicate.Predicates;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.tree.TestNode;
+import walkingkooka.tree.expression.Expression;
+import walkingkooka.tree.expression.ExpressionEvaluationContexts;
+import walkingkooka.tree.expression.ExpressionNumberKind;
+import walkingkooka.tree.select.parser.NodeSelectorAttributeName;
+import walkingkooka.tree.select.parser.NodeSelectorVisitorTesting;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public final class NodeSelectorPlannerNodeSelectorVisitorTest implements NodeSelectorVisitorTesting<NodeSelectorPlannerNodeSelectorVisitor<TestNode, StringName, StringName, Object>, TestNode, StringName, StringName, Object> {
+
+    private final static StringName NAME = Names.string("leaf");
+
+    private final static Predicate<TestNode> PREDICATE = Predicates.fake();
+
+    @BeforeEach
+    public void beforeEachTest() {
+        TestNode.clear();
+    }
+
+    // plan.............................................................................................................
+
+    @Test
+    public void testPlanNothingToRewrite() {
+        final NodeSelector<TestNode, StringName, StringName, Object> selector = TestNode.absoluteNodeSelector()
+                .descendantOrSelf()
+                .named(NAME)
+                .children();
+        assertSame(
+                selector,
+                NodeSelectorPlannerNodeSelectorVisitor.plan(selector)
+        );
+    }
+
+    @Test
+    public void testPlanDescendantOrSelfDescendantNotRewritten() {
+        final NodeSelector<TestNode, StringName, StringName, Object> selector = TestNode.absoluteNodeSelector()
+                .descendantOrSelf()
+                .descendant()
+                .named(NAME);
+        assertSame(
+                selector,
+                NodeSelectorPlannerNodeSelectorVisitor.plan(selector)
+        );
+    }
+
+    @Test
+    public void testPlanDescendantDescendantOrSelfNotRewritten() {
+        final NodeSelector<TestNode, StringName, StringName, Object> selector = TestNode.relativeNodeSelector()
+                .descendant()
+                .descendantOrSelf()
+                .named(NAME);
+        assertSame(
+                selector,
+                NodeSelectorPlannerNodeSelectorVisitor.plan(selector)
+        );
+    }
+
+    @Test
+    public void testPlanPredicateNamed() {
+        this.planAndCheck(
+                TestNode.relativeNodeSelector()
+                        .children()
+                        .predicate(PREDICATE)
+                        .named(NAME),
+                TestNode.relativeNodeSelector()
+                        .children()
+                        .named(NAME)
+                        .predicate(PREDICATE)
+        );
+    }
+
+    @Test
+    public void testPlanExpressionNamed() {
+        this.planAndCheck(
+                TestNode.relativeNodeSelector()
+                        .children()
+                        .expression(this.attributeEquals())
+                        .named(NAME),
+                TestNode.relativeNodeSelector()
+                        .children()
+                        .named(NAME)
+                        .expression(this.attributeEquals())
+        );
+    }
+
+    @Test
+    public void testPlanPositionalExpressionNamedNotRewritten() {
+        final NodeSelector<TestNode, StringName, StringName, Object> selector = TestNode.relativeNodeSelector()
+                .children()
+                .expression(this.number(2))
+                .named(NAME);
+        assertSame(
+                selector,
+                NodeSelectorPlannerNodeSelectorVisitor.plan(selector)
+        );
+    }
+
+    @Test
+    public void testPlanChildrenFirst() {
+        this.planAndCheck(
+                TestNode.relativeNodeSelector()
+                        .children()
+                        .expression(this.number(1))
+                        .named(NAME),
+                TestNode.relativeNodeSelector()
+                        .firstChild()
+                        .named(NAME)
+        );
+    }
+
+    @Test
+    public void testPlanChildrenSecondNotRewritten() {
+        final NodeSelector<TestNode, StringName, StringName, Object> selector = TestNode.relativeNodeSelector()
+                .children()
+                .expression(this.number(2));
+        assertSame(
+                selector,
+                NodeSelectorPlannerNodeSelectorVisitor.plan(selector)
+        );
+    }
+
+    @Test
+    public void testPlanChildrenFractionNotRewritten() {
+        final NodeSelector<TestNode, StringName, StringName, Object> selector = TestNode.relativeNodeSelector()
+                .children()
+                .expression(this.number(1.5));
+        assertSame(
+                selector,
+                NodeSelectorPlannerNodeSelectorVisitor.plan(selector)
+        );
+    }
+
+    @Test
+    public void testPlanChildrenTruncatesToFirstNotRewritten() {
+        final NodeSelector<TestNode, StringName, StringName, Object> selector = TestNode.relativeNodeSelector()
+                .children()
+                .expression(
+                        Expression.value(
+                                ExpressionNumberKind.BIG_DECIMAL.create(
+                                        new BigDecimal("1.000000000000000000001")
+                                )
+                        )
+                );
+        assertSame(
+                selector,
+                NodeSelectorPlannerNodeSelectorVisitor.plan(selector)
+        );
+    }
+
+    @Test
+    public void testPlanChildrenLongTruncatesToFirstNotRewritten() {
+        final NodeSelector<TestNode, StringName, StringName, Object> selector = TestNode.relativeNodeSelector()
+                .children()
+                .expression(
+                        Expression.value(
+                                ExpressionNumberKind.BIG_DECIMAL.create(1L + (1L << 32))
+                        )
+                );
+        assertSame(
+                selector,
+                NodeSelectorPlannerNodeSelectorVisitor.plan(selector)
+        );
+    }
+
+    @Test
+    public void testPlanCached() {
+        final NodeSelector<TestNode, StringName, StringName, Object> selector = TestNode.absoluteNodeSelector()
+                .descendantOrSelf()
+                .descendant();
+        assertSame(
+                selector.plan(),
+                selector.plan()
+        );
+    }
+
+    @Test
+    public void testPlanStreamDocumentOrder() {
+        final TestNode root = TestNode.with("root",
+                TestNode.with("a",
+                        TestNode.with("a1")),
+                TestNode.with("b"));
+
+        final NodeSelector<TestNode, StringName, StringName, Object> selector = TestNode.absoluteNodeSelector()
+                .descendantOrSelf()
+                .descendant()
+                .predicate(Predicates.always());
+
+        this.checkEquals(
+                Lists.of("a", "a1", "b"),
+                selector.stream(
+                        root,
+                        (c) -> ExpressionEvaluationContexts.fake(),
+                        TestNode.class
+                ).map(n -> n.name().value())
+                        .distinct()
+                        .collect(Collectors.toList()),
+                selector::explain
+        );
+
+        this.checkEquals(
+                Optional.of(root.child(0)),
+                selector.stream(
+                        root,
+                        (c) -> ExpressionEvaluationContexts.fake(),
+                        TestNode.class
+                ).findFirst(),
+                selector::explain
+        );
+    }
+
+    private void planAndCheck(final NodeSelector<TestNode, StringName, StringName, Object> selector,
+                              final NodeSelector<TestNode, StringName, StringName, Object> expected) {
+        this.checkEquals(
+                expected,
+                NodeSelectorPlannerNodeSelectorVisitor.plan(selector),
+                () -> "plan " + selector
+        );
+    }
+
+    // explain..........................................................................................................
+
+    @Test
+    public void testExplainNothingToRewrite() {
+        final NodeSelector<TestNode, StringName, StringName, Object> selector = TestNode.absoluteNodeSelector()
+                .descendantOrSelf()
+                .named(NAME);
+
+        this.checkEquals(
+                "selector: " + selector + "\n" +
+                        "plan: " + selector,
+                selector.explain()
+        );
+    }
+
+    @Test
+    public void testExplain() {
+        final NodeSelector<TestNode, StringName, StringName, Object> selector = TestNode.absoluteNodeSelector()
+                .descendantOrSelf()
+                .descendant()
+                .predicate(PREDICATE)
+                .named(NAME);
+
+        this.checkEquals(
+                "selector: " + selector + "\n" +
+                        "rewrite: " + TestNode.relativeNodeSelector().predicate(PREDICATE).named(NAME) + " => " + TestNode.relativeNodeSelector().named(NAME).predicate(PREDICATE) + "\n" +
+                        "plan: " + TestNode.absoluteNodeSelector().descendantOrSelf().descendant().named(NAME).predicate(PREDICATE),
+                selector.explain()
+        );
+    }
+
+    private Expression number(final int value) {
+        return Expression.value(
+                ExpressionNumberKind.DEFAULT.create(value)
+        );
+    }
+
+    private Expression number(final double value) {
+        return Expression.value(
+                ExpressionNumberKind.DEFAULT.create(value)
+        );
+    }
+
+    private Expression attributeEquals() {
+        return Expression.equalsExpression(
+                Expression.reference(NodeSelectorAttributeName.with("id")),
+                Expression.value("abc")
+        );
+    }
+
+    // NodeSelectorVisitorTesting.......................................................................................
+
+    @Override
+    public NodeSelectorPlannerNodeSelectorVisitor<TestNode, StringName, StringName, Object> createVisitor() {
+        return new NodeSelectorPlannerNodeSelectorVisitor<>();
+    }
+
+    @Override
+    public String typeNamePrefix() {
+        return "NodeSelectorPlanner";
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+
+    @Override
+    public Class<NodeSelectorPlannerNodeSelectorVisitor<TestNode, StringName, StringName, Object>> type() {
+        return Cast.to(NodeSelectorPlannerNodeSelectorVisitor.class);
+    }
+}
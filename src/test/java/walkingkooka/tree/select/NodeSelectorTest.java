@@ -31,6 +31,7 @@ import walkingkooka.tree.expression.ExpressionEvaluationContext;
 import walkingkooka.tree.expression.ExpressionEvaluationContexts;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -107,6 +108,59 @@ public final class NodeSelectorTest implements ClassTesting2<NodeSelector<TestNo
                 root.child(1).child(1));
     }
 
+    @Test
+    public void testDescendantOrSelfFindFirstStopsWalking() {
+        TestNode.disableUniqueNameChecks();
+
+        final TestNode root = TestNode.with("root",
+                TestNode.with("branch1", TestNode.with("leaf1")),
+                TestNode.with("branch2",
+                        TestNode.with("leaf2"),
+                        TestNode.with("leaf3")));
+
+        final List<String> tested = Lists.array();
+
+        this.checkEquals(Optional.of(root.child(0)),
+                this.stream(TestNode.absoluteNodeSelector()
+                                .descendantOrSelf()
+                                .predicate((n) -> {
+                                    tested.add(n.name().value());
+                                    return n.name().value().startsWith("branch");
+                                }),
+                        root)
+                        .findFirst());
+        this.checkEquals(false,
+                tested.contains("branch2"),
+                () -> "walk continued after findFirst " + tested);
+    }
+
+    @Test
+    public void testDescendantOrSelfLimitStopsWalking() {
+        TestNode.disableUniqueNameChecks();
+
+        final TestNode root = TestNode.with("root",
+                TestNode.with("branch1", TestNode.with("leaf1")),
+                TestNode.with("branch2",
+                        TestNode.with("leaf2"),
+                        TestNode.with("leaf3")));
+
+        final List<String> tested = Lists.array();
+
+        this.collectAndCheck(() -> this.stream(TestNode.absoluteNodeSelector()
+                                .descendantOrSelf()
+                                .predicate((n) -> {
+                                    tested.add(n.name().value());
+                                    return true;
+                                }),
+                        root)
+                        .limit(2),
+                root,
+                root.child(0));
+        this.checkEquals(false,
+                tested.contains("leaf3"),
+                () -> "walk continued after limit " + tested);
+    }
+
     // StreamTesting.....................................................................................................
 
     @Override
@@ -140,6 +140,29 @@ abstract public class NodeSelectorTestCase4<S extends NodeSelector<TestNode, Str
         this.checkEquals(Lists.of(nodes), nodeNames(selected), () -> "Selector.apply\n" + start);
         this.checkNotEquals(Sets.empty(), potential, "potentials must not be empty");
         assertTrue(potential.contains(start), () -> "potentials must include initial node=" + potential);
+
+        this.findAndCheck(
+                selector,
+                start,
+                nodes
+        );
+    }
+
+    /**
+     * Verifies the query only {@link NodeSelector#find(Node, NodeSelectorContext)} selects the same nodes as apply.
+     */
+    final void findAndCheck(final NodeSelector<TestNode, StringName, StringName, Object> selector,
+                            final TestNode start,
+                            final String... nodes) {
+        final Set<TestNode> selected = Sets.ordered();
+        selector.find(
+                start,
+                this.context(
+                        Predicates.always(),
+                        selected::add
+                )
+        );
+        this.checkEquals(Lists.of(nodes), nodeNames(selected), () -> "Selector.find\n" + start);
     }
 
     // applyFinisherAndCheck............................................................................................
@@ -183,6 +206,15 @@ abstract public class NodeSelectorTestCase4<S extends NodeSelector<TestNode, Str
         this.checkEquals(Lists.of(nodes),
                 nodeNames(selected),
                 () -> "Selector.apply\n" + start);
+
+        final Set<TestNode> found = Sets.ordered();
+        selector.find(start,
+                this.context(this.finisher(selectCount, found),
+                        Predicates.always(),
+                        found::add));
+        this.checkEquals(Lists.of(nodes),
+                nodeNames(found),
+                () -> "Selector.find\n" + start);
     }
 
     private BooleanSupplier finisher(final int selectCount, final Set<TestNode> selected) {
@@ -207,6 +207,25 @@ final public class PrecedingSiblingNodeSelectorTest extends
                 preceding1, preceding3);
     }
 
+    @Test
+    public void testPrecedingSiblingFindManySiblings() {
+        final TestNode parent = TestNode.with("parent",
+                TestNode.with("sibling0"),
+                TestNode.with("sibling1"),
+                TestNode.with("sibling2"),
+                TestNode.with("sibling3"),
+                TestNode.with("sibling4"),
+                TestNode.with("sibling5"),
+                TestNode.with("sibling6"),
+                TestNode.with("sibling7"),
+                TestNode.with("sibling8"),
+                TestNode.with("sibling9"));
+
+        this.findAndCheck(this.createSelector(),
+                parent.child(3),
+                "sibling2", "sibling1", "sibling0");
+    }
+
     @Test
     public void testPrecedingSiblingMap() {
         final TestNode grandParent = TestNode.with("grand",